@@ -0,0 +1,59 @@
+package com.masbytes.miblog.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import com.masbytes.miblog.entity.Post;
+
+/**
+ * Posts sintéticos y reproducibles (semilla fija) para los microbenchmarks: títulos y resúmenes
+ * con palabras de un vocabulario en español, tres etiquetas y un post por hora hacia atrás.
+ */
+public final class SyntheticPosts {
+
+	private static final String[] VOCABULARY = ("relatividad cuántica galaxia evolución algoritmo literatura "
+			+ "historia filosofía energía nuclear agujero negro estrella planeta célula genética economía mercado "
+			+ "lenguaje poesía novela teatro música arte pintura ciencia física química biología matemáticas "
+			+ "teorema demostración experimento observación universo tiempo espacio materia luz onda partícula")
+			.split(" ");
+
+	private SyntheticPosts() {
+	}
+
+	/**
+	 * Genera posts con IDs {@code "0"} a {@code count - 1}, del más reciente al más antiguo.
+	 */
+	public static List<Post> generate(int count) {
+		Random random = new Random(42);
+		LocalDateTime now = LocalDateTime.now();
+		List<Post> posts = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			Post post = new Post();
+			post.setId(String.valueOf(i));
+			post.setTitle(words(random, 6) + " " + i);
+			post.setSummary(words(random, 40));
+			post.setPdfUrl("https://example.com/posts/" + i + ".pdf");
+			post.setTags(Arrays.asList(words(random, 3).split(" ")));
+			post.setCreatedAt(now.minusHours(i));
+			post.setModifiedAt(post.getCreatedAt());
+			post.setVersion(0L);
+			posts.add(post);
+		}
+		return posts;
+	}
+
+	private static String words(Random random, int count) {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			if (i > 0) {
+				text.append(' ');
+			}
+			text.append(VOCABULARY[random.nextInt(VOCABULARY.length)]);
+		}
+		return text.toString();
+	}
+
+}
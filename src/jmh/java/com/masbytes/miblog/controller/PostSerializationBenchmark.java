@@ -0,0 +1,70 @@
+package com.masbytes.miblog.controller;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.masbytes.miblog.benchmark.SyntheticPosts;
+import com.masbytes.miblog.entity.Post;
+
+/**
+ * Serialización con Jackson de listas de posts de distintos tamaños, con la configuración por
+ * defecto de Spring: como array JSON (listados paginados) y como NDJSON post a post (respuestas
+ * en streaming de {@link PostController}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PostSerializationBenchmark {
+
+	@Param({ "1", "20", "100", "1000" })
+	private int size;
+
+	private List<Post> posts;
+
+	private ObjectMapper objectMapper;
+
+	private ObjectWriter postWriter;
+
+	@Setup
+	public void setUp() {
+		posts = SyntheticPosts.generate(size);
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		postWriter = objectMapper.writerFor(Post.class);
+	}
+
+	@Benchmark
+	public byte[] jsonArray() throws IOException {
+		return objectMapper.writeValueAsBytes(posts);
+	}
+
+	@Benchmark
+	public int ndjson() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		for (Post post : posts) {
+			out.write(postWriter.writeValueAsBytes(post));
+			out.write('\n');
+		}
+		return out.size();
+	}
+
+}
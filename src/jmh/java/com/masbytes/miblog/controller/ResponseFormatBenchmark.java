@@ -0,0 +1,76 @@
+package com.masbytes.miblog.controller;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.masbytes.miblog.benchmark.SyntheticPosts;
+import com.masbytes.miblog.dto.ResponseFormat;
+import com.masbytes.miblog.entity.Post;
+
+/**
+ * Codificación y decodificación de páginas de posts en cada formato de los listados de
+ * {@link PostController} (JSON, CBOR y Smile), con la configuración por defecto de Spring. El tamaño
+ * del cuerpo de cada combinación se escribe en la salida al preparar el benchmark.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseFormatBenchmark {
+
+	@Param({ "JSON", "CBOR", "SMILE" })
+	private ResponseFormat format;
+
+	@Param({ "20", "100", "1000" })
+	private int size;
+
+	private List<Post> posts;
+
+	private ObjectWriter writer;
+
+	private ObjectReader reader;
+
+	private byte[] body;
+
+	@Setup
+	public void setUp() throws IOException {
+		posts = SyntheticPosts.generate(size);
+		ObjectMapper objectMapper = format.objectMapper(Jackson2ObjectMapperBuilder.json().build());
+		JavaType type = objectMapper.getTypeFactory().constructCollectionType(List.class, Post.class);
+		writer = objectMapper.writerFor(type);
+		reader = objectMapper.readerFor(type);
+		body = writer.writeValueAsBytes(posts);
+		System.out.printf("%n%s, %d posts: %d bytes%n", format, size, body.length);
+	}
+
+	@Benchmark
+	public byte[] encode() throws IOException {
+		return writer.writeValueAsBytes(posts);
+	}
+
+	@Benchmark
+	public List<Post> decode() throws IOException {
+		return reader.readValue(body);
+	}
+
+}
@@ -0,0 +1,92 @@
+package com.masbytes.miblog.service.impl;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import com.masbytes.miblog.dto.PostCursor;
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.repo.PostRepo;
+
+/**
+ * Sustituto en memoria de {@link PostRepo} para medir {@link PostServiceImpl} sin base de datos.
+ * Solo implementa los métodos que usan las rutas medidas; el resto lanza
+ * {@link UnsupportedOperationException}.
+ *
+ * Los posts se guardan en el orden {@link PostCursor#NEWEST_FIRST}, de modo que las páginas se
+ * leen como lo haría MongoDB con el índice {@code {visible: 1, created_at: -1, _id: -1}}: se recorre
+ * desde el cursor, saltando los posts ocultos, y se para al completar la página. Las expresiones regulares se compilan en cada consulta,
+ * como hace el servidor. Las inserciones asignan el ID pero no se guardan, para que el conjunto de
+ * datos no crezca durante la medición.
+ */
+final class InMemoryPostRepo {
+
+	private InMemoryPostRepo() {
+	}
+
+	static PostRepo create(List<Post> posts) {
+		List<Post> sorted = new ArrayList<>(posts);
+		sorted.sort(PostCursor.NEWEST_FIRST);
+		Map<String, Post> byId = sorted.stream()
+				.collect(Collectors.toUnmodifiableMap(Post::getId, Function.identity()));
+
+		return (PostRepo) Proxy.newProxyInstance(PostRepo.class.getClassLoader(), new Class<?>[] { PostRepo.class },
+				(proxy, method, args) -> switch (method.getName()) {
+				case "findById" -> Optional.ofNullable(byId.get((String) args[0]));
+				case "insert" -> {
+					Post post = (Post) args[0];
+					post.setId(UUID.randomUUID().toString());
+					yield post;
+				}
+				case "findPageByKeyword" -> {
+					Pattern regex = Pattern.compile((String) args[0]);
+					List<?> tags = (List<?>) args[1];
+					List<?> terms = (List<?>) args[2];
+					yield page(sorted, post -> regex.matcher(post.getTitle()).matches()
+							|| regex.matcher(post.getSummary()).matches()
+							|| (post.getTags() != null && post.getTags().stream().anyMatch(tags::contains))
+							|| (!terms.isEmpty() && post.getContentTerms() != null
+									&& post.getContentTerms().containsAll(terms)),
+							(PostCursor) args[3], (Integer) args[4]);
+				}
+				case "findPageByCreatedAtBetween" -> page(sorted,
+						createdBetween((LocalDateTime) args[0], (LocalDateTime) args[1]), (PostCursor) args[2],
+						(Integer) args[3]);
+				case "findLastModifiedByCreatedAtBetween" -> sorted.stream()
+						.filter(createdBetween((LocalDateTime) args[0], (LocalDateTime) args[1]))
+						.map(Post::getModifiedAt)
+						.max(Comparator.naturalOrder());
+				case "hashCode" -> System.identityHashCode(proxy);
+				case "equals" -> proxy == args[0];
+				case "toString" -> "InMemoryPostRepo(" + sorted.size() + " posts)";
+				default -> throw new UnsupportedOperationException(method.getName());
+				});
+	}
+
+	private static Predicate<Post> createdBetween(LocalDateTime startOfRange, LocalDateTime endOfRange) {
+		return post -> post.getCreatedAt().isAfter(startOfRange) && post.getCreatedAt().isBefore(endOfRange);
+	}
+
+	private static List<Post> page(List<Post> sorted, Predicate<Post> filter, PostCursor after, int limit) {
+		List<Post> page = new ArrayList<>(limit);
+		for (Post post : sorted) {
+			if ((after == null || after.isBefore(post)) && post.isVisible() && filter.test(post)) {
+				page.add(post);
+				if (page.size() == limit) {
+					break;
+				}
+			}
+		}
+		return page;
+	}
+
+}
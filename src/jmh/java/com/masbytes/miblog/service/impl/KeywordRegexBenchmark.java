@@ -0,0 +1,87 @@
+package com.masbytes.miblog.service.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.masbytes.miblog.benchmark.SyntheticPosts;
+import com.masbytes.miblog.entity.Post;
+
+/**
+ * Construcción de la expresión regular de búsqueda por palabra clave
+ * ({@link PostServiceImpl#keywordRegex}) y su evaluación sobre 1.000 títulos, compilándola en
+ * cada búsqueda (como el servidor de MongoDB), precompilada, y frente a una comparación literal.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeywordRegexBenchmark {
+
+	@Param({ "galaxia", "agujero negro" })
+	private String keyword;
+
+	private String[] titles;
+
+	private Pattern pattern;
+
+	@Setup
+	public void setUp() {
+		titles = SyntheticPosts.generate(1_000).stream().map(Post::getTitle).toArray(String[]::new);
+		pattern = Pattern.compile(PostServiceImpl.keywordRegex(keyword));
+	}
+
+	@Benchmark
+	public String keywordRegex() {
+		return PostServiceImpl.keywordRegex(keyword);
+	}
+
+	@Benchmark
+	public int compileAndMatch() {
+		Pattern compiled = Pattern.compile(PostServiceImpl.keywordRegex(keyword));
+		int matches = 0;
+		for (String title : titles) {
+			if (compiled.matcher(title).matches()) {
+				matches++;
+			}
+		}
+		return matches;
+	}
+
+	@Benchmark
+	public int precompiledMatch() {
+		int matches = 0;
+		for (String title : titles) {
+			if (pattern.matcher(title).matches()) {
+				matches++;
+			}
+		}
+		return matches;
+	}
+
+	@Benchmark
+	public int containsLiteral() {
+		String literal = keyword.toLowerCase();
+		int matches = 0;
+		for (String title : titles) {
+			if (title.contains(literal)) {
+				matches++;
+			}
+		}
+		return matches;
+	}
+
+}
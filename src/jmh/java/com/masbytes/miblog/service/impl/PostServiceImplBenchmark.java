@@ -0,0 +1,105 @@
+package com.masbytes.miblog.service.impl;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+
+import com.masbytes.miblog.benchmark.SyntheticPosts;
+import com.masbytes.miblog.dto.PostPage;
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.repo.PostRepo;
+import com.masbytes.miblog.service.cache.PostCache;
+import com.masbytes.miblog.service.cache.PostCatalog;
+import com.masbytes.miblog.service.index.PostArchive;
+import com.masbytes.miblog.service.index.PostSearchIndex;
+import com.masbytes.miblog.service.index.TagBitmapIndex;
+import com.masbytes.miblog.service.index.TagFacets;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Coste en CPU de las rutas de {@link PostServiceImpl} con la configuración por defecto (índices
+ * en memoria desactivados) sobre {@link InMemoryPostRepo}: no incluye la red ni MongoDB, sino la
+ * validación, la construcción de consultas, la caché y la paginación.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PostServiceImplBenchmark {
+
+	@Param({ "1000", "10000" })
+	private int posts;
+
+	private PostServiceImpl postService;
+
+	private String[] ids;
+
+	private int next;
+
+	@Setup
+	public void setUp() {
+		List<Post> data = SyntheticPosts.generate(posts);
+		PostRepo postRepo = InMemoryPostRepo.create(data);
+		postService = new PostServiceImpl(postRepo, event -> { }, new PostSearchIndex(postRepo, false),
+				new PostCache(Duration.ofMinutes(10), DataSize.ofMegabytes(64), new SimpleMeterRegistry()),
+				new TagBitmapIndex(postRepo, false), new PostArchive(postRepo, false),
+				new TagFacets(postRepo, false), new PostCatalog(postRepo, false));
+		ids = data.stream().map(Post::getId).toArray(String[]::new);
+	}
+
+	/**
+	 * Lectura por ID; tras la primera vuelta todos los posts se sirven desde la caché.
+	 */
+	@Benchmark
+	public Post getPostById() {
+		next = next == ids.length - 1 ? 0 : next + 1;
+		return postService.getPostById(ids[next]);
+	}
+
+	/**
+	 * Primera página de una palabra frecuente: se completa tras leer pocos posts.
+	 */
+	@Benchmark
+	public PostPage searchPostByKeyword() {
+		return postService.searchPostByKeyword("galaxia", null, 20);
+	}
+
+	/**
+	 * Palabra sin coincidencias: la expresión regular se evalúa sobre todos los posts.
+	 */
+	@Benchmark
+	public PostPage searchPostByKeyword_NoMatches() {
+		return postService.searchPostByKeyword("inexistente", null, 20);
+	}
+
+	@Benchmark
+	public PostPage getRecentPosts() {
+		return postService.getRecentPosts(null, null, 20);
+	}
+
+	@Benchmark
+	public Post createPost() {
+		Post post = new Post();
+		post.setTitle("Teoría de la Relatividad General");
+		post.setSummary("Un resumen sobre la teoría de Einstein.");
+		post.setPdfUrl("https://example.com/relatividad.pdf");
+		return postService.createPost(post);
+	}
+
+}
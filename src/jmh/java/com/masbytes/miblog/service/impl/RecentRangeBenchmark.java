@@ -0,0 +1,43 @@
+package com.masbytes.miblog.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cálculo del rango de fechas de {@code getRecentPosts}: sin fecha (últimos 30 días, que consulta
+ * el reloj y la zona horaria) y con una fecha dada.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecentRangeBenchmark {
+
+	private LocalDateTime fromDate = LocalDateTime.of(2025, 3, 14, 15, 9);
+
+	@Benchmark
+	public void lastThirtyDays(Blackhole blackhole) {
+		blackhole.consume(PostServiceImpl.startOfRecentRange(null));
+		blackhole.consume(PostServiceImpl.endOfRecentRange(null));
+	}
+
+	@Benchmark
+	public void fromDate(Blackhole blackhole) {
+		blackhole.consume(PostServiceImpl.startOfRecentRange(fromDate));
+		blackhole.consume(PostServiceImpl.endOfRecentRange(fromDate));
+	}
+
+}
@@ -0,0 +1,60 @@
+package com.masbytes.miblog.config;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import com.masbytes.miblog.controller.PostController;
+
+/**
+ * Condición de las variantes NDJSON de los listados: solo se eligen si la cabecera {@code Accept}
+ * nombra expresamente {@code application/x-ndjson}. Con {@code produces} solo, un comodín como
+ * {@code application/*} bastaría para preferirlas a la variante por páginas, que elige su propio
+ * formato con {@link com.masbytes.miblog.dto.ResponseFormat}.
+ */
+final class NdjsonAccept {
+
+	private static final MediaType NDJSON = MediaType.parseMediaType(PostController.APPLICATION_NDJSON_VALUE);
+
+	private NdjsonAccept() {
+	}
+
+	/**
+	 * Indica si el método atiende peticiones que producen NDJSON.
+	 *
+	 * @param method El método del controlador.
+	 * @return true si su mapeo declara {@code produces = application/x-ndjson}.
+	 */
+	static boolean isProducedBy(Method method) {
+		RequestMapping mapping = AnnotatedElementUtils.findMergedAnnotation(method, RequestMapping.class);
+		return mapping != null && Arrays.asList(mapping.produces()).contains(PostController.APPLICATION_NDJSON_VALUE);
+	}
+
+	/**
+	 * Indica si las cabeceras {@code Accept} nombran NDJSON con una calidad mayor que 0. Las
+	 * cabeceras no válidas no lo nombran.
+	 *
+	 * @param accept Los valores de la cabecera {@code Accept}.
+	 * @return true si alguno incluye {@code application/x-ndjson} sin comodines.
+	 */
+	static boolean isNamedIn(List<String> accept) {
+		for (String header : accept) {
+			try {
+				for (MediaType type : MediaType.parseMediaTypes(header)) {
+					if (NDJSON.equalsTypeAndSubtype(type) && type.getQualityValue() > 0) {
+						return true;
+					}
+				}
+			} catch (InvalidMediaTypeException e) {
+				// Se ignora el valor no válido
+			}
+		}
+		return false;
+	}
+
+}
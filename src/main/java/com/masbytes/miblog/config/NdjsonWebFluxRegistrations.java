@@ -0,0 +1,50 @@
+package com.masbytes.miblog.config;
+
+import java.lang.reflect.Method;
+
+import org.springframework.boot.autoconfigure.web.reactive.WebFluxRegistrations;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.result.condition.RequestCondition;
+import org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Añade a los métodos de la API reactiva que producen NDJSON la condición de {@link NdjsonAccept}.
+ */
+@Component
+@Profile("reactive")
+public class NdjsonWebFluxRegistrations implements WebFluxRegistrations {
+
+	@Override
+	public RequestMappingHandlerMapping getRequestMappingHandlerMapping() {
+		return new RequestMappingHandlerMapping() {
+
+			@Override
+			protected RequestCondition<?> getCustomMethodCondition(Method method) {
+				return NdjsonAccept.isProducedBy(method) ? new NamedNdjson() : null;
+			}
+		};
+	}
+
+	private static final class NamedNdjson implements RequestCondition<NamedNdjson> {
+
+		@Override
+		public NamedNdjson combine(NamedNdjson other) {
+			return this;
+		}
+
+		@Override
+		public NamedNdjson getMatchingCondition(ServerWebExchange exchange) {
+			return NdjsonAccept.isNamedIn(exchange.getRequest().getHeaders().getOrEmpty(HttpHeaders.ACCEPT)) ? this
+					: null;
+		}
+
+		@Override
+		public int compareTo(NamedNdjson other, ServerWebExchange exchange) {
+			return 0;
+		}
+	}
+
+}
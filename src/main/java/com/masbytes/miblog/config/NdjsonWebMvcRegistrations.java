@@ -0,0 +1,50 @@
+package com.masbytes.miblog.config;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.condition.RequestCondition;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Añade a los métodos de la API bloqueante que producen NDJSON la condición de
+ * {@link NdjsonAccept}.
+ */
+@Component
+public class NdjsonWebMvcRegistrations implements WebMvcRegistrations {
+
+	@Override
+	public RequestMappingHandlerMapping getRequestMappingHandlerMapping() {
+		return new RequestMappingHandlerMapping() {
+
+			@Override
+			protected RequestCondition<?> getCustomMethodCondition(Method method) {
+				return NdjsonAccept.isProducedBy(method) ? new NamedNdjson() : null;
+			}
+		};
+	}
+
+	private static final class NamedNdjson implements RequestCondition<NamedNdjson> {
+
+		@Override
+		public NamedNdjson combine(NamedNdjson other) {
+			return this;
+		}
+
+		@Override
+		public NamedNdjson getMatchingCondition(HttpServletRequest request) {
+			return NdjsonAccept.isNamedIn(Collections.list(request.getHeaders(HttpHeaders.ACCEPT))) ? this : null;
+		}
+
+		@Override
+		public int compareTo(NamedNdjson other, HttpServletRequest request) {
+			return 0;
+		}
+	}
+
+}
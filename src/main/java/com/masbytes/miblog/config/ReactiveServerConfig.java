@@ -0,0 +1,26 @@
+package com.masbytes.miblog.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Servidor del perfil {@code reactive}. Con Tomcat y Netty en el classpath, la autoconfiguración
+ * de WebFlux elige Tomcat, que atiende las peticiones reactivas con su grupo de 200 hilos; aquí se
+ * fija Netty, que las atiende con un bucle de eventos por núcleo.
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("reactive")
+public class ReactiveServerConfig {
+
+	@Bean
+	NettyReactiveWebServerFactory nettyReactiveWebServerFactory(ObjectProvider<NettyServerCustomizer> customizers) {
+		NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+		factory.getServerCustomizers().addAll(customizers.orderedStream().toList());
+		return factory;
+	}
+
+}
@@ -0,0 +1,70 @@
+package com.masbytes.miblog.config;
+
+import java.util.Collection;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+import org.springframework.util.function.SingletonSupplier;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+/**
+ * Publica el número de documentos devueltos por las consultas de listado de los repositorios.
+ * El tiempo de cada consulta ya lo mide Spring Boot en {@code spring.data.repository.invocations};
+ * aquí se añade el resumen {@value #METRIC}, con las mismas etiquetas {@code repository} y
+ * {@code method}, para distinguir una consulta lenta de una que devuelve demasiados posts.
+ *
+ * Solo se registran los resultados que son colecciones: los Stream y los Flux se consumen después
+ * de volver del repositorio y los métodos que devuelven un solo post no aportan información.
+ */
+@Component
+public class RepositoryResultMetrics implements BeanPostProcessor {
+
+	static final String METRIC = "miblog.repository.results";
+
+	private final SingletonSupplier<MeterRegistry> meterRegistry;
+
+	public RepositoryResultMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+		// El registro se resuelve en la primera consulta, no al crear los repositorios; sin registro,
+		// un compuesto vacío descarta las métricas y los repositorios siguen funcionando
+		this.meterRegistry = SingletonSupplier.of(() -> meterRegistry.getIfAvailable(CompositeMeterRegistry::new));
+	}
+
+	@Override
+	public Object postProcessBeforeInitialization(Object bean, String beanName) {
+		if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> repositoryFactoryBean) {
+			repositoryFactoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+					(proxyFactory, repositoryInformation) -> proxyFactory
+							.addAdvice(interceptor(repositoryInformation.getRepositoryInterface()))));
+		}
+		return bean;
+	}
+
+	/**
+	 * Interceptor que registra el tamaño de los resultados de un repositorio.
+	 *
+	 * @param repositoryInterface La interfaz del repositorio, usada en la etiqueta {@code repository}.
+	 */
+	MethodInterceptor interceptor(Class<?> repositoryInterface) {
+		String repository = repositoryInterface.getSimpleName();
+		return invocation -> {
+			Object result = invocation.proceed();
+			if (result instanceof Collection<?> collection) {
+				DistributionSummary.builder(METRIC)
+						.description("Número de documentos devueltos por las consultas de los repositorios")
+						.baseUnit("documents")
+						.tag("repository", repository)
+						.tag("method", invocation.getMethod().getName())
+						.register(meterRegistry.obtain())
+						.record(collection.size());
+			}
+			return result;
+		};
+	}
+
+}
@@ -0,0 +1,122 @@
+package com.masbytes.miblog.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Detecta los hilos virtuales que quedan anclados (pinned) a su hilo portador mientras se
+ * bloquean, por ejemplo dentro de un bloque {@code synchronized} del driver de MongoDB.
+ * Un hilo anclado ocupa un portador durante toda la espera, así que con pocos portadores
+ * (uno por núcleo) unos pocos anclajes largos detienen todas las peticiones.
+ *
+ * Se suscribe con JFR al evento {@code jdk.VirtualThreadPinned} y publica el temporizador
+ * {@code miblog.virtual-threads.pinned} con la etiqueta {@code source}: {@code mongo} si el
+ * anclaje se produjo dentro del driver de MongoDB y {@code other} en el resto de casos. Cada
+ * anclaje se registra además en el log con el marco de pila que lo originó.
+ *
+ * Solo se activa con {@code spring.threads.virtual.enabled=true} y
+ * {@code miblog.threads.pinning-monitor.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = { "spring.threads.virtual.enabled", "miblog.threads.pinning-monitor.enabled" },
+		havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+	static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+	static final String METRIC = "miblog.virtual-threads.pinned";
+
+	static final String MONGO_SOURCE = "mongo";
+
+	static final String OTHER_SOURCE = "other";
+
+	private static final String MONGO_PACKAGE = "com.mongodb.";
+
+	private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+	private final Duration threshold;
+
+	private final Timer mongoPinned;
+
+	private final Timer otherPinned;
+
+	private RecordingStream stream;
+
+	public VirtualThreadPinningMonitor(@Value("${miblog.threads.pinning-monitor.threshold:20ms}") Duration threshold,
+			MeterRegistry meterRegistry) {
+		this.threshold = threshold;
+		this.mongoPinned = pinnedTimer(meterRegistry, MONGO_SOURCE);
+		this.otherPinned = pinnedTimer(meterRegistry, OTHER_SOURCE);
+	}
+
+	/**
+	 * Empieza a escuchar los anclajes que duran al menos el umbral configurado.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void start() {
+		if (stream != null) {
+			return;
+		}
+		stream = new RecordingStream();
+		stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+		stream.onEvent(PINNED_EVENT, this::onPinned);
+		stream.startAsync();
+	}
+
+	/**
+	 * Deja de escuchar los anclajes al cerrar la aplicación.
+	 */
+	@PreDestroy
+	public synchronized void stop() {
+		if (stream != null) {
+			stream.close();
+			stream = null;
+		}
+	}
+
+	private void onPinned(RecordedEvent event) {
+		List<RecordedFrame> frames = event.getStackTrace() == null ? List.of() : event.getStackTrace().getFrames();
+		List<String> classNames = frames.stream().map(frame -> frame.getMethod().getType().getName()).toList();
+		String source = sourceOf(classNames);
+		(MONGO_SOURCE.equals(source) ? mongoPinned : otherPinned).record(event.getDuration());
+
+		if (log.isWarnEnabled()) {
+			log.warn("Hilo virtual anclado {} ms ({}) en {}", event.getDuration().toMillis(), source,
+					frames.stream().filter(RecordedFrame::isJavaFrame).limit(8)
+							.map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+									+ ":" + frame.getLineNumber())
+							.toList());
+		}
+	}
+
+	/**
+	 * Clasifica un anclaje según las clases de su pila: {@code mongo} si alguna pertenece al
+	 * driver de MongoDB.
+	 */
+	static String sourceOf(List<String> classNames) {
+		return classNames.stream().anyMatch(name -> name.startsWith(MONGO_PACKAGE)) ? MONGO_SOURCE : OTHER_SOURCE;
+	}
+
+	private static Timer pinnedTimer(MeterRegistry meterRegistry, String source) {
+		return Timer.builder(METRIC)
+				.description("Tiempo que los hilos virtuales han estado anclados a su portador")
+				.tag("source", source)
+				.register(meterRegistry);
+	}
+
+}
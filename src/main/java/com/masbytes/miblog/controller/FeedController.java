@@ -0,0 +1,113 @@
+package com.masbytes.miblog.controller;
+
+import java.util.Optional;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import com.masbytes.miblog.dto.FeedDocument;
+import com.masbytes.miblog.service.feed.PostFeeds;
+
+/**
+ * Controlador de los feeds RSS y Atom y del sitemap del blog, para lectores de feeds y buscadores.
+ * Los documentos se generan en memoria a medida que cambian los posts (ver {@link PostFeeds}) y se
+ * sirven tal cual, con ETag y fecha de última modificación.
+ */
+@RestController
+@Profile("!reactive")
+public class FeedController {
+
+	private final PostFeeds postFeeds;
+
+	/**
+	 * Constructor para inyectar los feeds.
+	 *
+	 * @param postFeeds Feeds y sitemap mantenidos en memoria.
+	 */
+	public FeedController(PostFeeds postFeeds) {
+		this.postFeeds = postFeeds;
+	}
+
+	/**
+	 * Obtiene el feed RSS 2.0 con los últimos posts visibles.
+	 *
+	 * @param request Petición, con las cabeceras condicionales opcionales.
+	 * @return El feed con estado 200 (OK), 304 (NOT MODIFIED) si no ha cambiado,
+	 *         404 (NOT FOUND) si los feeds no están activados.
+	 */
+	@GetMapping("/feed.xml")
+	public ResponseEntity<byte[]> getRssFeed(WebRequest request) {
+		if (!postFeeds.isEnabled()) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+		}
+		return toResponse(postFeeds.getRss(), MediaType.APPLICATION_RSS_XML, request);
+	}
+
+	/**
+	 * Obtiene el feed Atom con los últimos posts visibles.
+	 *
+	 * @param request Petición, con las cabeceras condicionales opcionales.
+	 * @return El feed con estado 200 (OK), 304 (NOT MODIFIED) si no ha cambiado,
+	 *         404 (NOT FOUND) si los feeds no están activados.
+	 */
+	@GetMapping("/atom.xml")
+	public ResponseEntity<byte[]> getAtomFeed(WebRequest request) {
+		if (!postFeeds.isEnabled()) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+		}
+		return toResponse(postFeeds.getAtom(), MediaType.APPLICATION_ATOM_XML, request);
+	}
+
+	/**
+	 * Obtiene el sitemap con todos los posts visibles o, si son más de los que admite un sitemap,
+	 * el índice de sus partes.
+	 *
+	 * @param request Petición, con las cabeceras condicionales opcionales.
+	 * @return El sitemap con estado 200 (OK), 304 (NOT MODIFIED) si no ha cambiado,
+	 *         404 (NOT FOUND) si los feeds no están activados.
+	 */
+	@GetMapping("/sitemap.xml")
+	public ResponseEntity<byte[]> getSitemap(WebRequest request) {
+		if (!postFeeds.isEnabled()) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+		}
+		return toResponse(postFeeds.getSitemap(), MediaType.APPLICATION_XML, request);
+	}
+
+	/**
+	 * Obtiene una parte del sitemap, enlazada desde su índice.
+	 *
+	 * @param number  Número de la parte, desde 1.
+	 * @param request Petición, con las cabeceras condicionales opcionales.
+	 * @return La parte con estado 200 (OK), 304 (NOT MODIFIED) si no ha cambiado,
+	 *         404 (NOT FOUND) si los feeds no están activados, el sitemap no está
+	 *         dividido o no tiene esa parte.
+	 */
+	@GetMapping("/sitemap-{number}.xml")
+	public ResponseEntity<byte[]> getSitemapShard(@PathVariable int number, WebRequest request) {
+		Optional<FeedDocument> shard = postFeeds.isEnabled() ? postFeeds.getSitemapShard(number) : Optional.empty();
+		if (shard.isEmpty()) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+		}
+		return toResponse(shard.get(), MediaType.APPLICATION_XML, request);
+	}
+
+	private static ResponseEntity<byte[]> toResponse(FeedDocument document, MediaType contentType,
+			WebRequest request) {
+		if (request.checkNotModified(document.getETag(), document.getLastModified())) {
+			return null;
+		}
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(contentType).eTag(document.getETag());
+		if (document.getLastModified() >= 0) {
+			response.lastModified(document.getLastModified());
+		}
+		return response.body(document.getBody());
+	}
+
+}
@@ -1,10 +1,28 @@
 package com.masbytes.miblog.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -12,32 +30,98 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import com.masbytes.miblog.dto.ArchiveBucket;
+import com.masbytes.miblog.dto.ArchiveQuery;
+import com.masbytes.miblog.dto.BulkReport;
+import com.masbytes.miblog.dto.EncodedResponse;
+import com.masbytes.miblog.dto.PostContent;
+import com.masbytes.miblog.dto.PostPage;
+import com.masbytes.miblog.dto.PostVersion;
+import com.masbytes.miblog.dto.ResponseFormat;
+import com.masbytes.miblog.dto.ScoredPost;
+import com.masbytes.miblog.dto.TagFacet;
+import com.masbytes.miblog.dto.TagQuery;
 import com.masbytes.miblog.entity.Post;
 import com.masbytes.miblog.exception.PostAlreadyExistsException;
+import com.masbytes.miblog.exception.PostContentUnavailableException;
 import com.masbytes.miblog.exception.PostInvalidDataException;
 import com.masbytes.miblog.exception.PostNotFoundException;
+import com.masbytes.miblog.service.PostBulkService;
+import com.masbytes.miblog.service.PostContentService;
 import com.masbytes.miblog.service.PostService;
+import com.masbytes.miblog.service.cache.ResponseBodyCache;
 
 /**
  * Controlador REST para la gestión de publicaciones en el blog.
+ * Con el perfil {@code reactive} lo sustituye {@link ReactivePostController}.
  */
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/posts")
 public class PostController {
 
+	/**
+	 * Cabecera con el cursor opaco de la página siguiente en los listados paginados.
+	 */
+	public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+	/**
+	 * Cabecera con el número total de resultados de las consultas que pueden contarlos sin coste.
+	 */
+	public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+	/**
+	 * Tipo de contenido de las respuestas en streaming: un documento JSON por línea.
+	 */
+	public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+	/**
+	 * Tipo de contenido de los parches JSON Merge Patch (RFC 7396).
+	 */
+	public static final String APPLICATION_MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
 	private final PostService postService;
 
+	private final PostBulkService postBulkService;
+
+	private final PostContentService postContentService;
+
+	private final ResponseBodyCache responseCache;
+
+	private final ObjectWriter postWriter;
+
+	private final ObjectReader postReader;
+
 	/**
 	 * Constructor para inyectar el servicio de posts.
 	 * 
-	 * @param postService Servicio que gestiona la lógica de negocio de los posts.
+	 * @param postService     Servicio que gestiona la lógica de negocio de los posts.
+	 * @param postBulkService    Servicio que gestiona la carga masiva de posts.
+	 * @param postContentService Servicio que sirve los archivos de los posts.
+	 * @param responseCache      Caché de las respuestas JSON ya serializadas.
+	 * @param objectMapper       Mapper de Jackson usado para las peticiones y respuestas en streaming.
 	 */
-	public PostController(PostService postService) {
+	public PostController(PostService postService, PostBulkService postBulkService,
+			PostContentService postContentService, ResponseBodyCache responseCache, ObjectMapper objectMapper) {
 		this.postService = postService;
+		this.postBulkService = postBulkService;
+		this.postContentService = postContentService;
+		this.responseCache = responseCache;
+		this.postWriter = objectMapper.writerFor(Post.class);
+		this.postReader = objectMapper.readerFor(Post.class);
 	}
 
 	/**
@@ -66,64 +150,371 @@ public class PostController {
 	}
 
 	/**
-	 * Obtiene un post por su identificador único.
+	 * Crea varios posts en una sola petición. El cuerpo puede ser un array JSON o
+	 * un stream NDJSON (un post por línea); los posts se leen y se guardan por
+	 * lotes a medida que llegan, sin cargar toda la entrada en memoria.
+	 * 
+	 * @param body Cuerpo de la petición con los posts.
+	 * @return El informe con el resultado de cada post con estado 200 (OK), también
+	 *         si un elemento no válido detiene la carga después de guardar algún
+	 *         lote (el informe termina con ese elemento), o 400 (BAD REQUEST) si
+	 *         el cuerpo no es JSON válido antes de guardar ningún post.
+	 */
+	@PostMapping(value = "/bulk", consumes = { MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE })
+	public ResponseEntity<BulkReport> createPosts(InputStream body) {
+		try (MappingIterator<Post> posts = postReader.readValues(body)) {
+			return ResponseEntity.ok(postBulkService.createPosts(posts));
+		} catch (IOException | PostInvalidDataException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+		}
+	}
+
+	/**
+	 * Obtiene un post por su identificador único. La respuesta incluye una ETag
+	 * fuerte, débil si el cuerpo se envía comprimido con gzip, y la fecha de última
+	 * modificación; si la petición es condicional y el post no ha cambiado, se
+	 * responde 304 comprobando solo su versión, sin cargar ni serializar el post. El
+	 * JSON de cada versión se serializa una sola vez (ver {@link ResponseBodyCache}).
 	 * 
-	 * @param id Identificador del post.
-	 * @return El post encontrado con estado 200 (OK), 404 (NOT FOUND) si no se
-	 *         encuentra.
+	 * @param id      Identificador del post.
+	 * @param request Petición, con las cabeceras {@code If-None-Match},
+	 *                {@code If-Modified-Since} y {@code Accept-Encoding} opcionales.
+	 * @return El post encontrado con estado 200 (OK), 304 (NOT MODIFIED) si no ha
+	 *         cambiado, 404 (NOT FOUND) si no se encuentra.
 	 */
 	@GetMapping("/{id}")
-	public ResponseEntity<Post> getPostById(@PathVariable String id) {
+	public ResponseEntity<byte[]> getPostById(@PathVariable String id, WebRequest request) {
 		try {
+			boolean gzip = acceptsGzip(request);
+			if (isConditional(request)) {
+				// La comparación es débil: la ETag fuerte y la débil de la variante comprimida coinciden
+				PostVersion version = postService.getPostVersion(id);
+				String eTag = (gzip ? "W/\"" : "\"") + version.getETag() + "\"";
+				if (request.checkNotModified(eTag, version.getLastModified())) {
+					return null;
+				}
+			}
 			Post post = postService.getPostById(id);
-			return ResponseEntity.ok(post);
+			PostVersion version = PostVersion.of(post);
+			HttpHeaders headers = new HttpHeaders();
+			headers.setETag("\"" + version.getETag() + "\"");
+			headers.setLastModified(version.getLastModified());
+			return toEncodedResponse(responseCache.getPost(post, gzip), gzip, headers);
 		} catch (PostNotFoundException e) {
 			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
 		}
 	}
 
 	/**
-	 * Busca posts por una palabra clave en el contenido o título.
+	 * Sirve el archivo (PDF o TXT) de un post desde la caché en disco del servidor,
+	 * que solo lo descarga del almacenamiento externo la primera vez. La ETag es el
+	 * resumen del contenido. Admite peticiones parciales con un solo rango de bytes
+	 * en la cabecera {@code Range}; si se piden varios, se devuelve el archivo
+	 * completo.
+	 * 
+	 * @param id      Identificador del post.
+	 * @param range   (Opcional) Cabecera {@code Range}.
+	 * @param request Petición, con las cabeceras condicionales opcionales.
+	 * @return El archivo con estado 200 (OK) o 206 (PARTIAL CONTENT), 304 (NOT
+	 *         MODIFIED) si no ha cambiado, 404 (NOT FOUND) si el post no existe o
+	 *         no tiene archivo, 416 (RANGE NOT SATISFIABLE) si el rango queda fuera del archivo, 502
+	 *         (BAD GATEWAY) si no se puede obtener del almacenamiento.
+	 */
+	@GetMapping("/{id}/content")
+	public ResponseEntity<StreamingResponseBody> getPostContent(@PathVariable String id,
+			@RequestHeader(value = HttpHeaders.RANGE, required = false) String range, WebRequest request) {
+		PostContent content;
+		try {
+			content = postContentService.getPostContent(id);
+		} catch (PostNotFoundException e) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+		} catch (PostContentUnavailableException e) {
+			return ResponseEntity.status(HttpStatus.BAD_GATEWAY).build();
+		}
+
+		// El archivo se cierra aquí salvo que se entregue a la respuesta, que lo cierra al terminar
+		boolean streaming = false;
+		try {
+			if (request.checkNotModified(content.getETag())) {
+				return null;
+			}
+
+			long length = content.getLength();
+			long start = 0;
+			long end = length - 1;
+			HttpHeaders headers = new HttpHeaders();
+			headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+			headers.setETag("\"" + content.getETag() + "\"");
+			HttpStatus status = HttpStatus.OK;
+
+			List<HttpRange> ranges = parseRanges(range);
+			if (ranges.size() == 1) {
+				start = ranges.get(0).getRangeStart(length);
+				end = ranges.get(0).getRangeEnd(length);
+				if (start >= length || start > end) {
+					headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+					return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).headers(headers).build();
+				}
+				headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+				status = HttpStatus.PARTIAL_CONTENT;
+			}
+
+			long position = start;
+			long count = end - start + 1;
+			StreamingResponseBody body = (OutputStream out) -> {
+				try (FileChannel channel = content.getChannel()) {
+					transfer(channel, position, count, Channels.newChannel(out));
+				}
+			};
+			headers.setContentType(contentType(content));
+			headers.setContentLength(count);
+			streaming = true;
+			return ResponseEntity.status(status).headers(headers).body(body);
+		} finally {
+			if (!streaming) {
+				closeQuietly(content);
+			}
+		}
+	}
+
+	/**
+	 * Busca posts por una palabra clave en el contenido o título. Los resultados se
+	 * devuelven por páginas; el cursor de la página siguiente viaja en la cabecera
+	 * {@value #NEXT_CURSOR_HEADER} y en un enlace {@code Link: rel="next"}.
 	 * 
 	 * @param keyword Palabra clave para la búsqueda.
+	 * @param cursor  (Opcional) Cursor de la página anterior.
+	 * @param size    (Opcional) Tamaño de página, como máximo {@value PostPage#MAX_SIZE}.
+	 * @param request Petición, con la cabecera {@code Accept-Encoding} opcional.
 	 * @return Lista de posts coincidentes con estado 200 (OK), 204 (NO CONTENT) si
-	 *         no hay coincidencias.
+	 *         no hay coincidencias, 400 (BAD REQUEST) si el cursor no es válido.
 	 */
 	@GetMapping("/search")
-	public ResponseEntity<List<Post>> searchPosts(@RequestParam String keyword) {
-		List<Post> posts = postService.searchPostByKeyword(keyword);
-		return posts.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(posts);
+	public ResponseEntity<byte[]> searchPosts(@RequestParam String keyword,
+			@RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size,
+			WebRequest request) {
+		try {
+			return toPageResponse(Arrays.asList("search", keyword, cursor, size),
+					() -> postService.searchPostByKeyword(keyword, cursor, size), request, new HttpHeaders());
+		} catch (PostInvalidDataException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+		}
+	}
+
+	/**
+	 * Busca posts por relevancia usando el índice de texto del título y el resumen.
+	 * Admite frases entre comillas ({@code "teoría de cuerdas"}) y exclusión de
+	 * términos con un guion ({@code relatividad -especial}).
+	 * 
+	 * @param q    Texto de búsqueda.
+	 * @param size (Opcional) Número máximo de resultados, como máximo {@value PostPage#MAX_SIZE}.
+	 * @return Posts coincidentes con su puntuación, de mayor a menor relevancia, con
+	 *         estado 200 (OK), 204 (NO CONTENT) si no hay coincidencias, 400 (BAD
+	 *         REQUEST) si la búsqueda está vacía.
+	 */
+	@GetMapping("/search/text")
+	public ResponseEntity<List<ScoredPost>> searchPostsByText(@RequestParam String q,
+			@RequestParam(required = false) Integer size) {
+		try {
+			List<ScoredPost> posts = postService.searchPostsByText(q, size);
+			return posts.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(posts);
+		} catch (PostInvalidDataException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+		}
 	}
 
 	/**
-	 * Busca posts por etiquetas específicas.
+	 * Busca posts por etiquetas específicas. Los resultados se devuelven por páginas.
+	 * 
+	 * Con {@code tags} se devuelven los posts que tienen al menos una de las
+	 * etiquetas. Con {@code all}, {@code any} y {@code none} se combinan las
+	 * etiquetas con semántica booleana (todas, alguna, ninguna) sobre los posts
+	 * visibles, y el total de resultados se devuelve en la cabecera
+	 * {@value #TOTAL_COUNT_HEADER}. Las dos formas no se pueden combinar.
 	 * 
-	 * @param tags Lista de etiquetas para filtrar los posts.
+	 * @param tags   (Opcional) Lista de etiquetas para filtrar los posts.
+	 * @param all    (Opcional) Etiquetas que el post debe tener todas.
+	 * @param any    (Opcional) Etiquetas de las que el post debe tener alguna.
+	 * @param none   (Opcional) Etiquetas que el post no debe tener.
+	 * @param cursor (Opcional) Cursor de la página anterior.
+	 * @param size   (Opcional) Tamaño de página, como máximo {@value PostPage#MAX_SIZE}.
+	 * @param request Petición, con la cabecera {@code Accept-Encoding} opcional.
 	 * @return Lista de posts coincidentes con estado 200 (OK), 204 (NO CONTENT) si
-	 *         no hay coincidencias.
+	 *         no hay coincidencias, 400 (BAD REQUEST) si el cursor no es válido o
+	 *         si se combina {@code tags} con {@code all}, {@code any} o {@code none}.
 	 */
 	@GetMapping("/tags")
-	public ResponseEntity<List<Post>> searchPostsByTags(@RequestParam List<String> tags) {
-		if (tags == null || tags.isEmpty()) {
-			return ResponseEntity.noContent().build();
+	public ResponseEntity<byte[]> searchPostsByTags(@RequestParam(required = false) List<String> tags,
+			@RequestParam(required = false) List<String> all, @RequestParam(required = false) List<String> any,
+			@RequestParam(required = false) List<String> none, @RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer size, WebRequest request) {
+		TagQuery query = new TagQuery(all, any, none);
+		if (!query.isEmpty() && tags != null && !tags.isEmpty()) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
 		}
+		try {
+			if (!query.isEmpty()) {
+				HttpHeaders headers = new HttpHeaders();
+				headers.set(TOTAL_COUNT_HEADER, String.valueOf(postService.countPostsByTags(query)));
+				return toPageResponse(Arrays.asList("tags", all, any, none, cursor, size),
+						() -> postService.searchPostsByTags(query, cursor, size), request, headers);
+			}
 
-		List<Post> posts = postService.searchPostsByTags(tags);
-		return posts.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(posts);
+			if (tags == null || tags.isEmpty()) {
+				return ResponseEntity.noContent().build();
+			}
+			return toPageResponse(Arrays.asList("tags", tags, cursor, size),
+					() -> postService.searchPostsByTags(tags, cursor, size), request, new HttpHeaders());
+		} catch (PostInvalidDataException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+		}
 	}
 
 	/**
-	 * Obtiene los posts recientes desde una fecha específica.
+	 * Obtiene los posts recientes desde una fecha específica. Los resultados se
+	 * devuelven por páginas, con una ETag débil y la fecha de última modificación
+	 * de los posts del rango, para poder responder 304 sin leer la página.
+	 * Cada página se serializa una sola vez hasta la siguiente modificación (ver
+	 * {@link ResponseBodyCache}).
 	 * 
 	 * @param fromDate (Opcional) Fecha desde la cual buscar los posts.
-	 * @return Lista de posts recientes con estado 200 (OK), 204 (NO CONTENT) si no
-	 *         hay posts recientes.
+	 * @param cursor   (Opcional) Cursor de la página anterior.
+	 * @param size     (Opcional) Tamaño de página, como máximo {@value PostPage#MAX_SIZE}.
+	 * @param request  Petición, con las cabeceras condicionales opcionales.
+	 * @return Lista de posts recientes con estado 200 (OK), 304 (NOT MODIFIED) si
+	 *         no han cambiado, 204 (NO CONTENT) si no hay posts recientes, 400
+	 *         (BAD REQUEST) si el cursor no es válido.
 	 */
 	@GetMapping("/recent")
-	public ResponseEntity<List<Post>> getRecentPosts(@RequestParam(required = false) LocalDate fromDate) {
-		List<Post> posts = postService.getRecentPosts(fromDate != null ? fromDate.atStartOfDay() : null);
+	public ResponseEntity<byte[]> getRecentPosts(@RequestParam(required = false) LocalDate fromDate,
+			@RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size,
+			WebRequest request) {
+		LocalDateTime from = fromDate != null ? fromDate.atStartOfDay() : null;
+		try {
+			// La ETag de la colección depende de la última modificación del rango: si no ha cambiado, no se lee la página
+			HttpHeaders headers = new HttpHeaders();
+			Optional<LocalDateTime> lastModified = postService.getRecentPostsLastModified(from);
+			if (lastModified.isPresent()) {
+				// Sin fecha, el rango son los últimos 30 días hasta hoy: cambia cada día aunque no se modifique
+				// ningún post, así que el día forma parte de la ETag y la respuesta se considera modificada a
+				// medianoche
+				LocalDate rangeDay = fromDate != null ? fromDate : LocalDate.now();
+				long timestamp = PostVersion.toEpochMilli(lastModified.get());
+				if (fromDate == null) {
+					timestamp = Math.max(timestamp, PostVersion.toEpochMilli(rangeDay.atStartOfDay()));
+				}
+				String eTag = "W/\"" + Long.toHexString(timestamp) + "-" + Long.toHexString(rangeDay.toEpochDay()) + "\"";
+				if (request.checkNotModified(eTag, timestamp)) {
+					return null;
+				}
+				headers.setETag(eTag);
+				headers.setLastModified(timestamp);
+			}
+			return toPageResponse(Arrays.asList("recent", from, cursor, size),
+					() -> postService.getRecentPosts(from, cursor, size), request, headers);
+		} catch (PostInvalidDataException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+		}
+	}
+
+	/**
+	 * Obtiene el archivo de posts: el número de posts visibles por año, mes o día
+	 * de creación, para los índices por fechas de los blogs.
+	 * 
+	 * @param unit (Opcional) Unidad de agrupación: year, month (por defecto) o day.
+	 * @param from (Opcional) Primer día del rango, en la zona horaria indicada.
+	 * @param to   (Opcional) Último día del rango, incluido.
+	 * @param zone (Opcional) Zona horaria de los periodos, por ejemplo
+	 *             Europe/Madrid; por defecto, la del servidor.
+	 * @return Los periodos con algún post, del más reciente al más antiguo, con
+	 *         estado 200 (OK), 204 (NO CONTENT) si no hay posts en el rango, 400
+	 *         (BAD REQUEST) si la unidad, la zona o el rango no son válidos.
+	 */
+	@GetMapping("/archive")
+	public ResponseEntity<List<ArchiveBucket>> getArchive(@RequestParam(required = false) String unit,
+			@RequestParam(required = false) LocalDate from, @RequestParam(required = false) LocalDate to,
+			@RequestParam(required = false) String zone) {
+		try {
+			List<ArchiveBucket> buckets = postService.getArchive(ArchiveQuery.of(unit, from, to, zone));
+			return buckets.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(buckets);
+		} catch (PostInvalidDataException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+		}
+	}
 
-		return posts.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(posts);
+	/**
+	 * Obtiene el número de posts visibles de cada etiqueta, para la nube de
+	 * etiquetas. Sin parámetros cuenta todos los posts; con {@code keyword} o
+	 * {@code fromDate}, solo los que devolverían {@code /search} o {@code /recent}.
+	 * 
+	 * @param keyword  (Opcional) Palabra clave de la búsqueda cuyos resultados se cuentan.
+	 * @param fromDate (Opcional) Fecha de los posts recientes cuyos resultados se cuentan.
+	 * @return Las etiquetas de la más usada a la menos usada, con estado 200 (OK),
+	 *         204 (NO CONTENT) si no hay posts, 400 (BAD REQUEST) si se indican a la
+	 *         vez la palabra clave y la fecha.
+	 */
+	@GetMapping("/tags/facets")
+	public ResponseEntity<List<TagFacet>> getTagFacets(@RequestParam(required = false) String keyword,
+			@RequestParam(required = false) LocalDate fromDate) {
+		try {
+			List<TagFacet> facets = postService.getTagFacets(keyword, fromDate != null ? fromDate.atStartOfDay() : null);
+			return facets.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(facets);
+		} catch (PostInvalidDataException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+		}
+	}
+
+	/**
+	 * Variante en streaming de la búsqueda por palabra clave. Se selecciona con
+	 * {@code Accept: application/x-ndjson} y escribe cada post en cuanto se lee
+	 * del cursor de la base de datos, sin paginar ni acumular los resultados.
+	 * 
+	 * @param keyword Palabra clave para la búsqueda.
+	 * @return Los posts coincidentes, uno por línea, con estado 200 (OK).
+	 */
+	@GetMapping(value = "/search", produces = APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> streamSearchPosts(@RequestParam String keyword) {
+		return toNdjsonResponse(() -> postService.streamPostsByKeyword(keyword));
+	}
+
+	/**
+	 * Variante en streaming de la búsqueda por etiquetas, seleccionada con
+	 * {@code Accept: application/x-ndjson}. Admite las mismas formas de consulta
+	 * que la variante por páginas.
+	 * 
+	 * @param tags (Opcional) Lista de etiquetas para filtrar los posts.
+	 * @param all  (Opcional) Etiquetas que el post debe tener todas.
+	 * @param any  (Opcional) Etiquetas de las que el post debe tener alguna.
+	 * @param none (Opcional) Etiquetas que el post no debe tener.
+	 * @return Los posts coincidentes, uno por línea, con estado 200 (OK), o 400 (BAD
+	 *         REQUEST) si no se indica ninguna etiqueta o se combina {@code tags}
+	 *         con {@code all}, {@code any} o {@code none}.
+	 */
+	@GetMapping(value = "/tags", produces = APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> streamPostsByTags(@RequestParam(required = false) List<String> tags,
+			@RequestParam(required = false) List<String> all, @RequestParam(required = false) List<String> any,
+			@RequestParam(required = false) List<String> none) {
+		TagQuery query = new TagQuery(all, any, none);
+		boolean byTags = tags != null && !tags.isEmpty();
+		// Solo se admite una de las dos formas de consulta
+		if (byTags != query.isEmpty()) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+		}
+		return byTags ? toNdjsonResponse(() -> postService.streamPostsByTags(tags))
+				: toNdjsonResponse(() -> postService.streamPostsByTags(query));
+	}
+
+	/**
+	 * Variante en streaming de los posts recientes, seleccionada con
+	 * {@code Accept: application/x-ndjson}.
+	 * 
+	 * @param fromDate (Opcional) Fecha desde la cual buscar los posts.
+	 * @return Los posts recientes, uno por línea, con estado 200 (OK).
+	 */
+	@GetMapping(value = "/recent", produces = APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> streamRecentPosts(
+			@RequestParam(required = false) LocalDate fromDate) {
+		return toNdjsonResponse(() -> postService.streamRecentPosts(fromDate != null ? fromDate.atStartOfDay() : null));
 	}
 
 	/**
@@ -132,7 +523,8 @@ public class PostController {
 	 * @param id   Identificador del post a actualizar.
 	 * @param post Datos actualizados del post.
 	 * @return El post actualizado con estado 200 (OK), 404 (NOT FOUND) si el post
-	 *         no existe, 400 (BAD REQUEST) si los datos son inválidos.
+	 *         no existe, 400 (BAD REQUEST) si los datos son inválidos, 409
+	 *         (CONFLICT) si el nuevo título ya lo usa otro post.
 	 */
 	@PutMapping("/{id}")
 	public ResponseEntity<Post> updatePost(@PathVariable String id, @RequestBody Post post) {
@@ -143,6 +535,31 @@ public class PostController {
 			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
 		} catch (PostInvalidDataException e) {
 			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+		} catch (PostAlreadyExistsException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(null);
+		}
+	}
+
+	/**
+	 * Modifica solo los campos de un post presentes en el parche JSON Merge Patch;
+	 * un valor null elimina el campo (solo se admite en las etiquetas).
+	 * 
+	 * @param id    Identificador del post a modificar.
+	 * @param patch Campos a modificar: title, summary, pdfUrl, tags y visible.
+	 * @return El post modificado con estado 200 (OK), 404 (NOT FOUND) si el post
+	 *         no existe, 400 (BAD REQUEST) si el parche no es válido, 409
+	 *         (CONFLICT) si el nuevo título ya lo usa otro post.
+	 */
+	@PatchMapping(value = "/{id}", consumes = { APPLICATION_MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE })
+	public ResponseEntity<Post> patchPost(@PathVariable String id, @RequestBody Map<String, Object> patch) {
+		try {
+			return ResponseEntity.ok(postService.patchPost(id, patch));
+		} catch (PostNotFoundException e) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
+		} catch (PostInvalidDataException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
+		} catch (PostAlreadyExistsException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(null);
 		}
 	}
 
@@ -162,4 +579,153 @@ public class PostController {
 		return ResponseEntity.ok().build();
 	}
 
+	/**
+	 * Indica si la petición lleva cabeceras de validación condicional.
+	 */
+	private static boolean isConditional(WebRequest request) {
+		return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+				|| request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+	}
+
+	/**
+	 * Interpreta la cabecera {@code Range}; si no es válida se ignora y se sirve el
+	 * archivo completo, como indica la RFC 9110.
+	 */
+	private static List<HttpRange> parseRanges(String range) {
+		if (range == null) {
+			return List.of();
+		}
+		try {
+			return HttpRange.parseRanges(range);
+		} catch (IllegalArgumentException e) {
+			return List.of();
+		}
+	}
+
+	private static MediaType contentType(PostContent content) {
+		try {
+			return MediaType.parseMediaType(content.getContentType());
+		} catch (InvalidMediaTypeException e) {
+			return MediaType.APPLICATION_OCTET_STREAM;
+		}
+	}
+
+	/**
+	 * Copia un tramo del archivo con {@link FileChannel#transferTo}, que delega la
+	 * copia en el sistema operativo cuando el destino lo permite.
+	 */
+	private static void transfer(FileChannel channel, long position, long count, WritableByteChannel target)
+			throws IOException {
+		long transferred = 0;
+		while (transferred < count) {
+			long written = channel.transferTo(position + transferred, count - transferred, target);
+			if (written <= 0) {
+				break;
+			}
+			transferred += written;
+		}
+	}
+
+	private static void closeQuietly(PostContent content) {
+		try {
+			content.close();
+		} catch (IOException e) {
+			// Solo se ha leído, no hay nada que perder
+		}
+	}
+
+	/**
+	 * Indica si el cliente acepta respuestas comprimidas con gzip según la cabecera
+	 * {@code Accept-Encoding}; una codificación con {@code q=0} se rechaza.
+	 */
+	private static boolean acceptsGzip(WebRequest request) {
+		String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+		if (acceptEncoding == null) {
+			return false;
+		}
+		for (String coding : acceptEncoding.split(",")) {
+			String[] parts = coding.split(";");
+			String name = parts[0].trim();
+			if (name.equalsIgnoreCase("gzip") || name.equals("*")) {
+				return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Obtiene una página de posts ya serializada, de la caché de respuestas o del
+	 * servicio, y la convierte en la respuesta HTTP, añadiendo el cursor de la
+	 * página siguiente cuando existe. La página se escribe en JSON, CBOR o Smile
+	 * según la cabecera {@code Accept} (ver {@link ResponseFormat}). La generación
+	 * de la caché se lee antes de consultar la página.
+	 */
+	private ResponseEntity<byte[]> toPageResponse(List<?> query, Supplier<PostPage> page, WebRequest request,
+			HttpHeaders headers) {
+		long generation = responseCache.generation();
+		boolean gzip = acceptsGzip(request);
+		ResponseFormat format = ResponseFormat.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+		EncodedResponse response = responseCache.getPage(query, generation, page, format, gzip);
+		if (response.isEmpty()) {
+			return ResponseEntity.noContent().headers(headers).build();
+		}
+		if (response.getNextCursor() != null) {
+			String next = ServletUriComponentsBuilder.fromCurrentRequest()
+					.replaceQueryParam("cursor", response.getNextCursor())
+					.toUriString();
+			headers.set(NEXT_CURSOR_HEADER, response.getNextCursor());
+			headers.set(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+		}
+		headers.setContentType(format.getMediaType());
+		headers.setVary(List.of(HttpHeaders.ACCEPT));
+		return toEncodedResponse(response, gzip, headers);
+	}
+
+	/**
+	 * Construye una respuesta con el cuerpo ya serializado, que se copia tal cual en
+	 * la salida, en JSON salvo que las cabeceras ya indiquen otro tipo. Si existe la
+	 * variante comprimida y el cliente la acepta, se envía esa, y una ETag fuerte
+	 * pasa a ser débil: sus bytes no son los de la variante sin comprimir.
+	 */
+	private static ResponseEntity<byte[]> toEncodedResponse(EncodedResponse response, boolean gzip,
+			HttpHeaders headers) {
+		if (headers.getContentType() == null) {
+			headers.setContentType(MediaType.APPLICATION_JSON);
+		}
+		byte[] body = response.getBody();
+		if (response.getGzipBody() != null) {
+			List<String> vary = new ArrayList<>(headers.getVary());
+			vary.add(HttpHeaders.ACCEPT_ENCODING);
+			headers.setVary(vary);
+			if (gzip) {
+				headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+				String eTag = headers.getETag();
+				if (eTag != null && !eTag.startsWith("W/")) {
+					headers.setETag("W/" + eTag);
+				}
+				body = response.getGzipBody();
+			}
+		}
+		return ResponseEntity.ok().headers(headers).body(body);
+	}
+
+	/**
+	 * Construye una respuesta NDJSON que escribe los posts a medida que se leen.
+	 * El Stream se abre en el hilo que escribe la respuesta y se cierra siempre al
+	 * terminar, también cuando el cliente se desconecta y la escritura falla, de
+	 * modo que el cursor de MongoDB no queda abierto.
+	 */
+	private ResponseEntity<StreamingResponseBody> toNdjsonResponse(Supplier<Stream<Post>> source) {
+		StreamingResponseBody body = (OutputStream out) -> {
+			try (Stream<Post> posts = source.get()) {
+				Iterator<Post> iterator = posts.iterator();
+				while (iterator.hasNext()) {
+					out.write(postWriter.writeValueAsBytes(iterator.next()));
+					out.write('\n');
+				}
+			}
+		};
+		return ResponseEntity.ok().contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE)).body(body);
+	}
+
 }
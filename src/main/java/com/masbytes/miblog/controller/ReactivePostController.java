@@ -0,0 +1,389 @@
+package com.masbytes.miblog.controller;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.masbytes.miblog.dto.ArchiveBucket;
+import com.masbytes.miblog.dto.ArchiveQuery;
+import com.masbytes.miblog.dto.PostPage;
+import com.masbytes.miblog.dto.PostVersion;
+import com.masbytes.miblog.dto.ScoredPost;
+import com.masbytes.miblog.dto.TagFacet;
+import com.masbytes.miblog.dto.TagQuery;
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.exception.PostAlreadyExistsException;
+import com.masbytes.miblog.exception.PostInvalidDataException;
+import com.masbytes.miblog.exception.PostNotFoundException;
+import com.masbytes.miblog.service.ReactivePostService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Controlador REST reactivo (WebFlux) para la gestión de publicaciones en el blog, activo con el
+ * perfil {@code reactive}. Expone las mismas rutas, cabeceras y códigos de estado que
+ * {@link PostController}, salvo la carga masiva ({@code POST /api/posts/bulk}), que solo existe en
+ * la API bloqueante.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/posts")
+public class ReactivePostController {
+
+	private final ReactivePostService postService;
+
+	/**
+	 * Constructor para inyectar el servicio reactivo de posts.
+	 *
+	 * @param postService Servicio que gestiona la lógica de negocio de los posts.
+	 */
+	public ReactivePostController(ReactivePostService postService) {
+		this.postService = postService;
+	}
+
+	/**
+	 * Crea un nuevo post en el blog.
+	 *
+	 * @param post Datos del post a crear.
+	 * @return El post creado con estado 201 (CREATED) si es exitoso, 400 (BAD
+	 *         REQUEST) si los datos son inválidos, 409 (CONFLICT) si el post ya
+	 *         existe.
+	 */
+	@PostMapping
+	public Mono<ResponseEntity<Post>> createPost(@RequestBody Post post) {
+		return postService.createPost(post)
+				.map(createdPost -> ResponseEntity.status(HttpStatus.CREATED).body(createdPost))
+				.onErrorResume(PostInvalidDataException.class, e -> status(HttpStatus.BAD_REQUEST))
+				.onErrorResume(PostAlreadyExistsException.class, e -> status(HttpStatus.CONFLICT));
+	}
+
+	/**
+	 * Obtiene un post por su identificador único, con ETag fuerte y fecha de última
+	 * modificación. Si la petición es condicional y el post no ha cambiado, se
+	 * responde 304 comprobando solo su versión.
+	 *
+	 * @param id       Identificador del post.
+	 * @param exchange Intercambio HTTP, con las cabeceras condicionales opcionales.
+	 * @return El post encontrado con estado 200 (OK), 304 (NOT MODIFIED) si no ha
+	 *         cambiado, 404 (NOT FOUND) si no se encuentra.
+	 */
+	@GetMapping("/{id}")
+	public Mono<ResponseEntity<Post>> getPostById(@PathVariable String id, ServerWebExchange exchange) {
+		Mono<Boolean> notModified = isConditional(exchange.getRequest())
+				? postService.getPostVersion(id).map(version -> exchange.checkNotModified(version.getETag(),
+						Instant.ofEpochMilli(version.getLastModified())))
+				: Mono.just(false);
+		return notModified
+				.flatMap(unchanged -> unchanged
+						? Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).<Post>build())
+						: postService.getPostById(id).map(post -> {
+							PostVersion version = PostVersion.of(post);
+							return ResponseEntity.ok().eTag(version.getETag()).lastModified(version.getLastModified())
+									.body(post);
+						}))
+				.onErrorResume(PostNotFoundException.class, e -> status(HttpStatus.NOT_FOUND));
+	}
+
+	/**
+	 * Busca posts por una palabra clave en el contenido o título, por páginas.
+	 *
+	 * @param keyword Palabra clave para la búsqueda.
+	 * @param cursor  (Opcional) Cursor de la página anterior.
+	 * @param size    (Opcional) Tamaño de página, como máximo {@value PostPage#MAX_SIZE}.
+	 * @param request Petición, para construir el enlace a la página siguiente.
+	 * @return Lista de posts coincidentes con estado 200 (OK), 204 (NO CONTENT) si
+	 *         no hay coincidencias, 400 (BAD REQUEST) si el cursor no es válido.
+	 */
+	@GetMapping("/search")
+	public Mono<ResponseEntity<List<Post>>> searchPosts(@RequestParam String keyword,
+			@RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size,
+			ServerHttpRequest request) {
+		return postService.searchPostByKeyword(keyword, cursor, size)
+				.map(page -> toPageResponse(page, new HttpHeaders(), request))
+				.onErrorResume(PostInvalidDataException.class, e -> status(HttpStatus.BAD_REQUEST));
+	}
+
+	/**
+	 * Busca posts por relevancia usando el índice de texto del título y el resumen.
+	 *
+	 * @param q    Texto de búsqueda.
+	 * @param size (Opcional) Número máximo de resultados, como máximo {@value PostPage#MAX_SIZE}.
+	 * @return Posts coincidentes con su puntuación con estado 200 (OK), 204 (NO
+	 *         CONTENT) si no hay coincidencias, 400 (BAD REQUEST) si la búsqueda
+	 *         está vacía.
+	 */
+	@GetMapping("/search/text")
+	public Mono<ResponseEntity<List<ScoredPost>>> searchPostsByText(@RequestParam String q,
+			@RequestParam(required = false) Integer size) {
+		return postService.searchPostsByText(q, size).collectList()
+				.map(posts -> posts.isEmpty() ? ResponseEntity.noContent().<List<ScoredPost>>build()
+						: ResponseEntity.ok(posts))
+				.onErrorResume(PostInvalidDataException.class, e -> status(HttpStatus.BAD_REQUEST));
+	}
+
+	/**
+	 * Busca posts por etiquetas específicas, por páginas. Con {@code all},
+	 * {@code any} y {@code none} el total se cuenta a la vez que se lee la página
+	 * y se devuelve en la cabecera {@value PostController#TOTAL_COUNT_HEADER}. Las
+	 * dos formas no se pueden combinar.
+	 *
+	 * @param tags    (Opcional) Lista de etiquetas para filtrar los posts.
+	 * @param all     (Opcional) Etiquetas que el post debe tener todas.
+	 * @param any     (Opcional) Etiquetas de las que el post debe tener alguna.
+	 * @param none    (Opcional) Etiquetas que el post no debe tener.
+	 * @param cursor  (Opcional) Cursor de la página anterior.
+	 * @param size    (Opcional) Tamaño de página, como máximo {@value PostPage#MAX_SIZE}.
+	 * @param request Petición, para construir el enlace a la página siguiente.
+	 * @return Lista de posts coincidentes con estado 200 (OK), 204 (NO CONTENT) si
+	 *         no hay coincidencias, 400 (BAD REQUEST) si el cursor no es válido o
+	 *         si se combina {@code tags} con {@code all}, {@code any} o {@code none}.
+	 */
+	@GetMapping("/tags")
+	public Mono<ResponseEntity<List<Post>>> searchPostsByTags(@RequestParam(required = false) List<String> tags,
+			@RequestParam(required = false) List<String> all, @RequestParam(required = false) List<String> any,
+			@RequestParam(required = false) List<String> none, @RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer size, ServerHttpRequest request) {
+		TagQuery query = new TagQuery(all, any, none);
+		Mono<ResponseEntity<List<Post>>> response;
+		if (!query.isEmpty() && tags != null && !tags.isEmpty()) {
+			return status(HttpStatus.BAD_REQUEST);
+		} else if (!query.isEmpty()) {
+			response = Mono.zip(postService.countPostsByTags(query), postService.searchPostsByTags(query, cursor, size))
+					.map(countAndPage -> {
+						HttpHeaders headers = new HttpHeaders();
+						headers.set(PostController.TOTAL_COUNT_HEADER, String.valueOf(countAndPage.getT1()));
+						return toPageResponse(countAndPage.getT2(), headers, request);
+					});
+		} else if (tags == null || tags.isEmpty()) {
+			return Mono.just(ResponseEntity.noContent().build());
+		} else {
+			response = postService.searchPostsByTags(tags, cursor, size)
+					.map(page -> toPageResponse(page, new HttpHeaders(), request));
+		}
+		return response.onErrorResume(PostInvalidDataException.class, e -> status(HttpStatus.BAD_REQUEST));
+	}
+
+	/**
+	 * Obtiene los posts recientes desde una fecha específica, por páginas.
+	 *
+	 * @param fromDate (Opcional) Fecha desde la cual buscar los posts.
+	 * @param cursor   (Opcional) Cursor de la página anterior.
+	 * @param size     (Opcional) Tamaño de página, como máximo {@value PostPage#MAX_SIZE}.
+	 * @param request  Petición, para construir el enlace a la página siguiente.
+	 * @return Lista de posts recientes con estado 200 (OK), 204 (NO CONTENT) si no
+	 *         hay posts recientes, 400 (BAD REQUEST) si el cursor no es válido.
+	 */
+	@GetMapping("/recent")
+	public Mono<ResponseEntity<List<Post>>> getRecentPosts(@RequestParam(required = false) LocalDate fromDate,
+			@RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size,
+			ServerHttpRequest request) {
+		LocalDateTime from = fromDate != null ? fromDate.atStartOfDay() : null;
+		return postService.getRecentPosts(from, cursor, size)
+				.map(page -> toPageResponse(page, new HttpHeaders(), request))
+				.onErrorResume(PostInvalidDataException.class, e -> status(HttpStatus.BAD_REQUEST));
+	}
+
+	/**
+	 * Obtiene el archivo de posts: el número de posts visibles por año, mes o día
+	 * de creación, para los índices por fechas de los blogs.
+	 *
+	 * @param unit (Opcional) Unidad de agrupación: year, month (por defecto) o day.
+	 * @param from (Opcional) Primer día del rango, en la zona horaria indicada.
+	 * @param to   (Opcional) Último día del rango, incluido.
+	 * @param zone (Opcional) Zona horaria de los periodos, por ejemplo
+	 *             Europe/Madrid; por defecto, la del servidor.
+	 * @return Los periodos con algún post, del más reciente al más antiguo, con
+	 *         estado 200 (OK), 204 (NO CONTENT) si no hay posts en el rango, 400
+	 *         (BAD REQUEST) si la unidad, la zona o el rango no son válidos.
+	 */
+	@GetMapping("/archive")
+	public Mono<ResponseEntity<List<ArchiveBucket>>> getArchive(@RequestParam(required = false) String unit,
+			@RequestParam(required = false) LocalDate from, @RequestParam(required = false) LocalDate to,
+			@RequestParam(required = false) String zone) {
+		return Mono.fromCallable(() -> ArchiveQuery.of(unit, from, to, zone))
+				.flatMap(query -> postService.getArchive(query).collectList())
+				.map(buckets -> buckets.isEmpty() ? ResponseEntity.noContent().<List<ArchiveBucket>>build()
+						: ResponseEntity.ok(buckets))
+				.onErrorResume(PostInvalidDataException.class, e -> status(HttpStatus.BAD_REQUEST));
+	}
+
+	/**
+	 * Obtiene el número de posts visibles de cada etiqueta, para la nube de
+	 * etiquetas. Sin parámetros cuenta todos los posts; con {@code keyword} o
+	 * {@code fromDate}, solo los que devolverían {@code /search} o {@code /recent}.
+	 *
+	 * @param keyword  (Opcional) Palabra clave de la búsqueda cuyos resultados se cuentan.
+	 * @param fromDate (Opcional) Fecha de los posts recientes cuyos resultados se cuentan.
+	 * @return Las etiquetas de la más usada a la menos usada, con estado 200 (OK),
+	 *         204 (NO CONTENT) si no hay posts, 400 (BAD REQUEST) si se indican a la
+	 *         vez la palabra clave y la fecha.
+	 */
+	@GetMapping("/tags/facets")
+	public Mono<ResponseEntity<List<TagFacet>>> getTagFacets(@RequestParam(required = false) String keyword,
+			@RequestParam(required = false) LocalDate fromDate) {
+		return postService.getTagFacets(keyword, fromDate != null ? fromDate.atStartOfDay() : null)
+				.collectList()
+				.map(facets -> facets.isEmpty() ? ResponseEntity.noContent().<List<TagFacet>>build()
+						: ResponseEntity.ok(facets))
+				.onErrorResume(PostInvalidDataException.class, e -> status(HttpStatus.BAD_REQUEST));
+	}
+
+	/**
+	 * Variante en streaming de la búsqueda por palabra clave, seleccionada con
+	 * {@code Accept: application/x-ndjson}. Cada post se escribe en cuanto llega
+	 * del driver, y el driver solo pide a MongoDB los lotes que el cliente es capaz
+	 * de consumir (contrapresión).
+	 *
+	 * @param keyword Palabra clave para la búsqueda.
+	 * @return Los posts coincidentes, uno por línea, con estado 200 (OK).
+	 */
+	@GetMapping(value = "/search", produces = PostController.APPLICATION_NDJSON_VALUE)
+	public Flux<Post> streamSearchPosts(@RequestParam String keyword) {
+		return postService.streamPostsByKeyword(keyword);
+	}
+
+	/**
+	 * Variante en streaming de la búsqueda por etiquetas, seleccionada con
+	 * {@code Accept: application/x-ndjson}. Admite las mismas formas de consulta
+	 * que la variante por páginas.
+	 *
+	 * @param tags (Opcional) Lista de etiquetas para filtrar los posts.
+	 * @param all  (Opcional) Etiquetas que el post debe tener todas.
+	 * @param any  (Opcional) Etiquetas de las que el post debe tener alguna.
+	 * @param none (Opcional) Etiquetas que el post no debe tener.
+	 * @return Los posts coincidentes, uno por línea, con estado 200 (OK), o 400 (BAD
+	 *         REQUEST) si no se indica ninguna etiqueta o se combina {@code tags}
+	 *         con {@code all}, {@code any} o {@code none}.
+	 */
+	@GetMapping(value = "/tags", produces = PostController.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<Flux<Post>> streamPostsByTags(@RequestParam(required = false) List<String> tags,
+			@RequestParam(required = false) List<String> all, @RequestParam(required = false) List<String> any,
+			@RequestParam(required = false) List<String> none) {
+		TagQuery query = new TagQuery(all, any, none);
+		boolean byTags = tags != null && !tags.isEmpty();
+		// Solo se admite una de las dos formas de consulta
+		if (byTags != query.isEmpty()) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+		}
+		return ResponseEntity.ok(byTags ? postService.streamPostsByTags(tags) : postService.streamPostsByTags(query));
+	}
+
+	/**
+	 * Variante en streaming de los posts recientes, seleccionada con
+	 * {@code Accept: application/x-ndjson}.
+	 *
+	 * @param fromDate (Opcional) Fecha desde la cual buscar los posts.
+	 * @return Los posts recientes, uno por línea, con estado 200 (OK).
+	 */
+	@GetMapping(value = "/recent", produces = PostController.APPLICATION_NDJSON_VALUE)
+	public Flux<Post> streamRecentPosts(@RequestParam(required = false) LocalDate fromDate) {
+		return postService.streamRecentPosts(fromDate != null ? fromDate.atStartOfDay() : null);
+	}
+
+	/**
+	 * Actualiza un post existente.
+	 *
+	 * @param id   Identificador del post a actualizar.
+	 * @param post Datos actualizados del post.
+	 * @return El post actualizado con estado 200 (OK), 404 (NOT FOUND) si el post
+	 *         no existe, 400 (BAD REQUEST) si los datos son inválidos, 409
+	 *         (CONFLICT) si el nuevo título ya lo usa otro post.
+	 */
+	@PutMapping("/{id}")
+	public Mono<ResponseEntity<Post>> updatePost(@PathVariable String id, @RequestBody Post post) {
+		return toUpdateResponse(postService.updatePost(id, post));
+	}
+
+	/**
+	 * Modifica solo los campos de un post presentes en el parche JSON Merge Patch.
+	 *
+	 * @param id    Identificador del post a modificar.
+	 * @param patch Campos a modificar: title, summary, pdfUrl, tags y visible.
+	 * @return El post modificado con estado 200 (OK), 404 (NOT FOUND) si el post
+	 *         no existe, 400 (BAD REQUEST) si el parche no es válido, 409
+	 *         (CONFLICT) si el nuevo título ya lo usa otro post.
+	 */
+	@PatchMapping(value = "/{id}",
+			consumes = { PostController.APPLICATION_MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE })
+	public Mono<ResponseEntity<Post>> patchPost(@PathVariable String id, @RequestBody Map<String, Object> patch) {
+		return toUpdateResponse(postService.patchPost(id, patch));
+	}
+
+	/**
+	 * Actualiza la visibilidad de un post.
+	 *
+	 * @param id          Identificador del post.
+	 * @param requestBody Cuerpo de la solicitud con el campo "visible".
+	 * @return Estado 200 (OK) si la visibilidad fue actualizada correctamente.
+	 */
+	@PatchMapping("/{id}/visibility")
+	public Mono<ResponseEntity<Post>> updatePostVisibility(@PathVariable String id,
+			@RequestBody Map<String, Boolean> requestBody) {
+		boolean visible = requestBody.get("visible");
+		return postService.setPostVisibility(id, visible).then(Mono.just(ResponseEntity.ok().build()));
+	}
+
+	/**
+	 * Indica si la petición lleva cabeceras de validación condicional.
+	 */
+	private static boolean isConditional(ServerHttpRequest request) {
+		return request.getHeaders().containsKey(HttpHeaders.IF_NONE_MATCH)
+				|| request.getHeaders().containsKey(HttpHeaders.IF_MODIFIED_SINCE);
+	}
+
+	/**
+	 * Convierte una página de posts en la respuesta HTTP, añadiendo el cursor de la
+	 * página siguiente cuando existe.
+	 */
+	private static ResponseEntity<List<Post>> toPageResponse(PostPage page, HttpHeaders headers,
+			ServerHttpRequest request) {
+		if (page.isEmpty()) {
+			return ResponseEntity.noContent().headers(headers).build();
+		}
+		if (page.getNextCursor() != null) {
+			String next = UriComponentsBuilder.fromUri(request.getURI())
+					.replaceQueryParam("cursor", page.getNextCursor())
+					.toUriString();
+			headers.set(PostController.NEXT_CURSOR_HEADER, page.getNextCursor());
+			headers.set(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+		}
+		return ResponseEntity.ok().headers(headers).body(page.getPosts());
+	}
+
+	/**
+	 * Traduce el resultado de una modificación a la respuesta HTTP y sus errores a los
+	 * mismos códigos de estado que la API bloqueante.
+	 */
+	private static Mono<ResponseEntity<Post>> toUpdateResponse(Mono<Post> updatedPost) {
+		return updatedPost.map(ResponseEntity::ok)
+				.onErrorResume(PostNotFoundException.class, e -> status(HttpStatus.NOT_FOUND))
+				.onErrorResume(PostInvalidDataException.class, e -> status(HttpStatus.BAD_REQUEST))
+				.onErrorResume(PostAlreadyExistsException.class, e -> status(HttpStatus.CONFLICT));
+	}
+
+	private static <T> Mono<ResponseEntity<T>> status(HttpStatus status) {
+		return Mono.just(ResponseEntity.status(status).body(null));
+	}
+
+}
@@ -0,0 +1,21 @@
+package com.masbytes.miblog.dto;
+
+import lombok.Value;
+
+/**
+ * Número de posts visibles creados en un periodo del archivo.
+ */
+@Value
+public class ArchiveBucket {
+
+	/**
+	 * Periodo en la zona horaria de la consulta: {@code 2024}, {@code 2024-03} o {@code 2024-03-15}.
+	 */
+	String period;
+
+	/**
+	 * Número de posts visibles creados en el periodo.
+	 */
+	long count;
+
+}
@@ -0,0 +1,80 @@
+package com.masbytes.miblog.dto;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import com.masbytes.miblog.exception.PostInvalidDataException;
+
+import lombok.Value;
+
+/**
+ * Consulta del archivo de posts: recuento de posts visibles por año, mes o día de creación en una
+ * zona horaria, opcionalmente entre dos fechas (ambas incluidas) de esa misma zona.
+ */
+@Value
+public class ArchiveQuery {
+
+	ArchiveUnit unit;
+
+	/**
+	 * Zona horaria en la que se calculan los periodos y se interpretan las fechas del rango.
+	 */
+	ZoneId zone;
+
+	/**
+	 * Primer día del rango, o null para empezar por el post más antiguo.
+	 */
+	LocalDate from;
+
+	/**
+	 * Último día del rango, o null para terminar en el post más reciente.
+	 */
+	LocalDate to;
+
+	/**
+	 * Valida y construye una consulta a partir de los parámetros de la petición.
+	 *
+	 * @param unit La unidad ({@code year}, {@code month} o {@code day}), o null para agrupar por meses.
+	 * @param from El primer día del rango, o null.
+	 * @param to El último día del rango, o null.
+	 * @param zone El identificador de la zona horaria (por ejemplo {@code Europe/Madrid}), o null para
+	 *        usar la del servidor, que es en la que se guardan las fechas de creación.
+	 * @return La consulta.
+	 * @throws PostInvalidDataException Si la unidad o la zona no son válidas o el rango está invertido.
+	 */
+	public static ArchiveQuery of(String unit, LocalDate from, LocalDate to, String zone)
+			throws PostInvalidDataException {
+		if (from != null && to != null && from.isAfter(to)) {
+			throw new PostInvalidDataException("La fecha inicial del archivo es posterior a la final.");
+		}
+		ZoneId zoneId;
+		try {
+			zoneId = zone == null ? ZoneId.systemDefault() : ZoneId.of(zone);
+		} catch (DateTimeException e) {
+			throw new PostInvalidDataException("Zona horaria no válida: " + zone);
+		}
+		return new ArchiveQuery(ArchiveUnit.parse(unit), zoneId, from, to);
+	}
+
+	/**
+	 * Inicio del rango (incluido) como fecha de creación del servidor, o null si no tiene inicio.
+	 */
+	public LocalDateTime startOfRange() {
+		return from == null ? null : toServerTime(from);
+	}
+
+	/**
+	 * Fin del rango (excluido) como fecha de creación del servidor: el inicio del día siguiente a
+	 * {@link #to}, o null si no tiene fin.
+	 */
+	public LocalDateTime endOfRange() {
+		return to == null ? null : toServerTime(to.plusDays(1));
+	}
+
+	private LocalDateTime toServerTime(LocalDate day) {
+		return LocalDateTime.ofInstant(day.atStartOfDay(zone).toInstant(), ZoneId.systemDefault());
+	}
+
+}
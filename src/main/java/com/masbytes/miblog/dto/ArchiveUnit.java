@@ -0,0 +1,63 @@
+package com.masbytes.miblog.dto;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+import com.masbytes.miblog.exception.PostInvalidDataException;
+
+/**
+ * Unidad de agrupación del archivo de posts: año, mes o día de creación.
+ */
+public enum ArchiveUnit {
+
+	YEAR("%Y", DateTimeFormatter.ofPattern("uuuu")),
+	MONTH("%Y-%m", DateTimeFormatter.ofPattern("uuuu-MM")),
+	DAY("%Y-%m-%d", DateTimeFormatter.ISO_LOCAL_DATE);
+
+	private final String mongoFormat;
+
+	private final DateTimeFormatter formatter;
+
+	ArchiveUnit(String mongoFormat, DateTimeFormatter formatter) {
+		this.mongoFormat = mongoFormat;
+		this.formatter = formatter;
+	}
+
+	/**
+	 * Formato de {@code $dateToString} que produce el mismo periodo que {@link #period(LocalDate)}.
+	 */
+	public String getMongoFormat() {
+		return mongoFormat;
+	}
+
+	/**
+	 * Periodo al que pertenece un día, con el formato que se devuelve a los clientes:
+	 * {@code 2024}, {@code 2024-03} o {@code 2024-03-15}.
+	 *
+	 * @param day El día.
+	 * @return El periodo del día en esta unidad.
+	 */
+	public String period(LocalDate day) {
+		return formatter.format(day);
+	}
+
+	/**
+	 * Interpreta el nombre de una unidad sin distinguir mayúsculas.
+	 *
+	 * @param value El nombre de la unidad, o null para agrupar por meses.
+	 * @return La unidad.
+	 * @throws PostInvalidDataException Si el nombre no es {@code year}, {@code month} ni {@code day}.
+	 */
+	public static ArchiveUnit parse(String value) throws PostInvalidDataException {
+		if (value == null) {
+			return MONTH;
+		}
+		try {
+			return valueOf(value.toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			throw new PostInvalidDataException("Unidad de archivo no válida: " + value);
+		}
+	}
+
+}
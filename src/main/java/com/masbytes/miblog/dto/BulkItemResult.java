@@ -0,0 +1,50 @@
+package com.masbytes.miblog.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Value;
+
+/**
+ * Resultado de la carga de un post dentro de una carga masiva.
+ */
+@Value
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResult {
+
+	/**
+	 * Posible resultado de la carga de un post.
+	 */
+	public enum Status {
+		/** El post se guardó correctamente. */
+		CREATED,
+		/** Los datos del post no son válidos. */
+		INVALID,
+		/** Ya existe un post con el mismo título. */
+		DUPLICATE,
+		/** La base de datos rechazó el post. */
+		FAILED,
+		/** El elemento no se pudo leer; la carga se detuvo en él. */
+		MALFORMED
+	}
+
+	/**
+	 * Posición del post en la entrada, empezando por 0.
+	 */
+	int index;
+
+	/**
+	 * Resultado de la carga.
+	 */
+	Status status;
+
+	/**
+	 * Identificador asignado, si el post se creó.
+	 */
+	String id;
+
+	/**
+	 * Motivo del rechazo, si el post no se creó.
+	 */
+	String message;
+
+}
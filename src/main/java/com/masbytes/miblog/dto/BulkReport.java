@@ -0,0 +1,28 @@
+package com.masbytes.miblog.dto;
+
+import java.util.List;
+
+import lombok.Value;
+
+/**
+ * Informe de una carga masiva de posts, con el resultado de cada elemento de la entrada.
+ */
+@Value
+public class BulkReport {
+
+	/**
+	 * Número de posts guardados.
+	 */
+	long created;
+
+	/**
+	 * Número de posts rechazados.
+	 */
+	long rejected;
+
+	/**
+	 * Resultado de cada post, en el orden de la entrada.
+	 */
+	List<BulkItemResult> items;
+
+}
@@ -0,0 +1,48 @@
+package com.masbytes.miblog.dto;
+
+import lombok.Value;
+
+/**
+ * Cuerpo de una respuesta ya serializado a JSON (UTF-8), listo para copiarse tal cual en la
+ * respuesta HTTP, con su variante comprimida con gzip cuando compensa.
+ */
+@Value
+public class EncodedResponse {
+
+	/**
+	 * Respuesta de una página sin posts, que no tiene cuerpo.
+	 */
+	public static final EncodedResponse EMPTY = new EncodedResponse(null, null, null);
+
+	/**
+	 * El JSON en UTF-8, o null si la página está vacía.
+	 */
+	byte[] body;
+
+	/**
+	 * El mismo JSON comprimido con gzip, o null si es demasiado pequeño para comprimirlo.
+	 */
+	byte[] gzipBody;
+
+	/**
+	 * Cursor de la página siguiente en los listados, o null si no hay más páginas.
+	 */
+	String nextCursor;
+
+	/**
+	 * @return true si la respuesta no tiene cuerpo.
+	 */
+	public boolean isEmpty() {
+		return body == null;
+	}
+
+	/**
+	 * Bytes que ocupa en memoria el cuerpo, con su variante comprimida.
+	 *
+	 * @return La suma de las longitudes de los cuerpos.
+	 */
+	public int size() {
+		return (body == null ? 0 : body.length) + (gzipBody == null ? 0 : gzipBody.length);
+	}
+
+}
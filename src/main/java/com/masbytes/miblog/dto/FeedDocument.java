@@ -0,0 +1,42 @@
+package com.masbytes.miblog.dto;
+
+import org.springframework.util.DigestUtils;
+
+import lombok.Value;
+
+/**
+ * Documento XML ya generado (un feed o una parte del sitemap), listo para copiarse tal cual en la
+ * respuesta HTTP, con sus validadores para las peticiones condicionales.
+ */
+@Value
+public class FeedDocument {
+
+	/**
+	 * El XML en UTF-8.
+	 */
+	byte[] body;
+
+	/**
+	 * Valor de la ETag fuerte, sin comillas: el resumen MD5 del cuerpo, de modo que todas las
+	 * instancias dan la misma ETag al mismo documento.
+	 */
+	String eTag;
+
+	/**
+	 * Fecha de la última modificación de los posts del documento, en milisegundos desde la época,
+	 * o -1 si no tiene posts.
+	 */
+	long lastModified;
+
+	/**
+	 * Crea un documento calculando su ETag.
+	 *
+	 * @param body El XML en UTF-8.
+	 * @param lastModified La última modificación de sus posts, o -1.
+	 * @return El documento.
+	 */
+	public static FeedDocument of(byte[] body, long lastModified) {
+		return new FeedDocument(body, DigestUtils.md5DigestAsHex(body), lastModified);
+	}
+
+}
@@ -0,0 +1,51 @@
+package com.masbytes.miblog.dto;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+import lombok.Value;
+
+/**
+ * Archivo de un post abierto desde la caché en disco, listo para enviarse al cliente.
+ * El canal se abre mientras el archivo está en la caché, de modo que sigue siendo legible aunque
+ * el archivo se expulse durante el envío; quien lo recibe debe cerrarlo.
+ */
+@Value
+public class PostContent implements Closeable {
+
+	/**
+	 * Canal de lectura del archivo en la caché.
+	 */
+	FileChannel channel;
+
+	/**
+	 * Tamaño del archivo en bytes.
+	 */
+	long length;
+
+	/**
+	 * Tipo de contenido del archivo.
+	 */
+	String contentType;
+
+	/**
+	 * Resumen SHA-256 del contenido en hexadecimal, que también le da nombre en la caché.
+	 */
+	String hash;
+
+	/**
+	 * Valor de la ETag fuerte del archivo, sin comillas: solo cambia si cambia su contenido.
+	 *
+	 * @return El resumen del contenido.
+	 */
+	public String getETag() {
+		return hash;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+}
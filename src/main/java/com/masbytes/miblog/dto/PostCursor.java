@@ -0,0 +1,98 @@
+package com.masbytes.miblog.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Comparator;
+
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.exception.PostInvalidDataException;
+
+import lombok.Value;
+
+/**
+ * Posición de un recorrido paginado por conjunto de claves (keyset) sobre
+ * {@code (created_at DESC, _id DESC)}.
+ * Se expone a los clientes como una cadena opaca codificada en Base64 URL-safe.
+ */
+@Value
+public class PostCursor {
+
+	private static final String SEPARATOR = "|";
+
+	/**
+	 * Orden de recorrido de los listados paginados: fecha de creación descendente y, a igual
+	 * fecha, identificador descendente. Es el orden que siguen las consultas en MongoDB y el que
+	 * deben reproducir las estructuras en memoria.
+	 */
+	public static final Comparator<Post> NEWEST_FIRST = Comparator
+			.comparing(Post::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+			.thenComparing(Post::getId, Comparator.nullsLast(Comparator.reverseOrder()));
+
+	/**
+	 * Fecha de creación del último post entregado en la página anterior.
+	 */
+	LocalDateTime createdAt;
+
+	/**
+	 * Identificador del último post entregado, usado para desempatar posts con la misma fecha.
+	 */
+	String id;
+
+	/**
+	 * Construye el cursor que apunta justo después del post indicado.
+	 *
+	 * @param post El último post de la página.
+	 * @return El cursor para la página siguiente.
+	 */
+	public static PostCursor after(Post post) {
+		return new PostCursor(post.getCreatedAt(), post.getId());
+	}
+
+	/**
+	 * Indica si un post va después de la posición del cursor en el orden {@link #NEWEST_FIRST},
+	 * es decir, si pertenece a las páginas siguientes.
+	 *
+	 * @param post El post a comprobar.
+	 * @return true si el post va después del cursor.
+	 */
+	public boolean isBefore(Post post) {
+		int byDate = createdAt.compareTo(post.getCreatedAt());
+		return byDate > 0 || (byDate == 0 && id.compareTo(post.getId()) > 0);
+	}
+
+	/**
+	 * Codifica el cursor como una cadena opaca apta para URLs.
+	 *
+	 * @return El cursor codificado.
+	 */
+	public String encode() {
+		String raw = createdAt + SEPARATOR + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Decodifica un cursor recibido del cliente.
+	 *
+	 * @param token El cursor codificado, o null para empezar desde el principio.
+	 * @return El cursor decodificado, o null si no se proporcionó ninguno.
+	 * @throws PostInvalidDataException Si el cursor está mal formado.
+	 */
+	public static PostCursor decode(String token) throws PostInvalidDataException {
+		if (token == null || token.isBlank()) {
+			return null;
+		}
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			int separator = raw.indexOf(SEPARATOR);
+			if (separator <= 0 || separator == raw.length() - 1) {
+				throw new PostInvalidDataException("Cursor inválido: " + token);
+			}
+			return new PostCursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+		} catch (IllegalArgumentException | DateTimeParseException e) {
+			throw new PostInvalidDataException("Cursor inválido: " + token);
+		}
+	}
+
+}
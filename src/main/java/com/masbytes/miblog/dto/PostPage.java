@@ -0,0 +1,75 @@
+package com.masbytes.miblog.dto;
+
+import java.util.List;
+
+import com.masbytes.miblog.entity.Post;
+
+import lombok.Value;
+
+/**
+ * Página de posts obtenida mediante paginación por conjunto de claves.
+ * Contiene como máximo el tamaño de página solicitado y, si hay más resultados,
+ * el cursor opaco para pedir la página siguiente.
+ */
+@Value
+public class PostPage {
+
+	/**
+	 * Tamaño de página usado cuando el cliente no indica ninguno.
+	 */
+	public static final int DEFAULT_SIZE = 20;
+
+	/**
+	 * Tamaño máximo de página permitido.
+	 */
+	public static final int MAX_SIZE = 100;
+
+	/**
+	 * Posts de la página, ordenados por fecha de creación descendente.
+	 */
+	List<Post> posts;
+
+	/**
+	 * Cursor de la página siguiente, o null si esta es la última.
+	 */
+	String nextCursor;
+
+	/**
+	 * Ajusta el tamaño de página solicitado a los límites permitidos.
+	 *
+	 * @param size El tamaño solicitado, o null para usar el valor por defecto.
+	 * @return Un tamaño entre 1 y {@link #MAX_SIZE}.
+	 */
+	public static int normalizeSize(Integer size) {
+		if (size == null || size < 1) {
+			return DEFAULT_SIZE;
+		}
+		return Math.min(size, MAX_SIZE);
+	}
+
+	/**
+	 * Construye una página a partir de los resultados leídos con un elemento de más.
+	 * Si se leyeron más de {@code size} posts, el sobrante se descarta y se genera el cursor siguiente.
+	 *
+	 * @param fetched Los posts leídos (hasta {@code size + 1}).
+	 * @param size El tamaño de la página.
+	 * @return La página resultante.
+	 */
+	public static PostPage of(List<Post> fetched, int size) {
+		if (fetched.size() <= size) {
+			return new PostPage(fetched, null);
+		}
+		List<Post> posts = fetched.subList(0, size);
+		return new PostPage(posts, PostCursor.after(posts.get(size - 1)).encode());
+	}
+
+	/**
+	 * Indica si la página no contiene posts.
+	 *
+	 * @return true si la página está vacía.
+	 */
+	public boolean isEmpty() {
+		return posts.isEmpty();
+	}
+
+}
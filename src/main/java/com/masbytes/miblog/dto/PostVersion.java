@@ -0,0 +1,72 @@
+package com.masbytes.miblog.dto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import com.masbytes.miblog.entity.Post;
+
+import lombok.Value;
+
+/**
+ * Versión de un post, suficiente para responder a las peticiones condicionales
+ * ({@code If-None-Match}, {@code If-Modified-Since}) sin cargar ni serializar el post completo.
+ */
+@Value
+public class PostVersion {
+
+	/**
+	 * Identificador del post.
+	 */
+	String id;
+
+	/**
+	 * Versión del documento, incrementada en cada modificación; null en los posts anteriores a
+	 * que existiera el campo y que aún no se han modificado.
+	 */
+	Long version;
+
+	/**
+	 * Fecha de la última modificación del post.
+	 */
+	LocalDateTime modifiedAt;
+
+	/**
+	 * Obtiene la versión de un post ya cargado.
+	 *
+	 * @param post El post.
+	 * @return Su versión.
+	 */
+	public static PostVersion of(Post post) {
+		return new PostVersion(post.getId(), post.getVersion(), post.getModifiedAt());
+	}
+
+	/**
+	 * Valor de la ETag fuerte del post, sin comillas: cambia con cada modificación.
+	 *
+	 * @return El identificador y la versión del post.
+	 */
+	public String getETag() {
+		return id + "-" + (version == null ? 0 : version);
+	}
+
+	/**
+	 * Fecha de última modificación para la cabecera {@code Last-Modified}.
+	 *
+	 * @return Los milisegundos desde la época, o -1 si el post no tiene fecha de modificación.
+	 */
+	public long getLastModified() {
+		return toEpochMilli(modifiedAt);
+	}
+
+	/**
+	 * Convierte una fecha de la base de datos, guardada en la zona horaria del sistema, a
+	 * milisegundos desde la época.
+	 *
+	 * @param dateTime La fecha, o null.
+	 * @return Los milisegundos desde la época, o -1 si la fecha es null.
+	 */
+	public static long toEpochMilli(LocalDateTime dateTime) {
+		return dateTime == null ? -1 : dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+	}
+
+}
@@ -0,0 +1,151 @@
+package com.masbytes.miblog.dto;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+
+/**
+ * Formato de los listados de posts, elegido por la cabecera {@code Accept}: JSON por defecto, o
+ * CBOR (RFC 8949) y Smile, binarios y más compactos, para los clientes internos que leen páginas
+ * grandes.
+ *
+ * En los formatos binarios las fechas se codifican como milisegundos desde la época y las cadenas
+ * repetidas en una misma respuesta (las etiquetas, sobre todo) se escriben una sola vez y después
+ * como referencias: con la extensión {@code stringref} en CBOR y con los valores compartidos de
+ * Smile. Los nombres de los campos se comparten en Smile por defecto.
+ */
+public enum ResponseFormat {
+
+	JSON(MediaType.APPLICATION_JSON),
+	CBOR(MediaType.APPLICATION_CBOR),
+	SMILE(MediaType.parseMediaType("application/x-jackson-smile"));
+
+	private final MediaType mediaType;
+
+	ResponseFormat(MediaType mediaType) {
+		this.mediaType = mediaType;
+	}
+
+	/**
+	 * Tipo de contenido de las respuestas en este formato.
+	 */
+	public MediaType getMediaType() {
+		return mediaType;
+	}
+
+	/**
+	 * Crea el mapper de este formato con la misma configuración que el de JSON.
+	 *
+	 * @param json El mapper de JSON de la aplicación.
+	 * @return El propio mapper de JSON, o una copia que escribe y lee el formato binario.
+	 */
+	public ObjectMapper objectMapper(ObjectMapper json) {
+		return switch (this) {
+			case JSON -> json;
+			case CBOR -> json.copyWith(CBORFactory.builder().enable(CBORGenerator.Feature.STRINGREF).build())
+					.registerModule(epochMillis());
+			case SMILE -> json.copyWith(SmileFactory.builder()
+					.enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+					.build())
+					.registerModule(epochMillis());
+		};
+	}
+
+	/**
+	 * Elige el formato de la respuesta según la cabecera {@code Accept} (RFC 9110, sección 12.5.1).
+	 * Gana el de mayor calidad y, a igual calidad, JSON o el primero de los binarios.
+	 *
+	 * @param accept La cabecera {@code Accept}, o null.
+	 * @return El formato elegido; JSON si la cabecera falta, no es válida o no acepta ninguno.
+	 */
+	public static ResponseFormat negotiate(String accept) {
+		if (accept == null) {
+			return JSON;
+		}
+		List<MediaType> accepted;
+		try {
+			accepted = MediaType.parseMediaTypes(accept);
+		} catch (InvalidMediaTypeException e) {
+			return JSON;
+		}
+		ResponseFormat best = JSON;
+		double bestQuality = JSON.quality(accepted);
+		for (ResponseFormat format : values()) {
+			double quality = format.quality(accepted);
+			if (quality > bestQuality) {
+				best = format;
+				bestQuality = quality;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Calidad del formato: la del rango más específico de los aceptados que lo incluye, de modo que
+	 * un tipo nombrado expresamente prevalece sobre {@code tipo/*}, y este sobre {@code *}{@code /*}.
+	 * 0 si ningún rango lo incluye o si el más específico tiene calidad 0.
+	 */
+	private double quality(List<MediaType> accepted) {
+		double quality = 0;
+		int specificity = -1;
+		for (MediaType type : accepted) {
+			if (type.includes(mediaType)) {
+				int rank = type.isWildcardType() ? 0 : type.isWildcardSubtype() ? 1 : 2;
+				if (rank > specificity) {
+					specificity = rank;
+					quality = type.getQualityValue();
+				} else if (rank == specificity) {
+					quality = Math.max(quality, type.getQualityValue());
+				}
+			}
+		}
+		return quality;
+	}
+
+	/**
+	 * Fechas de los posts como milisegundos desde la época, en la zona horaria del sistema en la que
+	 * se guardan (ver {@link PostVersion#toEpochMilli(LocalDateTime)}).
+	 */
+	private static SimpleModule epochMillis() {
+		SimpleModule module = new SimpleModule("EpochMillis");
+		module.addSerializer(LocalDateTime.class, new StdSerializer<>(LocalDateTime.class) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public void serialize(LocalDateTime value, JsonGenerator gen, SerializerProvider provider)
+					throws IOException {
+				gen.writeNumber(PostVersion.toEpochMilli(value));
+			}
+		});
+		module.addDeserializer(LocalDateTime.class, new StdDeserializer<>(LocalDateTime.class) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public LocalDateTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+				return LocalDateTime.ofInstant(Instant.ofEpochMilli(parser.getLongValue()), ZoneId.systemDefault());
+			}
+		});
+		return module;
+	}
+
+}
@@ -0,0 +1,26 @@
+package com.masbytes.miblog.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.masbytes.miblog.entity.Post;
+
+import lombok.Value;
+
+/**
+ * Post devuelto por una búsqueda con relevancia, junto con su puntuación.
+ * Se serializa como el propio post con un campo {@code score} adicional.
+ */
+@Value
+public class ScoredPost {
+
+	/**
+	 * El post encontrado.
+	 */
+	@JsonUnwrapped
+	Post post;
+
+	/**
+	 * Puntuación de relevancia del post para la búsqueda; mayor es más relevante.
+	 */
+	double score;
+
+}
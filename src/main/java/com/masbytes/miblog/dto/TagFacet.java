@@ -0,0 +1,15 @@
+package com.masbytes.miblog.dto;
+
+import lombok.Value;
+
+/**
+ * Número de posts visibles que tienen una etiqueta.
+ */
+@Value
+public class TagFacet {
+
+	String tag;
+
+	long count;
+
+}
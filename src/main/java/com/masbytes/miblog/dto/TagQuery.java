@@ -0,0 +1,45 @@
+package com.masbytes.miblog.dto;
+
+import java.util.List;
+
+import lombok.Value;
+
+/**
+ * Consulta de posts por etiquetas con semántica booleana: el post debe tener todas las
+ * etiquetas de {@code all}, al menos una de {@code any} (si se indica alguna) y ninguna de
+ * {@code none}.
+ */
+@Value
+public class TagQuery {
+
+	/**
+	 * Etiquetas que el post debe tener todas.
+	 */
+	List<String> all;
+
+	/**
+	 * Etiquetas de las que el post debe tener al menos una.
+	 */
+	List<String> any;
+
+	/**
+	 * Etiquetas que el post no debe tener.
+	 */
+	List<String> none;
+
+	public TagQuery(List<String> all, List<String> any, List<String> none) {
+		this.all = all == null ? List.of() : all;
+		this.any = any == null ? List.of() : any;
+		this.none = none == null ? List.of() : none;
+	}
+
+	/**
+	 * Indica si la consulta no contiene ninguna etiqueta.
+	 *
+	 * @return true si las tres listas están vacías.
+	 */
+	public boolean isEmpty() {
+		return all.isEmpty() && any.isEmpty() && none.isEmpty();
+	}
+
+}
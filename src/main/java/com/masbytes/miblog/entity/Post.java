@@ -6,12 +6,15 @@ import java.util.List;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
-import org.springframework.data.mongodb.core.index.IndexDirection;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
-import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
@@ -20,9 +23,30 @@ import lombok.Data;
  * Representa una publicación en el blog.
  * Cada post contiene un título, una URL de un archivo PDF o TXT, un resumen, 
  * marcas de tiempo de creación y modificación, visibilidad y etiquetas.
+ * Los listados públicos solo devuelven posts visibles, así que sus índices empiezan por {@code visible}:
+ * {@code {visible: 1, created_at: -1, _id: -1}} da soporte a la paginación por cursor de los posts
+ * recientes y de la búsqueda por palabra clave, y {@code {visible: 1, tags: 1, created_at: -1, _id: -1}}
+ * a la de las búsquedas por etiquetas, ambas sin ordenar en memoria. El índice de texto es parcial y
+ * solo incluye los posts visibles (ver {@code PostTextIndex}).
+ * El índice único sobre {@code title_key} garantiza que no haya dos posts con el mismo título.
+ * El índice sobre {@code created_at} y {@code modified_at} permite obtener la última modificación
+ * de un rango de fechas sin leer los documentos: la consulta recorre las claves del rango y se
+ * queda con la mayor en una ordenación en memoria de un solo elemento, que no acumula resultados.
+ * El índice multiclave sobre {@code content_terms} da soporte a la búsqueda en el texto del archivo,
+ * y el índice disperso sobre {@code content_pending}, al barrido de los posts con el texto pendiente.
+ * El índice sobre {@code modified_at} y {@code _id} permite a cada instancia leer por páginas los
+ * posts modificados desde su última consulta para mantener al día sus estructuras en memoria, y el
+ * de {@code content_modified_at} y {@code _id}, los posts cuyo texto se ha extraído desde entonces.
  */
 @Data
 @Document(collection = "posts")
+@CompoundIndexes({
+	@CompoundIndex(name = "visible_created_at_id", def = "{'visible': 1, 'created_at': -1, '_id': -1}"),
+	@CompoundIndex(name = "visible_tags_created_at_id", def = "{'visible': 1, 'tags': 1, 'created_at': -1, '_id': -1}"),
+	@CompoundIndex(name = "created_at_modified_at", def = "{'created_at': -1, 'modified_at': -1}"),
+	@CompoundIndex(name = "modified_at_id", def = "{'modified_at': 1, '_id': 1}"),
+	@CompoundIndex(name = "content_modified_at_id", def = "{'content_modified_at': 1, '_id': 1}")
+})
 public class Post {
 	
 	/**
@@ -35,8 +59,17 @@ public class Post {
      * Título del post. Este campo es obligatorio y está indexado para búsqueda de texto.
      */
 	@NotNull
-	@TextIndexed
 	private String title;
+
+	/**
+     * Clave normalizada del título (sin mayúsculas, acentos ni espacios sobrantes).
+     * Tiene un índice único, por lo que dos creaciones simultáneas con el mismo título no pueden
+     * guardarse ambas. Es un campo interno que se calcula al guardar y no se expone en la API.
+     */
+	@JsonIgnore
+	@Field("title_key")
+	@Indexed(name = "title_key", unique = true, sparse = true)
+	private String titleKey;
 	
 	/**
      * URL del archivo PDF que contiene el contenido del post.
@@ -50,16 +83,14 @@ public class Post {
      * Tiene mayor peso en la indexación para mejorar la relevancia de las búsquedas.
      */
 	@NotNull
-	@TextIndexed(weight = 2)
 	private String summary;	
 	
 	/**
      * Fecha y hora en que el post fue creado.
-     * Se almacena automáticamente y se indexa en orden descendente.
+     * Se almacena automáticamente y se indexa en orden descendente tras la visibilidad.
      */
 	@CreatedDate
 	@Field("created_at")
-	@Indexed(direction = IndexDirection.DESCENDING)
 	private LocalDateTime createdAt;
 	
 	/**
@@ -69,6 +100,14 @@ public class Post {
 	@LastModifiedDate
 	@Field("modified_at")
 	private LocalDateTime modifiedAt;
+
+	/**
+     * Versión del documento: empieza en 0 al crearlo y se incrementa con cada modificación.
+     * Se usa para las ETags y no se expone en el cuerpo de la API.
+     */
+	@Version
+	@JsonIgnore
+	private Long version;
 	
 	/**
      * Indica si el post es visible o no. Por defecto, es true.
@@ -77,10 +116,45 @@ public class Post {
 	
 	/**
      * Lista de etiquetas asociadas al post. 
-     * Debe contener entre 3 y 20 caracteres y está indexada para optimizar las búsquedas.
+     * Debe contener entre 3 y 20 caracteres y está indexada, tras la visibilidad, para optimizar las búsquedas.
      */
 	@Size(min = 3, max = 20)
-	@Indexed
 	private List<String> tags;
 
+	/**
+     * Términos normalizados y sin repetir del texto del archivo del post, extraídos en segundo plano.
+     * Está indexado (índice multiclave) para que la búsqueda por palabra clave encuentre también los
+     * posts cuyo archivo contiene la palabra. Es un campo interno que no se expone en la API.
+     */
+	@JsonIgnore
+	@Field("content_terms")
+	@Indexed(name = "content_terms")
+	private List<String> contentTerms;
+
+	/**
+     * URL del archivo del que se extrajeron {@link #contentTerms}. Si no coincide con {@link #pdfUrl},
+     * el texto del archivo actual está pendiente de extraer.
+     */
+	@JsonIgnore
+	@Field("content_source")
+	private String contentSource;
+
+	/**
+     * Marca de extracción pendiente: se guarda como true al crear el post o cambiar su {@code pdfUrl}
+     * y se elimina al guardar {@link #contentTerms}. El índice disperso solo contiene los posts
+     * pendientes, así que el barrido de la extracción no recorre la colección.
+     */
+	@JsonIgnore
+	@Field("content_pending")
+	@Indexed(name = "content_pending", sparse = true)
+	private Boolean contentPending;
+
+	/**
+     * Fecha y hora en que se guardaron por última vez {@link #contentTerms}. La extracción no cambia
+     * {@link #modifiedAt} ni la versión, así que las demás instancias leen los términos nuevos por este campo.
+     */
+	@JsonIgnore
+	@Field("content_modified_at")
+	private LocalDateTime contentModifiedAt;
+
 }
@@ -0,0 +1,19 @@
+package com.masbytes.miblog.event;
+
+import com.masbytes.miblog.entity.Post;
+
+import lombok.Value;
+
+/**
+ * Evento publicado cada vez que un post se crea o se modifica (incluida su visibilidad).
+ * Lo consumen las estructuras en memoria que deben mantenerse al día con la base de datos.
+ */
+@Value
+public class PostChangedEvent {
+
+	/**
+	 * Estado del post tal como quedó guardado en la base de datos.
+	 */
+	Post post;
+
+}
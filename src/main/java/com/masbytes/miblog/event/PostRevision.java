@@ -0,0 +1,60 @@
+package com.masbytes.miblog.event;
+
+import java.time.LocalDateTime;
+
+import com.masbytes.miblog.entity.Post;
+
+import lombok.Value;
+
+/**
+ * Posición de un estado guardado de un post en la secuencia de sus escrituras.
+ *
+ * Cada modificación incrementa la versión y cada extracción del texto de su archivo actualiza
+ * {@code content_modified_at} sin cambiarla, así que un estado es posterior a otro si tiene mayor
+ * versión o, a igual versión, un texto extraído después. Las estructuras en memoria lo usan para
+ * descartar los {@link PostChangedEvent} que llegan después de otro más reciente del mismo post.
+ */
+@Value
+public class PostRevision {
+
+	/**
+	 * Versión del post; 0 si no tiene.
+	 */
+	long version;
+
+	/**
+	 * Fecha de la última modificación del post.
+	 */
+	LocalDateTime modifiedAt;
+
+	/**
+	 * Fecha de la última extracción del texto de su archivo, o null si no se ha extraído.
+	 */
+	LocalDateTime contentModifiedAt;
+
+	/**
+	 * Obtiene la revisión de un post guardado.
+	 *
+	 * @param post El post.
+	 * @return Su revisión.
+	 */
+	public static PostRevision of(Post post) {
+		return new PostRevision(post.getVersion() == null ? 0 : post.getVersion(), post.getModifiedAt(),
+				post.getContentModifiedAt());
+	}
+
+	/**
+	 * Indica si esta revisión es posterior a otra del mismo post.
+	 *
+	 * @param other La otra revisión, o null si no se conoce ninguna.
+	 * @return true si esta revisión es posterior o no hay otra.
+	 */
+	public boolean isAfter(PostRevision other) {
+		if (other == null || version != other.version) {
+			return other == null || version > other.version;
+		}
+		return contentModifiedAt != null
+				&& (other.contentModifiedAt == null || contentModifiedAt.isAfter(other.contentModifiedAt));
+	}
+
+}
@@ -0,0 +1,22 @@
+package com.masbytes.miblog.event;
+
+import java.util.List;
+
+import com.masbytes.miblog.entity.Post;
+
+import lombok.Value;
+
+/**
+ * Evento publicado una vez por cada lote de la carga masiva, antes del {@link PostChangedEvent} de
+ * cada post del lote. Lo consumen las estructuras en memoria que, ante cada cambio, reconstruyen
+ * una instantánea completa: así la reconstruyen una vez por lote y no una vez por post.
+ */
+@Value
+public class PostsChangedEvent {
+
+	/**
+	 * Estado de los posts del lote tal como quedaron guardados en la base de datos.
+	 */
+	List<Post> posts;
+
+}
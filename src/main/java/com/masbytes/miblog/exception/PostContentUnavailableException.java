@@ -0,0 +1,30 @@
+package com.masbytes.miblog.exception;
+
+/**
+ * Excepción lanzada cuando no se puede obtener el archivo (PDF o TXT) de un post del almacenamiento
+ * externo: la URL no es válida, el almacenamiento no responde o responde con un error.
+ */
+public class PostContentUnavailableException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+     * Constructor para crear una excepción con un mensaje específico.
+     * 
+     * @param message El mensaje detallado que describe el motivo de la excepción.
+     */
+	public PostContentUnavailableException(String message) {
+		super(message);
+	}
+
+	/**
+     * Constructor para crear una excepción con un mensaje y la causa original.
+     * 
+     * @param message El mensaje detallado que describe el motivo de la excepción.
+     * @param cause La excepción que impidió obtener el archivo.
+     */
+	public PostContentUnavailableException(String message, Throwable cause) {
+		super(message, cause);
+	}
+
+}
@@ -0,0 +1,369 @@
+package com.masbytes.miblog.repo;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.masbytes.miblog.dto.ArchiveBucket;
+import com.masbytes.miblog.dto.ArchiveQuery;
+import com.masbytes.miblog.dto.PostCursor;
+import com.masbytes.miblog.dto.TagFacet;
+import com.masbytes.miblog.dto.TagQuery;
+
+/**
+ * Consultas sobre la colección de posts compartidas por el repositorio bloqueante
+ * ({@link PostRepoCustomImpl}) y el reactivo ({@link ReactivePostRepoCustomImpl}), de modo que
+ * ambos usan los mismos filtros, el mismo orden y los mismos índices.
+ *
+ * Los listados públicos solo devuelven posts visibles y filtran por {@code visible} en el servidor,
+ * con índices que empiezan por ese campo.
+ */
+final class PostQueries {
+
+	/**
+	 * Orden estable de recorrido: cubierto, tras la visibilidad y, en su caso, la etiqueta, por los
+	 * índices compuestos {@code {visible: 1, created_at: -1, _id: -1}} y
+	 * {@code {visible: 1, tags: 1, created_at: -1, _id: -1}}.
+	 */
+	static final Sort KEYSET_SORT = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+
+	/**
+	 * Campo en el que se proyecta la puntuación {@code textScore} de las búsquedas de texto.
+	 */
+	static final String SCORE_FIELD = "score";
+
+	/**
+	 * Campo con los términos extraídos del archivo, que no se lee en los listados.
+	 */
+	static final String CONTENT_TERMS_FIELD = "contentTerms";
+
+	/**
+	 * Campo con la marca de extracción pendiente, que solo existe en los posts pendientes.
+	 */
+	static final String CONTENT_PENDING_FIELD = "contentPending";
+
+	private PostQueries() {
+	}
+
+	/**
+	 * Posts visibles.
+	 */
+	static Criteria visible() {
+		return Criteria.where("visible").is(true);
+	}
+
+	/**
+	 * Posts cuyo título o resumen cumplen la expresión regular sin distinguir mayúsculas, que tienen
+	 * alguna de las etiquetas o cuyo archivo contiene todos los términos (con el índice multiclave de
+	 * {@code content_terms}). La expresión no está anclada, así que no usa índices en ningún caso.
+	 */
+	static Criteria keyword(String regex, List<String> tags, List<String> terms) {
+		List<Criteria> alternatives = new ArrayList<>(List.of(
+				Criteria.where("title").regex(regex, "i"),
+				Criteria.where("summary").regex(regex, "i"),
+				Criteria.where("tags").in(tags)));
+		if (!terms.isEmpty()) {
+			alternatives.add(Criteria.where(CONTENT_TERMS_FIELD).all(terms));
+		}
+		return new Criteria().orOperator(alternatives);
+	}
+
+	/**
+	 * Posts visibles que cumplen {@link #keyword}.
+	 */
+	static Criteria visibleKeyword(String regex, List<String> tags, List<String> terms) {
+		return visible().andOperator(keyword(regex, tags, terms));
+	}
+
+	/**
+	 * Todos los posts visibles que cumplen {@link #keyword}, del más reciente al más antiguo.
+	 */
+	static Query keywordStream(String regex, List<String> tags, List<String> terms) {
+		Query query = Query.query(visibleKeyword(regex, tags, terms)).with(Sort.by(Sort.Direction.DESC, "createdAt"));
+		query.fields().exclude(CONTENT_TERMS_FIELD);
+		return query;
+	}
+
+	/**
+	 * Traduce una consulta por etiquetas a {@code $all}, {@code $in} y {@code $nin} sobre el campo
+	 * {@code tags}, restringida a los posts visibles.
+	 */
+	static Criteria tagQuery(TagQuery query) {
+		List<Criteria> tagCriteria = new ArrayList<>();
+		if (!query.getAll().isEmpty()) {
+			tagCriteria.add(Criteria.where("tags").all(query.getAll()));
+		}
+		if (!query.getAny().isEmpty()) {
+			tagCriteria.add(Criteria.where("tags").in(query.getAny()));
+		}
+		if (!query.getNone().isEmpty()) {
+			tagCriteria.add(Criteria.where("tags").nin(query.getNone()));
+		}
+
+		Criteria criteria = visible();
+		return tagCriteria.isEmpty() ? criteria : criteria.andOperator(tagCriteria);
+	}
+
+	/**
+	 * Todos los posts visibles que cumplen una consulta por etiquetas, del más reciente al más
+	 * antiguo, en el mismo orden que sus páginas.
+	 */
+	static Query tagQueryStream(TagQuery query) {
+		Query stream = Query.query(tagQuery(query)).with(KEYSET_SORT);
+		stream.fields().exclude(CONTENT_TERMS_FIELD);
+		return stream;
+	}
+
+	/**
+	 * Posts visibles con alguna de las etiquetas.
+	 */
+	static Criteria visibleTagsIn(List<String> tags) {
+		return visible().and("tags").in(tags);
+	}
+
+	/**
+	 * Posts creados estrictamente dentro del rango.
+	 */
+	static Criteria createdBetween(LocalDateTime startOfRange, LocalDateTime endOfRange) {
+		return Criteria.where("createdAt").gt(startOfRange).lt(endOfRange);
+	}
+
+	/**
+	 * Posts visibles creados estrictamente dentro del rango.
+	 */
+	static Criteria visibleCreatedBetween(LocalDateTime startOfRange, LocalDateTime endOfRange) {
+		return visible().and("createdAt").gt(startOfRange).lt(endOfRange);
+	}
+
+	/**
+	 * Construye una consulta paginada por conjunto de claves.
+	 * En lugar de saltar documentos, filtra los que van después del cursor:
+	 * {@code created_at < c || (created_at == c && _id < id)}.
+	 * Los términos del archivo no se leen: la API no los expone y pueden ocupar más que el resto del post.
+	 */
+	static Query page(Criteria criteria, PostCursor after, int limit) {
+		Criteria pageCriteria = criteria;
+		if (after != null) {
+			Criteria keyset = new Criteria().orOperator(
+					Criteria.where("createdAt").lt(after.getCreatedAt()),
+					Criteria.where("createdAt").is(after.getCreatedAt()).and("id").lt(after.getId()));
+			pageCriteria = new Criteria().andOperator(criteria, keyset);
+		}
+		Query query = Query.query(pageCriteria).with(KEYSET_SORT).limit(limit);
+		query.fields().exclude(CONTENT_TERMS_FIELD);
+		return query;
+	}
+
+	/**
+	 * Búsqueda en el índice de texto ordenada por relevancia, con la puntuación en {@link #SCORE_FIELD}.
+	 * El filtro por visibilidad es el del índice parcial (ver {@link PostTextIndex}): sin él, MongoDB
+	 * no podría usarlo.
+	 */
+	static Query textSearch(String search, int limit) {
+		TextQuery query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(search))
+				.includeScore(SCORE_FIELD)
+				.sortByScore();
+		query.addCriteria(visible());
+		query.limit(limit);
+		return query;
+	}
+
+	static Query byId(String id) {
+		return Query.query(Criteria.where("id").is(id));
+	}
+
+	/**
+	 * Proyección que solo lee la versión y la fecha de modificación de un post.
+	 */
+	static Query versionById(String id) {
+		Query query = byId(id);
+		query.fields().include("version", "modifiedAt");
+		return query;
+	}
+
+	/**
+	 * Proyección de la fecha de modificación más reciente de los posts creados en el rango. Incluye
+	 * los posts ocultos: ocultar un post también cambia la respuesta de los listados. Está cubierta
+	 * por el índice {@code {created_at: -1, modified_at: -1}}, pero el orden por {@code modifiedAt}
+	 * no es el del índice: MongoDB recorre todas las claves del rango y ordena en memoria, con un
+	 * coste lineal en los posts del rango y memoria constante por el límite de 1.
+	 */
+	static Query lastModifiedByCreatedAtBetween(LocalDateTime startOfRange, LocalDateTime endOfRange) {
+		Query query = Query.query(createdBetween(startOfRange, endOfRange))
+				.with(Sort.by(Sort.Direction.DESC, "modifiedAt"))
+				.limit(1);
+		query.fields().include("modifiedAt").exclude("id");
+		return query;
+	}
+
+	/**
+	 * Posts cuya fecha {@code field} va después de la posición {@code (since, afterId)}, de la más
+	 * antigua a la más reciente y, a igual fecha, por identificador, con el índice compuesto de esa
+	 * fecha y {@code _id}. Sin identificador, la posición es el final de la fecha indicada.
+	 */
+	static Query changedAfter(String field, LocalDateTime since, String afterId, int limit) {
+		Criteria criteria = Criteria.where(field).gt(since);
+		if (afterId != null) {
+			criteria = new Criteria().orOperator(criteria, Criteria.where(field).is(since).and("id").gt(afterId));
+		}
+		return Query.query(criteria)
+				.with(Sort.by(Sort.Direction.ASC, field, "id"))
+				.limit(limit);
+	}
+
+	/**
+	 * Proyección de los campos de los posts visibles que publican los feeds y el sitemap.
+	 */
+	static Query visibleFeedFields() {
+		Query query = Query.query(visible());
+		query.fields().include("title", "summary", "tags", "createdAt", "modifiedAt");
+		return query;
+	}
+
+	/**
+	 * Proyección de las fechas y la revisión de los posts ocultos, para que el catálogo en memoria
+	 * tenga en cuenta sus modificaciones.
+	 */
+	static Query hiddenDates() {
+		Query query = Query.query(Criteria.where("visible").is(false));
+		query.fields().include("createdAt", "modifiedAt", "version", "contentModifiedAt", "visible");
+		return query;
+	}
+
+	/**
+	 * Proyección de la fecha de creación de los posts visibles, para construir el archivo en memoria,
+	 * con los campos de su revisión.
+	 */
+	static Query visibleCreatedAt() {
+		Query query = Query.query(visible());
+		query.fields().include("createdAt", "version", "contentModifiedAt");
+		return query;
+	}
+
+	/**
+	 * Recuento de posts visibles por periodo de creación, calculado en el servidor con
+	 * {@code $dateToString} en la zona horaria de la consulta, del periodo más reciente al más
+	 * antiguo. Solo lee la fecha de creación de los posts del rango.
+	 */
+	static Aggregation archive(ArchiveQuery query) {
+		Criteria criteria = visible();
+		if (query.getFrom() != null || query.getTo() != null) {
+			Criteria createdAt = criteria.and("createdAt");
+			if (query.getFrom() != null) {
+				createdAt.gte(query.startOfRange());
+			}
+			if (query.getTo() != null) {
+				createdAt.lt(query.endOfRange());
+			}
+		}
+		return Aggregation.newAggregation(
+				Aggregation.match(criteria),
+				Aggregation.project().and(DateOperators.DateToString.dateOf("createdAt")
+						.toString(query.getUnit().getMongoFormat())
+						.withTimezone(DateOperators.Timezone.valueOf(query.getZone().getId()))).as("period"),
+				Aggregation.group("period").count().as("count"),
+				Aggregation.sort(Sort.Direction.DESC, Aggregation.previousOperation()));
+	}
+
+	/**
+	 * Convierte un resultado de {@link #archive(ArchiveQuery)} en un periodo del archivo.
+	 */
+	static ArchiveBucket archiveBucket(Document document) {
+		return new ArchiveBucket(document.getString("_id"), document.get("count", Number.class).longValue());
+	}
+
+	/**
+	 * Proyección de las etiquetas de los posts visibles, para contarlas en memoria, con los campos de
+	 * su revisión.
+	 */
+	static Query visibleTags() {
+		Query query = Query.query(visible());
+		query.fields().include("tags", "version", "contentModifiedAt");
+		return query;
+	}
+
+	/**
+	 * Número de posts visibles por etiqueta entre los que cumplen el filtro, calculado en el
+	 * servidor, de la etiqueta más usada a la menos usada y, a igualdad, por orden alfabético.
+	 * Un post con una etiqueta repetida solo cuenta una vez para ella.
+	 */
+	static Aggregation tagFacets(Criteria filter) {
+		return Aggregation.newAggregation(
+				Aggregation.match(filter == null ? visible() : visible().andOperator(filter)),
+				Aggregation.project("tags"),
+				Aggregation.unwind("tags"),
+				// Pares (post, etiqueta) sin repetir: el siguiente grupo cuenta posts, no apariciones
+				Aggregation.group("_id", "tags"),
+				Aggregation.group("tags").count().as("count"),
+				Aggregation.sort(Sort.by(Sort.Direction.DESC, "count").and(Sort.by(Aggregation.previousOperation()))));
+	}
+
+	/**
+	 * Convierte un resultado de {@link #tagFacets(Criteria)} en el recuento de una etiqueta.
+	 */
+	static TagFacet tagFacet(Document document) {
+		return new TagFacet(document.getString("_id"), document.get("count", Number.class).longValue());
+	}
+
+	/**
+	 * Identificadores de los posts cuyo texto no se ha extraído del archivo actual, con el índice
+	 * disperso de {@code content_pending}.
+	 */
+	static Query staleContent() {
+		Query query = Query.query(Criteria.where(CONTENT_PENDING_FIELD).is(true));
+		query.fields().include("id");
+		return query;
+	}
+
+	/**
+	 * El post indicado, solo si su archivo sigue siendo el de la URL de la que se extrajo el texto.
+	 */
+	static Query byIdAndPdfUrl(String id, String pdfUrl) {
+		return Query.query(Criteria.where("id").is(id).and("pdfUrl").is(pdfUrl));
+	}
+
+	/**
+	 * Guarda los términos extraídos y su origen y elimina la marca de extracción pendiente sin
+	 * modificar la fecha de modificación ni la versión: son datos derivados que no cambian la
+	 * representación del post en la API ni su ETag. La fecha de extracción permite a las demás
+	 * instancias leer el cambio.
+	 */
+	static Update content(String source, List<String> terms) {
+		// Sin modificar "version", findAndModify la incrementaría por ser el campo de @Version
+		Update update = new Update().set(CONTENT_TERMS_FIELD, terms).set("contentModifiedAt", LocalDateTime.now())
+				.unset(CONTENT_PENDING_FIELD).inc("version", 0);
+		return source == null ? update.unset("contentSource") : update.set("contentSource", source);
+	}
+
+	/**
+	 * Modificación de los campos indicados ({@code $set}, o {@code $unset} si el valor es null) que
+	 * además actualiza la fecha de modificación e incrementa la versión. Si cambia {@code pdfUrl},
+	 * marca el texto como pendiente de extraer.
+	 */
+	static Update changes(Map<String, ?> changes) {
+		Update update = new Update().set("modifiedAt", LocalDateTime.now()).inc("version", 1);
+		if (changes.containsKey("pdfUrl")) {
+			update.set(CONTENT_PENDING_FIELD, true);
+		}
+		changes.forEach((field, value) -> {
+			if (value == null) {
+				update.unset(field);
+			} else {
+				update.set(field, value);
+			}
+		});
+		return update;
+	}
+
+}
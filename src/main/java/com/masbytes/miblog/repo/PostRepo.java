@@ -4,6 +4,7 @@ package com.masbytes.miblog.repo;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
@@ -15,7 +16,7 @@ import com.masbytes.miblog.entity.Post;
  * Proporciona métodos para realizar operaciones de búsqueda personalizadas en los posts.
  */
 @Repository
-public interface PostRepo extends MongoRepository<Post, String>{
+public interface PostRepo extends MongoRepository<Post, String>, PostRepoCustom {
 
 	/**
      * Busca un post por su título.
@@ -26,32 +27,50 @@ public interface PostRepo extends MongoRepository<Post, String>{
 	Optional<Post> findByTitle(String title);
 
 	/**
-     * Busca posts que coincidan con el título, resumen o etiquetas utilizando expresiones regulares.
+     * Busca posts visibles que contengan alguna de las etiquetas especificadas.
      * 
-     * @param regex Expresión regular para buscar en el título de los posts.
-     * @param regex2 Expresión regular para buscar en el resumen de los posts.
-     * @param of Lista de etiquetas para buscar en los posts.
-     * @return Una lista de posts que coinciden con los criterios proporcionados.
+     * @param tags Lista de etiquetas para buscar en los posts.
+     * @return Una lista de posts visibles que contienen al menos una de las etiquetas especificadas.
      */
-	List<Post> findByTitleRegexOrSummaryRegexOrTagsIn(String regex, String regex2, List<String> of);
+	List<Post> findByVisibleTrueAndTagsIn(List<String> tags);
+
+	//	List<Post> findByCreatedAtGreaterThanEqual(Instant instant);
 
 	/**
-     * Busca posts que contengan alguna de las etiquetas especificadas.
+     * Busca posts visibles que fueron creados en un rango de fechas.
      * 
-     * @param tags Lista de etiquetas para buscar en los posts.
-     * @return Una lista de posts que contienen al menos una de las etiquetas especificadas.
+     * @param startOfRange La fecha y hora de inicio del rango.
+     * @param endOfRange La fecha y hora de fin del rango.
+     * @return Una lista de posts visibles que fueron creados dentro del rango de fechas especificado.
      */
-	List<Post> findByTagsIn(List<String> tags);
+	List<Post> findByVisibleTrueAndCreatedAtBetween(LocalDateTime startOfRange, LocalDateTime endOfRange);
 
-	//	List<Post> findByCreatedAtGreaterThanEqual(Instant instant);
+	/**
+     * Variante en streaming de {@link #findByVisibleTrueAndTagsIn(List)}. El Stream debe cerrarse para
+     * liberar el cursor.
+     * 
+     * @param tags Lista de etiquetas para buscar en los posts.
+     * @return Un Stream de los posts visibles coincidentes, del más reciente al más antiguo.
+     */
+	Stream<Post> streamByVisibleTrueAndTagsInOrderByCreatedAtDesc(List<String> tags);
 
 	/**
-     * Busca posts que fueron creados en un rango de fechas.
+     * Variante en streaming de {@link #findByVisibleTrueAndCreatedAtBetween(LocalDateTime, LocalDateTime)}.
+     * El Stream debe cerrarse para liberar el cursor.
      * 
      * @param startOfRange La fecha y hora de inicio del rango.
      * @param endOfRange La fecha y hora de fin del rango.
-     * @return Una lista de posts que fueron creados dentro del rango de fechas especificado.
+     * @return Un Stream de los posts visibles creados en el rango, del más reciente al más antiguo.
+     */
+	Stream<Post> streamByVisibleTrueAndCreatedAtBetweenOrderByCreatedAtDesc(LocalDateTime startOfRange,
+			LocalDateTime endOfRange);
+
+	/**
+     * Recorre en streaming todos los posts visibles. Se usa para cargar las estructuras en memoria
+     * al arrancar; el Stream debe cerrarse para liberar el cursor.
+     * 
+     * @return Un Stream de los posts visibles.
      */
-	List<Post> findByCreatedAtBetween(LocalDateTime startOfRange, LocalDateTime endOfRange);
+	Stream<Post> streamByVisibleTrue();
 			
 }
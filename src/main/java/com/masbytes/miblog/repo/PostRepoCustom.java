@@ -0,0 +1,286 @@
+package com.masbytes.miblog.repo;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import com.masbytes.miblog.dto.ArchiveBucket;
+import com.masbytes.miblog.dto.ArchiveQuery;
+import com.masbytes.miblog.dto.PostCursor;
+import com.masbytes.miblog.dto.PostVersion;
+import com.masbytes.miblog.dto.ScoredPost;
+import com.masbytes.miblog.dto.TagFacet;
+import com.masbytes.miblog.dto.TagQuery;
+import com.masbytes.miblog.entity.Post;
+
+/**
+ * Consultas personalizadas sobre la colección de posts que no pueden expresarse como
+ * métodos derivados de Spring Data.
+ * Todas las consultas paginadas recorren los posts en orden {@code (created_at DESC, _id DESC)}
+ * y continúan a partir de un cursor, de modo que el coste de cada página no depende de su profundidad.
+ * Los listados solo devuelven posts visibles.
+ */
+public interface PostRepoCustom {
+
+	/**
+	 * Busca una página de posts visibles cuyo título o resumen coincidan con la expresión regular,
+	 * que contengan alguna de las etiquetas indicadas o cuyo archivo contenga todos los términos.
+	 * 
+	 * @param regex Expresión regular para buscar en el título y el resumen.
+	 * @param tags Lista de etiquetas para buscar en los posts.
+	 * @param terms Términos normalizados a buscar en el texto del archivo; vacía para no buscar en él.
+	 * @param after Cursor de la página anterior, o null para la primera página.
+	 * @param limit Número máximo de posts a devolver.
+	 * @return Los posts de la página en orden de creación descendente.
+	 */
+	List<Post> findPageByKeyword(String regex, List<String> tags, List<String> terms, PostCursor after, int limit);
+
+	/**
+	 * Variante en streaming de {@link #findPageByKeyword}: recorre todos los posts coincidentes,
+	 * del más reciente al más antiguo. El Stream debe cerrarse para liberar el cursor.
+	 * 
+	 * @param regex Expresión regular para buscar en el título y el resumen.
+	 * @param tags Lista de etiquetas para buscar en los posts.
+	 * @param terms Términos normalizados a buscar en el texto del archivo; vacía para no buscar en él.
+	 * @return Un Stream de los posts coincidentes.
+	 */
+	Stream<Post> streamByKeyword(String regex, List<String> tags, List<String> terms);
+
+	/**
+	 * Busca todos los posts que cumplen la búsqueda de {@link #findPageByKeyword}, del más
+	 * reciente al más antiguo.
+	 * 
+	 * @param regex Expresión regular para buscar en el título y el resumen.
+	 * @param tags Lista de etiquetas para buscar en los posts.
+	 * @param terms Términos normalizados a buscar en el texto del archivo; vacía para no buscar en él.
+	 * @return Los posts coincidentes.
+	 */
+	List<Post> findByKeyword(String regex, List<String> tags, List<String> terms);
+
+	/**
+	 * Busca una página de posts visibles que contengan alguna de las etiquetas especificadas.
+	 * 
+	 * @param tags Lista de etiquetas para buscar en los posts.
+	 * @param after Cursor de la página anterior, o null para la primera página.
+	 * @param limit Número máximo de posts a devolver.
+	 * @return Los posts de la página en orden de creación descendente.
+	 */
+	List<Post> findPageByTagsIn(List<String> tags, PostCursor after, int limit);
+
+	/**
+	 * Busca una página de posts visibles que cumplen una consulta booleana por etiquetas.
+	 * 
+	 * @param query La consulta con las etiquetas requeridas, alternativas y excluidas.
+	 * @param after Cursor de la página anterior, o null para la primera página.
+	 * @param limit Número máximo de posts a devolver.
+	 * @return Los posts de la página en orden de creación descendente.
+	 */
+	List<Post> findPageByTagQuery(TagQuery query, PostCursor after, int limit);
+
+	/**
+	 * Variante en streaming de {@link #findPageByTagQuery}: recorre todos los posts coincidentes,
+	 * del más reciente al más antiguo. El Stream debe cerrarse para liberar el cursor.
+	 * 
+	 * @param query La consulta con las etiquetas requeridas, alternativas y excluidas.
+	 * @return Un Stream de los posts coincidentes.
+	 */
+	Stream<Post> streamByTagQuery(TagQuery query);
+
+	/**
+	 * Cuenta los posts visibles que cumplen una consulta booleana por etiquetas.
+	 * 
+	 * @param query La consulta con las etiquetas requeridas, alternativas y excluidas.
+	 * @return El número de posts coincidentes.
+	 */
+	long countByTagQuery(TagQuery query);
+
+	/**
+	 * Busca una página de posts visibles creados dentro de un rango de fechas.
+	 * 
+	 * @param startOfRange La fecha y hora de inicio del rango.
+	 * @param endOfRange La fecha y hora de fin del rango.
+	 * @param after Cursor de la página anterior, o null para la primera página.
+	 * @param limit Número máximo de posts a devolver.
+	 * @return Los posts de la página en orden de creación descendente.
+	 */
+	List<Post> findPageByCreatedAtBetween(LocalDateTime startOfRange, LocalDateTime endOfRange, PostCursor after,
+			int limit);
+
+	/**
+	 * Busca posts visibles mediante el índice de texto sobre el título y el resumen, ordenados por relevancia.
+	 * La búsqueda admite la sintaxis de {@code $text}: frases entre comillas y términos excluidos con un guion.
+	 * 
+	 * @param search El texto de búsqueda.
+	 * @param limit Número máximo de posts a devolver.
+	 * @return Los posts coincidentes con su puntuación, de mayor a menor relevancia.
+	 */
+	List<ScoredPost> findByTextSearch(String search, int limit);
+
+	/**
+	 * Obtiene, de entre las claves de título indicadas, las que ya usa algún post, con una sola
+	 * consulta {@code $in} sobre el índice único de {@code title_key}.
+	 * 
+	 * @param titleKeys Las claves normalizadas de los títulos a comprobar.
+	 * @return Las claves que ya existen.
+	 */
+	Set<String> findExistingTitleKeys(Collection<String> titleKeys);
+
+	/**
+	 * Inserta los posts con una única escritura masiva no ordenada: los errores de un post no
+	 * impiden insertar el resto.
+	 * 
+	 * @param posts Los posts a insertar, con su identificador ya asignado.
+	 * @return Los mensajes de error de los posts que no se insertaron, por su posición en la lista.
+	 */
+	Map<Integer, String> insertUnordered(List<Post> posts);
+
+	/**
+	 * Modifica solo los campos indicados de un post con una única operación atómica
+	 * {@code findAndModify}: {@code $set} de los valores no nulos, {@code $unset} de los nulos,
+	 * {@code modified_at} con la fecha actual y {@code $inc} de la versión. No lee ni reescribe el documento completo, por lo
+	 * que las modificaciones concurrentes de otros campos no se pierden.
+	 * 
+	 * @param id El identificador del post.
+	 * @param changes Los nuevos valores por nombre de propiedad de {@link Post}; null para eliminar el campo.
+	 * @return El post ya modificado, o vacío si no existe.
+	 */
+	Optional<Post> updateFields(String id, Map<String, ?> changes);
+
+	/**
+	 * Obtiene solo la versión y la fecha de modificación de un post, sin leer el resto del documento.
+	 * 
+	 * @param id El identificador del post.
+	 * @return La versión del post, o vacío si no existe.
+	 */
+	Optional<PostVersion> findVersionById(String id);
+
+	/**
+	 * Cuenta los posts visibles por año, mes o día de creación con una agregación en el servidor,
+	 * sin leer los documentos.
+	 * 
+	 * @param query La unidad, la zona horaria y el rango de fechas.
+	 * @return Los periodos con algún post, del más reciente al más antiguo.
+	 */
+	List<ArchiveBucket> countArchive(ArchiveQuery query);
+
+	/**
+	 * Busca una página de los posts, visibles o no, modificados después de una posición
+	 * {@code (modified_at, _id)}, con el índice {@code {modified_at: 1, _id: 1}}. Las páginas
+	 * siguientes continúan desde la fecha de modificación y el identificador del último post, de
+	 * modo que los posts modificados en el mismo instante no se pierden ni se repiten.
+	 * 
+	 * @param since La fecha de modificación de la posición (sin incluirla si no se indica identificador).
+	 * @param afterId El identificador del último post de la página anterior, o null para la primera página.
+	 * @param limit Número máximo de posts a devolver.
+	 * @return Los posts completos, del modificado hace más tiempo al más reciente.
+	 */
+	List<Post> findPageByModifiedAtAfter(LocalDateTime since, String afterId, int limit);
+
+	/**
+	 * Variante de {@link #findPageByModifiedAtAfter} por la fecha de extracción del texto del archivo
+	 * ({@code content_modified_at}), con el índice {@code {content_modified_at: 1, _id: 1}}.
+	 * 
+	 * @param since La fecha de extracción de la posición (sin incluirla si no se indica identificador).
+	 * @param afterId El identificador del último post de la página anterior, o null para la primera página.
+	 * @param limit Número máximo de posts a devolver.
+	 * @return Los posts completos, del extraído hace más tiempo al más reciente.
+	 */
+	List<Post> findPageByContentModifiedAtAfter(LocalDateTime since, String afterId, int limit);
+
+	/**
+	 * Cuenta los posts visibles de cada etiqueta con una agregación en el servidor.
+	 * 
+	 * @return Las etiquetas con algún post, de la más usada a la menos usada.
+	 */
+	List<TagFacet> countTags();
+
+	/**
+	 * Cuenta por etiqueta los posts visibles que encuentra la búsqueda por palabra clave
+	 * ({@link #findPageByKeyword}), con una agregación en el servidor.
+	 * 
+	 * @param regex Expresión regular para buscar en el título y el resumen.
+	 * @param tags Lista de etiquetas para buscar en los posts.
+	 * @param terms Términos normalizados a buscar en el texto del archivo; vacía para no buscar en él.
+	 * @return Las etiquetas con algún post, de la más usada a la menos usada.
+	 */
+	List<TagFacet> countTagsByKeyword(String regex, List<String> tags, List<String> terms);
+
+	/**
+	 * Cuenta por etiqueta los posts visibles creados dentro de un rango de fechas, con una
+	 * agregación en el servidor.
+	 * 
+	 * @param startOfRange La fecha y hora de inicio del rango.
+	 * @param endOfRange La fecha y hora de fin del rango.
+	 * @return Las etiquetas con algún post, de la más usada a la menos usada.
+	 */
+	List<TagFacet> countTagsByCreatedAtBetween(LocalDateTime startOfRange, LocalDateTime endOfRange);
+
+	/**
+	 * Recorre en streaming los posts visibles leyendo solo su identificador, sus etiquetas y los
+	 * campos de su revisión. El Stream debe cerrarse para liberar el cursor.
+	 * 
+	 * @return Un Stream de los posts visibles con solo esos campos.
+	 */
+	Stream<Post> streamVisibleTags();
+
+	/**
+	 * Recorre en streaming los posts visibles leyendo solo su identificador, su título, su resumen,
+	 * sus etiquetas y sus fechas de creación y modificación. El Stream debe cerrarse para liberar el
+	 * cursor.
+	 * 
+	 * @return Un Stream de los posts visibles con solo esos campos.
+	 */
+	Stream<Post> streamVisibleFeedFields();
+
+	/**
+	 * Recorre en streaming los posts ocultos leyendo solo su identificador, sus fechas de creación y
+	 * modificación y los campos de su revisión. El Stream debe cerrarse para liberar el cursor.
+	 * 
+	 * @return Un Stream de los posts ocultos con solo esos campos.
+	 */
+	Stream<Post> streamHiddenDates();
+
+	/**
+	 * Recorre en streaming los posts visibles leyendo solo su identificador y su fecha de creación.
+	 * El Stream debe cerrarse para liberar el cursor.
+	 * 
+	 * @return Un Stream de los posts visibles con solo esos campos.
+	 */
+	Stream<Post> streamVisibleCreatedAt();
+
+	/**
+	 * Recorre en streaming los identificadores de los posts cuyo texto no se ha extraído de su
+	 * archivo actual. El Stream debe cerrarse para liberar el cursor.
+	 * 
+	 * @return Un Stream con los identificadores.
+	 */
+	Stream<String> streamIdsWithStaleContent();
+
+	/**
+	 * Guarda los términos extraídos del archivo de un post, solo si el archivo del post sigue siendo
+	 * el de la URL indicada: si se cambió durante la extracción, el resultado se descarta. No cambia
+	 * la fecha de modificación ni la versión del post, sino la fecha de extracción
+	 * ({@code content_modified_at}).
+	 * 
+	 * @param id El identificador del post.
+	 * @param source La URL de la que se extrajo el texto.
+	 * @param terms Los términos normalizados y sin repetir del texto.
+	 * @return El post ya modificado, o vacío si no existe o su archivo cambió.
+	 */
+	Optional<Post> updateContent(String id, String source, List<String> terms);
+
+	/**
+	 * Obtiene la fecha de modificación más reciente de los posts creados dentro de un rango de
+	 * fechas, con una consulta cubierta por el índice {@code {created_at: -1, modified_at: -1}}.
+	 * 
+	 * @param startOfRange La fecha y hora de inicio del rango.
+	 * @param endOfRange La fecha y hora de fin del rango.
+	 * @return La última modificación, o vacío si no hay posts en el rango.
+	 */
+	Optional<LocalDateTime> findLastModifiedByCreatedAtBetween(LocalDateTime startOfRange, LocalDateTime endOfRange);
+
+}
@@ -0,0 +1,207 @@
+package com.masbytes.miblog.repo;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.masbytes.miblog.dto.ArchiveBucket;
+import com.masbytes.miblog.dto.ArchiveQuery;
+import com.masbytes.miblog.dto.PostCursor;
+import com.masbytes.miblog.dto.PostVersion;
+import com.masbytes.miblog.dto.ScoredPost;
+import com.masbytes.miblog.dto.TagFacet;
+import com.masbytes.miblog.dto.TagQuery;
+import com.masbytes.miblog.entity.Post;
+
+/**
+ * Implementación de las consultas personalizadas de {@link PostRepoCustom} sobre {@link MongoTemplate}.
+ */
+public class PostRepoCustomImpl implements PostRepoCustom {
+
+	private final MongoTemplate mongoTemplate;
+
+	public PostRepoCustomImpl(MongoTemplate mongoTemplate) {
+		this.mongoTemplate = mongoTemplate;
+	}
+
+	@Override
+	public List<Post> findPageByKeyword(String regex, List<String> tags, List<String> terms, PostCursor after,
+			int limit) {
+		return findPage(PostQueries.visibleKeyword(regex, tags, terms), after, limit);
+	}
+
+	@Override
+	public Stream<Post> streamByKeyword(String regex, List<String> tags, List<String> terms) {
+		return mongoTemplate.stream(PostQueries.keywordStream(regex, tags, terms), Post.class);
+	}
+
+	@Override
+	public List<Post> findByKeyword(String regex, List<String> tags, List<String> terms) {
+		return mongoTemplate.find(PostQueries.keywordStream(regex, tags, terms), Post.class);
+	}
+
+	@Override
+	public List<Post> findPageByTagsIn(List<String> tags, PostCursor after, int limit) {
+		return findPage(PostQueries.visibleTagsIn(tags), after, limit);
+	}
+
+	@Override
+	public List<Post> findPageByTagQuery(TagQuery query, PostCursor after, int limit) {
+		return findPage(PostQueries.tagQuery(query), after, limit);
+	}
+
+	@Override
+	public Stream<Post> streamByTagQuery(TagQuery query) {
+		return mongoTemplate.stream(PostQueries.tagQueryStream(query), Post.class);
+	}
+
+	@Override
+	public long countByTagQuery(TagQuery query) {
+		return mongoTemplate.count(Query.query(PostQueries.tagQuery(query)), Post.class);
+	}
+
+	@Override
+	public List<Post> findPageByCreatedAtBetween(LocalDateTime startOfRange, LocalDateTime endOfRange,
+			PostCursor after, int limit) {
+		return findPage(PostQueries.visibleCreatedBetween(startOfRange, endOfRange), after, limit);
+	}
+
+	@Override
+	public List<ScoredPost> findByTextSearch(String search, int limit) {
+		// Se leen documentos crudos para conservar la puntuación sin añadirla a la entidad
+		return mongoTemplate.find(PostQueries.textSearch(search, limit), Document.class,
+				mongoTemplate.getCollectionName(Post.class)).stream()
+				.map(document -> new ScoredPost(mongoTemplate.getConverter().read(Post.class, document),
+						document.get(PostQueries.SCORE_FIELD, Number.class).doubleValue()))
+				.toList();
+	}
+
+	@Override
+	public Set<String> findExistingTitleKeys(Collection<String> titleKeys) {
+		Query query = Query.query(Criteria.where("titleKey").in(titleKeys));
+		return new HashSet<>(mongoTemplate.findDistinct(query, "titleKey", Post.class, String.class));
+	}
+
+	@Override
+	public Map<Integer, String> insertUnordered(List<Post> posts) {
+		Map<Integer, String> failures = new HashMap<>();
+		try {
+			mongoTemplate.bulkOps(BulkMode.UNORDERED, Post.class).insert(posts).execute();
+		} catch (BulkOperationException e) {
+			e.getErrors().forEach(error -> failures.put(error.getIndex(), error.getMessage()));
+		}
+		return failures;
+	}
+
+	@Override
+	public Optional<Post> updateFields(String id, Map<String, ?> changes) {
+		return Optional.ofNullable(mongoTemplate.findAndModify(PostQueries.byId(id), PostQueries.changes(changes),
+				FindAndModifyOptions.options().returnNew(true), Post.class));
+	}
+
+	@Override
+	public Optional<PostVersion> findVersionById(String id) {
+		return Optional.ofNullable(mongoTemplate.findOne(PostQueries.versionById(id), Post.class)).map(PostVersion::of);
+	}
+
+	@Override
+	public List<ArchiveBucket> countArchive(ArchiveQuery query) {
+		return mongoTemplate.aggregate(PostQueries.archive(query), Post.class, Document.class).getMappedResults()
+				.stream()
+				.map(PostQueries::archiveBucket)
+				.toList();
+	}
+
+	@Override
+	public List<Post> findPageByModifiedAtAfter(LocalDateTime since, String afterId, int limit) {
+		return mongoTemplate.find(PostQueries.changedAfter("modifiedAt", since, afterId, limit), Post.class);
+	}
+
+	@Override
+	public List<Post> findPageByContentModifiedAtAfter(LocalDateTime since, String afterId, int limit) {
+		return mongoTemplate.find(PostQueries.changedAfter("contentModifiedAt", since, afterId, limit), Post.class);
+	}
+
+	@Override
+	public List<TagFacet> countTags() {
+		return countTags(null);
+	}
+
+	@Override
+	public List<TagFacet> countTagsByKeyword(String regex, List<String> tags, List<String> terms) {
+		return countTags(PostQueries.keyword(regex, tags, terms));
+	}
+
+	@Override
+	public List<TagFacet> countTagsByCreatedAtBetween(LocalDateTime startOfRange, LocalDateTime endOfRange) {
+		return countTags(PostQueries.createdBetween(startOfRange, endOfRange));
+	}
+
+	private List<TagFacet> countTags(Criteria filter) {
+		return mongoTemplate.aggregate(PostQueries.tagFacets(filter), Post.class, Document.class).getMappedResults()
+				.stream()
+				.map(PostQueries::tagFacet)
+				.toList();
+	}
+
+	@Override
+	public Stream<Post> streamVisibleTags() {
+		return mongoTemplate.stream(PostQueries.visibleTags(), Post.class);
+	}
+
+	@Override
+	public Stream<Post> streamVisibleFeedFields() {
+		return mongoTemplate.stream(PostQueries.visibleFeedFields(), Post.class);
+	}
+
+	@Override
+	public Stream<Post> streamHiddenDates() {
+		return mongoTemplate.stream(PostQueries.hiddenDates(), Post.class);
+	}
+
+	@Override
+	public Stream<Post> streamVisibleCreatedAt() {
+		return mongoTemplate.stream(PostQueries.visibleCreatedAt(), Post.class);
+	}
+
+	@Override
+	public Stream<String> streamIdsWithStaleContent() {
+		return mongoTemplate.stream(PostQueries.staleContent(), Post.class).map(Post::getId);
+	}
+
+	@Override
+	public Optional<Post> updateContent(String id, String source, List<String> terms) {
+		return Optional.ofNullable(mongoTemplate.findAndModify(PostQueries.byIdAndPdfUrl(id, source),
+				PostQueries.content(source, terms), FindAndModifyOptions.options().returnNew(true), Post.class));
+	}
+
+	@Override
+	public Optional<LocalDateTime> findLastModifiedByCreatedAtBetween(LocalDateTime startOfRange,
+			LocalDateTime endOfRange) {
+		return Optional.ofNullable(mongoTemplate.findOne(
+				PostQueries.lastModifiedByCreatedAtBetween(startOfRange, endOfRange), Post.class))
+				.map(Post::getModifiedAt);
+	}
+
+	/**
+	 * Ejecuta una consulta paginada por conjunto de claves (ver {@link PostQueries#page}).
+	 */
+	private List<Post> findPage(Criteria criteria, PostCursor after, int limit) {
+		return mongoTemplate.find(PostQueries.page(criteria, after, limit), Post.class);
+	}
+
+}
@@ -0,0 +1,66 @@
+package com.masbytes.miblog.repo;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition.TextIndexDefinitionBuilder;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import com.masbytes.miblog.entity.Post;
+
+/**
+ * Crea el índice de texto de los posts (título y, con el doble de peso, resumen) como índice
+ * parcial que solo incluye los posts visibles. Las anotaciones de Spring Data no admiten índices de
+ * texto parciales, así que se crea al arrancar junto con el resto de índices, con
+ * {@code spring.data.mongodb.auto-index-creation=true}.
+ *
+ * MongoDB solo admite un índice de texto por colección: el índice completo que creaban las
+ * versiones anteriores se elimina antes de crear este.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.data.mongodb.auto-index-creation", havingValue = "true")
+public class PostTextIndex {
+
+	static final String NAME = "visible_text";
+
+	private final MongoTemplate mongoTemplate;
+
+	public PostTextIndex(MongoTemplate mongoTemplate) {
+		this.mongoTemplate = mongoTemplate;
+	}
+
+	/**
+	 * Crea el índice si no existe, sustituyendo cualquier otro índice de texto.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void ensureIndex() {
+		IndexOperations indexOps = mongoTemplate.indexOps(Post.class);
+		indexOps.getIndexInfo().stream()
+				.filter(index -> !NAME.equals(index.getName()))
+				.filter(index -> index.getIndexFields().stream().anyMatch(IndexField::isText))
+				.map(IndexInfo::getName)
+				.forEach(indexOps::dropIndex);
+		indexOps.ensureIndex(definition());
+	}
+
+	/**
+	 * Definición del índice; las búsquedas de texto deben filtrar por {@code visible: true} para
+	 * poder usarlo.
+	 */
+	static TextIndexDefinition definition() {
+		return new TextIndexDefinitionBuilder()
+				.named(NAME)
+				.onField("title")
+				.onField("summary", 2F)
+				.partial(PartialIndexFilter.of(Criteria.where("visible").is(true)))
+				.build();
+	}
+
+}
@@ -0,0 +1,49 @@
+package com.masbytes.miblog.repo;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.masbytes.miblog.entity.Post;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Repositorio reactivo de la colección de posts, equivalente a {@link PostRepo} sobre el driver
+ * reactivo de MongoDB. Solo se crea con el perfil {@code reactive}.
+ */
+@Repository
+@Profile("reactive")
+public interface ReactivePostRepo extends ReactiveMongoRepository<Post, String>, ReactivePostRepoCustom {
+
+	/**
+     * Comprueba si existe un post con la clave de título indicada, usando solo el índice único.
+     * 
+     * @param titleKey La clave normalizada del título.
+     * @return true si ya existe un post con ese título.
+     */
+	Mono<Boolean> existsByTitleKey(String titleKey);
+
+	/**
+     * Recorre los posts visibles que contienen alguna de las etiquetas especificadas.
+     * 
+     * @param tags Lista de etiquetas para buscar en los posts.
+     * @return Los posts coincidentes, del más reciente al más antiguo.
+     */
+	Flux<Post> findByVisibleTrueAndTagsInOrderByCreatedAtDesc(List<String> tags);
+
+	/**
+     * Recorre los posts visibles creados en un rango de fechas.
+     * 
+     * @param startOfRange La fecha y hora de inicio del rango.
+     * @param endOfRange La fecha y hora de fin del rango.
+     * @return Los posts creados en el rango, del más reciente al más antiguo.
+     */
+	Flux<Post> findByVisibleTrueAndCreatedAtBetweenOrderByCreatedAtDesc(LocalDateTime startOfRange,
+			LocalDateTime endOfRange);
+
+}
@@ -0,0 +1,160 @@
+package com.masbytes.miblog.repo;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import com.masbytes.miblog.dto.ArchiveBucket;
+import com.masbytes.miblog.dto.ArchiveQuery;
+import com.masbytes.miblog.dto.PostCursor;
+import com.masbytes.miblog.dto.PostVersion;
+import com.masbytes.miblog.dto.ScoredPost;
+import com.masbytes.miblog.dto.TagFacet;
+import com.masbytes.miblog.dto.TagQuery;
+import com.masbytes.miblog.entity.Post;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Variante reactiva de las consultas personalizadas de {@link PostRepoCustom}.
+ * Las páginas se recorren en el mismo orden {@code (created_at DESC, _id DESC)} y a partir del
+ * mismo cursor, y los posts se emiten a medida que llegan del driver.
+ */
+public interface ReactivePostRepoCustom {
+
+	/**
+	 * Busca una página de posts visibles cuyo título o resumen coincidan con la expresión regular,
+	 * que contengan alguna de las etiquetas indicadas o cuyo archivo contenga todos los términos.
+	 * 
+	 * @param regex Expresión regular para buscar en el título y el resumen.
+	 * @param tags Lista de etiquetas para buscar en los posts.
+	 * @param terms Términos normalizados a buscar en el texto del archivo; vacía para no buscar en él.
+	 * @param after Cursor de la página anterior, o null para la primera página.
+	 * @param limit Número máximo de posts a devolver.
+	 * @return Los posts de la página en orden de creación descendente.
+	 */
+	Flux<Post> findPageByKeyword(String regex, List<String> tags, List<String> terms, PostCursor after, int limit);
+
+	/**
+	 * Recorre todos los posts que cumplen la búsqueda de {@link #findPageByKeyword}, del más
+	 * reciente al más antiguo.
+	 * 
+	 * @param regex Expresión regular para buscar en el título y el resumen.
+	 * @param tags Lista de etiquetas para buscar en los posts.
+	 * @param terms Términos normalizados a buscar en el texto del archivo; vacía para no buscar en él.
+	 * @return Los posts coincidentes.
+	 */
+	Flux<Post> findByKeyword(String regex, List<String> tags, List<String> terms);
+
+	/**
+	 * Busca una página de posts visibles que contengan alguna de las etiquetas especificadas.
+	 * 
+	 * @param tags Lista de etiquetas para buscar en los posts.
+	 * @param after Cursor de la página anterior, o null para la primera página.
+	 * @param limit Número máximo de posts a devolver.
+	 * @return Los posts de la página en orden de creación descendente.
+	 */
+	Flux<Post> findPageByTagsIn(List<String> tags, PostCursor after, int limit);
+
+	/**
+	 * Busca una página de posts visibles que cumplen una consulta booleana por etiquetas.
+	 * 
+	 * @param query La consulta con las etiquetas requeridas, alternativas y excluidas.
+	 * @param after Cursor de la página anterior, o null para la primera página.
+	 * @param limit Número máximo de posts a devolver.
+	 * @return Los posts de la página en orden de creación descendente.
+	 */
+	Flux<Post> findPageByTagQuery(TagQuery query, PostCursor after, int limit);
+
+	/**
+	 * Recorre todos los posts que cumplen la consulta de {@link #findPageByTagQuery}, del más
+	 * reciente al más antiguo.
+	 * 
+	 * @param query La consulta con las etiquetas requeridas, alternativas y excluidas.
+	 * @return Los posts coincidentes.
+	 */
+	Flux<Post> findByTagQuery(TagQuery query);
+
+	/**
+	 * Cuenta los posts visibles que cumplen una consulta booleana por etiquetas.
+	 * 
+	 * @param query La consulta con las etiquetas requeridas, alternativas y excluidas.
+	 * @return El número de posts coincidentes.
+	 */
+	Mono<Long> countByTagQuery(TagQuery query);
+
+	/**
+	 * Busca una página de posts visibles creados dentro de un rango de fechas.
+	 * 
+	 * @param startOfRange La fecha y hora de inicio del rango.
+	 * @param endOfRange La fecha y hora de fin del rango.
+	 * @param after Cursor de la página anterior, o null para la primera página.
+	 * @param limit Número máximo de posts a devolver.
+	 * @return Los posts de la página en orden de creación descendente.
+	 */
+	Flux<Post> findPageByCreatedAtBetween(LocalDateTime startOfRange, LocalDateTime endOfRange, PostCursor after,
+			int limit);
+
+	/**
+	 * Busca posts visibles con el índice de texto, ordenados por relevancia.
+	 * 
+	 * @param search El texto de búsqueda en la sintaxis de {@code $text}.
+	 * @param limit Número máximo de posts a devolver.
+	 * @return Los posts coincidentes con su puntuación, de mayor a menor relevancia.
+	 */
+	Flux<ScoredPost> findByTextSearch(String search, int limit);
+
+	/**
+	 * Cuenta los posts visibles por año, mes o día de creación con una agregación en el servidor.
+	 * 
+	 * @param query La unidad, la zona horaria y el rango de fechas.
+	 * @return Los periodos con algún post, del más reciente al más antiguo.
+	 */
+	Flux<ArchiveBucket> countArchive(ArchiveQuery query);
+
+	/**
+	 * Cuenta los posts visibles de cada etiqueta con una agregación en el servidor.
+	 * 
+	 * @return Las etiquetas con algún post, de la más usada a la menos usada.
+	 */
+	Flux<TagFacet> countTags();
+
+	/**
+	 * Cuenta por etiqueta los posts visibles que encuentra la búsqueda por palabra clave.
+	 * 
+	 * @param regex Expresión regular para buscar en el título y el resumen.
+	 * @param tags Lista de etiquetas para buscar en los posts.
+	 * @param terms Términos normalizados a buscar en el texto del archivo; vacía para no buscar en él.
+	 * @return Las etiquetas con algún post, de la más usada a la menos usada.
+	 */
+	Flux<TagFacet> countTagsByKeyword(String regex, List<String> tags, List<String> terms);
+
+	/**
+	 * Cuenta por etiqueta los posts visibles creados dentro de un rango de fechas.
+	 * 
+	 * @param startOfRange La fecha y hora de inicio del rango.
+	 * @param endOfRange La fecha y hora de fin del rango.
+	 * @return Las etiquetas con algún post, de la más usada a la menos usada.
+	 */
+	Flux<TagFacet> countTagsByCreatedAtBetween(LocalDateTime startOfRange, LocalDateTime endOfRange);
+
+	/**
+	 * Modifica los campos indicados de un post con una única operación atómica, actualizando
+	 * también su fecha de modificación y su versión.
+	 * 
+	 * @param id El ID del post.
+	 * @param changes Los campos a modificar; un valor null elimina el campo.
+	 * @return El post modificado, o vacío si no existe.
+	 */
+	Mono<Post> updateFields(String id, Map<String, ?> changes);
+
+	/**
+	 * Lee solo la versión y la fecha de modificación de un post.
+	 * 
+	 * @param id El ID del post.
+	 * @return La versión del post, o vacío si no existe.
+	 */
+	Mono<PostVersion> findVersionById(String id);
+
+}
@@ -0,0 +1,124 @@
+package com.masbytes.miblog.repo;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.masbytes.miblog.dto.ArchiveBucket;
+import com.masbytes.miblog.dto.ArchiveQuery;
+import com.masbytes.miblog.dto.PostCursor;
+import com.masbytes.miblog.dto.PostVersion;
+import com.masbytes.miblog.dto.ScoredPost;
+import com.masbytes.miblog.dto.TagFacet;
+import com.masbytes.miblog.dto.TagQuery;
+import com.masbytes.miblog.entity.Post;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Implementación de las consultas personalizadas de {@link ReactivePostRepoCustom} sobre
+ * {@link ReactiveMongoTemplate}, con las mismas consultas que {@link PostRepoCustomImpl}.
+ */
+public class ReactivePostRepoCustomImpl implements ReactivePostRepoCustom {
+
+	private final ReactiveMongoTemplate mongoTemplate;
+
+	public ReactivePostRepoCustomImpl(ReactiveMongoTemplate mongoTemplate) {
+		this.mongoTemplate = mongoTemplate;
+	}
+
+	@Override
+	public Flux<Post> findPageByKeyword(String regex, List<String> tags, List<String> terms, PostCursor after,
+			int limit) {
+		return findPage(PostQueries.visibleKeyword(regex, tags, terms), after, limit);
+	}
+
+	@Override
+	public Flux<Post> findByKeyword(String regex, List<String> tags, List<String> terms) {
+		return mongoTemplate.find(PostQueries.keywordStream(regex, tags, terms), Post.class);
+	}
+
+	@Override
+	public Flux<Post> findPageByTagsIn(List<String> tags, PostCursor after, int limit) {
+		return findPage(PostQueries.visibleTagsIn(tags), after, limit);
+	}
+
+	@Override
+	public Flux<Post> findPageByTagQuery(TagQuery query, PostCursor after, int limit) {
+		return findPage(PostQueries.tagQuery(query), after, limit);
+	}
+
+	@Override
+	public Flux<Post> findByTagQuery(TagQuery query) {
+		return mongoTemplate.find(PostQueries.tagQueryStream(query), Post.class);
+	}
+
+	@Override
+	public Mono<Long> countByTagQuery(TagQuery query) {
+		return mongoTemplate.count(Query.query(PostQueries.tagQuery(query)), Post.class);
+	}
+
+	@Override
+	public Flux<Post> findPageByCreatedAtBetween(LocalDateTime startOfRange, LocalDateTime endOfRange,
+			PostCursor after, int limit) {
+		return findPage(PostQueries.visibleCreatedBetween(startOfRange, endOfRange), after, limit);
+	}
+
+	@Override
+	public Flux<ScoredPost> findByTextSearch(String search, int limit) {
+		// Se leen documentos crudos para conservar la puntuación sin añadirla a la entidad
+		return mongoTemplate.find(PostQueries.textSearch(search, limit), Document.class,
+				mongoTemplate.getCollectionName(Post.class))
+				.map(document -> new ScoredPost(mongoTemplate.getConverter().read(Post.class, document),
+						document.get(PostQueries.SCORE_FIELD, Number.class).doubleValue()));
+	}
+
+	@Override
+	public Flux<ArchiveBucket> countArchive(ArchiveQuery query) {
+		return mongoTemplate.aggregate(PostQueries.archive(query), Post.class, Document.class)
+				.map(PostQueries::archiveBucket);
+	}
+
+	@Override
+	public Flux<TagFacet> countTags() {
+		return countTags(null);
+	}
+
+	@Override
+	public Flux<TagFacet> countTagsByKeyword(String regex, List<String> tags, List<String> terms) {
+		return countTags(PostQueries.keyword(regex, tags, terms));
+	}
+
+	@Override
+	public Flux<TagFacet> countTagsByCreatedAtBetween(LocalDateTime startOfRange, LocalDateTime endOfRange) {
+		return countTags(PostQueries.createdBetween(startOfRange, endOfRange));
+	}
+
+	private Flux<TagFacet> countTags(Criteria filter) {
+		return mongoTemplate.aggregate(PostQueries.tagFacets(filter), Post.class, Document.class)
+				.map(PostQueries::tagFacet);
+	}
+
+	@Override
+	public Mono<Post> updateFields(String id, Map<String, ?> changes) {
+		return mongoTemplate.findAndModify(PostQueries.byId(id), PostQueries.changes(changes),
+				FindAndModifyOptions.options().returnNew(true), Post.class);
+	}
+
+	@Override
+	public Mono<PostVersion> findVersionById(String id) {
+		return mongoTemplate.findOne(PostQueries.versionById(id), Post.class).map(PostVersion::of);
+	}
+
+	private Flux<Post> findPage(Criteria criteria, PostCursor after, int limit) {
+		return mongoTemplate.find(PostQueries.page(criteria, after, limit), Post.class);
+	}
+
+}
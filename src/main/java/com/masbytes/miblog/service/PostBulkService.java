@@ -0,0 +1,24 @@
+package com.masbytes.miblog.service;
+
+import java.util.Iterator;
+
+import com.masbytes.miblog.dto.BulkReport;
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.exception.PostInvalidDataException;
+
+/**
+ * Interfaz para el servicio de carga masiva de posts.
+ */
+public interface PostBulkService {
+
+	/**
+	 * Crea los posts recibidos por lotes, sin detenerse ante los que no se pueden guardar. Si un
+	 * elemento no se puede leer, la carga se detiene en él y el informe termina con su error.
+	 * 
+	 * @param posts Los posts a crear, leídos a medida que se procesan.
+	 * @return El informe con el resultado de cada post.
+	 * @throws PostInvalidDataException Si la entrada no se puede leer antes de guardar ningún post.
+	 */
+	BulkReport createPosts(Iterator<Post> posts);
+
+}
@@ -0,0 +1,22 @@
+package com.masbytes.miblog.service;
+
+import com.masbytes.miblog.dto.PostContent;
+import com.masbytes.miblog.exception.PostContentUnavailableException;
+import com.masbytes.miblog.exception.PostNotFoundException;
+
+/**
+ * Interfaz para el servicio que sirve el archivo (PDF o TXT) de cada post desde la caché en disco.
+ */
+public interface PostContentService {
+
+	/**
+	 * Abre el archivo de un post, descargándolo de su {@code pdfUrl} si aún no está en la caché.
+	 * 
+	 * @param id El ID del post.
+	 * @return El archivo abierto, que el llamante debe cerrar.
+	 * @throws PostNotFoundException Si no se encuentra un post con el ID dado o no tiene archivo.
+	 * @throws PostContentUnavailableException Si el archivo no se puede obtener del almacenamiento.
+	 */
+	PostContent getPostContent(String id) throws PostNotFoundException, PostContentUnavailableException;
+
+}
@@ -2,7 +2,17 @@ package com.masbytes.miblog.service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import com.masbytes.miblog.dto.ArchiveBucket;
+import com.masbytes.miblog.dto.ArchiveQuery;
+import com.masbytes.miblog.dto.PostPage;
+import com.masbytes.miblog.dto.PostVersion;
+import com.masbytes.miblog.dto.ScoredPost;
+import com.masbytes.miblog.dto.TagFacet;
+import com.masbytes.miblog.dto.TagQuery;
 import com.masbytes.miblog.entity.Post;
 import com.masbytes.miblog.exception.PostAlreadyExistsException;
 import com.masbytes.miblog.exception.PostInvalidDataException;
@@ -33,6 +43,15 @@ public interface PostService {
      */
 	Post getPostById(String id) throws PostNotFoundException;
 	
+	/**
+     * Obtiene la versión de un post para responder a peticiones condicionales sin cargarlo completo.
+     * 
+     * @param id El ID del post.
+     * @return La versión y la fecha de modificación del post.
+     * @throws PostNotFoundException Si no se encuentra un post con el ID dado.
+     */
+	PostVersion getPostVersion(String id) throws PostNotFoundException;
+	
 	/**
      * Busca posts que contienen una palabra clave en su título o resumen.
      * 
@@ -41,6 +60,27 @@ public interface PostService {
      */
 	List<Post> searchPostByKeyword(String keyword);
 	
+	/**
+     * Busca una página de posts que contienen una palabra clave en su título, resumen o etiquetas.
+     * 
+     * @param keyword La palabra clave para buscar en los posts.
+     * @param cursor El cursor opaco de la página anterior, o null para la primera página.
+     * @param size El tamaño de página solicitado, o null para usar el tamaño por defecto.
+     * @return La página de posts y el cursor de la siguiente.
+     * @throws PostInvalidDataException Si el cursor no es válido.
+     */
+	PostPage searchPostByKeyword(String keyword, String cursor, Integer size) throws PostInvalidDataException;
+	
+	/**
+     * Busca posts por relevancia usando el índice de texto sobre el título y el resumen.
+     * 
+     * @param query El texto de búsqueda; admite frases entre comillas y términos excluidos con un guion.
+     * @param size El número máximo de resultados, o null para usar el tamaño por defecto.
+     * @return Los posts coincidentes con su puntuación, de mayor a menor relevancia.
+     * @throws PostInvalidDataException Si el texto de búsqueda está vacío.
+     */
+	List<ScoredPost> searchPostsByText(String query, Integer size) throws PostInvalidDataException;
+	
 	/**
      * Busca posts que contienen al menos una de las etiquetas especificadas.
      * 
@@ -49,6 +89,17 @@ public interface PostService {
      */
 	List<Post> searchPostsByTags(List<String> tags);
 	
+	/**
+     * Busca una página de posts que contienen al menos una de las etiquetas especificadas.
+     * 
+     * @param tags Una lista de etiquetas para buscar en los posts.
+     * @param cursor El cursor opaco de la página anterior, o null para la primera página.
+     * @param size El tamaño de página solicitado, o null para usar el tamaño por defecto.
+     * @return La página de posts y el cursor de la siguiente.
+     * @throws PostInvalidDataException Si el cursor no es válido.
+     */
+	PostPage searchPostsByTags(List<String> tags, String cursor, Integer size) throws PostInvalidDataException;
+	
 	/**
      * Busca posts que fueron creados después de una fecha específica.
      * 
@@ -57,6 +108,101 @@ public interface PostService {
      */
 	List<Post> getRecentPosts(LocalDateTime fromDate);
 	
+	/**
+     * Busca una página de posts visibles que cumplen una consulta booleana por etiquetas
+     * (todas las de {@code all}, alguna de {@code any} y ninguna de {@code none}).
+     * 
+     * @param query La consulta por etiquetas.
+     * @param cursor El cursor opaco de la página anterior, o null para la primera página.
+     * @param size El tamaño de página solicitado, o null para usar el tamaño por defecto.
+     * @return La página de posts y el cursor de la siguiente.
+     * @throws PostInvalidDataException Si el cursor no es válido.
+     */
+	PostPage searchPostsByTags(TagQuery query, String cursor, Integer size) throws PostInvalidDataException;
+	
+	/**
+     * Cuenta los posts visibles que cumplen una consulta booleana por etiquetas.
+     * 
+     * @param query La consulta por etiquetas.
+     * @return El número total de posts coincidentes.
+     */
+	long countPostsByTags(TagQuery query);
+	
+	/**
+     * Obtiene una página de los posts creados en la fecha indicada o, si es nula, en los últimos 30 días.
+     * 
+     * @param fromDate La fecha a partir de la cual se deben buscar los posts.
+     * @param cursor El cursor opaco de la página anterior, o null para la primera página.
+     * @param size El tamaño de página solicitado, o null para usar el tamaño por defecto.
+     * @return La página de posts y el cursor de la siguiente.
+     * @throws PostInvalidDataException Si el cursor no es válido.
+     */
+	PostPage getRecentPosts(LocalDateTime fromDate, String cursor, Integer size) throws PostInvalidDataException;
+	
+	/**
+     * Obtiene la fecha de modificación más reciente de los posts creados en la fecha indicada o,
+     * si es nula, en los últimos 30 días.
+     * 
+     * @param fromDate La fecha a partir de la cual se deben buscar los posts.
+     * @return La última modificación, o vacío si no hay posts en el rango.
+     */
+	Optional<LocalDateTime> getRecentPostsLastModified(LocalDateTime fromDate);
+	
+	/**
+     * Cuenta los posts visibles por año, mes o día de creación, sin leer los posts.
+     * 
+     * @param query La unidad, la zona horaria y el rango de fechas.
+     * @return Los periodos con algún post, del más reciente al más antiguo.
+     */
+	List<ArchiveBucket> getArchive(ArchiveQuery query);
+	
+	/**
+     * Cuenta los posts visibles de cada etiqueta, de todos los posts o solo de los que encuentra
+     * la búsqueda por palabra clave o la de posts recientes de una fecha.
+     * 
+     * @param keyword (Opcional) Palabra clave de la búsqueda cuyos resultados se cuentan.
+     * @param fromDate (Opcional) Fecha de los posts recientes cuyos resultados se cuentan.
+     * @return Las etiquetas con algún post, de la más usada a la menos usada.
+     * @throws PostInvalidDataException Si se indican a la vez la palabra clave y la fecha.
+     */
+	List<TagFacet> getTagFacets(String keyword, LocalDateTime fromDate) throws PostInvalidDataException;
+	
+	/**
+     * Recorre en streaming los posts que contienen una palabra clave en su título, resumen o etiquetas.
+     * El Stream mantiene abierto un cursor de base de datos y debe cerrarse tras su uso.
+     * 
+     * @param keyword La palabra clave para buscar en los posts.
+     * @return Un Stream de los posts coincidentes.
+     */
+	Stream<Post> streamPostsByKeyword(String keyword);
+	
+	/**
+     * Recorre en streaming los posts que contienen al menos una de las etiquetas especificadas.
+     * El Stream mantiene abierto un cursor de base de datos y debe cerrarse tras su uso.
+     * 
+     * @param tags Una lista de etiquetas para buscar en los posts.
+     * @return Un Stream de los posts coincidentes.
+     */
+	Stream<Post> streamPostsByTags(List<String> tags);
+	
+	/**
+     * Recorre en streaming los posts visibles que cumplen una consulta booleana por etiquetas.
+     * El Stream mantiene abierto un cursor de base de datos y debe cerrarse tras su uso.
+     * 
+     * @param query La consulta con las etiquetas requeridas, alternativas y excluidas.
+     * @return Un Stream de los posts coincidentes.
+     */
+	Stream<Post> streamPostsByTags(TagQuery query);
+	
+	/**
+     * Recorre en streaming los posts creados en la fecha indicada o, si es nula, en los últimos 30 días.
+     * El Stream mantiene abierto un cursor de base de datos y debe cerrarse tras su uso.
+     * 
+     * @param fromDate La fecha a partir de la cual se deben buscar los posts.
+     * @return Un Stream de los posts creados dentro del rango.
+     */
+	Stream<Post> streamRecentPosts(LocalDateTime fromDate);
+	
 	/**
      * Actualiza un post existente.
      * 
@@ -65,8 +211,22 @@ public interface PostService {
      * @return El post actualizado.
      * @throws PostNotFoundException Si no se encuentra un post con el ID proporcionado.
      * @throws PostInvalidDataException Si los datos proporcionados no son válidos.
+     * @throws PostAlreadyExistsException Si el nuevo título ya lo usa otro post.
+     */
+	Post updatePost (String id, Post post) throws PostInvalidDataException, PostNotFoundException, PostAlreadyExistsException;
+	
+	/**
+     * Aplica a un post un parche JSON Merge Patch (RFC 7396): solo se modifican los campos
+     * presentes en el parche, y un valor null elimina el campo.
+     * 
+     * @param id El ID del post a modificar.
+     * @param patch Los campos a modificar: title, summary, pdfUrl, tags y visible.
+     * @return El post modificado.
+     * @throws PostNotFoundException Si no se encuentra un post con el ID proporcionado.
+     * @throws PostInvalidDataException Si el parche contiene campos desconocidos o valores no válidos.
+     * @throws PostAlreadyExistsException Si el nuevo título ya lo usa otro post.
      */
-	Post updatePost (String id, Post post) throws PostInvalidDataException, PostNotFoundException;
+	Post patchPost (String id, Map<String, Object> patch) throws PostNotFoundException, PostInvalidDataException, PostAlreadyExistsException;
 	
 	/**
      * Actualiza la visibilidad de un post (eliminación lógica).
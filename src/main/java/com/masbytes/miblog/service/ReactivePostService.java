@@ -0,0 +1,193 @@
+package com.masbytes.miblog.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import com.masbytes.miblog.dto.ArchiveBucket;
+import com.masbytes.miblog.dto.ArchiveQuery;
+import com.masbytes.miblog.dto.PostPage;
+import com.masbytes.miblog.dto.PostVersion;
+import com.masbytes.miblog.dto.ScoredPost;
+import com.masbytes.miblog.dto.TagFacet;
+import com.masbytes.miblog.dto.TagQuery;
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.exception.PostAlreadyExistsException;
+import com.masbytes.miblog.exception.PostInvalidDataException;
+import com.masbytes.miblog.exception.PostNotFoundException;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Variante reactiva de {@link PostService} para el perfil {@code reactive}.
+ * Los métodos no bloquean: devuelven un {@link Mono} o un {@link Flux} que realiza la operación
+ * al suscribirse, y los errores de {@link PostService} (datos inválidos, post inexistente o título
+ * repetido) se emiten como señal de error con las mismas excepciones.
+ */
+public interface ReactivePostService {
+
+	/**
+     * Crea un nuevo post en el sistema.
+     *
+     * @param post El post que se desea crear.
+     * @return El post recién creado, o un error {@link PostAlreadyExistsException} o
+     *         {@link PostInvalidDataException}.
+     */
+	Mono<Post> createPost(Post post);
+
+	/**
+     * Obtiene un post por su ID.
+     *
+     * @param id El ID del post que se desea obtener.
+     * @return El post, o un error {@link PostNotFoundException} si no existe.
+     */
+	Mono<Post> getPostById(String id);
+
+	/**
+     * Obtiene la versión de un post para responder a peticiones condicionales sin cargarlo completo.
+     *
+     * @param id El ID del post.
+     * @return La versión del post, o un error {@link PostNotFoundException} si no existe.
+     */
+	Mono<PostVersion> getPostVersion(String id);
+
+	/**
+     * Busca una página de posts que contienen una palabra clave en su título, resumen o etiquetas.
+     *
+     * @param keyword La palabra clave para buscar en los posts.
+     * @param cursor El cursor opaco de la página anterior, o null para la primera página.
+     * @param size El tamaño de página solicitado, o null para usar el tamaño por defecto.
+     * @return La página de posts, o un error {@link PostInvalidDataException} si el cursor no es válido.
+     */
+	Mono<PostPage> searchPostByKeyword(String keyword, String cursor, Integer size);
+
+	/**
+     * Busca posts por relevancia usando el índice de texto sobre el título y el resumen.
+     *
+     * @param query El texto de búsqueda.
+     * @param size El número máximo de resultados, o null para usar el tamaño por defecto.
+     * @return Los posts con su puntuación, o un error {@link PostInvalidDataException} si la búsqueda está vacía.
+     */
+	Flux<ScoredPost> searchPostsByText(String query, Integer size);
+
+	/**
+     * Busca una página de posts que contienen al menos una de las etiquetas especificadas.
+     *
+     * @param tags Una lista de etiquetas para buscar en los posts.
+     * @param cursor El cursor opaco de la página anterior, o null para la primera página.
+     * @param size El tamaño de página solicitado, o null para usar el tamaño por defecto.
+     * @return La página de posts, o un error {@link PostInvalidDataException} si el cursor no es válido.
+     */
+	Mono<PostPage> searchPostsByTags(List<String> tags, String cursor, Integer size);
+
+	/**
+     * Busca una página de posts visibles que cumplen una consulta booleana por etiquetas.
+     *
+     * @param query La consulta por etiquetas.
+     * @param cursor El cursor opaco de la página anterior, o null para la primera página.
+     * @param size El tamaño de página solicitado, o null para usar el tamaño por defecto.
+     * @return La página de posts, o un error {@link PostInvalidDataException} si el cursor no es válido.
+     */
+	Mono<PostPage> searchPostsByTags(TagQuery query, String cursor, Integer size);
+
+	/**
+     * Cuenta los posts visibles que cumplen una consulta booleana por etiquetas.
+     *
+     * @param query La consulta por etiquetas.
+     * @return El número total de posts coincidentes.
+     */
+	Mono<Long> countPostsByTags(TagQuery query);
+
+	/**
+     * Obtiene una página de los posts creados en la fecha indicada o, si es nula, en los últimos 30 días.
+     *
+     * @param fromDate La fecha a partir de la cual se deben buscar los posts.
+     * @param cursor El cursor opaco de la página anterior, o null para la primera página.
+     * @param size El tamaño de página solicitado, o null para usar el tamaño por defecto.
+     * @return La página de posts, o un error {@link PostInvalidDataException} si el cursor no es válido.
+     */
+	Mono<PostPage> getRecentPosts(LocalDateTime fromDate, String cursor, Integer size);
+
+	/**
+     * Cuenta los posts visibles por año, mes o día de creación con una agregación en MongoDB.
+     *
+     * @param query La unidad, la zona horaria y el rango de fechas.
+     * @return Los periodos con algún post, del más reciente al más antiguo.
+     */
+	Flux<ArchiveBucket> getArchive(ArchiveQuery query);
+
+	/**
+     * Cuenta los posts visibles de cada etiqueta con una agregación en MongoDB, de todos los posts o
+     * solo de los que encuentra la búsqueda por palabra clave o la de posts recientes de una fecha.
+     *
+     * @param keyword (Opcional) Palabra clave de la búsqueda cuyos resultados se cuentan.
+     * @param fromDate (Opcional) Fecha de los posts recientes cuyos resultados se cuentan.
+     * @return Las etiquetas con algún post, de la más usada a la menos usada, o un error
+     *         {@link PostInvalidDataException} si se indican a la vez la palabra clave y la fecha.
+     */
+	Flux<TagFacet> getTagFacets(String keyword, LocalDateTime fromDate);
+
+	/**
+     * Recorre los posts que contienen una palabra clave en su título, resumen o etiquetas.
+     * Los posts se leen del cursor de MongoDB según la demanda del suscriptor.
+     *
+     * @param keyword La palabra clave para buscar en los posts.
+     * @return Los posts coincidentes.
+     */
+	Flux<Post> streamPostsByKeyword(String keyword);
+
+	/**
+     * Recorre los posts que contienen al menos una de las etiquetas especificadas.
+     *
+     * @param tags Una lista de etiquetas para buscar en los posts.
+     * @return Los posts coincidentes.
+     */
+	Flux<Post> streamPostsByTags(List<String> tags);
+
+	/**
+     * Recorre los posts visibles que cumplen una consulta booleana por etiquetas.
+     *
+     * @param query La consulta con las etiquetas requeridas, alternativas y excluidas.
+     * @return Los posts coincidentes.
+     */
+	Flux<Post> streamPostsByTags(TagQuery query);
+
+	/**
+     * Recorre los posts creados en la fecha indicada o, si es nula, en los últimos 30 días.
+     *
+     * @param fromDate La fecha a partir de la cual se deben buscar los posts.
+     * @return Los posts creados dentro del rango.
+     */
+	Flux<Post> streamRecentPosts(LocalDateTime fromDate);
+
+	/**
+     * Actualiza un post existente.
+     *
+     * @param id El ID del post a actualizar.
+     * @param post El post con los nuevos datos.
+     * @return El post actualizado, o un error {@link PostNotFoundException},
+     *         {@link PostInvalidDataException} o {@link PostAlreadyExistsException}.
+     */
+	Mono<Post> updatePost(String id, Post post);
+
+	/**
+     * Aplica a un post un parche JSON Merge Patch (RFC 7396).
+     *
+     * @param id El ID del post a modificar.
+     * @param patch Los campos a modificar: title, summary, pdfUrl, tags y visible.
+     * @return El post modificado, o un error {@link PostNotFoundException},
+     *         {@link PostInvalidDataException} o {@link PostAlreadyExistsException}.
+     */
+	Mono<Post> patchPost(String id, Map<String, Object> patch);
+
+	/**
+     * Actualiza la visibilidad de un post (eliminación lógica).
+     *
+     * @param id El ID del post cuya visibilidad se desea actualizar.
+     * @param visible El estado de visibilidad (true o false).
+     * @return Vacío al terminar, o un error {@link PostNotFoundException} si el post no existe.
+     */
+	Mono<Void> setPostVisibility(String id, boolean visible);
+
+}
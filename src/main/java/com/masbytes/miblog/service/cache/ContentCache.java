@@ -0,0 +1,494 @@
+package com.masbytes.miblog.service.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.masbytes.miblog.dto.PostContent;
+import com.masbytes.miblog.exception.PostContentUnavailableException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Caché en disco de los archivos (PDF o TXT) de los posts, descargados del almacenamiento externo.
+ *
+ * Cada archivo se descarga una sola vez, aunque lo pidan varias peticiones a la vez, y se guarda
+ * con el nombre de su resumen SHA-256: dos URLs con el mismo contenido comparten archivo. La
+ * correspondencia entre URLs y resúmenes se mantiene en memoria, por lo que al arrancar se
+ * eliminan los archivos de ejecuciones anteriores. Cuando el tamaño total supera
+ * {@code miblog.content.cache.max-size}, se expulsan los archivos usados hace más tiempo (LRU).
+ *
+ * Las URLs las fija cualquier cliente de la API, así que solo se descargan archivos de los hosts de
+ * {@code miblog.content.fetch.allowed-hosts} (cualquiera si está vacío; {@code .dominio} admite
+ * también sus subdominios) y nunca de direcciones de loopback, de enlace local, privadas o de
+ * metadatos de la nube, salvo con {@code miblog.content.fetch.allow-private-addresses=true}. Las
+ * redirecciones se siguen una a una, comprobando cada destino del mismo modo, y las descargas se
+ * interrumpen al superar {@code miblog.content.fetch.max-size}, antes de ocupar el disco.
+ *
+ * Publica en Micrometer el tamaño ocupado ({@code miblog.content.cache.size}) y los aciertos y
+ * fallos ({@code miblog.content.cache.requests}, etiqueta {@code result}).
+ */
+@Component
+public class ContentCache {
+
+	private static final Logger log = LoggerFactory.getLogger(ContentCache.class);
+
+	private static final String TEMP_PREFIX = "fetch-";
+
+	private static final String TEMP_SUFFIX = ".tmp";
+
+	private static final int MAX_REDIRECTS = 5;
+
+	private static final Set<Integer> REDIRECT_STATUSES = Set.of(301, 302, 303, 307, 308);
+
+	private final Path directory;
+
+	private final long maxBytes;
+
+	private final Duration timeout;
+
+	private final List<String> allowedHosts;
+
+	private final boolean allowPrivateAddresses;
+
+	private final long maxFileBytes;
+
+	private final HttpClient httpClient;
+
+	/**
+	 * Archivos por resumen, en orden de uso (el primero es el usado hace más tiempo).
+	 */
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final Map<String, String> hashByUrl = new HashMap<>();
+
+	private final ConcurrentHashMap<String, CompletableFuture<Void>> downloads = new ConcurrentHashMap<>();
+
+	private final Counter hits;
+
+	private final Counter misses;
+
+	private long totalBytes;
+
+	public ContentCache(@Value("${miblog.content.cache.dir:${java.io.tmpdir}/miblog-content}") Path directory,
+			@Value("${miblog.content.cache.max-size:1GB}") DataSize maxSize,
+			@Value("${miblog.content.fetch.timeout:30s}") Duration timeout,
+			@Value("${miblog.content.fetch.allowed-hosts:}") List<String> allowedHosts,
+			@Value("${miblog.content.fetch.allow-private-addresses:false}") boolean allowPrivateAddresses,
+			@Value("${miblog.content.fetch.max-size:100MB}") DataSize maxFileSize, MeterRegistry meterRegistry)
+			throws IOException {
+		this.directory = directory;
+		this.maxBytes = maxSize.toBytes();
+		this.timeout = timeout;
+		this.allowedHosts = allowedHosts.stream()
+				.map(String::trim)
+				.filter(host -> !host.isEmpty())
+				.map(host -> host.toLowerCase(Locale.ROOT))
+				.toList();
+		this.allowPrivateAddresses = allowPrivateAddresses;
+		this.maxFileBytes = maxFileSize.toBytes();
+		// Las redirecciones se siguen a mano para comprobar cada destino
+		this.httpClient = HttpClient.newBuilder()
+				.followRedirects(HttpClient.Redirect.NEVER)
+				.connectTimeout(timeout)
+				.build();
+		Files.createDirectories(directory);
+		deleteLeftovers();
+
+		Gauge.builder("miblog.content.cache.size", this, ContentCache::size)
+				.description("Bytes ocupados por la caché de archivos de los posts")
+				.baseUnit("bytes")
+				.register(meterRegistry);
+		this.hits = Counter.builder("miblog.content.cache.requests").tag("result", "hit").register(meterRegistry);
+		this.misses = Counter.builder("miblog.content.cache.requests").tag("result", "miss").register(meterRegistry);
+	}
+
+	/**
+	 * Abre el archivo de una URL, descargándolo antes si no está en la caché.
+	 *
+	 * @param url La URL http o https del archivo.
+	 * @return El archivo abierto, que el llamante debe cerrar.
+	 * @throws PostContentUnavailableException Si la URL no es válida o no está permitida, o si la
+	 *                                         descarga falla o supera el tamaño máximo.
+	 */
+	public PostContent open(String url) throws PostContentUnavailableException {
+		URI uri = validate(url);
+		while (true) {
+			PostContent cached = openCached(url);
+			if (cached != null) {
+				hits.increment();
+				return cached;
+			}
+
+			// Solo una petición descarga cada URL; el resto espera y vuelve a mirar en la caché
+			CompletableFuture<Void> download = new CompletableFuture<>();
+			CompletableFuture<Void> running = downloads.putIfAbsent(url, download);
+			if (running != null) {
+				await(running);
+				continue;
+			}
+			misses.increment();
+			try {
+				PostContent fetched = fetch(url, uri);
+				download.complete(null);
+				return fetched;
+			} catch (RuntimeException e) {
+				download.completeExceptionally(e);
+				throw e;
+			} finally {
+				downloads.remove(url, download);
+			}
+		}
+	}
+
+	/**
+	 * Bytes ocupados por los archivos de la caché.
+	 */
+	public synchronized long size() {
+		return totalBytes;
+	}
+
+	private synchronized PostContent openCached(String url) {
+		String hash = hashByUrl.get(url);
+		if (hash == null) {
+			return null;
+		}
+		// La consulta en el mapa de acceso ordenado lo marca como usado recientemente
+		Entry entry = entries.get(hash);
+		try {
+			return entry.open(directory);
+		} catch (IOException e) {
+			// El archivo se borró fuera de la aplicación: se olvida y se vuelve a descargar
+			log.warn("No se pudo abrir el archivo en caché {} de {}", hash, url, e);
+			remove(hash);
+			return null;
+		}
+	}
+
+	private PostContent fetch(String url, URI uri) {
+		Path temp = null;
+		try {
+			HttpResponse<InputStream> response = send(url, uri);
+			try (InputStream body = response.body()) {
+				if (response.statusCode() != 200) {
+					throw new PostContentUnavailableException(
+							"El almacenamiento respondió " + response.statusCode() + " para " + url);
+				}
+				if (response.headers().firstValueAsLong("Content-Length").orElse(-1) > maxFileBytes) {
+					throw tooLarge(url);
+				}
+
+				// El resumen se calcula mientras se escribe el archivo, sin volver a leerlo
+				MessageDigest digest = sha256();
+				temp = Files.createTempFile(directory, TEMP_PREFIX, TEMP_SUFFIX);
+				try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+					copy(url, body, out);
+				}
+				String hash = HexFormat.of().formatHex(digest.digest());
+				URI location = response.uri();
+				String contentType = response.headers().firstValue("Content-Type")
+						.orElseGet(() -> guessContentType(location));
+				return store(url, hash, temp, contentType);
+			}
+		} catch (IOException e) {
+			throw new PostContentUnavailableException("No se pudo descargar " + url, e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new PostContentUnavailableException("Descarga interrumpida de " + url, e);
+		} finally {
+			if (temp != null) {
+				deleteQuietly(temp);
+			}
+		}
+	}
+
+	/**
+	 * Pide el archivo siguiendo las redirecciones una a una y comprobando antes cada destino.
+	 */
+	private HttpResponse<InputStream> send(String url, URI uri) throws IOException, InterruptedException {
+		URI target = uri;
+		for (int redirects = 0;; redirects++) {
+			checkAddresses(target);
+			HttpResponse<InputStream> response = httpClient.send(
+					HttpRequest.newBuilder(target).timeout(timeout).GET().build(),
+					HttpResponse.BodyHandlers.ofInputStream());
+			Optional<String> location = response.headers().firstValue("Location");
+			if (!REDIRECT_STATUSES.contains(response.statusCode()) || location.isEmpty()) {
+				return response;
+			}
+			response.body().close();
+			if (redirects == MAX_REDIRECTS) {
+				throw new PostContentUnavailableException("Demasiadas redirecciones para " + url);
+			}
+			try {
+				target = validate(target.resolve(location.get()).toString());
+			} catch (IllegalArgumentException e) {
+				throw new PostContentUnavailableException("Redirección no válida para " + url, e);
+			}
+		}
+	}
+
+	/**
+	 * Copia el cuerpo de la respuesta al archivo, interrumpiendo la descarga si supera el tamaño máximo.
+	 */
+	private void copy(String url, InputStream body, OutputStream out) throws IOException {
+		byte[] buffer = new byte[64 * 1024];
+		long copied = 0;
+		int read;
+		while ((read = body.read(buffer)) >= 0) {
+			copied += read;
+			if (copied > maxFileBytes) {
+				throw tooLarge(url);
+			}
+			out.write(buffer, 0, read);
+		}
+	}
+
+	private PostContentUnavailableException tooLarge(String url) {
+		return new PostContentUnavailableException(
+				"El archivo de " + url + " supera el tamaño máximo de " + maxFileBytes + " bytes");
+	}
+
+	/**
+	 * Guarda un archivo descargado con el nombre de su resumen, lo abre y expulsa los archivos
+	 * usados hace más tiempo hasta volver al límite. El archivo se abre antes de expulsar, de modo
+	 * que se puede servir incluso si él mismo supera el límite.
+	 */
+	private synchronized PostContent store(String url, String hash, Path temp, String contentType) throws IOException {
+		Entry entry = entries.get(hash);
+		if (entry == null) {
+			Files.move(temp, directory.resolve(hash), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+			entry = new Entry(hash, Files.size(directory.resolve(hash)), contentType);
+			entries.put(hash, entry);
+			totalBytes += entry.length;
+		}
+		entry.urls.add(url);
+		String previous = hashByUrl.put(url, hash);
+		if (previous != null && !previous.equals(hash)) {
+			forgetUrl(previous, url);
+		}
+
+		PostContent content = entry.open(directory);
+		evict();
+		return content;
+	}
+
+	private void evict() {
+		Iterator<Entry> eldest = entries.values().iterator();
+		while (totalBytes > maxBytes && eldest.hasNext()) {
+			Entry entry = eldest.next();
+			eldest.remove();
+			drop(entry);
+		}
+	}
+
+	private void remove(String hash) {
+		Entry entry = entries.remove(hash);
+		if (entry != null) {
+			drop(entry);
+		}
+	}
+
+	private void forgetUrl(String hash, String url) {
+		Entry entry = entries.get(hash);
+		if (entry != null) {
+			entry.urls.remove(url);
+			if (entry.urls.isEmpty()) {
+				remove(hash);
+			}
+		}
+	}
+
+	private void drop(Entry entry) {
+		totalBytes -= entry.length;
+		entry.urls.forEach(hashByUrl::remove);
+		// Los canales ya abiertos siguen pudiendo leer el archivo borrado
+		deleteQuietly(directory.resolve(entry.hash));
+	}
+
+	private void deleteLeftovers() throws IOException {
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+			for (Path file : files) {
+				String name = file.getFileName().toString();
+				if (name.matches("[0-9a-f]{64}") || (name.startsWith(TEMP_PREFIX) && name.endsWith(TEMP_SUFFIX))) {
+					deleteQuietly(file);
+				}
+			}
+		}
+	}
+
+	private static void await(CompletableFuture<Void> download) {
+		try {
+			download.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof PostContentUnavailableException unavailable) {
+				throw unavailable;
+			}
+			throw new PostContentUnavailableException("No se pudo descargar el archivo", e.getCause());
+		}
+	}
+
+	/**
+	 * Comprueba el esquema y el host de una URL, sin resolverlo.
+	 */
+	private URI validate(String url) {
+		URI uri;
+		try {
+			uri = URI.create(url);
+		} catch (IllegalArgumentException e) {
+			throw new PostContentUnavailableException("URL no válida: " + url, e);
+		}
+		String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ROOT);
+		if (!"http".equals(scheme) && !"https".equals(scheme)) {
+			throw new PostContentUnavailableException("URL no admitida: " + url);
+		}
+		if (uri.getHost() == null || !isAllowedHost(uri.getHost().toLowerCase(Locale.ROOT))) {
+			throw new PostContentUnavailableException("Host no permitido: " + url);
+		}
+		return uri;
+	}
+
+	private boolean isAllowedHost(String host) {
+		if (allowedHosts.isEmpty()) {
+			return true;
+		}
+		for (String allowed : allowedHosts) {
+			boolean matches = allowed.startsWith(".")
+					? host.endsWith(allowed) || host.equals(allowed.substring(1))
+					: host.equals(allowed);
+			if (matches) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Rechaza los hosts que resuelven a una dirección interna: loopback, de enlace local (incluida
+	 * la de metadatos de la nube), privada, de espacio compartido (100.64.0.0/10) o local única
+	 * de IPv6. El cliente HTTP vuelve a resolver el host al conectar, así que un DNS que cambie de
+	 * respuesta entre ambas resoluciones no queda cubierto: para eso está la lista de hosts.
+	 */
+	private void checkAddresses(URI uri) {
+		if (allowPrivateAddresses) {
+			return;
+		}
+		InetAddress[] addresses;
+		try {
+			addresses = InetAddress.getAllByName(uri.getHost());
+		} catch (UnknownHostException e) {
+			throw new PostContentUnavailableException("No se pudo resolver " + uri.getHost(), e);
+		}
+		for (InetAddress address : addresses) {
+			if (isInternal(address)) {
+				throw new PostContentUnavailableException("Dirección no permitida para " + uri.getHost());
+			}
+		}
+	}
+
+	private static boolean isInternal(InetAddress address) {
+		if (address.isAnyLocalAddress() || address.isLoopbackAddress() || address.isLinkLocalAddress()
+				|| address.isSiteLocalAddress() || address.isMulticastAddress()) {
+			return true;
+		}
+		byte[] bytes = address.getAddress();
+		if (address instanceof Inet4Address) {
+			return (bytes[0] & 0xff) == 100 && (bytes[1] & 0xc0) == 64;
+		}
+		return (bytes[0] & 0xfe) == 0xfc;
+	}
+
+	private static String guessContentType(URI uri) {
+		String path = uri.getPath() == null ? "" : uri.getPath().toLowerCase(Locale.ROOT);
+		if (path.endsWith(".pdf")) {
+			return MediaType.APPLICATION_PDF_VALUE;
+		}
+		if (path.endsWith(".txt")) {
+			return "text/plain;charset=UTF-8";
+		}
+		return MediaType.APPLICATION_OCTET_STREAM_VALUE;
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void deleteQuietly(Path file) {
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			log.warn("No se pudo borrar el archivo en caché {}", file, e);
+		}
+	}
+
+	/**
+	 * Archivo de la caché y las URLs que apuntan a él.
+	 */
+	private static final class Entry {
+
+		private final String hash;
+
+		private final long length;
+
+		private final String contentType;
+
+		private final Set<String> urls = new HashSet<>();
+
+		Entry(String hash, long length, String contentType) {
+			this.hash = hash;
+			this.length = length;
+			this.contentType = contentType;
+		}
+
+		PostContent open(Path directory) throws IOException {
+			return new PostContent(FileChannel.open(directory.resolve(hash), StandardOpenOption.READ), length,
+					contentType, hash);
+		}
+
+	}
+
+}
@@ -0,0 +1,134 @@
+package com.masbytes.miblog.service.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.event.PostChangedEvent;
+import com.masbytes.miblog.event.PostRevision;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Caché de lectura de posts por identificador.
+ * Usa Caffeine (política W-TinyLFU), limitada por el tamaño aproximado en memoria de los posts
+ * y con caducidad tras la escritura. Cada escritura en {@code PostServiceImpl} sustituye la
+ * entrada cacheada por el post guardado, de modo que las lecturas nunca devuelven una versión
+ * anterior a la última escritura hecha en esta instancia. La sustitución espera a que termine una
+ * carga en curso del mismo post y solo avanza de revisión (ver {@link PostRevision}): ni una
+ * carga que leyó el post antes de la escritura ni un evento que llega desordenado dejan en la
+ * caché una versión anterior.
+ *
+ * Las métricas de aciertos, fallos y expulsiones se publican en Micrometer con la etiqueta
+ * {@code cache=posts}.
+ */
+@Component
+@Profile("!reactive")
+public class PostCache {
+
+	/**
+	 * Nombre de la caché en las métricas.
+	 */
+	public static final String NAME = "posts";
+
+	private static final int OBJECT_OVERHEAD = 64;
+
+	private final Cache<String, Post> cache;
+
+	public PostCache(@Value("${miblog.cache.posts.ttl:10m}") Duration ttl,
+			@Value("${miblog.cache.posts.max-weight:64MB}") DataSize maxWeight, MeterRegistry meterRegistry) {
+		this.cache = Caffeine.newBuilder()
+				.maximumWeight(maxWeight.toBytes())
+				.weigher((String id, Post post) -> estimateSize(id, post))
+				.expireAfterWrite(ttl)
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+	}
+
+	/**
+	 * Obtiene un post de la caché o, si no está, lo carga y lo guarda.
+	 * Las cargas concurrentes del mismo identificador se resuelven con una sola consulta.
+	 * Los posts inexistentes no se guardan en la caché.
+	 *
+	 * @param id El identificador del post.
+	 * @param loader La función que carga el post de la base de datos.
+	 * @return El post, o vacío si no existe.
+	 */
+	public Optional<Post> get(String id, Function<String, Optional<Post>> loader) {
+		return Optional.ofNullable(cache.get(id, key -> loader.apply(key).orElse(null)));
+	}
+
+	/**
+	 * Obtiene un post solo si ya está en la caché, sin cargarlo.
+	 *
+	 * @param id El identificador del post.
+	 * @return El post, o vacío si no está en la caché.
+	 */
+	public Optional<Post> getIfPresent(String id) {
+		return Optional.ofNullable(cache.getIfPresent(id));
+	}
+
+	/**
+	 * Actualiza la entrada de un post modificado, solo si ya estaba en la caché y el post guardado
+	 * es posterior al cacheado.
+	 *
+	 * @param event El evento con el post guardado.
+	 */
+	@EventListener
+	public void onPostChanged(PostChangedEvent event) {
+		Post post = event.getPost();
+		PostRevision revision = PostRevision.of(post);
+		// compute, a diferencia de replace, se bloquea hasta que termina la carga en curso de la clave
+		cache.asMap().compute(post.getId(), (id, cached) -> {
+			if (cached == null) {
+				return null;
+			}
+			return revision.isAfter(PostRevision.of(cached)) ? post : cached;
+		});
+	}
+
+	/**
+	 * Elimina un post de la caché.
+	 *
+	 * @param id El identificador del post.
+	 */
+	public void invalidate(String id) {
+		cache.invalidate(id);
+	}
+
+	/**
+	 * Tamaño aproximado en bytes de una entrada, usado como peso para el límite de memoria.
+	 */
+	static int estimateSize(String id, Post post) {
+		return 2 * OBJECT_OVERHEAD + sizeOf(id) + sizeOf(post.getId()) + sizeOf(post.getTitle())
+				+ sizeOf(post.getSummary()) + sizeOf(post.getPdfUrl()) + sizeOf(post.getTags())
+				+ sizeOf(post.getContentTerms()) + sizeOf(post.getContentSource());
+	}
+
+	private static int sizeOf(List<String> values) {
+		int size = 0;
+		if (values != null) {
+			for (String value : values) {
+				size += sizeOf(value);
+			}
+		}
+		return size;
+	}
+
+	private static int sizeOf(String value) {
+		return value == null ? 0 : OBJECT_OVERHEAD / 2 + value.length() * 2;
+	}
+
+}
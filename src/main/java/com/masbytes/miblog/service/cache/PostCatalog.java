@@ -0,0 +1,341 @@
+package com.masbytes.miblog.service.cache;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.masbytes.miblog.dto.PostCursor;
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.event.PostChangedEvent;
+import com.masbytes.miblog.event.PostRevision;
+import com.masbytes.miblog.event.PostsChangedEvent;
+import com.masbytes.miblog.repo.PostRepo;
+
+/**
+ * Catálogo en memoria de todos los posts visibles para el modo de lectura desde instantánea, con
+ * las fechas de los ocultos para calcular la última modificación de un rango.
+ *
+ * El catálogo es una instantánea inmutable: los posts ordenados por {@link PostCursor#NEWEST_FIRST}
+ * y, sobre ese orden, las posiciones por identificador y por etiqueta. Las lecturas toman la
+ * instantánea actual de una referencia volátil y trabajan sobre ella sin bloqueos, de modo que
+ * nunca ven una escritura a medias. Cada {@link PostChangedEvent} construye una instantánea nueva
+ * con el post sustituido y la publica de una sola vez; las escrituras se serializan entre sí y su
+ * coste es lineal en el número de posts, asumible porque el blog cabe en memoria y se lee mucho
+ * más de lo que se escribe. La carga masiva publica además un {@link PostsChangedEvent} por lote,
+ * que se aplica con una sola instantánea nueva; los eventos de cada post que le siguen ya no son
+ * posteriores a la revisión aplicada y se descartan sin copiar nada.
+ *
+ * Los eventos se publican después de guardar cada post, sin orden entre escrituras concurrentes,
+ * así que el catálogo recuerda la {@link PostRevision} aplicada de cada post, incluidos los
+ * ocultos, y descarta los eventos que no son posteriores a ella.
+ *
+ * Los posts del catálogo se comparten entre peticiones y no deben modificarse.
+ *
+ * Solo se construye y mantiene si {@code miblog.catalog.snapshot.enabled=true}, y no se usa hasta
+ * que termina de construirse al arrancar la aplicación; hasta entonces las lecturas van a MongoDB.
+ */
+@Component
+@Profile("!reactive")
+public class PostCatalog {
+
+	private final PostRepo postRepo;
+
+	private final boolean enabled;
+
+	private volatile Snapshot snapshot = new Snapshot(new Post[0], new Post[0]);
+
+	/**
+	 * Última revisión aplicada de cada post. Solo se accede con el monitor del catálogo.
+	 */
+	private final Map<String, PostRevision> revisions = new HashMap<>();
+
+	private volatile boolean built;
+
+	public PostCatalog(PostRepo postRepo, @Value("${miblog.catalog.snapshot.enabled:false}") boolean enabled) {
+		this.postRepo = postRepo;
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Indica si las lecturas deben servirse desde el catálogo.
+	 *
+	 * @return true si el modo de lectura desde instantánea está activado y el catálogo ya se ha
+	 *         construido.
+	 */
+	public boolean isEnabled() {
+		return enabled && built;
+	}
+
+	/**
+	 * Carga todos los posts visibles, y las fechas de los ocultos, al arrancar la aplicación.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void rebuild() {
+		if (!enabled) {
+			return;
+		}
+		try (Stream<Post> posts = postRepo.streamByVisibleTrue(); Stream<Post> hidden = postRepo.streamHiddenDates()) {
+			Post[] sorted = posts.toArray(Post[]::new);
+			Post[] sortedHidden = hidden.toArray(Post[]::new);
+			Arrays.sort(sorted, PostCursor.NEWEST_FIRST);
+			Arrays.sort(sortedHidden, PostCursor.NEWEST_FIRST);
+			revisions.clear();
+			Stream.of(sorted, sortedHidden).flatMap(Arrays::stream)
+					.forEach(post -> revisions.put(post.getId(), PostRevision.of(post)));
+			snapshot = new Snapshot(sorted, sortedHidden);
+			built = true;
+		}
+	}
+
+	/**
+	 * Publica una instantánea nueva con el post creado o modificado, o sin él si se ha ocultado.
+	 * Los eventos con una revisión anterior o igual a la ya aplicada se descartan.
+	 *
+	 * @param event El evento con el post guardado.
+	 */
+	@EventListener
+	public synchronized void onPostChanged(PostChangedEvent event) {
+		if (!enabled) {
+			return;
+		}
+		apply(List.of(event.getPost()));
+	}
+
+	/**
+	 * Publica una única instantánea nueva con todos los posts de un lote de la carga masiva.
+	 *
+	 * @param event El evento con los posts guardados.
+	 */
+	@EventListener
+	public synchronized void onPostsChanged(PostsChangedEvent event) {
+		if (!enabled) {
+			return;
+		}
+		apply(event.getPosts());
+	}
+
+	/**
+	 * Sustituye en una instantánea nueva los posts con una revisión posterior a la ya aplicada.
+	 * Debe llamarse con el monitor del catálogo.
+	 */
+	private void apply(List<Post> changed) {
+		Map<String, Post> accepted = new LinkedHashMap<>();
+		for (Post post : changed) {
+			PostRevision revision = PostRevision.of(post);
+			if (revision.isAfter(revisions.get(post.getId()))) {
+				revisions.put(post.getId(), revision);
+				accepted.put(post.getId(), post);
+			}
+		}
+		if (accepted.isEmpty()) {
+			return;
+		}
+
+		Snapshot current = snapshot;
+		List<Post> posts = new ArrayList<>(current.posts.length + accepted.size());
+		List<Post> hidden = new ArrayList<>(current.hidden.length + accepted.size());
+		for (Post post : current.posts) {
+			if (!accepted.containsKey(post.getId())) {
+				posts.add(post);
+			}
+		}
+		for (Post post : current.hidden) {
+			if (!accepted.containsKey(post.getId())) {
+				hidden.add(post);
+			}
+		}
+		accepted.values().forEach(post -> (post.isVisible() ? posts : hidden).add(post));
+		// Las listas ya están casi ordenadas: la ordenación por tramos solo coloca los posts nuevos
+		posts.sort(PostCursor.NEWEST_FIRST);
+		hidden.sort(PostCursor.NEWEST_FIRST);
+		snapshot = new Snapshot(posts.toArray(Post[]::new), hidden.toArray(Post[]::new));
+	}
+
+	/**
+	 * Número de posts del catálogo.
+	 */
+	public int size() {
+		return snapshot.posts.length;
+	}
+
+	/**
+	 * Busca un post visible por su identificador.
+	 *
+	 * @param id El identificador del post.
+	 * @return El post, o vacío si no existe o está oculto.
+	 */
+	public Optional<Post> findById(String id) {
+		Snapshot current = snapshot;
+		Integer position = current.positions.get(id);
+		return position == null ? Optional.empty() : Optional.of(current.posts[position]);
+	}
+
+	/**
+	 * Devuelve una página de los posts visibles con alguna de las etiquetas, en el orden
+	 * {@link PostCursor#NEWEST_FIRST}. Solo se recorren las posiciones de esas etiquetas.
+	 *
+	 * @param tags Las etiquetas.
+	 * @param after El cursor de la página anterior, o null para la primera página.
+	 * @param limit El número máximo de posts a devolver.
+	 * @return Los posts de la página.
+	 */
+	public List<Post> findPageByTagsIn(List<String> tags, PostCursor after, int limit) {
+		Snapshot current = snapshot;
+		int start = current.start(after);
+
+		// Cada lista de posiciones está ordenada: basta con los limit primeros de cada una desde el cursor
+		TreeSet<Integer> positions = new TreeSet<>();
+		for (String tag : tags) {
+			int[] tagged = current.tags.get(tag);
+			if (tagged == null) {
+				continue;
+			}
+			int from = Arrays.binarySearch(tagged, start);
+			from = from < 0 ? -from - 1 : from;
+			for (int i = from; i < tagged.length && i - from < limit; i++) {
+				positions.add(tagged[i]);
+			}
+		}
+		return positions.stream().limit(limit).map(position -> current.posts[position]).toList();
+	}
+
+	/**
+	 * Devuelve una página de los posts visibles creados estrictamente dentro del rango, en el orden
+	 * {@link PostCursor#NEWEST_FIRST}, localizando el rango por búsqueda binaria.
+	 *
+	 * @param startOfRange La fecha y hora de inicio del rango.
+	 * @param endOfRange La fecha y hora de fin del rango.
+	 * @param after El cursor de la página anterior, o null para la primera página.
+	 * @param limit El número máximo de posts a devolver.
+	 * @return Los posts de la página.
+	 */
+	public List<Post> findPageByCreatedAtBetween(LocalDateTime startOfRange, LocalDateTime endOfRange,
+			PostCursor after, int limit) {
+		Snapshot current = snapshot;
+		int from = Math.max(current.start(after), createdBefore(current.posts, endOfRange));
+		int to = createdAtOrBefore(current.posts, startOfRange);
+		if (from >= to) {
+			return List.of();
+		}
+		return List.of(Arrays.copyOfRange(current.posts, from, to - from > limit ? from + limit : to));
+	}
+
+	/**
+	 * Obtiene la fecha de modificación más reciente de los posts creados dentro del rango, incluidos
+	 * los ocultos, como la consulta equivalente en MongoDB: ocultar un post cambia la fecha.
+	 *
+	 * @param startOfRange La fecha y hora de inicio del rango.
+	 * @param endOfRange La fecha y hora de fin del rango.
+	 * @return La última modificación, o vacío si no hay posts en el rango.
+	 */
+	public Optional<LocalDateTime> findLastModifiedByCreatedAtBetween(LocalDateTime startOfRange,
+			LocalDateTime endOfRange) {
+		Snapshot current = snapshot;
+		LocalDateTime lastModified = lastModified(current.posts, startOfRange, endOfRange, null);
+		return Optional.ofNullable(lastModified(current.hidden, startOfRange, endOfRange, lastModified));
+	}
+
+	private static LocalDateTime lastModified(Post[] posts, LocalDateTime startOfRange, LocalDateTime endOfRange,
+			LocalDateTime lastModified) {
+		for (int i = createdBefore(posts, endOfRange); i < createdAtOrBefore(posts, startOfRange); i++) {
+			LocalDateTime modifiedAt = posts[i].getModifiedAt();
+			if (modifiedAt != null && (lastModified == null || modifiedAt.isAfter(lastModified))) {
+				lastModified = modifiedAt;
+			}
+		}
+		return lastModified;
+	}
+
+	/**
+	 * Primera posición de un post creado antes de la fecha (los posts sin fecha van al final).
+	 */
+	private static int createdBefore(Post[] posts, LocalDateTime date) {
+		return first(posts, post -> post.getCreatedAt() == null || post.getCreatedAt().isBefore(date));
+	}
+
+	/**
+	 * Primera posición de un post creado en la fecha o antes.
+	 */
+	private static int createdAtOrBefore(Post[] posts, LocalDateTime date) {
+		return first(posts, post -> post.getCreatedAt() == null || !post.getCreatedAt().isAfter(date));
+	}
+
+	/**
+	 * Búsqueda binaria de la primera posición que cumple una condición que, en el orden del
+	 * catálogo, no se cumple hasta cierta posición y a partir de ella se cumple siempre.
+	 */
+	private static int first(Post[] posts, Predicate<Post> condition) {
+		int low = 0;
+		int high = posts.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (condition.test(posts[middle])) {
+				high = middle;
+			} else {
+				low = middle + 1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Estado del catálogo en un momento dado. No se modifica después de construirse.
+	 */
+	private static final class Snapshot {
+
+		private final Post[] posts;
+
+		/**
+		 * Posts ocultos en el mismo orden, solo para la fecha de la última modificación. Pueden
+		 * tener solo sus fechas y su revisión.
+		 */
+		private final Post[] hidden;
+
+		private final Map<String, Integer> positions;
+
+		/**
+		 * Posiciones, en orden creciente, de los posts de cada etiqueta.
+		 */
+		private final Map<String, int[]> tags;
+
+		Snapshot(Post[] posts, Post[] hidden) {
+			this.posts = posts;
+			this.hidden = hidden;
+			this.positions = new HashMap<>(posts.length * 2);
+			Map<String, List<Integer>> tagged = new HashMap<>();
+			for (int i = 0; i < posts.length; i++) {
+				positions.put(posts[i].getId(), i);
+				if (posts[i].getTags() != null) {
+					int position = i;
+					posts[i].getTags().stream().distinct()
+							.forEach(tag -> tagged.computeIfAbsent(tag, t -> new ArrayList<>()).add(position));
+				}
+			}
+			this.tags = new HashMap<>(tagged.size() * 2);
+			tagged.forEach((tag, list) -> tags.put(tag, list.stream().mapToInt(Integer::intValue).toArray()));
+		}
+
+		/**
+		 * Primera posición posterior al cursor.
+		 */
+		int start(PostCursor after) {
+			return after == null ? 0 : first(posts, post -> post.getCreatedAt() == null || after.isBefore(post));
+		}
+
+	}
+
+}
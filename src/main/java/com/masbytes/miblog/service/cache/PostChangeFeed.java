@@ -0,0 +1,249 @@
+package com.masbytes.miblog.service.cache;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.event.PostChangedEvent;
+import com.masbytes.miblog.event.PostRevision;
+import com.masbytes.miblog.repo.PostRepo;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Mantiene las estructuras en memoria de esta instancia al día con las escrituras hechas en las
+ * demás instancias, sin un intermediario de mensajes: la propia colección de posts hace de canal.
+ *
+ * Cada {@code miblog.coherence.poll-interval} se leen, con el índice de {@code modified_at}, los
+ * posts modificados después de la marca de agua (la fecha de modificación más reciente ya
+ * aplicada) y se publica un {@link PostChangedEvent} con cada uno, el mismo evento que publica una
+ * escritura local, de modo que la caché, los índices y el catálogo se actualizan igual. Los posts
+ * se leen por páginas de {@code miblog.coherence.batch-size} que continúan desde la posición
+ * {@code (modified_at, _id)} del último post leído, así que una consulta llega hasta el final
+ * aunque la ventana contenga más modificaciones que una página.
+ *
+ * La extracción del texto de los archivos no cambia {@code modified_at}, sino
+ * {@code content_modified_at}, que se consulta de la misma forma con su propia marca de agua para
+ * que los términos extraídos en una instancia lleguen también al índice de búsqueda de las demás.
+ *
+ * Cada instancia fecha las modificaciones con su propio reloj y una escritura puede confirmarse
+ * después de que otra más reciente ya se haya leído, así que cada consulta vuelve a leer los
+ * últimos {@code miblog.coherence.overlap} antes de la marca de agua. Las revisiones ya aplicadas
+ * (incluidas las escrituras de esta instancia, ver {@link PostRevision}) no se publican de nuevo.
+ * Una escritura en otra instancia se ve aquí en como mucho un intervalo de consulta, siempre que el
+ * desfase entre relojes no supere el solapamiento.
+ *
+ * Publica en Micrometer los posts actualizados desde otras instancias
+ * ({@code miblog.coherence.refreshes}) y los segundos desde la última consulta correcta
+ * ({@code miblog.coherence.staleness}).
+ *
+ * Solo se activa con {@code miblog.coherence.enabled=true}.
+ */
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "miblog.coherence.enabled", havingValue = "true")
+public class PostChangeFeed {
+
+	private static final Logger log = LoggerFactory.getLogger(PostChangeFeed.class);
+
+	private final ApplicationEventPublisher eventPublisher;
+
+	private final Duration pollInterval;
+
+	private final Duration overlap;
+
+	private final int batchSize;
+
+	private final Counter refreshes;
+
+	/**
+	 * Última revisión aplicada de cada post modificado dentro de alguna de las ventanas de solapamiento.
+	 */
+	private final Map<String, PostRevision> applied = new ConcurrentHashMap<>();
+
+	private final Window modified;
+
+	private final Window contentModified;
+
+	private volatile long lastPoll = System.nanoTime();
+
+	private ScheduledExecutorService scheduler;
+
+	public PostChangeFeed(PostRepo postRepo, ApplicationEventPublisher eventPublisher,
+			@Value("${miblog.coherence.poll-interval:1s}") Duration pollInterval,
+			@Value("${miblog.coherence.overlap:5s}") Duration overlap,
+			@Value("${miblog.coherence.batch-size:500}") int batchSize, MeterRegistry meterRegistry) {
+		this.eventPublisher = eventPublisher;
+		this.pollInterval = pollInterval;
+		this.overlap = overlap;
+		this.batchSize = batchSize;
+		this.modified = new Window(postRepo::findPageByModifiedAtAfter, Post::getModifiedAt);
+		this.contentModified = new Window(postRepo::findPageByContentModifiedAtAfter, Post::getContentModifiedAt);
+		this.refreshes = Counter.builder("miblog.coherence.refreshes")
+				.description("Posts actualizados en memoria por escrituras de otras instancias")
+				.register(meterRegistry);
+		Gauge.builder("miblog.coherence.staleness", this, feed -> (System.nanoTime() - feed.lastPoll) / 1e9)
+				.description("Segundos desde la última consulta correcta de modificaciones")
+				.baseUnit("seconds")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Arranca las consultas periódicas. Las estructuras en memoria se construyen al arrancar con
+	 * el estado de la base de datos, así que solo interesan las modificaciones posteriores.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void start() {
+		if (scheduler != null) {
+			return;
+		}
+		scheduler = Executors.newSingleThreadScheduledExecutor(
+				Thread.ofPlatform().name("post-change-feed").daemon().factory());
+		scheduler.scheduleWithFixedDelay(this::pollQuietly, pollInterval.toMillis(), pollInterval.toMillis(),
+				TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Detiene las consultas.
+	 */
+	@PreDestroy
+	public synchronized void stop() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+			scheduler = null;
+		}
+	}
+
+	/**
+	 * Anota la versión de cada post guardado, ya sea por una escritura de esta instancia o por una
+	 * consulta, para no volver a aplicarla.
+	 *
+	 * @param event El evento con el post guardado.
+	 */
+	@EventListener
+	public void onPostChanged(PostChangedEvent event) {
+		Post post = event.getPost();
+		applied.merge(post.getId(), PostRevision.of(post), (known, current) -> current.isAfter(known) ? current : known);
+	}
+
+	/**
+	 * Aplica las modificaciones y las extracciones de texto hechas desde la última consulta, por
+	 * páginas de {@code miblog.coherence.batch-size} posts.
+	 *
+	 * @return El número de posts actualizados.
+	 */
+	int poll() {
+		int refreshed = modified.poll() + contentModified.poll();
+
+		// Las revisiones anteriores a ambas ventanas ya no vuelven a leerse
+		LocalDateTime modifiedStart = modified.highWater.minus(overlap);
+		LocalDateTime contentStart = contentModified.highWater.minus(overlap);
+		applied.values().removeIf(revision -> !isAfter(revision.getModifiedAt(), modifiedStart)
+				&& !isAfter(revision.getContentModifiedAt(), contentStart));
+		lastPoll = System.nanoTime();
+		refreshes.increment(refreshed);
+		return refreshed;
+	}
+
+	private void pollQuietly() {
+		try {
+			int refreshed = poll();
+			if (refreshed > 0) {
+				log.debug("Actualizados {} posts cambiados por otras instancias", refreshed);
+			}
+		} catch (RuntimeException e) {
+			log.warn("No se pudieron leer los posts cambiados por otras instancias", e);
+		}
+	}
+
+	/**
+	 * Publica el post si su revisión es posterior a la última aplicada.
+	 */
+	private boolean apply(Post post) {
+		if (!PostRevision.of(post).isAfter(applied.get(post.getId()))) {
+			return false;
+		}
+		eventPublisher.publishEvent(new PostChangedEvent(post));
+		return true;
+	}
+
+	private static boolean isAfter(LocalDateTime date, LocalDateTime than) {
+		return date != null && date.isAfter(than);
+	}
+
+	/**
+	 * Consulta de una página de posts cambiados después de una posición {@code (fecha, _id)}.
+	 */
+	@FunctionalInterface
+	private interface PageQuery {
+		List<Post> find(LocalDateTime since, String afterId, int limit);
+	}
+
+	/**
+	 * Lectura de los posts cambiados según una de sus fechas ({@code modified_at} o
+	 * {@code content_modified_at}), con su marca de agua: la fecha más reciente leída.
+	 */
+	private final class Window {
+
+		private final PageQuery query;
+
+		private final Function<Post, LocalDateTime> date;
+
+		/**
+		 * Solo la modifica el hilo de consulta.
+		 */
+		private volatile LocalDateTime highWater = LocalDateTime.now();
+
+		Window(PageQuery query, Function<Post, LocalDateTime> date) {
+			this.query = query;
+			this.date = date;
+		}
+
+		/**
+		 * Lee por páginas los posts cambiados en la ventana y publica los que no se han aplicado.
+		 */
+		int poll() {
+			// El inicio de la ventana se fija una vez: las páginas avanzan desde el último post leído
+			LocalDateTime since = highWater.minus(overlap);
+			String afterId = null;
+			int refreshed = 0;
+			List<Post> changed;
+			do {
+				changed = query.find(since, afterId, batchSize);
+				for (Post post : changed) {
+					if (apply(post)) {
+						refreshed++;
+					}
+					since = date.apply(post);
+					afterId = post.getId();
+					if (since.isAfter(highWater)) {
+						highWater = since;
+					}
+				}
+			} while (changed.size() == batchSize);
+			return refreshed;
+		}
+
+	}
+
+}
@@ -0,0 +1,256 @@
+package com.masbytes.miblog.service.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.masbytes.miblog.dto.EncodedResponse;
+import com.masbytes.miblog.dto.PostPage;
+import com.masbytes.miblog.dto.ResponseFormat;
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.event.PostChangedEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Caché de las respuestas JSON ya serializadas de los posts más leídos y de las páginas de los
+ * listados, para no volver a serializar (ni comprimir) el mismo contenido en cada petición.
+ *
+ * Los posts se guardan por identificador y versión, así que una entrada nunca queda obsoleta: tras
+ * una modificación se pide otra clave. Las páginas se guardan por la consulta y la generación, un
+ * contador que avanza con cada {@link PostChangedEvent}; el controlador lee la generación antes de
+ * consultar el servicio, de modo que una página leída antes de una escritura nunca se sirve
+ * después de ella. Las entradas anteriores no se eliminan en cada escritura, lo que obligaría a
+ * recorrer la caché entera: ninguna petición vuelve a pedirlas, así que las retiran el desalojo
+ * por peso o la caducidad. El evento se atiende después de los índices en memoria, de modo que la
+ * generación nueva solo se ve cuando ellos ya reflejan la escritura.
+ *
+ * Las páginas se serializan en el formato pedido ({@link ResponseFormat}), que forma parte de la
+ * clave. Los cuerpos de al menos {@code miblog.cache.responses.gzip-min-size} se guardan también
+ * comprimidos con gzip. Publica en Micrometer las métricas de la caché con la etiqueta
+ * {@code cache=responses} y los bytes servidos desde ella ({@value #SERVED_METRIC}), por
+ * codificación.
+ *
+ * Con {@code miblog.cache.responses.enabled=false} (por defecto) los cuerpos se serializan en cada
+ * petición, sin guardarlos ni comprimirlos.
+ */
+@Component
+@Profile("!reactive")
+public class ResponseBodyCache {
+
+	/**
+	 * Nombre de la caché en las métricas.
+	 */
+	public static final String NAME = "responses";
+
+	static final String SERVED_METRIC = "miblog.responses.cache.served";
+
+	private static final int ENTRY_OVERHEAD = 128;
+
+	private final ObjectMapper objectMapper;
+
+	private final Map<ResponseFormat, ObjectMapper> pageMappers = new EnumMap<>(ResponseFormat.class);
+
+	private final boolean enabled;
+
+	private final int gzipMinSize;
+
+	private final Cache<Object, EncodedResponse> cache;
+
+	private final AtomicLong generation = new AtomicLong();
+
+	private final Counter servedIdentity;
+
+	private final Counter servedGzip;
+
+	@Autowired
+	public ResponseBodyCache(ObjectMapper objectMapper,
+			@Value("${miblog.cache.responses.enabled:false}") boolean enabled,
+			@Value("${miblog.cache.responses.ttl:10m}") Duration ttl,
+			@Value("${miblog.cache.responses.max-weight:32MB}") DataSize maxWeight,
+			@Value("${miblog.cache.responses.gzip-min-size:1KB}") DataSize gzipMinSize,
+			ObjectProvider<MeterRegistry> meterRegistry) {
+		this(objectMapper, enabled, ttl, maxWeight, gzipMinSize, meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+	}
+
+	ResponseBodyCache(ObjectMapper objectMapper, boolean enabled, Duration ttl, DataSize maxWeight,
+			DataSize gzipMinSize, MeterRegistry meterRegistry) {
+		this.objectMapper = objectMapper;
+		for (ResponseFormat format : ResponseFormat.values()) {
+			pageMappers.put(format, format.objectMapper(objectMapper));
+		}
+		this.enabled = enabled;
+		this.gzipMinSize = (int) gzipMinSize.toBytes();
+		this.cache = Caffeine.newBuilder()
+				.maximumWeight(maxWeight.toBytes())
+				.weigher((Object key, EncodedResponse response) -> ENTRY_OVERHEAD + response.size())
+				.expireAfterWrite(ttl)
+				.recordStats()
+				.build();
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+		this.servedIdentity = servedCounter(meterRegistry, "identity");
+		this.servedGzip = servedCounter(meterRegistry, "gzip");
+	}
+
+	/**
+	 * @return true si las respuestas se guardan en la caché.
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Generación actual de los listados. Debe leerse antes de consultar la página que se va a
+	 * guardar con ella.
+	 *
+	 * @return El número de modificaciones de posts vistas por esta instancia.
+	 */
+	public long generation() {
+		return generation.get();
+	}
+
+	/**
+	 * Obtiene el JSON de un post, serializándolo solo si su versión no está ya en la caché.
+	 *
+	 * @param post El post cargado.
+	 * @param gzip true si el cliente acepta la respuesta comprimida con gzip.
+	 * @return El cuerpo de la respuesta.
+	 */
+	public EncodedResponse getPost(Post post, boolean gzip) {
+		if (!enabled) {
+			return new EncodedResponse(encode(objectMapper, post), null, null);
+		}
+		return get(new PostKey(post.getId(), post.getVersion()), () -> encoded(encode(objectMapper, post), null), gzip);
+	}
+
+	/**
+	 * Obtiene el JSON de una página de un listado, consultándola y serializándola solo si no está
+	 * ya en la caché para la misma consulta y generación. Si la consulta falla, no se guarda nada.
+	 *
+	 * @param query Los valores que identifican la consulta: el listado y sus parámetros.
+	 * @param generation La generación leída antes de consultar la página.
+	 * @param loader La consulta de la página.
+	 * @param format El formato de la respuesta.
+	 * @param gzip true si el cliente acepta la respuesta comprimida con gzip.
+	 * @return El cuerpo de la respuesta, vacío si la página no tiene posts.
+	 */
+	public EncodedResponse getPage(List<?> query, long generation, Supplier<PostPage> loader, ResponseFormat format,
+			boolean gzip) {
+		if (!enabled) {
+			return encodePage(loader.get(), format, false);
+		}
+		return get(new PageKey(query, format, generation), () -> encodePage(loader.get(), format, true), gzip);
+	}
+
+	/**
+	 * Avanza la generación de las páginas, después de que los índices en memoria hayan aplicado
+	 * la escritura.
+	 *
+	 * @param event El evento con el post guardado.
+	 */
+	@EventListener
+	@Order(Ordered.LOWEST_PRECEDENCE)
+	public void onPostChanged(PostChangedEvent event) {
+		generation.incrementAndGet();
+	}
+
+	private EncodedResponse get(Object key, Supplier<EncodedResponse> loader, boolean gzip) {
+		// Las peticiones concurrentes de la misma clave se resuelven con una sola consulta
+		AtomicBoolean loaded = new AtomicBoolean();
+		EncodedResponse response = cache.get(key, k -> {
+			loaded.set(true);
+			return loader.get();
+		});
+		if (!loaded.get() && !response.isEmpty()) {
+			if (gzip && response.getGzipBody() != null) {
+				servedGzip.increment(response.getGzipBody().length);
+			} else {
+				servedIdentity.increment(response.getBody().length);
+			}
+		}
+		return response;
+	}
+
+	private EncodedResponse encodePage(PostPage page, ResponseFormat format, boolean compress) {
+		if (page.isEmpty()) {
+			return EncodedResponse.EMPTY;
+		}
+		byte[] body = encode(pageMappers.get(format), page.getPosts());
+		return compress ? encoded(body, page.getNextCursor()) : new EncodedResponse(body, null, page.getNextCursor());
+	}
+
+	private EncodedResponse encoded(byte[] body, String nextCursor) {
+		return new EncodedResponse(body, body.length >= gzipMinSize ? gzip(body) : null, nextCursor);
+	}
+
+	private static byte[] encode(ObjectMapper objectMapper, Object value) {
+		try {
+			return objectMapper.writeValueAsBytes(value);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	static byte[] gzip(byte[] body) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(body);
+		} catch (IOException e) {
+			// Solo se escribe en memoria
+			throw new UncheckedIOException(e);
+		}
+		return out.toByteArray();
+	}
+
+	private static Counter servedCounter(MeterRegistry meterRegistry, String encoding) {
+		return Counter.builder(SERVED_METRIC)
+				.description("Bytes de respuestas servidos desde la caché de respuestas serializadas")
+				.baseUnit("bytes")
+				.tag("encoding", encoding)
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Clave de un post: su identificador y su versión.
+	 */
+	@lombok.Value
+	private static class PostKey {
+		String id;
+		Long version;
+	}
+
+	/**
+	 * Clave de una página: la consulta, el formato y la generación con la que se leyó.
+	 */
+	@lombok.Value
+	private static class PageKey {
+		List<?> query;
+		ResponseFormat format;
+		long generation;
+	}
+
+}
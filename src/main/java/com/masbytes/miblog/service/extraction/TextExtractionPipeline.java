@@ -0,0 +1,315 @@
+package com.masbytes.miblog.service.extraction;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.masbytes.miblog.dto.PostContent;
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.event.PostChangedEvent;
+import com.masbytes.miblog.exception.PostContentUnavailableException;
+import com.masbytes.miblog.repo.PostRepo;
+import com.masbytes.miblog.service.cache.ContentCache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Extrae en segundo plano el texto de los archivos de los posts para que la búsqueda por palabra
+ * clave lo encuentre.
+ *
+ * Cada {@link PostChangedEvent} de un post con la marca de extracción pendiente, que se guarda al
+ * crearlo o al cambiar su archivo, encola su identificador en una cola acotada, sin esperar a la descarga: el coste para la
+ * petición que creó o modificó el post no depende del tamaño del archivo. Si la cola está llena,
+ * el trabajo se descarta y lo recupera el siguiente barrido. Un grupo fijo de hilos descarga cada
+ * archivo a través de {@link ContentCache}, extrae sus términos con {@link TextExtractor} y los
+ * guarda con {@link PostRepo#updateContent}, que ignora el resultado si el archivo cambió
+ * mientras tanto. Los fallos de descarga se reintentan con espera exponencial; los archivos que
+ * no se pueden leer se guardan sin términos para no reintentarlos.
+ *
+ * Al arrancar, y después cada {@code miblog.extraction.sweep-interval}, se encolan los posts con
+ * la marca, leídos con su índice disperso (los creados antes de activar la extracción, por carga masiva con la cola
+ * llena o tras agotar los reintentos).
+ *
+ * Publica en Micrometer los trabajos en cola ({@code miblog.extraction.backlog}), los trabajos
+ * terminados por resultado ({@code miblog.extraction.jobs}, etiqueta {@code result}) y la duración
+ * de cada extracción ({@code miblog.extraction.duration}).
+ *
+ * Solo se activa con {@code miblog.extraction.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "miblog.extraction.enabled", havingValue = "true")
+public class TextExtractionPipeline {
+
+	static final String JOBS_METRIC = "miblog.extraction.jobs";
+
+	private static final Logger log = LoggerFactory.getLogger(TextExtractionPipeline.class);
+
+	private final PostRepo postRepo;
+
+	private final ContentCache contentCache;
+
+	private final ApplicationEventPublisher eventPublisher;
+
+	private final TextExtractor extractor;
+
+	private final int workers;
+
+	private final int maxAttempts;
+
+	private final Duration initialBackoff;
+
+	private final Duration sweepInterval;
+
+	private final BlockingQueue<Job> queue;
+
+	/**
+	 * Posts con un trabajo en la cola o esperando un reintento: un post solo se encola una vez
+	 * aunque se modifique varias veces seguidas.
+	 */
+	private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+	private final Counter extracted;
+
+	private final Counter unreadable;
+
+	private final Counter retried;
+
+	private final Counter failed;
+
+	private final Counter rejected;
+
+	private final Counter skipped;
+
+	private final Timer duration;
+
+	private ExecutorService workerPool;
+
+	private ScheduledExecutorService scheduler;
+
+	public TextExtractionPipeline(PostRepo postRepo, ContentCache contentCache,
+			ApplicationEventPublisher eventPublisher,
+			@Value("${miblog.extraction.workers:2}") int workers,
+			@Value("${miblog.extraction.queue-capacity:1000}") int queueCapacity,
+			@Value("${miblog.extraction.max-attempts:5}") int maxAttempts,
+			@Value("${miblog.extraction.initial-backoff:1s}") Duration initialBackoff,
+			@Value("${miblog.extraction.sweep-interval:5m}") Duration sweepInterval,
+			@Value("${miblog.extraction.max-pages:200}") int maxPages,
+			@Value("${miblog.extraction.max-terms:2000}") int maxTerms, MeterRegistry meterRegistry) {
+		this.postRepo = postRepo;
+		this.contentCache = contentCache;
+		this.eventPublisher = eventPublisher;
+		this.extractor = new TextExtractor(maxPages, maxTerms);
+		this.workers = workers;
+		this.maxAttempts = maxAttempts;
+		this.initialBackoff = initialBackoff;
+		this.sweepInterval = sweepInterval;
+		this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+		Gauge.builder("miblog.extraction.backlog", queue, BlockingQueue::size)
+				.description("Posts en cola para extraer el texto de su archivo")
+				.register(meterRegistry);
+		this.extracted = jobs(meterRegistry, "extracted");
+		this.unreadable = jobs(meterRegistry, "unreadable");
+		this.retried = jobs(meterRegistry, "retried");
+		this.failed = jobs(meterRegistry, "failed");
+		this.rejected = jobs(meterRegistry, "rejected");
+		this.skipped = jobs(meterRegistry, "skipped");
+		this.duration = Timer.builder("miblog.extraction.duration")
+				.description("Tiempo de descarga y extracción del texto de un archivo")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Arranca los hilos de extracción y el barrido periódico de posts pendientes.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void start() {
+		if (workerPool != null) {
+			return;
+		}
+		workerPool = Executors.newFixedThreadPool(workers, Thread.ofPlatform().name("text-extraction-", 0).factory());
+		for (int i = 0; i < workers; i++) {
+			workerPool.execute(this::work);
+		}
+		scheduler = Executors.newSingleThreadScheduledExecutor(
+				Thread.ofPlatform().name("text-extraction-scheduler").daemon().factory());
+		scheduler.scheduleWithFixedDelay(this::sweep, 0, sweepInterval.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Detiene los hilos; los trabajos en cola se recuperan en el barrido del siguiente arranque.
+	 */
+	@PreDestroy
+	public synchronized void stop() {
+		if (workerPool != null) {
+			scheduler.shutdownNow();
+			workerPool.shutdownNow();
+			workerPool = null;
+		}
+	}
+
+	/**
+	 * Encola la extracción de un post creado o modificado si su texto está pendiente.
+	 *
+	 * @param event El evento con el post guardado.
+	 */
+	@EventListener
+	public void onPostChanged(PostChangedEvent event) {
+		Post post = event.getPost();
+		if (Boolean.TRUE.equals(post.getContentPending())) {
+			offer(new Job(post.getId(), 0));
+		}
+	}
+
+	/**
+	 * Número de posts en cola.
+	 */
+	public int backlog() {
+		return queue.size();
+	}
+
+	/**
+	 * Encola los posts con el texto pendiente mientras haya sitio en la cola.
+	 */
+	void sweep() {
+		try (Stream<String> ids = postRepo.streamIdsWithStaleContent()) {
+			ids.takeWhile(id -> queue.remainingCapacity() > 0).forEach(id -> offer(new Job(id, 0)));
+		} catch (RuntimeException e) {
+			log.warn("No se pudieron buscar los posts pendientes de extracción de texto", e);
+		}
+	}
+
+	private void offer(Job job) {
+		if (!pending.add(job.postId())) {
+			return;
+		}
+		if (!queue.offer(job)) {
+			pending.remove(job.postId());
+			rejected.increment();
+		}
+	}
+
+	private void work() {
+		while (!Thread.currentThread().isInterrupted()) {
+			try {
+				process(queue.take());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (RuntimeException e) {
+				log.error("Falló la extracción de texto", e);
+			}
+		}
+	}
+
+	/**
+	 * Extrae el texto del archivo actual de un post. El post se lee de nuevo al procesarlo, de modo
+	 * que los cambios posteriores a su encolado se tienen en cuenta sin otro trabajo.
+	 */
+	void process(Job job) {
+		// Se libera antes de leer el post: un cambio posterior a la lectura vuelve a encolarlo
+		pending.remove(job.postId());
+		Optional<Post> found = postRepo.findById(job.postId());
+		if (found.isEmpty() || !Boolean.TRUE.equals(found.get().getContentPending())) {
+			skipped.increment();
+			return;
+		}
+
+		String url = found.get().getPdfUrl();
+		Timer.Sample sample = Timer.start();
+		List<String> terms;
+		if (found.get().getContentModifiedAt() != null && Objects.equals(url, found.get().getContentSource())) {
+			// El archivo se volvió a guardar sin cambiar: se conservan los términos sin descargarlo
+			terms = found.get().getContentTerms() == null ? List.of() : found.get().getContentTerms();
+		} else if (url == null) {
+			terms = List.of();
+		} else {
+			try (PostContent content = contentCache.open(url)) {
+				terms = extractor.extract(content);
+				extracted.increment();
+			} catch (PostContentUnavailableException e) {
+				sample.stop(duration);
+				retry(job, e);
+				return;
+			} catch (IOException | RuntimeException e) {
+				// El archivo se descargó pero no se puede leer: reintentarlo daría el mismo resultado
+				log.warn("No se pudo extraer el texto del post {} de {}", job.postId(), url, e);
+				unreadable.increment();
+				terms = List.of();
+			}
+		}
+		sample.stop(duration);
+
+		postRepo.updateContent(job.postId(), url, terms)
+				.ifPresent(saved -> eventPublisher.publishEvent(new PostChangedEvent(saved)));
+	}
+
+	private void retry(Job job, PostContentUnavailableException cause) {
+		int attempt = job.attempt() + 1;
+		if (attempt >= maxAttempts) {
+			log.warn("Se abandona la extracción de texto del post {} tras {} intentos", job.postId(), attempt,
+					cause);
+			failed.increment();
+			return;
+		}
+		Duration delay = initialBackoff.multipliedBy(1L << (attempt - 1));
+		log.debug("Se reintenta la extracción de texto del post {} en {}", job.postId(), delay);
+		retried.increment();
+		scheduler.schedule(() -> offer(new Job(job.postId(), attempt)), delay.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	private static Counter jobs(MeterRegistry meterRegistry, String result) {
+		return Counter.builder(JOBS_METRIC)
+				.description("Trabajos de extracción de texto terminados")
+				.tag("result", result)
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Extracción pendiente de un post y número de intentos fallidos anteriores.
+	 */
+	static final class Job {
+
+		private final String postId;
+
+		private final int attempt;
+
+		Job(String postId, int attempt) {
+			this.postId = postId;
+			this.attempt = attempt;
+		}
+
+		String postId() {
+			return postId;
+		}
+
+		int attempt() {
+			return attempt;
+		}
+
+	}
+
+}
@@ -0,0 +1,119 @@
+package com.masbytes.miblog.service.extraction;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+
+import com.masbytes.miblog.dto.PostContent;
+import com.masbytes.miblog.service.index.TextNormalizer;
+
+/**
+ * Extrae del archivo de un post (PDF o TXT) sus términos normalizados y sin repetir, en el orden
+ * en que aparecen por primera vez.
+ *
+ * Los PDF se leen proyectando en memoria el archivo de la caché, sin copiarlo al heap, y solo
+ * hasta {@code maxPages} páginas; el resto de archivos se leen como texto UTF-8 línea a línea.
+ * La extracción se detiene al reunir {@code maxTerms} términos, de modo que el campo guardado
+ * tiene un tamaño acotado aunque el archivo sea muy grande.
+ */
+public final class TextExtractor {
+
+	/**
+	 * Longitud máxima de un término; los más largos (cadenas codificadas, restos de tablas) no
+	 * aportan a la búsqueda y ocuparían el índice.
+	 */
+	static final int MAX_TERM_LENGTH = 64;
+
+	private static final byte[] PDF_MAGIC = "%PDF-".getBytes(StandardCharsets.US_ASCII);
+
+	private final int maxPages;
+
+	private final int maxTerms;
+
+	public TextExtractor(int maxPages, int maxTerms) {
+		this.maxPages = maxPages;
+		this.maxTerms = maxTerms;
+	}
+
+	/**
+	 * Extrae los términos de un archivo.
+	 *
+	 * @param content El archivo abierto, que sigue siendo responsabilidad del llamante.
+	 * @return Los términos sin repetir, como mucho {@code maxTerms}.
+	 * @throws IOException Si el archivo no se puede leer o no es un PDF válido.
+	 */
+	public List<String> extract(PostContent content) throws IOException {
+		FileChannel channel = content.getChannel();
+		Set<String> terms = new LinkedHashSet<>();
+		if (isPdf(channel, content.getContentType())) {
+			extractPdf(channel, content.getLength(), terms);
+		} else {
+			extractText(channel, terms);
+		}
+		return new ArrayList<>(terms);
+	}
+
+	private void extractPdf(FileChannel channel, long length, Set<String> terms) throws IOException {
+		if (length > Integer.MAX_VALUE) {
+			throw new IOException("PDF demasiado grande para extraer su texto: " + length + " bytes");
+		}
+		MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+		try (PDDocument document = Loader.loadPDF(new RandomAccessReadBuffer(mapped))) {
+			PDFTextStripper stripper = new PDFTextStripper();
+			stripper.setStartPage(1);
+			stripper.setEndPage(maxPages);
+			addTerms(stripper.getText(document), terms);
+		}
+	}
+
+	private void extractText(FileChannel channel, Set<String> terms) throws IOException {
+		// El decodificador del lector sustituye las secuencias no válidas en lugar de fallar
+		BufferedReader reader = new BufferedReader(
+				new InputStreamReader(Channels.newInputStream(channel.position(0)), StandardCharsets.UTF_8));
+		String line;
+		while (terms.size() < maxTerms && (line = reader.readLine()) != null) {
+			addTerms(line, terms);
+		}
+		// No se cierra el lector: cerraría el canal, que pertenece al llamante
+	}
+
+	private void addTerms(String text, Set<String> terms) {
+		for (String token : TextNormalizer.tokenize(text)) {
+			if (terms.size() >= maxTerms) {
+				return;
+			}
+			if (token.length() <= MAX_TERM_LENGTH) {
+				terms.add(token);
+			}
+		}
+	}
+
+	private static boolean isPdf(FileChannel channel, String contentType) throws IOException {
+		if (contentType != null && contentType.toLowerCase(Locale.ROOT).contains("pdf")) {
+			return true;
+		}
+		// Muchos almacenamientos sirven los PDF como application/octet-stream: se mira la cabecera
+		ByteBuffer header = ByteBuffer.allocate(PDF_MAGIC.length);
+		int read = 0;
+		while (header.hasRemaining() && read >= 0) {
+			read = channel.read(header, header.position());
+		}
+		return header.position() == PDF_MAGIC.length && ByteBuffer.wrap(PDF_MAGIC).equals(header.flip());
+	}
+
+}
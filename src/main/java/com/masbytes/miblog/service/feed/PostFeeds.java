@@ -0,0 +1,582 @@
+package com.masbytes.miblog.service.feed;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.masbytes.miblog.dto.FeedDocument;
+import com.masbytes.miblog.dto.PostCursor;
+import com.masbytes.miblog.dto.PostVersion;
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.event.PostChangedEvent;
+import com.masbytes.miblog.repo.PostRepo;
+
+/**
+ * Feeds RSS 2.0 y Atom de los últimos posts y sitemap de todos los posts visibles, mantenidos en
+ * memoria a medida que los posts se crean, se modifican o se ocultan, en lugar de consultarlos y
+ * generarlos en cada petición.
+ *
+ * Al arrancar se leen los posts visibles, solo con los campos que publican los feeds; después,
+ * cada {@link PostChangedEvent} actualiza la lista y descarta solo los documentos afectados: los
+ * feeds si el post entra, sale o está entre los {@code miblog.feeds.size} más recientes, y del
+ * sitemap la parte que contiene el post (y las siguientes, si el post entra o sale y desplaza a los
+ * demás). Cada documento se vuelve a generar la primera vez que se pide, escribiéndolo con StAX
+ * directamente en bytes, y se guarda con su ETag hasta el siguiente cambio que le afecte. Con el
+ * monitor solo se copian los posts del documento; se escribe sin él, de modo que generar un
+ * sitemap grande no detiene las escrituras ni las demás lecturas, y si un cambio llega mientras
+ * tanto el documento se sirve pero no se guarda.
+ *
+ * Con más de {@code miblog.feeds.sitemap.max-urls} posts (como mucho {@value #SITEMAP_MAX_URLS},
+ * el límite del protocolo) el sitemap se divide en partes {@code /sitemap-N.xml} del más antiguo
+ * al más reciente, y {@code /sitemap.xml} pasa a ser su índice. Los posts nuevos van al final, así
+ * que crearlos solo regenera la última parte.
+ *
+ * Solo se construye y mantiene si {@code miblog.feeds.enabled=true}.
+ */
+@Component
+@Profile("!reactive")
+public class PostFeeds {
+
+	/**
+	 * Número máximo de URLs de un sitemap según el protocolo.
+	 */
+	public static final int SITEMAP_MAX_URLS = 50_000;
+
+	static final String RSS = "feed.xml";
+
+	static final String ATOM = "atom.xml";
+
+	static final String SITEMAP = "sitemap.xml";
+
+	private static final String ATOM_NAMESPACE = "http://www.w3.org/2005/Atom";
+
+	private static final String SITEMAP_NAMESPACE = "http://www.sitemaps.org/schemas/sitemap/0.9";
+
+	private static final Comparator<Post> OLDEST_FIRST = PostCursor.NEWEST_FIRST.reversed();
+
+	private static final XMLOutputFactory XML_OUTPUT = XMLOutputFactory.newFactory();
+
+	private final PostRepo postRepo;
+
+	private final boolean enabled;
+
+	private final String baseUrl;
+
+	private final String postUrl;
+
+	private final String title;
+
+	private final String description;
+
+	private final int feedSize;
+
+	private final int sitemapMaxUrls;
+
+	/**
+	 * Posts visibles, del más antiguo al más reciente. Como los demás campos mutables, solo se usa
+	 * con el monitor de esta clase.
+	 */
+	private final TreeSet<Post> posts = new TreeSet<>(OLDEST_FIRST);
+
+	private final Map<String, Post> postsById = new HashMap<>();
+
+	/**
+	 * Último post de cada parte del sitemap ya generada, por número de parte.
+	 */
+	private final TreeMap<Integer, Post> shardEnds = new TreeMap<>();
+
+	/**
+	 * Documentos generados, por nombre; se leen sin bloqueo.
+	 */
+	private final Map<String, FeedDocument> documents = new ConcurrentHashMap<>();
+
+	/**
+	 * Número de cambios aplicados, para no guardar un documento generado antes del último.
+	 */
+	private long generation;
+
+	public PostFeeds(PostRepo postRepo, @Value("${miblog.feeds.enabled:false}") boolean enabled,
+			@Value("${miblog.feeds.base-url:http://localhost:8080}") String baseUrl,
+			@Value("${miblog.feeds.post-url:}") String postUrl,
+			@Value("${miblog.feeds.title:miblog}") String title,
+			@Value("${miblog.feeds.description:Últimos posts del blog}") String description,
+			@Value("${miblog.feeds.size:50}") int feedSize,
+			@Value("${miblog.feeds.sitemap.max-urls:50000}") int sitemapMaxUrls) {
+		this.postRepo = postRepo;
+		this.enabled = enabled;
+		this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+		this.postUrl = postUrl.isBlank() ? this.baseUrl + "/api/posts/{id}" : postUrl;
+		this.title = title;
+		this.description = description;
+		this.feedSize = feedSize;
+		this.sitemapMaxUrls = Math.min(sitemapMaxUrls, SITEMAP_MAX_URLS);
+	}
+
+	/**
+	 * Indica si los feeds y el sitemap se sirven.
+	 *
+	 * @return true si los feeds están activados.
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Carga todos los posts visibles al arrancar la aplicación, leyendo solo los campos que
+	 * publican los feeds.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void rebuild() {
+		if (!enabled) {
+			return;
+		}
+		posts.clear();
+		postsById.clear();
+		try (Stream<Post> visible = postRepo.streamVisibleFeedFields()) {
+			visible.forEach(post -> {
+				posts.add(post);
+				postsById.put(post.getId(), post);
+			});
+		}
+		shardEnds.clear();
+		documents.clear();
+		generation++;
+	}
+
+	/**
+	 * Aplica el post creado, modificado u ocultado y descarta los documentos en los que aparece.
+	 *
+	 * @param event El evento con el post guardado.
+	 */
+	@EventListener
+	public synchronized void onPostChanged(PostChangedEvent event) {
+		if (!enabled) {
+			return;
+		}
+		Post post = feedFields(event.getPost());
+		Post previous = postsById.get(post.getId());
+		if (previous == null && !post.isVisible()) {
+			return;
+		}
+		generation++;
+
+		boolean inFeeds = previous != null && isInFeeds(previous);
+		if (previous != null) {
+			posts.remove(previous);
+			postsById.remove(previous.getId());
+		}
+		if (post.isVisible()) {
+			posts.add(post);
+			postsById.put(post.getId(), post);
+			inFeeds |= isInFeeds(post);
+		}
+		if (inFeeds) {
+			documents.remove(RSS);
+			documents.remove(ATOM);
+		}
+
+		// Si el post entra, sale o cambia de posición, las partes siguientes del sitemap se desplazan
+		boolean moved = previous == null || !post.isVisible() || OLDEST_FIRST.compare(previous, post) != 0;
+		Post first = previous == null || (post.isVisible() && OLDEST_FIRST.compare(post, previous) < 0)
+				? post
+				: previous;
+		invalidateShards(first, moved);
+		if (!isSharded()) {
+			shardEnds.keySet().forEach(number -> documents.remove(shardName(number)));
+			shardEnds.clear();
+		}
+		documents.remove(SITEMAP);
+	}
+
+	/**
+	 * Feed RSS 2.0 con los últimos posts.
+	 *
+	 * @return El documento.
+	 */
+	public FeedDocument getRss() {
+		return getDocument(RSS, () -> {
+			List<Post> newest = newest();
+			return () -> renderRss(newest);
+		});
+	}
+
+	/**
+	 * Feed Atom con los últimos posts.
+	 *
+	 * @return El documento.
+	 */
+	public FeedDocument getAtom() {
+		return getDocument(ATOM, () -> {
+			List<Post> newest = newest();
+			return () -> renderAtom(newest);
+		});
+	}
+
+	/**
+	 * Sitemap con todos los posts visibles o, si no caben en uno, índice de sus partes.
+	 *
+	 * @return El documento.
+	 */
+	public FeedDocument getSitemap() {
+		return getDocument(SITEMAP, () -> {
+			if (!isSharded()) {
+				List<Post> urls = new ArrayList<>(posts);
+				return () -> renderUrlSet(urls);
+			}
+			int shards = shardCount();
+			return () -> renderSitemapIndex(shards);
+		});
+	}
+
+	/**
+	 * Parte del sitemap cuando está dividido.
+	 *
+	 * @param number El número de la parte, desde 1.
+	 * @return El documento, o vacío si el sitemap no está dividido o no tiene esa parte.
+	 */
+	public Optional<FeedDocument> getSitemapShard(int number) {
+		FeedDocument document = documents.get(shardName(number));
+		if (document != null) {
+			return Optional.of(document);
+		}
+		return Optional.ofNullable(getDocument(shardName(number), () -> {
+			if (number < 1 || !isSharded() || number > shardCount()) {
+				return () -> null;
+			}
+			List<Post> shard = posts.stream()
+					.skip((long) (number - 1) * sitemapMaxUrls)
+					.limit(sitemapMaxUrls)
+					.toList();
+			shardEnds.put(number, shard.get(shard.size() - 1));
+			return () -> renderUrlSet(shard);
+		}));
+	}
+
+	/**
+	 * Obtiene un documento ya generado o lo genera: con el monitor se copian los posts que
+	 * necesita, y se escribe sin él. Solo se guarda si no ha llegado ningún cambio entretanto.
+	 */
+	private FeedDocument getDocument(String name, Supplier<Supplier<FeedDocument>> prepare) {
+		FeedDocument document = documents.get(name);
+		if (document != null) {
+			return document;
+		}
+		Supplier<FeedDocument> renderer;
+		long prepared;
+		synchronized (this) {
+			document = documents.get(name);
+			if (document != null) {
+				return document;
+			}
+			renderer = prepare.get();
+			prepared = generation;
+		}
+		document = renderer.get();
+		if (document != null) {
+			synchronized (this) {
+				if (prepared == generation) {
+					documents.putIfAbsent(name, document);
+				}
+			}
+		}
+		return document;
+	}
+
+	/**
+	 * Indica si el post está entre los más recientes que publican los feeds.
+	 */
+	private boolean isInFeeds(Post post) {
+		Iterator<Post> newest = posts.descendingIterator();
+		for (int i = 0; i < feedSize && newest.hasNext(); i++) {
+			if (OLDEST_FIRST.compare(newest.next(), post) == 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Descarta la parte del sitemap que contiene la posición del post y, si los posts se han
+	 * desplazado, todas las siguientes. Si el post va detrás de todas las partes generadas, le
+	 * corresponde la última.
+	 */
+	private void invalidateShards(Post post, boolean shift) {
+		boolean found = false;
+		Iterator<Map.Entry<Integer, Post>> shards = shardEnds.entrySet().iterator();
+		while (shards.hasNext()) {
+			Map.Entry<Integer, Post> shard = shards.next();
+			boolean contains = !found && OLDEST_FIRST.compare(shard.getValue(), post) >= 0;
+			if (contains || (found && shift)) {
+				documents.remove(shardName(shard.getKey()));
+				shards.remove();
+				found = true;
+			}
+		}
+		if (!found && !shardEnds.isEmpty()) {
+			documents.remove(shardName(shardEnds.pollLastEntry().getKey()));
+		}
+	}
+
+	private boolean isSharded() {
+		return posts.size() > sitemapMaxUrls;
+	}
+
+	private int shardCount() {
+		return (posts.size() + sitemapMaxUrls - 1) / sitemapMaxUrls;
+	}
+
+	private static String shardName(int number) {
+		return "sitemap-" + number + ".xml";
+	}
+
+	private FeedDocument renderRss(List<Post> newest) {
+		long lastModified = lastModified(newest);
+		return write(lastModified, writer -> {
+			writer.writeStartElement("rss");
+			writer.writeNamespace("atom", ATOM_NAMESPACE);
+			writer.writeAttribute("version", "2.0");
+			writer.writeStartElement("channel");
+			element(writer, "title", title);
+			element(writer, "link", baseUrl + "/");
+			element(writer, "description", description);
+			writer.writeEmptyElement("atom", "link", ATOM_NAMESPACE);
+			writer.writeAttribute("href", baseUrl + "/" + RSS);
+			writer.writeAttribute("rel", "self");
+			writer.writeAttribute("type", "application/rss+xml");
+			if (lastModified >= 0) {
+				element(writer, "lastBuildDate", DateTimeFormatter.RFC_1123_DATE_TIME
+						.format(Instant.ofEpochMilli(lastModified).atOffset(ZoneOffset.UTC)));
+			}
+			for (Post post : newest) {
+				String url = urlOf(post);
+				writer.writeStartElement("item");
+				element(writer, "title", post.getTitle());
+				element(writer, "link", url);
+				writer.writeStartElement("guid");
+				writer.writeAttribute("isPermaLink", "true");
+				writer.writeCharacters(url);
+				writer.writeEndElement();
+				if (post.getSummary() != null) {
+					element(writer, "description", post.getSummary());
+				}
+				if (post.getCreatedAt() != null) {
+					element(writer, "pubDate", DateTimeFormatter.RFC_1123_DATE_TIME.format(zoned(post.getCreatedAt())));
+				}
+				for (String tag : tagsOf(post)) {
+					element(writer, "category", tag);
+				}
+				writer.writeEndElement();
+			}
+			writer.writeEndElement();
+			writer.writeEndElement();
+		});
+	}
+
+	private FeedDocument renderAtom(List<Post> newest) {
+		long lastModified = lastModified(newest);
+		return write(lastModified, writer -> {
+			writer.writeStartElement("feed");
+			writer.writeDefaultNamespace(ATOM_NAMESPACE);
+			element(writer, "id", baseUrl + "/");
+			element(writer, "title", title);
+			element(writer, "subtitle", description);
+			element(writer, "updated", w3c(lastModified >= 0 ? lastModified : 0));
+			writer.writeEmptyElement("link");
+			writer.writeAttribute("rel", "self");
+			writer.writeAttribute("href", baseUrl + "/" + ATOM);
+			writer.writeEmptyElement("link");
+			writer.writeAttribute("href", baseUrl + "/");
+			writer.writeStartElement("author");
+			element(writer, "name", title);
+			writer.writeEndElement();
+			for (Post post : newest) {
+				String url = urlOf(post);
+				writer.writeStartElement("entry");
+				element(writer, "id", url);
+				element(writer, "title", post.getTitle());
+				writer.writeEmptyElement("link");
+				writer.writeAttribute("href", url);
+				if (post.getCreatedAt() != null) {
+					element(writer, "published", w3c(PostVersion.toEpochMilli(post.getCreatedAt())));
+				}
+				element(writer, "updated", w3c(Math.max(modifiedAt(post), 0)));
+				if (post.getSummary() != null) {
+					element(writer, "summary", post.getSummary());
+				}
+				for (String tag : tagsOf(post)) {
+					writer.writeEmptyElement("category");
+					writer.writeAttribute("term", xml(tag));
+				}
+				writer.writeEndElement();
+			}
+			writer.writeEndElement();
+		});
+	}
+
+	private FeedDocument renderSitemapIndex(int shardCount) {
+		// El índice se genera con las partes, que solo se regeneran si han cambiado
+		List<FeedDocument> shards = new ArrayList<>();
+		for (int number = 1; number <= shardCount; number++) {
+			getSitemapShard(number).ifPresent(shards::add);
+		}
+		long lastModified = shards.stream().mapToLong(FeedDocument::getLastModified).max().orElse(-1);
+		return write(lastModified, writer -> {
+			writer.writeStartElement("sitemapindex");
+			writer.writeDefaultNamespace(SITEMAP_NAMESPACE);
+			for (int number = 1; number <= shards.size(); number++) {
+				writer.writeStartElement("sitemap");
+				element(writer, "loc", baseUrl + "/" + shardName(number));
+				if (shards.get(number - 1).getLastModified() >= 0) {
+					element(writer, "lastmod", w3c(shards.get(number - 1).getLastModified()));
+				}
+				writer.writeEndElement();
+			}
+			writer.writeEndElement();
+		});
+	}
+
+	private FeedDocument renderUrlSet(List<Post> urls) {
+		return write(lastModified(urls), writer -> {
+			writer.writeStartElement("urlset");
+			writer.writeDefaultNamespace(SITEMAP_NAMESPACE);
+			for (Post post : urls) {
+				writer.writeStartElement("url");
+				element(writer, "loc", urlOf(post));
+				if (modifiedAt(post) >= 0) {
+					element(writer, "lastmod", w3c(modifiedAt(post)));
+				}
+				writer.writeEndElement();
+			}
+			writer.writeEndElement();
+		});
+	}
+
+	/**
+	 * Los posts de los feeds, del más reciente al más antiguo.
+	 */
+	private List<Post> newest() {
+		List<Post> newest = new ArrayList<>(feedSize);
+		Iterator<Post> iterator = posts.descendingIterator();
+		while (newest.size() < feedSize && iterator.hasNext()) {
+			newest.add(iterator.next());
+		}
+		return newest;
+	}
+
+	/**
+	 * Copia del post con solo los campos que publican los feeds, los mismos que se leen al arrancar.
+	 */
+	private static Post feedFields(Post post) {
+		Post fields = new Post();
+		fields.setId(post.getId());
+		fields.setTitle(post.getTitle());
+		fields.setSummary(post.getSummary());
+		fields.setTags(post.getTags());
+		fields.setCreatedAt(post.getCreatedAt());
+		fields.setModifiedAt(post.getModifiedAt());
+		fields.setVisible(post.isVisible());
+		return fields;
+	}
+
+	private String urlOf(Post post) {
+		return postUrl.replace("{id}", post.getId());
+	}
+
+	private static List<String> tagsOf(Post post) {
+		return post.getTags() == null ? List.of() : post.getTags();
+	}
+
+	/**
+	 * Última modificación del post, o su creación si no se ha modificado, en milisegundos.
+	 */
+	private static long modifiedAt(Post post) {
+		return PostVersion.toEpochMilli(post.getModifiedAt() != null ? post.getModifiedAt() : post.getCreatedAt());
+	}
+
+	private static long lastModified(List<Post> posts) {
+		return posts.stream().mapToLong(PostFeeds::modifiedAt).max().orElse(-1);
+	}
+
+	private static ZonedDateTime zoned(LocalDateTime dateTime) {
+		return dateTime.atZone(ZoneId.systemDefault());
+	}
+
+	/**
+	 * Fecha en el formato W3C de Atom y de los sitemaps, en UTC y con precisión de segundos.
+	 */
+	private static String w3c(long epochMilli) {
+		return DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(
+				Instant.ofEpochMilli(epochMilli).atOffset(ZoneOffset.UTC).truncatedTo(ChronoUnit.SECONDS));
+	}
+
+	private static void element(XMLStreamWriter writer, String name, String text) throws XMLStreamException {
+		writer.writeStartElement(name);
+		writer.writeCharacters(xml(text));
+		writer.writeEndElement();
+	}
+
+	/**
+	 * Elimina los caracteres que no admite XML 1.0, que StAX escribiría sin comprobar.
+	 */
+	private static String xml(String text) {
+		if (text == null) {
+			return "";
+		}
+		return text.codePoints()
+				.filter(c -> c == 0x9 || c == 0xA || c == 0xD || (c >= 0x20 && c <= 0xD7FF)
+						|| (c >= 0xE000 && c <= 0xFFFD) || c >= 0x10000)
+				.collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append)
+				.toString();
+	}
+
+	private static FeedDocument write(long lastModified, XmlBody body) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try {
+			XMLStreamWriter writer = XML_OUTPUT.createXMLStreamWriter(out, "UTF-8");
+			writer.writeStartDocument("UTF-8", "1.0");
+			body.write(writer);
+			writer.writeEndDocument();
+			writer.close();
+		} catch (XMLStreamException e) {
+			// Solo se escribe en memoria
+			throw new IllegalStateException(e);
+		}
+		return FeedDocument.of(out.toByteArray(), lastModified);
+	}
+
+	/**
+	 * Contenido de un documento, escrito con StAX.
+	 */
+	@FunctionalInterface
+	private interface XmlBody {
+		void write(XMLStreamWriter writer) throws XMLStreamException;
+	}
+
+}
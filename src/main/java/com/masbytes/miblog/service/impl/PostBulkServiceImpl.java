@@ -0,0 +1,174 @@
+package com.masbytes.miblog.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import com.masbytes.miblog.dto.BulkItemResult;
+import com.masbytes.miblog.dto.BulkItemResult.Status;
+import com.masbytes.miblog.dto.BulkReport;
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.event.PostChangedEvent;
+import com.masbytes.miblog.event.PostsChangedEvent;
+import com.masbytes.miblog.exception.PostInvalidDataException;
+import com.masbytes.miblog.repo.PostRepo;
+import com.masbytes.miblog.service.PostBulkService;
+import com.masbytes.miblog.service.index.TextNormalizer;
+
+/**
+ * Implementación de la carga masiva de posts.
+ * Los posts se procesan por lotes: se validan en paralelo, se comprueban los títulos de todo el
+ * lote con una sola consulta y se insertan con una única escritura no ordenada, de modo que un
+ * post rechazado no impide guardar el resto. Los títulos se comparan por su clave normalizada, y
+ * el índice único de {@code title_key} rechaza los que otra petición haya creado entretanto.
+ */
+@Service
+@Profile("!reactive")
+public class PostBulkServiceImpl implements PostBulkService {
+
+	private final PostRepo postRepo;
+
+	private final ApplicationEventPublisher eventPublisher;
+
+	private final int batchSize;
+
+	public PostBulkServiceImpl(PostRepo postRepo, ApplicationEventPublisher eventPublisher,
+			@Value("${miblog.bulk.batch-size:1000}") int batchSize) {
+		this.postRepo = postRepo;
+		this.eventPublisher = eventPublisher;
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Crea los posts recibidos por lotes de {@code miblog.bulk.batch-size}.
+	 * A diferencia de la creación individual, se respeta la fecha de creación recibida (para poder
+	 * migrar posts antiguos) y solo se asigna la fecha actual si no viene ninguna.
+	 * 
+	 * Si un elemento no se puede leer, la carga se detiene en él: los posts leídos hasta entonces
+	 * se guardan y el informe termina con un elemento {@link Status#MALFORMED}. Si todavía no se
+	 * había guardado ningún lote, no se guarda nada y se lanza la excepción.
+	 * 
+	 * @param posts Los posts a crear, leídos a medida que se procesan.
+	 * @return El informe con el resultado de cada post.
+	 * @throws PostInvalidDataException Si la entrada no se puede leer antes de guardar el primer lote.
+	 */
+	@Override
+	public BulkReport createPosts(Iterator<Post> posts) {
+		List<BulkItemResult> items = new ArrayList<>();
+		List<Post> batch = new ArrayList<>(batchSize);
+		// Títulos ya aceptados en esta petición, para detectar duplicados entre lotes
+		Set<String> seenTitles = new HashSet<>();
+		RuntimeException readError = null;
+		while (readError == null) {
+			Post post;
+			try {
+				post = posts.hasNext() ? posts.next() : null;
+			} catch (RuntimeException e) {
+				if (items.isEmpty()) {
+					throw new PostInvalidDataException("La entrada no es JSON válido: " + e.getMessage());
+				}
+				readError = e;
+				continue;
+			}
+			if (post == null) {
+				break;
+			}
+			batch.add(post);
+			if (batch.size() == batchSize) {
+				items.addAll(processBatch(batch, items.size(), seenTitles));
+				batch.clear();
+			}
+		}
+		if (!batch.isEmpty()) {
+			items.addAll(processBatch(batch, items.size(), seenTitles));
+		}
+		if (readError != null) {
+			// Los lotes anteriores ya están guardados: se informa de ellos y de dónde se detuvo la lectura
+			items.add(new BulkItemResult(items.size(), Status.MALFORMED, null,
+					"La entrada no es JSON válido: " + readError.getMessage()));
+		}
+
+		long created = items.stream().filter(item -> item.getStatus() == Status.CREATED).count();
+		return new BulkReport(created, items.size() - created, items);
+	}
+
+	private List<BulkItemResult> processBatch(List<Post> batch, int offset, Set<String> seenTitles) {
+		BulkItemResult[] results = new BulkItemResult[batch.size()];
+
+		// Validar los posts del lote en paralelo
+		IntStream.range(0, batch.size()).parallel().forEach(i -> {
+			try {
+				PostValidator.validateNewPost(batch.get(i));
+			} catch (PostInvalidDataException e) {
+				results[i] = new BulkItemResult(offset + i, Status.INVALID, null, e.getMessage());
+			}
+		});
+
+		// Comprobar todos los títulos del lote con una sola consulta
+		Set<String> titleKeys = new HashSet<>();
+		for (int i = 0; i < batch.size(); i++) {
+			if (results[i] == null) {
+				batch.get(i).setTitleKey(TextNormalizer.titleKey(batch.get(i).getTitle()));
+				titleKeys.add(batch.get(i).getTitleKey());
+			}
+		}
+		Set<String> existingTitles = titleKeys.isEmpty() ? Set.of() : postRepo.findExistingTitleKeys(titleKeys);
+
+		LocalDateTime now = LocalDateTime.now();
+		List<Post> toInsert = new ArrayList<>();
+		List<Integer> positions = new ArrayList<>();
+		for (int i = 0; i < batch.size(); i++) {
+			if (results[i] != null) {
+				continue;
+			}
+			Post post = batch.get(i);
+			if (existingTitles.contains(post.getTitleKey()) || !seenTitles.add(post.getTitleKey())) {
+				results[i] = new BulkItemResult(offset + i, Status.DUPLICATE, null,
+						"Ya existe un post con el título: " + post.getTitle());
+				continue;
+			}
+			post.setId(new ObjectId().toHexString());
+			if (post.getCreatedAt() == null) {
+				post.setCreatedAt(now);
+			}
+			post.setModifiedAt(now);
+			post.setContentPending(true);
+			toInsert.add(post);
+			positions.add(i);
+		}
+
+		// Insertar el lote con una escritura no ordenada
+		Map<Integer, String> failures = toInsert.isEmpty() ? Map.of() : postRepo.insertUnordered(toInsert);
+		List<Post> created = new ArrayList<>();
+		for (int j = 0; j < toInsert.size(); j++) {
+			int i = positions.get(j);
+			Post post = toInsert.get(j);
+			String failure = failures.get(j);
+			if (failure == null) {
+				results[i] = new BulkItemResult(offset + i, Status.CREATED, post.getId(), null);
+				created.add(post);
+			} else {
+				results[i] = new BulkItemResult(offset + i, Status.FAILED, null, failure);
+			}
+		}
+
+		// Notificar el lote entero a las instantáneas y después cada post al resto de estructuras
+		if (!created.isEmpty()) {
+			eventPublisher.publishEvent(new PostsChangedEvent(created));
+			created.forEach(post -> eventPublisher.publishEvent(new PostChangedEvent(post)));
+		}
+		return List.of(results);
+	}
+
+}
@@ -0,0 +1,42 @@
+package com.masbytes.miblog.service.impl;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import com.masbytes.miblog.dto.PostContent;
+import com.masbytes.miblog.exception.PostContentUnavailableException;
+import com.masbytes.miblog.exception.PostNotFoundException;
+import com.masbytes.miblog.service.PostContentService;
+import com.masbytes.miblog.service.PostService;
+import com.masbytes.miblog.service.cache.ContentCache;
+
+/**
+ * Implementación del servicio de archivos de los posts.
+ * El post se lee con {@link PostService#getPostById(String)}, normalmente desde la caché de
+ * posts, y su archivo desde {@link ContentCache}. La caché se indexa por URL, de modo que al
+ * cambiar el {@code pdfUrl} de un post la siguiente petición descarga el archivo nuevo.
+ */
+@Service
+@Profile("!reactive")
+public class PostContentServiceImpl implements PostContentService {
+
+	private final PostService postService;
+
+	private final ContentCache contentCache;
+
+	public PostContentServiceImpl(PostService postService, ContentCache contentCache) {
+		this.postService = postService;
+		this.contentCache = contentCache;
+	}
+
+	@Override
+	public PostContent getPostContent(String id) throws PostNotFoundException, PostContentUnavailableException {
+		String url = postService.getPostById(id).getPdfUrl();
+		if (url == null || url.isBlank()) {
+			// No es un fallo del almacenamiento: el recurso no existe
+			throw new PostNotFoundException("El post no tiene archivo: " + id);
+		}
+		return contentCache.open(url);
+	}
+
+}
@@ -3,33 +3,82 @@ package com.masbytes.miblog.service.impl;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
+import com.masbytes.miblog.dto.ArchiveBucket;
+import com.masbytes.miblog.dto.ArchiveQuery;
+import com.masbytes.miblog.dto.PostCursor;
+import com.masbytes.miblog.dto.PostPage;
+import com.masbytes.miblog.dto.PostVersion;
+import com.masbytes.miblog.dto.ScoredPost;
+import com.masbytes.miblog.dto.TagFacet;
+import com.masbytes.miblog.dto.TagQuery;
 import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.event.PostChangedEvent;
 import com.masbytes.miblog.exception.PostAlreadyExistsException;
 import com.masbytes.miblog.exception.PostInvalidDataException;
 import com.masbytes.miblog.exception.PostNotFoundException;
 import com.masbytes.miblog.repo.PostRepo;
 import com.masbytes.miblog.service.PostService;
+import com.masbytes.miblog.service.cache.PostCache;
+import com.masbytes.miblog.service.cache.PostCatalog;
+import com.masbytes.miblog.service.index.PostArchive;
+import com.masbytes.miblog.service.index.PostSearchIndex;
+import com.masbytes.miblog.service.index.TagBitmapIndex;
+import com.masbytes.miblog.service.index.TagFacets;
+import com.masbytes.miblog.service.index.TextNormalizer;
 
 /**
  * Implementación del servicio para gestionar los posts.
  * Proporciona la lógica de negocio para la creación, actualización, eliminación y búsqueda de posts.
  */
 @Service
+@Profile("!reactive")
 public class PostServiceImpl implements PostService {
 
 	private final PostRepo postRepo;
 
-	public PostServiceImpl(PostRepo postRepo) {
+	private final ApplicationEventPublisher eventPublisher;
+
+	private final PostSearchIndex searchIndex;
+
+	private final PostCache postCache;
+
+	private final TagBitmapIndex tagIndex;
+
+	private final PostArchive archive;
+
+	private final TagFacets tagFacets;
+
+	private final PostCatalog catalog;
+
+	public PostServiceImpl(PostRepo postRepo, ApplicationEventPublisher eventPublisher, PostSearchIndex searchIndex,
+			PostCache postCache, TagBitmapIndex tagIndex, PostArchive archive, TagFacets tagFacets,
+			PostCatalog catalog) {
 		this.postRepo = postRepo;
+		this.eventPublisher = eventPublisher;
+		this.searchIndex = searchIndex;
+		this.postCache = postCache;
+		this.tagIndex = tagIndex;
+		this.archive = archive;
+		this.tagFacets = tagFacets;
+		this.catalog = catalog;
 	}
 
 	/**
      * Crea un nuevo post en el sistema.
+     * La unicidad del título la garantiza el índice único sobre su clave normalizada, por lo que
+     * la creación es una sola escritura, sin consultar antes si el título existe.
      * 
      * @param post El post que se desea crear.
      * @return El post recién creado.
@@ -39,24 +88,29 @@ public class PostServiceImpl implements PostService {
 	@Override
 	public Post createPost(Post post) throws PostAlreadyExistsException, PostInvalidDataException {
 
-		// Validar que el título no esté repetido
-		Optional<Post> existingPost = postRepo.findByTitle(post.getTitle());
-		if (existingPost.isPresent()) {
-			throw new PostAlreadyExistsException("Ya existe un post con el título: " + post.getTitle());
-		}
-
 		// Validar datos obligatorios
-		if (post.getTitle() == null || post.getTitle().isBlank() || post.getPdfUrl() == null
-				|| post.getPdfUrl().isBlank() || post.getSummary() == null || post.getSummary().isBlank()) {
-			throw new PostInvalidDataException("El título, resumen y URL del PDF son obligatorios.");
-		}
+		PostValidator.validateNewPost(post);
+
+		// Clave normalizada del título, sobre la que el índice único rechaza los repetidos
+		String titleKey = TextNormalizer.titleKey(post.getTitle());
 
-		// Asignar fechas de creación y modificación
+		// Asignar clave del título, fechas de creación y modificación y extracción pendiente
+		post.setId(null);
+		post.setTitleKey(titleKey);
 		post.setCreatedAt(LocalDateTime.now());
 		post.setModifiedAt(LocalDateTime.now());
+		post.setContentPending(true);
+
+		// Guardar en la base de datos; el índice único rechaza los títulos creados a la vez
+		Post savedPost;
+		try {
+			savedPost = postRepo.insert(post);
+		} catch (DuplicateKeyException e) {
+			throw new PostAlreadyExistsException("Ya existe un post con el título: " + post.getTitle());
+		}
 
-		// Guardar en la base de datos
-		Post savedPost = postRepo.save(post);
+		// Notificar a las estructuras en memoria
+		eventPublisher.publishEvent(new PostChangedEvent(savedPost));
 
 		// Retornar el post creado
 		return savedPost;
@@ -71,24 +125,95 @@ public class PostServiceImpl implements PostService {
      */
 	@Override
 	public Post getPostById(String id) throws PostNotFoundException {
-		// Buscar el post por su ID
-		return postRepo.findById(id)
+		// En el modo de lectura desde instantánea, los posts visibles se leen del catálogo sin bloqueos
+		if (catalog.isEnabled()) {
+			Optional<Post> visible = catalog.findById(id);
+			if (visible.isPresent()) {
+				return visible.get();
+			}
+		}
+
+		// Buscar el post por su ID, primero en la caché y después en la base de datos
+		return postCache.get(id, postRepo::findById)
+				.orElseThrow(() -> new PostNotFoundException("Post no encontrado con el ID: " + id));
+	}
+
+	/**
+     * Obtiene la versión de un post: de la caché si el post ya está en ella y, si no, con una
+     * consulta que solo lee la versión y la fecha de modificación.
+     * 
+     * @param id El ID del post.
+     * @return La versión y la fecha de modificación del post.
+     * @throws PostNotFoundException Si no se encuentra un post con el ID dado.
+     */
+	@Override
+	public PostVersion getPostVersion(String id) throws PostNotFoundException {
+		Optional<Post> known = catalog.isEnabled() ? catalog.findById(id) : Optional.empty();
+		return known.or(() -> postCache.getIfPresent(id)).map(PostVersion::of)
+				.or(() -> postRepo.findVersionById(id))
 				.orElseThrow(() -> new PostNotFoundException("Post no encontrado con el ID: " + id));
 	}
 
 	/**
-     * Busca posts que contienen una palabra clave en su título, resumen o etiquetas.
+     * Busca posts visibles que contienen una palabra clave en su título, resumen o etiquetas,
+     * o cuyo archivo contiene todos sus términos.
      * 
      * @param keyword La palabra clave que se desea buscar.
-     * @return Una lista de posts que contienen la palabra clave.
+     * @return Una lista de posts que contienen la palabra clave, del más reciente al más antiguo.
      */
 	@Override
 	public List<Post> searchPostByKeyword(String keyword) {
+		// Con el índice en memoria activado, la búsqueda no consulta la base de datos
+		if (searchIndex.isEnabled()) {
+			return searchIndex.search(keyword, 0).stream().map(ScoredPost::getPost).toList();
+		}
+
 		// Construir expresión regular insensible a mayúsculas/minúsculas
-		String regex = ".*" + keyword.toLowerCase() + ".*";
+		String regex = keywordRegex(keyword);
+
+		// Buscar los posts visibles por título, resumen, etiquetas o texto del archivo
+		return postRepo.findByKeyword(regex, List.of(keyword.toLowerCase()), keywordTerms(keyword));
+	}
+
+	/**
+     * Busca una página de posts que contienen una palabra clave en su título, resumen o etiquetas,
+     * o cuyo archivo contiene todos sus términos.
+     * 
+     * @param keyword La palabra clave que se desea buscar.
+     * @param cursor El cursor de la página anterior, o null para la primera página.
+     * @param size El tamaño de página solicitado.
+     * @return La página de posts que contienen la palabra clave.
+     * @throws PostInvalidDataException Si el cursor no es válido.
+     */
+	@Override
+	public PostPage searchPostByKeyword(String keyword, String cursor, Integer size) throws PostInvalidDataException {
+		PostCursor after = PostCursor.decode(cursor);
+		int pageSize = PostPage.normalizeSize(size);
+		if (searchIndex.isEnabled()) {
+			return PostPage.of(searchIndex.findPage(keyword, after, pageSize + 1), pageSize);
+		}
+
+		String regex = keywordRegex(keyword);
 
-		// Buscar por título, resumen o etiquetas
-		return postRepo.findByTitleRegexOrSummaryRegexOrTagsIn(regex, regex, List.of(keyword.toLowerCase()));
+		// Se pide un post de más para saber si existe una página siguiente
+		return PostPage.of(postRepo.findPageByKeyword(regex, List.of(keyword.toLowerCase()), keywordTerms(keyword),
+				after, pageSize + 1), pageSize);
+	}
+
+	/**
+     * Busca posts mediante el índice de texto de MongoDB, ordenados por relevancia.
+     * 
+     * @param query El texto de búsqueda; admite frases entre comillas y términos excluidos con un guion.
+     * @param size El número máximo de resultados solicitado.
+     * @return Los posts coincidentes con su puntuación, de mayor a menor relevancia.
+     * @throws PostInvalidDataException Si el texto de búsqueda está vacío.
+     */
+	@Override
+	public List<ScoredPost> searchPostsByText(String query, Integer size) throws PostInvalidDataException {
+		if (query == null || query.isBlank()) {
+			throw new PostInvalidDataException("El texto de búsqueda es obligatorio.");
+		}
+		return postRepo.findByTextSearch(query.trim(), PostPage.normalizeSize(size));
 	}
 
 	/**
@@ -110,8 +235,66 @@ public class PostServiceImpl implements PostService {
 	                                     .toList();
 	                                     */
 	    
+		if (catalog.isEnabled()) {
+			return catalog.findPageByTagsIn(tags, null, Integer.MAX_VALUE);
+		}
+
 		// Buscar posts que contengan al menos una etiqueta de la lista proporcionada
-		return postRepo.findByTagsIn(tags);
+		return postRepo.findByVisibleTrueAndTagsIn(tags);
+	}
+
+	/**
+     * Busca una página de posts que contienen al menos una de las etiquetas proporcionadas.
+     * 
+     * @param tags Una lista de etiquetas para buscar en los posts.
+     * @param cursor El cursor de la página anterior, o null para la primera página.
+     * @param size El tamaño de página solicitado.
+     * @return La página de posts que contienen al menos una de las etiquetas.
+     * @throws PostInvalidDataException Si el cursor no es válido.
+     */
+	@Override
+	public PostPage searchPostsByTags(List<String> tags, String cursor, Integer size) throws PostInvalidDataException {
+		if (tags == null || tags.isEmpty()) {
+			return new PostPage(Collections.emptyList(), null);
+		}
+
+		PostCursor after = PostCursor.decode(cursor);
+		int pageSize = PostPage.normalizeSize(size);
+		List<Post> fetched = catalog.isEnabled()
+				? catalog.findPageByTagsIn(tags, after, pageSize + 1)
+				: postRepo.findPageByTagsIn(tags, after, pageSize + 1);
+		return PostPage.of(fetched, pageSize);
+	}
+
+	/**
+     * Busca una página de posts visibles que cumplen una consulta booleana por etiquetas.
+     * Con el índice de etiquetas activado se resuelve en memoria con operaciones de bitmaps.
+     * 
+     * @param query La consulta por etiquetas.
+     * @param cursor El cursor de la página anterior, o null para la primera página.
+     * @param size El tamaño de página solicitado.
+     * @return La página de posts coincidentes.
+     * @throws PostInvalidDataException Si el cursor no es válido.
+     */
+	@Override
+	public PostPage searchPostsByTags(TagQuery query, String cursor, Integer size) throws PostInvalidDataException {
+		PostCursor after = PostCursor.decode(cursor);
+		int pageSize = PostPage.normalizeSize(size);
+		List<Post> fetched = tagIndex.isEnabled()
+				? tagIndex.findPage(query, after, pageSize + 1)
+				: postRepo.findPageByTagQuery(query, after, pageSize + 1);
+		return PostPage.of(fetched, pageSize);
+	}
+
+	/**
+     * Cuenta los posts visibles que cumplen una consulta booleana por etiquetas.
+     * 
+     * @param query La consulta por etiquetas.
+     * @return El número total de posts coincidentes.
+     */
+	@Override
+	public long countPostsByTags(TagQuery query) {
+		return tagIndex.isEnabled() ? tagIndex.count(query) : postRepo.countByTagQuery(query);
 	}
 
 	/**
@@ -124,32 +307,192 @@ public class PostServiceImpl implements PostService {
 	@Override
 	public List<Post> getRecentPosts(LocalDateTime fromDate) {
 	    // Si la fecha es nula, tomamos los últimos 30 días
-	    LocalDateTime startOfRange = (fromDate == null)
-	        ? LocalDateTime.now().minusDays(30).toLocalDate().atStartOfDay()
-	        : fromDate.toLocalDate().atStartOfDay();
-	    
-	    LocalDateTime endOfRange = (fromDate == null)
-	        ? LocalDateTime.now().toLocalDate().atTime(LocalTime.MAX)
-	        : fromDate.toLocalDate().atTime(LocalTime.MAX);
+	    LocalDateTime startOfRange = startOfRecentRange(fromDate);
+	    LocalDateTime endOfRange = endOfRecentRange(fromDate);
 
 	    // Realizamos la búsqueda estrictamente en el rango de fechas
-	    return postRepo.findByCreatedAtBetween(startOfRange, endOfRange);
+	    if (catalog.isEnabled()) {
+	        return catalog.findPageByCreatedAtBetween(startOfRange, endOfRange, null, Integer.MAX_VALUE);
+	    }
+	    return postRepo.findByVisibleTrueAndCreatedAtBetween(startOfRange, endOfRange);
+	}
+
+	/**
+     * Obtiene una página de los posts creados en la fecha indicada.
+     * Si no se proporciona una fecha, se buscan los posts de los últimos 30 días.
+     * 
+     * @param fromDate La fecha a partir de la cual se deben buscar los posts.
+     * @param cursor El cursor de la página anterior, o null para la primera página.
+     * @param size El tamaño de página solicitado.
+     * @return La página de posts creados dentro del rango.
+     * @throws PostInvalidDataException Si el cursor no es válido.
+     */
+	@Override
+	public PostPage getRecentPosts(LocalDateTime fromDate, String cursor, Integer size) throws PostInvalidDataException {
+		PostCursor after = PostCursor.decode(cursor);
+		int pageSize = PostPage.normalizeSize(size);
+		LocalDateTime startOfRange = startOfRecentRange(fromDate);
+		LocalDateTime endOfRange = endOfRecentRange(fromDate);
+		List<Post> fetched = catalog.isEnabled()
+				? catalog.findPageByCreatedAtBetween(startOfRange, endOfRange, after, pageSize + 1)
+				: postRepo.findPageByCreatedAtBetween(startOfRange, endOfRange, after, pageSize + 1);
+		return PostPage.of(fetched, pageSize);
+	}
+
+	/**
+     * Obtiene la fecha de modificación más reciente de los posts creados en la fecha indicada.
+     * Si no se proporciona una fecha, se usan los últimos 30 días.
+     * 
+     * @param fromDate La fecha a partir de la cual se deben buscar los posts.
+     * @return La última modificación, o vacío si no hay posts en el rango.
+     */
+	@Override
+	public Optional<LocalDateTime> getRecentPostsLastModified(LocalDateTime fromDate) {
+		LocalDateTime startOfRange = startOfRecentRange(fromDate);
+		LocalDateTime endOfRange = endOfRecentRange(fromDate);
+		return catalog.isEnabled()
+				? catalog.findLastModifiedByCreatedAtBetween(startOfRange, endOfRange)
+				: postRepo.findLastModifiedByCreatedAtBetween(startOfRange, endOfRange);
+	}
+
+	/**
+     * Cuenta los posts visibles por año, mes o día de creación. Con el archivo en memoria activado
+     * se recorren solo los días con algún post; si no, se agrupan en MongoDB sin leer los documentos.
+     * 
+     * @param query La unidad, la zona horaria y el rango de fechas.
+     * @return Los periodos con algún post, del más reciente al más antiguo.
+     */
+	@Override
+	public List<ArchiveBucket> getArchive(ArchiveQuery query) {
+		return archive.isEnabled() ? archive.count(query) : postRepo.countArchive(query);
+	}
+
+	/**
+     * Cuenta los posts visibles de cada etiqueta. Los recuentos de todos los posts se sirven desde
+     * memoria si están activados; los restringidos a una búsqueda se agrupan siempre en MongoDB
+     * con el mismo filtro que la búsqueda, sin leer los posts.
+     * 
+     * @param keyword (Opcional) Palabra clave de la búsqueda cuyos resultados se cuentan.
+     * @param fromDate (Opcional) Fecha de los posts recientes cuyos resultados se cuentan.
+     * @return Las etiquetas con algún post, de la más usada a la menos usada.
+     * @throws PostInvalidDataException Si se indican a la vez la palabra clave y la fecha.
+     */
+	@Override
+	public List<TagFacet> getTagFacets(String keyword, LocalDateTime fromDate) throws PostInvalidDataException {
+		boolean byKeyword = keyword != null && !keyword.isBlank();
+		if (byKeyword && fromDate != null) {
+			throw new PostInvalidDataException("Las etiquetas se cuentan por palabra clave o por fecha, no por ambas.");
+		}
+		if (byKeyword) {
+			return postRepo.countTagsByKeyword(keywordRegex(keyword), List.of(keyword.toLowerCase()),
+					keywordTerms(keyword));
+		}
+		if (fromDate != null) {
+			return postRepo.countTagsByCreatedAtBetween(startOfRecentRange(fromDate), endOfRecentRange(fromDate));
+		}
+		return tagFacets.isEnabled() ? tagFacets.count() : postRepo.countTags();
+	}
+
+	/**
+     * Recorre en streaming los posts que contienen una palabra clave en su título, resumen o etiquetas,
+     * o cuyo archivo contiene todos sus términos.
+     * 
+     * @param keyword La palabra clave que se desea buscar.
+     * @return Un Stream respaldado por un cursor de MongoDB que debe cerrarse tras su uso.
+     */
+	@Override
+	public Stream<Post> streamPostsByKeyword(String keyword) {
+		return postRepo.streamByKeyword(keywordRegex(keyword), List.of(keyword.toLowerCase()), keywordTerms(keyword));
+	}
+
+	/**
+     * Recorre en streaming los posts que contienen al menos una de las etiquetas proporcionadas.
+     * 
+     * @param tags Una lista de etiquetas para buscar en los posts.
+     * @return Un Stream respaldado por un cursor de MongoDB que debe cerrarse tras su uso.
+     */
+	@Override
+	public Stream<Post> streamPostsByTags(List<String> tags) {
+		if (tags == null || tags.isEmpty()) {
+			return Stream.empty();
+		}
+		if (catalog.isEnabled()) {
+			return catalog.findPageByTagsIn(tags, null, Integer.MAX_VALUE).stream();
+		}
+		return postRepo.streamByVisibleTrueAndTagsInOrderByCreatedAtDesc(tags);
+	}
+
+	/**
+     * Recorre en streaming los posts visibles que cumplen una consulta booleana por etiquetas.
+     * 
+     * @param query La consulta por etiquetas.
+     * @return Un Stream respaldado por un cursor de MongoDB que debe cerrarse tras su uso.
+     */
+	@Override
+	public Stream<Post> streamPostsByTags(TagQuery query) {
+		return postRepo.streamByTagQuery(query);
+	}
+
+	/**
+     * Recorre en streaming los posts creados en la fecha indicada.
+     * Si no se proporciona una fecha, se recorren los posts de los últimos 30 días.
+     * 
+     * @param fromDate La fecha a partir de la cual se deben buscar los posts.
+     * @return Un Stream respaldado por un cursor de MongoDB que debe cerrarse tras su uso.
+     */
+	@Override
+	public Stream<Post> streamRecentPosts(LocalDateTime fromDate) {
+		if (catalog.isEnabled()) {
+			return catalog.findPageByCreatedAtBetween(startOfRecentRange(fromDate), endOfRecentRange(fromDate), null,
+					Integer.MAX_VALUE).stream();
+		}
+		return postRepo.streamByVisibleTrueAndCreatedAtBetweenOrderByCreatedAtDesc(startOfRecentRange(fromDate),
+				endOfRecentRange(fromDate));
+	}
+
+	/**
+	 * Construye la expresión regular de búsqueda por palabra clave, escapando los
+	 * metacaracteres para que la palabra se busque de forma literal. Se comparte con la
+	 * implementación reactiva, igual que el rango de fechas de los posts recientes.
+	 */
+	static String keywordRegex(String keyword) {
+		return ".*" + Pattern.quote(keyword.toLowerCase()) + ".*";
+	}
+
+	/**
+	 * Términos normalizados de la palabra clave que se buscan en el texto extraído de los archivos.
+	 */
+	static List<String> keywordTerms(String keyword) {
+		return TextNormalizer.tokenize(keyword).stream().distinct().toList();
+	}
+
+	static LocalDateTime startOfRecentRange(LocalDateTime fromDate) {
+		return (fromDate == null)
+			? LocalDateTime.now().minusDays(30).toLocalDate().atStartOfDay()
+			: fromDate.toLocalDate().atStartOfDay();
+	}
+
+	static LocalDateTime endOfRecentRange(LocalDateTime fromDate) {
+		return (fromDate == null)
+			? LocalDateTime.now().toLocalDate().atTime(LocalTime.MAX)
+			: fromDate.toLocalDate().atTime(LocalTime.MAX);
 	}
 
 	/**
      * Actualiza un post existente.
+     * Los campos editables se sustituyen con una única modificación atómica en la base de datos,
+     * que también actualiza la fecha de modificación.
      * 
      * @param id El ID del post que se desea actualizar.
      * @param post El post con los nuevos datos para actualizar.
      * @return El post actualizado.
      * @throws PostNotFoundException Si no se encuentra un post con el ID proporcionado.
      * @throws PostInvalidDataException Si los datos proporcionados no son válidos.
+     * @throws PostAlreadyExistsException Si el nuevo título ya lo usa otro post.
      */
 	@Override
-	public Post updatePost(String id, Post post) throws PostInvalidDataException, PostNotFoundException {
-		// Verificar si el post existe
-		Post existingPost = postRepo.findById(id).orElseThrow(() -> new PostNotFoundException("Post not found"));
-
+	public Post updatePost(String id, Post post)
+			throws PostInvalidDataException, PostNotFoundException, PostAlreadyExistsException {
 		// Validar los datos del post
 		if (post.getTitle() == null || post.getTitle().trim().isEmpty()) {
 			throw new PostInvalidDataException("Title is required");
@@ -158,15 +501,45 @@ public class PostServiceImpl implements PostService {
 			throw new PostInvalidDataException("Summary is required");
 		}
 
-		// Actualizar los campos del post
-		existingPost.setTitle(post.getTitle());
-		existingPost.setSummary(post.getSummary());
-		existingPost.setTags(post.getTags());
-		existingPost.setPdfUrl(post.getPdfUrl());
-		existingPost.setVisible(post.isVisible());
+		// Sustituir los campos editables del post
+		Map<String, Object> changes = new HashMap<>();
+		changes.put("title", post.getTitle());
+		changes.put("titleKey", TextNormalizer.titleKey(post.getTitle()));
+		changes.put("summary", post.getSummary());
+		changes.put("tags", post.getTags());
+		changes.put("pdfUrl", post.getPdfUrl());
+		changes.put("visible", post.isVisible());
 
-		// Guardar el post actualizado
-		return postRepo.save(existingPost);
+		return applyChanges(id, changes);
+	}
+
+	/**
+     * Aplica a un post un parche JSON Merge Patch (RFC 7396) con una única modificación atómica
+     * de los campos presentes en el parche.
+     * 
+     * @param id El ID del post a modificar.
+     * @param patch Los campos a modificar: title, summary, pdfUrl, tags y visible.
+     * @return El post modificado.
+     * @throws PostNotFoundException Si no se encuentra un post con el ID proporcionado.
+     * @throws PostInvalidDataException Si el parche contiene campos desconocidos o valores no válidos.
+     * @throws PostAlreadyExistsException Si el nuevo título ya lo usa otro post.
+     */
+	@Override
+	public Post patchPost(String id, Map<String, Object> patch)
+			throws PostNotFoundException, PostInvalidDataException, PostAlreadyExistsException {
+		// Validar los campos del parche
+		PostValidator.validatePatch(patch);
+
+		// Un parche vacío no modifica el post
+		if (patch.isEmpty()) {
+			return getPostById(id);
+		}
+
+		Map<String, Object> changes = new HashMap<>(patch);
+		if (patch.containsKey("title")) {
+			changes.put("titleKey", TextNormalizer.titleKey((String) patch.get("title")));
+		}
+		return applyChanges(id, changes);
 	}
 
 	/**
@@ -178,14 +551,24 @@ public class PostServiceImpl implements PostService {
      */
 	@Override
 	public void setPostVisibility(String id, boolean visible) throws PostNotFoundException {
-		// Verificar si el post existe
-		Post existingPost = postRepo.findById(id).orElseThrow(() -> new PostNotFoundException("Post not found"));
-
-		// Actualizar la visibilidad
-		existingPost.setVisible(visible);
+		// Actualizar solo la visibilidad, sin leer ni reescribir el post completo
+		applyChanges(id, Map.of("visible", visible));
+	}
 
-		// Guardar el post con la nueva visibilidad
-		postRepo.save(existingPost);
+	/**
+	 * Modifica los campos indicados con una única operación atómica y notifica el post resultante
+	 * a las estructuras en memoria.
+	 */
+	private Post applyChanges(String id, Map<String, Object> changes) {
+		Post savedPost;
+		try {
+			savedPost = postRepo.updateFields(id, changes)
+					.orElseThrow(() -> new PostNotFoundException("Post not found"));
+		} catch (DuplicateKeyException e) {
+			throw new PostAlreadyExistsException("Ya existe un post con el título: " + changes.get("title"));
+		}
+		eventPublisher.publishEvent(new PostChangedEvent(savedPost));
+		return savedPost;
 	}
 
 }
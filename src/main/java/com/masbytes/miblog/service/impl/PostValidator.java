@@ -0,0 +1,65 @@
+package com.masbytes.miblog.service.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.exception.PostInvalidDataException;
+
+/**
+ * Reglas de validación de los datos de un post, compartidas por la creación individual y la masiva.
+ */
+final class PostValidator {
+
+	/**
+	 * Campos de texto obligatorios que admite un parche.
+	 */
+	private static final Set<String> PATCH_TEXT_FIELDS = Set.of("title", "summary", "pdfUrl");
+
+	private PostValidator() {
+	}
+
+	/**
+	 * Valida los datos obligatorios de un post nuevo.
+	 * 
+	 * @param post El post a validar.
+	 * @throws PostInvalidDataException Si falta el título, el resumen o la URL del PDF.
+	 */
+	static void validateNewPost(Post post) throws PostInvalidDataException {
+		if (post.getTitle() == null || post.getTitle().isBlank() || post.getPdfUrl() == null
+				|| post.getPdfUrl().isBlank() || post.getSummary() == null || post.getSummary().isBlank()) {
+			throw new PostInvalidDataException("El título, resumen y URL del PDF son obligatorios.");
+		}
+	}
+
+	/**
+	 * Valida un parche JSON Merge Patch sobre un post: solo admite los campos editables, no permite
+	 * vaciar los obligatorios y comprueba el tipo de cada valor.
+	 * 
+	 * @param patch Los campos del parche.
+	 * @throws PostInvalidDataException Si el parche contiene un campo desconocido o un valor no válido.
+	 */
+	static void validatePatch(Map<String, Object> patch) throws PostInvalidDataException {
+		for (Map.Entry<String, Object> entry : patch.entrySet()) {
+			String field = entry.getKey();
+			Object value = entry.getValue();
+			if (PATCH_TEXT_FIELDS.contains(field)) {
+				if (!(value instanceof String text) || text.isBlank()) {
+					throw new PostInvalidDataException("El campo " + field + " es obligatorio.");
+				}
+			} else if ("tags".equals(field)) {
+				if (value != null && !(value instanceof List<?> tags && tags.stream().allMatch(String.class::isInstance))) {
+					throw new PostInvalidDataException("Las etiquetas deben ser una lista de textos.");
+				}
+			} else if ("visible".equals(field)) {
+				if (!(value instanceof Boolean)) {
+					throw new PostInvalidDataException("La visibilidad debe ser true o false.");
+				}
+			} else {
+				throw new PostInvalidDataException("El campo " + field + " no se puede modificar.");
+			}
+		}
+	}
+
+}
@@ -0,0 +1,395 @@
+package com.masbytes.miblog.service.impl;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import com.masbytes.miblog.dto.ArchiveBucket;
+import com.masbytes.miblog.dto.ArchiveQuery;
+import com.masbytes.miblog.dto.PostCursor;
+import com.masbytes.miblog.dto.PostPage;
+import com.masbytes.miblog.dto.PostVersion;
+import com.masbytes.miblog.dto.ScoredPost;
+import com.masbytes.miblog.dto.TagFacet;
+import com.masbytes.miblog.dto.TagQuery;
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.event.PostChangedEvent;
+import com.masbytes.miblog.exception.PostAlreadyExistsException;
+import com.masbytes.miblog.exception.PostInvalidDataException;
+import com.masbytes.miblog.exception.PostNotFoundException;
+import com.masbytes.miblog.repo.ReactivePostRepo;
+import com.masbytes.miblog.service.ReactivePostService;
+import com.masbytes.miblog.service.index.TextNormalizer;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Implementación reactiva del servicio de posts sobre {@link ReactivePostRepo}.
+ * Aplica las mismas validaciones y las mismas consultas que {@link PostServiceImpl}, pero sin
+ * bloquear: cada método devuelve la operación pendiente y la base de datos solo se consulta al
+ * suscribirse. Las lecturas van siempre a MongoDB: la caché, los índices y el catálogo en memoria
+ * no existen en este perfil. Cada escritura publica igualmente su {@link PostChangedEvent}, fuera
+ * del bucle de eventos, para los oyentes que sí existen (como la extracción del texto).
+ */
+@Service
+@Profile("reactive")
+public class ReactivePostServiceImpl implements ReactivePostService {
+
+	private final ReactivePostRepo postRepo;
+
+	private final ApplicationEventPublisher eventPublisher;
+
+	public ReactivePostServiceImpl(ReactivePostRepo postRepo, ApplicationEventPublisher eventPublisher) {
+		this.postRepo = postRepo;
+		this.eventPublisher = eventPublisher;
+	}
+
+	/**
+     * Crea un nuevo post en el sistema. La unicidad del título la garantiza el índice único
+     * sobre su clave normalizada, por lo que la creación es una sola escritura.
+     *
+     * @param post El post que se desea crear.
+     * @return El post recién creado.
+     */
+	@Override
+	public Mono<Post> createPost(Post post) {
+		return Mono.defer(() -> {
+			// Validar datos obligatorios
+			PostValidator.validateNewPost(post);
+
+			// Asignar clave del título, fechas de creación y modificación y extracción pendiente
+			post.setId(null);
+			post.setTitleKey(TextNormalizer.titleKey(post.getTitle()));
+			post.setCreatedAt(LocalDateTime.now());
+			post.setModifiedAt(LocalDateTime.now());
+			post.setContentPending(true);
+
+			// Guardar en la base de datos; el índice único rechaza los títulos repetidos
+			return postRepo.insert(post);
+		})
+				.onErrorMap(DuplicateKeyException.class,
+						e -> new PostAlreadyExistsException("Ya existe un post con el título: " + post.getTitle()))
+				.flatMap(this::publishChanged);
+	}
+
+	/**
+     * Obtiene un post por su ID.
+     *
+     * @param id El ID del post que se desea obtener.
+     * @return El post correspondiente al ID proporcionado.
+     */
+	@Override
+	public Mono<Post> getPostById(String id) {
+		return postRepo.findById(id)
+				.switchIfEmpty(Mono.error(() -> new PostNotFoundException("Post no encontrado con el ID: " + id)));
+	}
+
+	/**
+     * Obtiene la versión de un post con una consulta que solo lee la versión y la fecha de modificación.
+     *
+     * @param id El ID del post.
+     * @return La versión y la fecha de modificación del post.
+     */
+	@Override
+	public Mono<PostVersion> getPostVersion(String id) {
+		return postRepo.findVersionById(id)
+				.switchIfEmpty(Mono.error(() -> new PostNotFoundException("Post no encontrado con el ID: " + id)));
+	}
+
+	/**
+     * Busca una página de posts que contienen una palabra clave en su título, resumen o etiquetas,
+     * o cuyo archivo contiene todos sus términos.
+     *
+     * @param keyword La palabra clave que se desea buscar.
+     * @param cursor El cursor de la página anterior, o null para la primera página.
+     * @param size El tamaño de página solicitado.
+     * @return La página de posts que contienen la palabra clave.
+     */
+	@Override
+	public Mono<PostPage> searchPostByKeyword(String keyword, String cursor, Integer size) {
+		String regex = PostServiceImpl.keywordRegex(keyword);
+		List<String> tags = List.of(keyword.toLowerCase());
+		List<String> terms = PostServiceImpl.keywordTerms(keyword);
+		return findPage(cursor, size, (after, limit) -> postRepo.findPageByKeyword(regex, tags, terms, after, limit));
+	}
+
+	/**
+     * Busca posts mediante el índice de texto de MongoDB, ordenados por relevancia.
+     *
+     * @param query El texto de búsqueda.
+     * @param size El número máximo de resultados solicitado.
+     * @return Los posts coincidentes con su puntuación, de mayor a menor relevancia.
+     */
+	@Override
+	public Flux<ScoredPost> searchPostsByText(String query, Integer size) {
+		if (query == null || query.isBlank()) {
+			return Flux.error(new PostInvalidDataException("El texto de búsqueda es obligatorio."));
+		}
+		return postRepo.findByTextSearch(query.trim(), PostPage.normalizeSize(size));
+	}
+
+	/**
+     * Busca una página de posts que contienen al menos una de las etiquetas proporcionadas.
+     *
+     * @param tags Una lista de etiquetas para buscar en los posts.
+     * @param cursor El cursor de la página anterior, o null para la primera página.
+     * @param size El tamaño de página solicitado.
+     * @return La página de posts que contienen al menos una de las etiquetas.
+     */
+	@Override
+	public Mono<PostPage> searchPostsByTags(List<String> tags, String cursor, Integer size) {
+		if (tags == null || tags.isEmpty()) {
+			return Mono.just(new PostPage(Collections.emptyList(), null));
+		}
+		return findPage(cursor, size, (after, limit) -> postRepo.findPageByTagsIn(tags, after, limit));
+	}
+
+	/**
+     * Busca una página de posts visibles que cumplen una consulta booleana por etiquetas.
+     *
+     * @param query La consulta por etiquetas.
+     * @param cursor El cursor de la página anterior, o null para la primera página.
+     * @param size El tamaño de página solicitado.
+     * @return La página de posts coincidentes.
+     */
+	@Override
+	public Mono<PostPage> searchPostsByTags(TagQuery query, String cursor, Integer size) {
+		return findPage(cursor, size, (after, limit) -> postRepo.findPageByTagQuery(query, after, limit));
+	}
+
+	/**
+     * Cuenta los posts visibles que cumplen una consulta booleana por etiquetas.
+     *
+     * @param query La consulta por etiquetas.
+     * @return El número total de posts coincidentes.
+     */
+	@Override
+	public Mono<Long> countPostsByTags(TagQuery query) {
+		return postRepo.countByTagQuery(query);
+	}
+
+	/**
+     * Obtiene una página de los posts creados en la fecha indicada.
+     * Si no se proporciona una fecha, se buscan los posts de los últimos 30 días.
+     *
+     * @param fromDate La fecha a partir de la cual se deben buscar los posts.
+     * @param cursor El cursor de la página anterior, o null para la primera página.
+     * @param size El tamaño de página solicitado.
+     * @return La página de posts creados dentro del rango.
+     */
+	@Override
+	public Mono<PostPage> getRecentPosts(LocalDateTime fromDate, String cursor, Integer size) {
+		LocalDateTime startOfRange = PostServiceImpl.startOfRecentRange(fromDate);
+		LocalDateTime endOfRange = PostServiceImpl.endOfRecentRange(fromDate);
+		return findPage(cursor, size,
+				(after, limit) -> postRepo.findPageByCreatedAtBetween(startOfRange, endOfRange, after, limit));
+	}
+
+	/**
+     * Cuenta los posts visibles por año, mes o día de creación con una agregación en MongoDB.
+     *
+     * @param query La unidad, la zona horaria y el rango de fechas.
+     * @return Los periodos con algún post, del más reciente al más antiguo.
+     */
+	@Override
+	public Flux<ArchiveBucket> getArchive(ArchiveQuery query) {
+		return postRepo.countArchive(query);
+	}
+
+	/**
+     * Cuenta los posts visibles de cada etiqueta con una agregación en MongoDB, de todos los posts o
+     * solo de los que encuentra la búsqueda por palabra clave o la de posts recientes de una fecha.
+     *
+     * @param keyword (Opcional) Palabra clave de la búsqueda cuyos resultados se cuentan.
+     * @param fromDate (Opcional) Fecha de los posts recientes cuyos resultados se cuentan.
+     * @return Las etiquetas con algún post, de la más usada a la menos usada.
+     */
+	@Override
+	public Flux<TagFacet> getTagFacets(String keyword, LocalDateTime fromDate) {
+		boolean byKeyword = keyword != null && !keyword.isBlank();
+		if (byKeyword && fromDate != null) {
+			return Flux.error(new PostInvalidDataException(
+					"Las etiquetas se cuentan por palabra clave o por fecha, no por ambas."));
+		}
+		if (byKeyword) {
+			return postRepo.countTagsByKeyword(PostServiceImpl.keywordRegex(keyword), List.of(keyword.toLowerCase()),
+					PostServiceImpl.keywordTerms(keyword));
+		}
+		if (fromDate != null) {
+			return postRepo.countTagsByCreatedAtBetween(PostServiceImpl.startOfRecentRange(fromDate),
+					PostServiceImpl.endOfRecentRange(fromDate));
+		}
+		return postRepo.countTags();
+	}
+
+	/**
+     * Recorre los posts que contienen una palabra clave en su título, resumen o etiquetas, o cuyo
+     * archivo contiene todos sus términos.
+     *
+     * @param keyword La palabra clave que se desea buscar.
+     * @return Los posts coincidentes, leídos del cursor según la demanda.
+     */
+	@Override
+	public Flux<Post> streamPostsByKeyword(String keyword) {
+		return postRepo.findByKeyword(PostServiceImpl.keywordRegex(keyword), List.of(keyword.toLowerCase()),
+				PostServiceImpl.keywordTerms(keyword));
+	}
+
+	/**
+     * Recorre los posts que contienen al menos una de las etiquetas proporcionadas.
+     *
+     * @param tags Una lista de etiquetas para buscar en los posts.
+     * @return Los posts coincidentes, leídos del cursor según la demanda.
+     */
+	@Override
+	public Flux<Post> streamPostsByTags(List<String> tags) {
+		if (tags == null || tags.isEmpty()) {
+			return Flux.empty();
+		}
+		return postRepo.findByVisibleTrueAndTagsInOrderByCreatedAtDesc(tags);
+	}
+
+	/**
+     * Recorre los posts visibles que cumplen una consulta booleana por etiquetas.
+     *
+     * @param query La consulta por etiquetas.
+     * @return Los posts coincidentes, leídos del cursor según la demanda.
+     */
+	@Override
+	public Flux<Post> streamPostsByTags(TagQuery query) {
+		return postRepo.findByTagQuery(query);
+	}
+
+	/**
+     * Recorre los posts creados en la fecha indicada.
+     * Si no se proporciona una fecha, se recorren los posts de los últimos 30 días.
+     *
+     * @param fromDate La fecha a partir de la cual se deben buscar los posts.
+     * @return Los posts creados dentro del rango, leídos del cursor según la demanda.
+     */
+	@Override
+	public Flux<Post> streamRecentPosts(LocalDateTime fromDate) {
+		return postRepo.findByVisibleTrueAndCreatedAtBetweenOrderByCreatedAtDesc(
+				PostServiceImpl.startOfRecentRange(fromDate), PostServiceImpl.endOfRecentRange(fromDate));
+	}
+
+	/**
+     * Actualiza un post existente con una única modificación atómica de sus campos editables.
+     *
+     * @param id El ID del post que se desea actualizar.
+     * @param post El post con los nuevos datos para actualizar.
+     * @return El post actualizado.
+     */
+	@Override
+	public Mono<Post> updatePost(String id, Post post) {
+		return Mono.defer(() -> {
+			// Validar los datos del post
+			if (post.getTitle() == null || post.getTitle().trim().isEmpty()) {
+				throw new PostInvalidDataException("Title is required");
+			}
+			if (post.getSummary() == null || post.getSummary().trim().isEmpty()) {
+				throw new PostInvalidDataException("Summary is required");
+			}
+
+			// Sustituir los campos editables del post
+			Map<String, Object> changes = new HashMap<>();
+			changes.put("title", post.getTitle());
+			changes.put("titleKey", TextNormalizer.titleKey(post.getTitle()));
+			changes.put("summary", post.getSummary());
+			changes.put("tags", post.getTags());
+			changes.put("pdfUrl", post.getPdfUrl());
+			changes.put("visible", post.isVisible());
+			return applyChanges(id, changes);
+		});
+	}
+
+	/**
+     * Aplica a un post un parche JSON Merge Patch (RFC 7396) con una única modificación atómica.
+     *
+     * @param id El ID del post a modificar.
+     * @param patch Los campos a modificar: title, summary, pdfUrl, tags y visible.
+     * @return El post modificado.
+     */
+	@Override
+	public Mono<Post> patchPost(String id, Map<String, Object> patch) {
+		return Mono.defer(() -> {
+			// Validar los campos del parche
+			PostValidator.validatePatch(patch);
+
+			// Un parche vacío no modifica el post
+			if (patch.isEmpty()) {
+				return getPostById(id);
+			}
+
+			Map<String, Object> changes = new HashMap<>(patch);
+			if (patch.containsKey("title")) {
+				changes.put("titleKey", TextNormalizer.titleKey((String) patch.get("title")));
+			}
+			return applyChanges(id, changes);
+		});
+	}
+
+	/**
+     * Actualiza la visibilidad de un post.
+     *
+     * @param id El ID del post cuya visibilidad se desea cambiar.
+     * @param visible El nuevo estado de visibilidad (true o false).
+     * @return Vacío al terminar.
+     */
+	@Override
+	public Mono<Void> setPostVisibility(String id, boolean visible) {
+		return applyChanges(id, Map.of("visible", visible)).then();
+	}
+
+	/**
+	 * Modifica los campos indicados con una única operación atómica y notifica el post resultante
+	 * a las estructuras en memoria.
+	 */
+	private Mono<Post> applyChanges(String id, Map<String, Object> changes) {
+		return postRepo.updateFields(id, changes)
+				.onErrorMap(DuplicateKeyException.class,
+						e -> new PostAlreadyExistsException("Ya existe un post con el título: " + changes.get("title")))
+				.switchIfEmpty(Mono.error(() -> new PostNotFoundException("Post not found")))
+				.flatMap(this::publishChanged);
+	}
+
+	/**
+	 * Publica el {@link PostChangedEvent} del post guardado en un hilo de
+	 * {@link Schedulers#boundedElastic()}: los oyentes se ejecutan de forma síncrona y no deben
+	 * ocupar el hilo del bucle de eventos. El post se emite cuando todos han terminado.
+	 */
+	private Mono<Post> publishChanged(Post savedPost) {
+		return Mono.fromRunnable(() -> eventPublisher.publishEvent(new PostChangedEvent(savedPost)))
+				.subscribeOn(Schedulers.boundedElastic())
+				.thenReturn(savedPost);
+	}
+
+	/**
+	 * Lee una página por conjunto de claves: decodifica el cursor, pide un post de más para saber
+	 * si existe una página siguiente y reúne el resultado. Un cursor no válido se emite como error.
+	 */
+	private Mono<PostPage> findPage(String cursor, Integer size, PageQuery query) {
+		return Mono.defer(() -> {
+			PostCursor after = PostCursor.decode(cursor);
+			int pageSize = PostPage.normalizeSize(size);
+			return query.find(after, pageSize + 1).collectList().map(fetched -> PostPage.of(fetched, pageSize));
+		});
+	}
+
+	@FunctionalInterface
+	private interface PageQuery {
+
+		Flux<Post> find(PostCursor after, int limit);
+
+	}
+
+}
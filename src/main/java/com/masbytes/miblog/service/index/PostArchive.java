@@ -0,0 +1,218 @@
+package com.masbytes.miblog.service.index;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.masbytes.miblog.dto.ArchiveBucket;
+import com.masbytes.miblog.dto.ArchiveQuery;
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.event.PostChangedEvent;
+import com.masbytes.miblog.event.PostRevision;
+import com.masbytes.miblog.repo.PostRepo;
+
+/**
+ * Archivo de posts en memoria: número de posts visibles por cuarto de hora de creación, en UTC,
+ * con el que se responden los recuentos por año, mes o día recorriendo solo los cuartos de hora del
+ * rango con algún post, sin leer los posts.
+ *
+ * Los días dependen de la zona horaria (un post de las 23:30 en Madrid es del día siguiente en
+ * Tokio), pero todas las diferencias horarias en uso son múltiplos de 15 minutos, así que cada
+ * cuarto de hora cae entero dentro de un mismo día en cualquier zona: un único recuento sirve para
+ * todas, y cada consulta asigna los cuartos de hora a los periodos de la zona pedida. Cada creación,
+ * ocultación o vuelta a mostrar un post actualiza ese recuento.
+ *
+ * Los eventos de escrituras concurrentes pueden llegar desordenados: el archivo recuerda la
+ * {@link PostRevision} aplicada de cada post y descarta los eventos que no son posteriores a ella,
+ * que de otro modo volverían a contar un post ya oculto.
+ *
+ * Solo se construye y mantiene si {@code miblog.archive.index.enabled=true}, y no se usa hasta que
+ * termina de construirse al arrancar la aplicación; hasta entonces los recuentos van a MongoDB.
+ */
+@Component
+@Profile("!reactive")
+public class PostArchive {
+
+	private static final long QUARTER_MILLIS = Duration.ofMinutes(15).toMillis();
+
+	private final PostRepo postRepo;
+
+	private final boolean enabled;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/**
+	 * Instante de creación, en milisegundos, de cada post visible contado.
+	 */
+	private final Map<String, Long> created = new HashMap<>();
+
+	/**
+	 * Número de posts por cuarto de hora de creación, numerados desde el 1 de enero de 1970 en UTC;
+	 * solo guarda los cuartos de hora con algún post.
+	 */
+	private final NavigableMap<Long, Long> quarters = new TreeMap<>();
+
+	/**
+	 * Última revisión aplicada de cada post.
+	 */
+	private final Map<String, PostRevision> revisions = new HashMap<>();
+
+	private volatile boolean built;
+
+	public PostArchive(PostRepo postRepo, @Value("${miblog.archive.index.enabled:false}") boolean enabled) {
+		this.postRepo = postRepo;
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Indica si las consultas del archivo deben resolverse con esta estructura.
+	 *
+	 * @return true si el archivo en memoria está activado y ya se ha construido.
+	 */
+	public boolean isEnabled() {
+		return enabled && built;
+	}
+
+	/**
+	 * Carga las fechas de creación de los posts visibles al arrancar la aplicación.
+	 * Las escrituras que lleguen mientras tanto esperan a que termine la carga.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		if (!enabled) {
+			return;
+		}
+		lock.writeLock().lock();
+		try (Stream<Post> posts = postRepo.streamVisibleCreatedAt()) {
+			created.clear();
+			quarters.clear();
+			revisions.clear();
+			posts.forEach(post -> {
+				revisions.put(post.getId(), PostRevision.of(post));
+				if (post.getCreatedAt() != null) {
+					long millis = toEpochMilli(post.getCreatedAt());
+					created.put(post.getId(), millis);
+					add(millis, 1);
+				}
+			});
+			built = true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Refleja en el archivo la creación de un post o un cambio de su visibilidad, salvo que su
+	 * revisión no sea posterior a la ya aplicada.
+	 *
+	 * @param event El evento con el post guardado.
+	 */
+	@EventListener
+	public void onPostChanged(PostChangedEvent event) {
+		if (!enabled) {
+			return;
+		}
+		Post post = event.getPost();
+		Long current = post.isVisible() && post.getCreatedAt() != null ? toEpochMilli(post.getCreatedAt()) : null;
+		PostRevision revision = PostRevision.of(post);
+		lock.writeLock().lock();
+		try {
+			if (!revision.isAfter(revisions.get(post.getId()))) {
+				return;
+			}
+			revisions.put(post.getId(), revision);
+			Long previous = current == null ? created.remove(post.getId()) : created.put(post.getId(), current);
+			// La mayoría de las modificaciones no cambian la visibilidad ni la fecha: no hay nada que recontar
+			if (Objects.equals(previous, current)) {
+				return;
+			}
+			if (previous != null) {
+				add(previous, -1);
+			}
+			if (current != null) {
+				add(current, 1);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Cuenta los posts visibles por periodo de creación, asignando cada cuarto de hora del rango al
+	 * periodo de la zona pedida.
+	 *
+	 * @param query La unidad, la zona horaria y el rango de fechas.
+	 * @return Los periodos con algún post, del más reciente al más antiguo.
+	 */
+	public List<ArchiveBucket> count(ArchiveQuery query) {
+		ZoneId zone = query.getZone();
+		Map<String, Long> periods = new LinkedHashMap<>();
+		lock.readLock().lock();
+		try {
+			NavigableMap<Long, Long> range = quarters;
+			if (query.getFrom() != null) {
+				range = range.tailMap(quarterOf(query.getFrom().atStartOfDay(zone)), true);
+			}
+			if (query.getTo() != null) {
+				range = range.headMap(quarterOf(query.getTo().plusDays(1).atStartOfDay(zone)), false);
+			}
+			// Los cuartos de hora consecutivos suelen ser del mismo día: solo se recalcula al cambiar de día
+			long dayStart = Long.MAX_VALUE;
+			String period = null;
+			for (Map.Entry<Long, Long> entry : range.descendingMap().entrySet()) {
+				if (entry.getKey() < dayStart) {
+					LocalDate day = LocalDate.ofInstant(Instant.ofEpochMilli(entry.getKey() * QUARTER_MILLIS), zone);
+					dayStart = quarterOf(day.atStartOfDay(zone));
+					period = query.getUnit().period(day);
+				}
+				periods.merge(period, entry.getValue(), Long::sum);
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+
+		List<ArchiveBucket> buckets = new ArrayList<>(periods.size());
+		periods.forEach((key, count) -> buckets.add(new ArchiveBucket(key, count)));
+		return buckets;
+	}
+
+	/**
+	 * Suma al cuarto de hora del instante, retirándolo si se queda sin posts. Debe llamarse con el
+	 * bloqueo de escritura.
+	 */
+	private void add(long epochMilli, int delta) {
+		quarters.compute(Math.floorDiv(epochMilli, QUARTER_MILLIS), (key, count) -> {
+			long updated = (count == null ? 0 : count) + delta;
+			return updated == 0 ? null : updated;
+		});
+	}
+
+	private static long quarterOf(ZonedDateTime dateTime) {
+		return Math.floorDiv(dateTime.toInstant().toEpochMilli(), QUARTER_MILLIS);
+	}
+
+	private static long toEpochMilli(LocalDateTime createdAt) {
+		return createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+	}
+
+}
@@ -0,0 +1,428 @@
+package com.masbytes.miblog.service.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.masbytes.miblog.dto.PostCursor;
+import com.masbytes.miblog.dto.ScoredPost;
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.event.PostChangedEvent;
+import com.masbytes.miblog.event.PostRevision;
+import com.masbytes.miblog.repo.PostRepo;
+
+/**
+ * Índice invertido en memoria sobre el título, el resumen, las etiquetas y los términos extraídos
+ * del archivo de los posts visibles.
+ * Permite resolver las búsquedas por palabra clave sin consultar la base de datos, puntuando
+ * los resultados con BM25.
+ *
+ * Cada término de la consulta debe aparecer como palabra completa, salvo el último, que basta con
+ * que sea el principio de una palabra (para buscar mientras se escribe): el diccionario de
+ * términos está ordenado y sus palabras se localizan con un recorrido por rango. La búsqueda en
+ * MongoDB, en cambio, encuentra la palabra clave en cualquier posición del texto.
+ *
+ * Cada post recibe un ordinal creciente; las listas de apariciones de cada término guardan los
+ * ordinales y frecuencias en arrays de enteros ordenados. Al modificar un post se marca su ordinal
+ * anterior como eliminado y se añade con uno nuevo; cuando los ordinales eliminados superan a los
+ * vivos, el índice se compacta a partir de los posts que ya tiene en memoria.
+ *
+ * Los eventos de escrituras concurrentes pueden llegar desordenados: el índice recuerda la
+ * {@link PostRevision} aplicada de cada post, también de los ocultos, y descarta los eventos que no
+ * son posteriores a ella.
+ *
+ * Solo se construye y mantiene si {@code miblog.search.index.enabled=true}, y no se usa hasta que
+ * termina de construirse al arrancar la aplicación; hasta entonces las búsquedas van a MongoDB.
+ */
+@Component
+@Profile("!reactive")
+public class PostSearchIndex {
+
+	static final int TITLE_WEIGHT = 2;
+	static final int TAG_WEIGHT = 2;
+	static final int SUMMARY_WEIGHT = 1;
+	static final int CONTENT_WEIGHT = 1;
+
+	private static final double K1 = 1.2;
+	private static final double B = 0.75;
+	private static final int INITIAL_CAPACITY = 1024;
+
+	private final PostRepo postRepo;
+
+	private final boolean enabled;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final NavigableMap<String, Postings> postings = new TreeMap<>();
+
+	private final Map<String, Integer> ordinals = new HashMap<>();
+
+	private final BitSet live = new BitSet();
+
+	/**
+	 * Última revisión aplicada de cada post; se conserva al compactar.
+	 */
+	private final Map<String, PostRevision> revisions = new HashMap<>();
+
+	private Post[] documents = new Post[INITIAL_CAPACITY];
+
+	private int[] lengths = new int[INITIAL_CAPACITY];
+
+	private int nextOrdinal;
+
+	private int liveCount;
+
+	private long liveLength;
+
+	private volatile boolean built;
+
+	public PostSearchIndex(PostRepo postRepo, @Value("${miblog.search.index.enabled:false}") boolean enabled) {
+		this.postRepo = postRepo;
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Indica si las búsquedas por palabra clave deben resolverse con este índice.
+	 *
+	 * @return true si el índice está activado y ya se ha construido.
+	 */
+	public boolean isEnabled() {
+		return enabled && built;
+	}
+
+	/**
+	 * Construye el índice con todos los posts visibles al arrancar la aplicación.
+	 * Las escrituras que lleguen mientras tanto esperan a que termine la carga.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		if (!enabled) {
+			return;
+		}
+		lock.writeLock().lock();
+		try (Stream<Post> posts = postRepo.streamByVisibleTrue()) {
+			clear();
+			revisions.clear();
+			posts.forEach(post -> {
+				revisions.put(post.getId(), PostRevision.of(post));
+				add(post);
+			});
+			built = true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Refleja en el índice la creación o modificación de un post, salvo que su revisión no sea
+	 * posterior a la ya aplicada.
+	 *
+	 * @param event El evento con el post guardado.
+	 */
+	@EventListener
+	public void onPostChanged(PostChangedEvent event) {
+		if (!enabled) {
+			return;
+		}
+		Post post = event.getPost();
+		PostRevision revision = PostRevision.of(post);
+		lock.writeLock().lock();
+		try {
+			if (!revision.isAfter(revisions.get(post.getId()))) {
+				return;
+			}
+			revisions.put(post.getId(), revision);
+			remove(post.getId());
+			if (post.isVisible()) {
+				add(post);
+			}
+			if (nextOrdinal - liveCount > Math.max(liveCount, INITIAL_CAPACITY)) {
+				compact();
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Busca los posts que contienen todos los términos de la consulta, ordenados por relevancia.
+	 *
+	 * @param query El texto de búsqueda.
+	 * @param limit El número máximo de resultados, o 0 para devolverlos todos.
+	 * @return Los posts coincidentes con su puntuación BM25, de mayor a menor.
+	 */
+	public List<ScoredPost> search(String query, int limit) {
+		lock.readLock().lock();
+		try {
+			Comparator<ScoredPost> byScore = Comparator.comparingDouble(ScoredPost::getScore).reversed()
+					.thenComparing(ScoredPost::getPost, PostCursor.NEWEST_FIRST);
+			List<ScoredPost> results = match(query);
+			if (limit > 0 && results.size() > limit) {
+				return top(results, byScore, limit);
+			}
+			results.sort(byScore);
+			return results;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Devuelve una página de los posts que contienen todos los términos de la consulta, en el
+	 * mismo orden {@code (createdAt DESC, id DESC)} que la paginación por cursor de MongoDB.
+	 *
+	 * @param query El texto de búsqueda.
+	 * @param after El cursor de la página anterior, o null para la primera página.
+	 * @param limit El número máximo de posts a devolver.
+	 * @return Los posts de la página.
+	 */
+	public List<Post> findPage(String query, PostCursor after, int limit) {
+		List<Post> matches = new ArrayList<>();
+		lock.readLock().lock();
+		try {
+			for (ScoredPost match : match(query)) {
+				if (after == null || after.isBefore(match.getPost())) {
+					matches.add(match.getPost());
+				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		return top(matches, PostCursor.NEWEST_FIRST, limit);
+	}
+
+	/**
+	 * Los {@code limit} primeros elementos en el orden indicado, con un montículo que tiene el peor
+	 * candidato en la cabeza: solo se ordenan esos, no todas las coincidencias.
+	 */
+	private static <T> List<T> top(List<T> items, Comparator<? super T> order, int limit) {
+		PriorityQueue<T> top = new PriorityQueue<>(limit + 1, order.reversed());
+		for (T item : items) {
+			top.offer(item);
+			if (top.size() > limit) {
+				top.poll();
+			}
+		}
+		List<T> page = new ArrayList<>(top);
+		page.sort(order);
+		return page;
+	}
+
+	/**
+	 * Número de posts visibles indexados.
+	 *
+	 * @return El número de posts en el índice.
+	 */
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return liveCount;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Intersección de las listas de apariciones de los términos, recorriendo la más corta y
+	 * buscando el resto por búsqueda binaria; el último término se sustituye por la unión de las
+	 * listas de los términos que empiezan por él. Debe llamarse con el bloqueo de lectura.
+	 */
+	private List<ScoredPost> match(String query) {
+		List<String> tokens = TextNormalizer.tokenize(query);
+		if (tokens.isEmpty() || liveCount == 0) {
+			return new ArrayList<>();
+		}
+		String prefix = tokens.get(tokens.size() - 1);
+		LinkedHashSet<String> terms = new LinkedHashSet<>(tokens);
+		terms.remove(prefix);
+
+		Postings[] lists = new Postings[terms.size() + 1];
+		double[] idf = new double[lists.length];
+		int i = 0;
+		for (String term : terms) {
+			lists[i++] = postings.get(term);
+		}
+		lists[i] = prefixed(prefix);
+		for (Postings list : lists) {
+			if (list == null) {
+				return new ArrayList<>();
+			}
+		}
+		Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+		for (i = 0; i < lists.length; i++) {
+			// La frecuencia documental incluye ordinales eliminados hasta la siguiente compactación
+			double df = Math.min(lists[i].size, liveCount);
+			idf[i] = Math.log(1 + (liveCount - df + 0.5) / (df + 0.5));
+		}
+
+		double averageLength = (double) liveLength / liveCount;
+		List<ScoredPost> results = new ArrayList<>();
+		Postings rarest = lists[0];
+		for (int p = 0; p < rarest.size; p++) {
+			int doc = rarest.docs[p];
+			if (!live.get(doc)) {
+				continue;
+			}
+			double norm = K1 * (1 - B + B * lengths[doc] / averageLength);
+			double score = bm25(rarest.freqs[p], norm, idf[0]);
+			for (int j = 1; j < lists.length && score >= 0; j++) {
+				int freq = lists[j].frequencyOf(doc);
+				score = freq == 0 ? -1 : score + bm25(freq, norm, idf[j]);
+			}
+			if (score >= 0) {
+				results.add(new ScoredPost(documents[doc], score));
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Lista de apariciones de los términos que empiezan por el prefijo, sumando las frecuencias de
+	 * cada post, o null si no hay ninguno. Las apariciones se empaquetan en un array de
+	 * {@code long} (ordinal en la mitad alta, frecuencia en la baja) que se ordena y se recorre una
+	 * vez, sin enteros encapsulados.
+	 */
+	private Postings prefixed(String prefix) {
+		SortedMap<String, Postings> range = postings.subMap(prefix, prefix + Character.MAX_VALUE);
+		if (range.size() <= 1) {
+			return range.isEmpty() ? null : range.get(range.firstKey());
+		}
+		int total = 0;
+		for (Postings list : range.values()) {
+			total += list.size;
+		}
+		long[] entries = new long[total];
+		int n = 0;
+		for (Postings list : range.values()) {
+			for (int p = 0; p < list.size; p++) {
+				entries[n++] = (long) list.docs[p] << 32 | list.freqs[p];
+			}
+		}
+		Arrays.sort(entries);
+
+		Postings union = new Postings();
+		for (int e = 0; e < total; e++) {
+			int doc = (int) (entries[e] >>> 32);
+			int freq = (int) entries[e];
+			if (union.size > 0 && union.docs[union.size - 1] == doc) {
+				union.freqs[union.size - 1] += freq;
+			} else {
+				union.add(doc, freq);
+			}
+		}
+		return union;
+	}
+
+	private static double bm25(int freq, double norm, double idf) {
+		return idf * freq * (K1 + 1) / (freq + norm);
+	}
+
+	private void add(Post post) {
+		Map<String, Integer> frequencies = new HashMap<>();
+		addTerms(frequencies, post.getTitle(), TITLE_WEIGHT);
+		addTerms(frequencies, post.getSummary(), SUMMARY_WEIGHT);
+		if (post.getTags() != null) {
+			post.getTags().forEach(tag -> addTerms(frequencies, tag, TAG_WEIGHT));
+		}
+		if (post.getContentTerms() != null) {
+			// Los términos del archivo ya están normalizados y sin repetir
+			post.getContentTerms().forEach(term -> frequencies.merge(term, CONTENT_WEIGHT, Integer::sum));
+		}
+
+		int ordinal = nextOrdinal++;
+		if (ordinal == documents.length) {
+			documents = Arrays.copyOf(documents, ordinal * 2);
+			lengths = Arrays.copyOf(lengths, ordinal * 2);
+		}
+		int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+		documents[ordinal] = post;
+		lengths[ordinal] = length;
+		live.set(ordinal);
+		ordinals.put(post.getId(), ordinal);
+		liveCount++;
+		liveLength += length;
+		frequencies.forEach((term, freq) -> postings.computeIfAbsent(term, t -> new Postings()).add(ordinal, freq));
+	}
+
+	private static void addTerms(Map<String, Integer> frequencies, String text, int weight) {
+		for (String token : TextNormalizer.tokenize(text)) {
+			frequencies.merge(token, weight, Integer::sum);
+		}
+	}
+
+	private void remove(String id) {
+		Integer ordinal = ordinals.remove(id);
+		if (ordinal == null) {
+			return;
+		}
+		live.clear(ordinal);
+		documents[ordinal] = null;
+		liveCount--;
+		liveLength -= lengths[ordinal];
+	}
+
+	private void compact() {
+		List<Post> posts = new ArrayList<>(liveCount);
+		for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+			posts.add(documents[doc]);
+		}
+		clear();
+		posts.forEach(this::add);
+	}
+
+	private void clear() {
+		postings.clear();
+		ordinals.clear();
+		live.clear();
+		documents = new Post[INITIAL_CAPACITY];
+		lengths = new int[INITIAL_CAPACITY];
+		nextOrdinal = 0;
+		liveCount = 0;
+		liveLength = 0;
+	}
+
+	/**
+	 * Lista de apariciones de un término: ordinales crecientes y su frecuencia ponderada.
+	 */
+	private static final class Postings {
+
+		private int[] docs = new int[4];
+		private int[] freqs = new int[4];
+		private int size;
+
+		void add(int doc, int freq) {
+			if (size == docs.length) {
+				docs = Arrays.copyOf(docs, size * 2);
+				freqs = Arrays.copyOf(freqs, size * 2);
+			}
+			docs[size] = doc;
+			freqs[size] = freq;
+			size++;
+		}
+
+		int frequencyOf(int doc) {
+			int position = Arrays.binarySearch(docs, 0, size, doc);
+			return position < 0 ? 0 : freqs[position];
+		}
+
+	}
+
+}
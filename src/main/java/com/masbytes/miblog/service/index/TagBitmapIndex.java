@@ -0,0 +1,275 @@
+package com.masbytes.miblog.service.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.masbytes.miblog.dto.PostCursor;
+import com.masbytes.miblog.dto.TagQuery;
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.event.PostChangedEvent;
+import com.masbytes.miblog.event.PostRevision;
+import com.masbytes.miblog.repo.PostRepo;
+
+/**
+ * Índice en memoria de etiquetas a bitmaps comprimidos (Roaring) de ordinales de posts visibles.
+ * Resuelve las consultas {@link TagQuery} con intersecciones, uniones y diferencias de bitmaps,
+ * y cuenta los resultados sin materializarlos.
+ *
+ * Los ordinales son densos: los que quedan libres al ocultar un post se reutilizan, de modo que
+ * los bitmaps se mantienen compactos aunque haya cientos de miles de posts.
+ *
+ * Los eventos de escrituras concurrentes pueden llegar desordenados: el índice recuerda la
+ * {@link PostRevision} aplicada de cada post, también de los ocultos, y descarta los eventos que no
+ * son posteriores a ella.
+ *
+ * Solo se construye y mantiene si {@code miblog.tags.index.enabled=true}, y no se usa hasta que
+ * termina de construirse al arrancar la aplicación; hasta entonces las consultas van a MongoDB.
+ */
+@Component
+@Profile("!reactive")
+public class TagBitmapIndex {
+
+	private static final int INITIAL_CAPACITY = 1024;
+
+	private final PostRepo postRepo;
+
+	private final boolean enabled;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Map<String, RoaringBitmap> tags = new HashMap<>();
+
+	private final Map<String, Integer> ordinals = new HashMap<>();
+
+	private final RoaringBitmap visible = new RoaringBitmap();
+
+	private final RoaringBitmap freeOrdinals = new RoaringBitmap();
+
+	/**
+	 * Última revisión aplicada de cada post.
+	 */
+	private final Map<String, PostRevision> revisions = new HashMap<>();
+
+	private Post[] documents = new Post[INITIAL_CAPACITY];
+
+	/**
+	 * Copia de las etiquetas indexadas de cada ordinal, para poder retirarlas aunque el objeto
+	 * del post se modifique fuera del índice.
+	 */
+	private String[][] indexedTags = new String[INITIAL_CAPACITY][];
+
+	private int nextOrdinal;
+
+	private volatile boolean built;
+
+	public TagBitmapIndex(PostRepo postRepo, @Value("${miblog.tags.index.enabled:false}") boolean enabled) {
+		this.postRepo = postRepo;
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Indica si las consultas por etiquetas deben resolverse con este índice.
+	 *
+	 * @return true si el índice está activado y ya se ha construido.
+	 */
+	public boolean isEnabled() {
+		return enabled && built;
+	}
+
+	/**
+	 * Construye el índice con todos los posts visibles al arrancar la aplicación.
+	 * Las escrituras que lleguen mientras tanto esperan a que termine la carga.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		if (!enabled) {
+			return;
+		}
+		lock.writeLock().lock();
+		try (Stream<Post> posts = postRepo.streamByVisibleTrue()) {
+			tags.clear();
+			ordinals.clear();
+			visible.clear();
+			freeOrdinals.clear();
+			documents = new Post[INITIAL_CAPACITY];
+			indexedTags = new String[INITIAL_CAPACITY][];
+			nextOrdinal = 0;
+			revisions.clear();
+			posts.forEach(post -> {
+				revisions.put(post.getId(), PostRevision.of(post));
+				add(post);
+			});
+			tags.values().forEach(RoaringBitmap::runOptimize);
+			built = true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Refleja en el índice la creación o modificación de un post, incluidos los cambios de
+	 * etiquetas y de visibilidad, salvo que su revisión no sea posterior a la ya aplicada.
+	 *
+	 * @param event El evento con el post guardado.
+	 */
+	@EventListener
+	public void onPostChanged(PostChangedEvent event) {
+		if (!enabled) {
+			return;
+		}
+		Post post = event.getPost();
+		PostRevision revision = PostRevision.of(post);
+		lock.writeLock().lock();
+		try {
+			if (!revision.isAfter(revisions.get(post.getId()))) {
+				return;
+			}
+			revisions.put(post.getId(), revision);
+			Integer ordinal = ordinals.get(post.getId());
+			if (ordinal != null) {
+				removeTags(ordinal);
+				if (post.isVisible()) {
+					put(ordinal, post);
+				} else {
+					ordinals.remove(post.getId());
+					visible.remove(ordinal);
+					documents[ordinal] = null;
+					indexedTags[ordinal] = null;
+					freeOrdinals.add(ordinal);
+				}
+			} else if (post.isVisible()) {
+				add(post);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Cuenta los posts visibles que cumplen la consulta.
+	 *
+	 * @param query La consulta por etiquetas.
+	 * @return El número de posts coincidentes.
+	 */
+	public long count(TagQuery query) {
+		lock.readLock().lock();
+		try {
+			return evaluate(query).getLongCardinality();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Devuelve una página de los posts visibles que cumplen la consulta, en el orden
+	 * {@link PostCursor#NEWEST_FIRST}. Solo se ordenan los {@code limit} primeros resultados.
+	 *
+	 * @param query La consulta por etiquetas.
+	 * @param after El cursor de la página anterior, o null para la primera página.
+	 * @param limit El número máximo de posts a devolver.
+	 * @return Los posts de la página.
+	 */
+	public List<Post> findPage(TagQuery query, PostCursor after, int limit) {
+		// Montículo con el peor candidato en la cabeza para quedarse con los limit primeros
+		PriorityQueue<Post> top = new PriorityQueue<>(limit + 1, PostCursor.NEWEST_FIRST.reversed());
+		lock.readLock().lock();
+		try {
+			evaluate(query).forEach((int ordinal) -> {
+				Post post = documents[ordinal];
+				if (after == null || after.isBefore(post)) {
+					top.offer(post);
+					if (top.size() > limit) {
+						top.poll();
+					}
+				}
+			});
+		} finally {
+			lock.readLock().unlock();
+		}
+
+		List<Post> page = new ArrayList<>(top);
+		page.sort(PostCursor.NEWEST_FIRST);
+		return page;
+	}
+
+	/**
+	 * Combina los bitmaps: intersección de {@code all}, unión de {@code any} y diferencia con la
+	 * unión de {@code none}. Sin {@code all} ni {@code any}, parte de todos los posts visibles.
+	 * Debe llamarse con el bloqueo de lectura; el resultado es una copia nueva.
+	 */
+	private RoaringBitmap evaluate(TagQuery query) {
+		RoaringBitmap result;
+		if (!query.getAll().isEmpty()) {
+			result = bitmapOf(query.getAll().get(0)).clone();
+			for (String tag : query.getAll().subList(1, query.getAll().size())) {
+				result.and(bitmapOf(tag));
+			}
+		} else {
+			result = visible.clone();
+		}
+		if (!query.getAny().isEmpty()) {
+			result.and(union(query.getAny()));
+		}
+		if (!query.getNone().isEmpty()) {
+			result.andNot(union(query.getNone()));
+		}
+		return result;
+	}
+
+	private RoaringBitmap union(List<String> names) {
+		return FastAggregation.or(names.stream().map(this::bitmapOf).iterator());
+	}
+
+	private RoaringBitmap bitmapOf(String tag) {
+		RoaringBitmap bitmap = tags.get(tag);
+		return bitmap == null ? new RoaringBitmap() : bitmap;
+	}
+
+	private void add(Post post) {
+		int ordinal = freeOrdinals.isEmpty() ? nextOrdinal++ : freeOrdinals.first();
+		freeOrdinals.remove(ordinal);
+		if (ordinal >= documents.length) {
+			documents = Arrays.copyOf(documents, documents.length * 2);
+			indexedTags = Arrays.copyOf(indexedTags, indexedTags.length * 2);
+		}
+		ordinals.put(post.getId(), ordinal);
+		visible.add(ordinal);
+		put(ordinal, post);
+	}
+
+	private void put(int ordinal, Post post) {
+		documents[ordinal] = post;
+		indexedTags[ordinal] = post.getTags() == null ? new String[0] : post.getTags().toArray(String[]::new);
+		for (String tag : indexedTags[ordinal]) {
+			tags.computeIfAbsent(tag, t -> new RoaringBitmap()).add(ordinal);
+		}
+	}
+
+	private void removeTags(int ordinal) {
+		for (String tag : indexedTags[ordinal]) {
+			RoaringBitmap bitmap = tags.get(tag);
+			if (bitmap != null) {
+				bitmap.remove(ordinal);
+				if (bitmap.isEmpty()) {
+					tags.remove(tag);
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,171 @@
+package com.masbytes.miblog.service.index;
+
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.masbytes.miblog.dto.TagFacet;
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.event.PostChangedEvent;
+import com.masbytes.miblog.event.PostRevision;
+import com.masbytes.miblog.repo.PostRepo;
+
+/**
+ * Número de posts visibles por etiqueta, para la nube de etiquetas, mantenido en memoria con un
+ * contador {@link LongAdder} por etiqueta.
+ *
+ * Cada {@link PostChangedEvent} aplica solo la diferencia entre las etiquetas que se contaban del
+ * post y las que tiene ahora: ocultarlo las descuenta todas y volver a mostrarlo las cuenta de
+ * nuevo. Las modificaciones de posts distintos se aplican en paralelo, sin un bloqueo común, y las
+ * lecturas suman los contadores sin bloquear a las escrituras; una lectura concurrente con una
+ * modificación puede ver solo una parte de ella.
+ *
+ * Los eventos de escrituras concurrentes pueden llegar desordenados: se recuerda la
+ * {@link PostRevision} contada de cada post, también de los ocultos, y se descartan los eventos que
+ * no son posteriores a ella.
+ *
+ * Solo se construye y mantiene si {@code miblog.tags.facets.enabled=true}.
+ */
+@Component
+@Profile("!reactive")
+public class TagFacets {
+
+	private final PostRepo postRepo;
+
+	private final boolean enabled;
+
+	/**
+	 * Las modificaciones toman el bloqueo de lectura, que comparten entre sí; la reconstrucción
+	 * toma el de escritura para no mezclarse con ellas.
+	 */
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+
+	/**
+	 * Revisión y etiquetas contadas de cada post, para calcular la diferencia en cada modificación.
+	 */
+	private final Map<String, Counted> postTags = new ConcurrentHashMap<>();
+
+	public TagFacets(PostRepo postRepo, @Value("${miblog.tags.facets.enabled:false}") boolean enabled) {
+		this.postRepo = postRepo;
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Indica si los recuentos por etiqueta deben servirse desde memoria.
+	 *
+	 * @return true si los recuentos en memoria están activados.
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Cuenta las etiquetas de los posts visibles al arrancar la aplicación, en una sola pasada que
+	 * solo lee el identificador y las etiquetas de cada post.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuild() {
+		if (!enabled) {
+			return;
+		}
+		lock.writeLock().lock();
+		try (Stream<Post> posts = postRepo.streamVisibleTags()) {
+			counts.clear();
+			postTags.clear();
+			posts.forEach(this::apply);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Refleja en los recuentos la creación de un post o un cambio de sus etiquetas o su visibilidad.
+	 *
+	 * @param event El evento con el post guardado.
+	 */
+	@EventListener
+	public void onPostChanged(PostChangedEvent event) {
+		if (!enabled) {
+			return;
+		}
+		lock.readLock().lock();
+		try {
+			apply(event.getPost());
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Obtiene el número de posts visibles de cada etiqueta.
+	 *
+	 * @return Las etiquetas con algún post, de la más usada a la menos usada y, a igualdad, por orden alfabético.
+	 */
+	public List<TagFacet> count() {
+		return counts.entrySet().stream()
+				.map(entry -> new TagFacet(entry.getKey(), entry.getValue().sum()))
+				// Los contadores de las etiquetas que dejan de usarse se quedan a cero en lugar de retirarse
+				.filter(facet -> facet.getCount() > 0)
+				.sorted(Comparator.comparingLong(TagFacet::getCount).reversed().thenComparing(TagFacet::getTag))
+				.toList();
+	}
+
+	/**
+	 * Sustituye las etiquetas contadas del post por las actuales si el post es posterior al contado.
+	 * El cálculo de la diferencia es atómico para cada post, de modo que dos modificaciones del mismo
+	 * post no se pisan.
+	 */
+	private void apply(Post post) {
+		PostRevision revision = PostRevision.of(post);
+		Set<String> current = post.isVisible() && post.getTags() != null
+				? post.getTags().stream().filter(Objects::nonNull).collect(Collectors.toCollection(LinkedHashSet::new))
+				: Set.of();
+		postTags.compute(post.getId(), (id, previous) -> {
+			if (previous != null && !revision.isAfter(previous.revision)) {
+				return previous;
+			}
+			Set<String> counted = previous == null ? Set.of() : previous.tags;
+			counted.stream().filter(tag -> !current.contains(tag)).forEach(tag -> counter(tag).decrement());
+			current.stream().filter(tag -> !counted.contains(tag)).forEach(tag -> counter(tag).increment());
+			return new Counted(revision, current);
+		});
+	}
+
+	private LongAdder counter(String tag) {
+		return counts.computeIfAbsent(tag, key -> new LongAdder());
+	}
+
+	/**
+	 * Revisión de un post y etiquetas que se cuentan de él; vacías si está oculto.
+	 */
+	private static final class Counted {
+
+		private final PostRevision revision;
+
+		private final Set<String> tags;
+
+		Counted(PostRevision revision, Set<String> tags) {
+			this.revision = revision;
+			this.tags = tags;
+		}
+
+	}
+
+}
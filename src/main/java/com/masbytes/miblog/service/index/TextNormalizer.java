@@ -0,0 +1,76 @@
+package com.masbytes.miblog.service.index;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalización de texto para búsquedas: pasa a minúsculas y elimina acentos y
+ * diacríticos, de modo que "Teoría", "teoria" y "TEORÍA" se consideran iguales
+ * (también "ñ" se pliega a "n").
+ */
+public final class TextNormalizer {
+
+	private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+	private TextNormalizer() {
+	}
+
+	/**
+	 * Pliega mayúsculas y acentos de un texto.
+	 *
+	 * @param text El texto a normalizar.
+	 * @return El texto normalizado, o una cadena vacía si es nulo.
+	 */
+	public static String fold(String text) {
+		if (text == null) {
+			return "";
+		}
+		String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+		return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Clave de unicidad de un título: plegado con {@link #fold(String)}, sin espacios en los
+	 * extremos y con los espacios interiores reducidos a uno, de modo que "Teoría  de la
+	 * Relatividad" y "teoria de la relatividad" se consideran el mismo título.
+	 *
+	 * @param title El título.
+	 * @return La clave normalizada del título.
+	 */
+	public static String titleKey(String title) {
+		return WHITESPACE.matcher(fold(title).strip()).replaceAll(" ");
+	}
+
+	/**
+	 * Divide un texto en términos normalizados, separando por cualquier carácter que
+	 * no sea letra ni dígito.
+	 *
+	 * @param text El texto a dividir.
+	 * @return Los términos en el orden en que aparecen.
+	 */
+	public static List<String> tokenize(String text) {
+		String folded = fold(text);
+		List<String> tokens = new ArrayList<>();
+		int start = -1;
+		for (int i = 0; i < folded.length(); i++) {
+			if (Character.isLetterOrDigit(folded.charAt(i))) {
+				if (start < 0) {
+					start = i;
+				}
+			} else if (start >= 0) {
+				tokens.add(folded.substring(start, i));
+				start = -1;
+			}
+		}
+		if (start >= 0) {
+			tokens.add(folded.substring(start));
+		}
+		return tokens;
+	}
+
+}
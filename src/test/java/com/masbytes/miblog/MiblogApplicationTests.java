@@ -3,7 +3,8 @@ package com.masbytes.miblog;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// Sin una base de datos disponible en las pruebas no se crean los índices al arrancar
+@SpringBootTest(properties = "spring.data.mongodb.auto-index-creation=false")
 class MiblogApplicationTests {
 
 	@Test
@@ -0,0 +1,146 @@
+package com.masbytes.miblog.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.repo.PostRepoCustomImpl;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+/**
+ * Compara la búsqueda por palabra clave con expresión regular (ruta original) con la
+ * búsqueda sobre el índice de texto, sobre un conjunto de 100.000 posts sintéticos. Las dos
+ * consultas devuelven como mucho {@value #LIMIT} posts, el tamaño de una página, para que midan
+ * el mismo trabajo de lectura.
+ * 
+ * Necesita un MongoDB real, por lo que solo se ejecuta si se indica su URI:
+ * <pre>
+ * mvn test -Dtest=KeywordSearchBenchmark -Dmiblog.benchmark.mongo-uri=mongodb://localhost:27017
+ * </pre>
+ * Los datos se generan en la base de datos {@code miblog_benchmark}, que se elimina al terminar.
+ */
+@EnabledIfSystemProperty(named = "miblog.benchmark.mongo-uri", matches = ".+")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class KeywordSearchBenchmark {
+
+	private static final int POSTS = 100_000;
+	private static final int WARMUP_ROUNDS = 3;
+	private static final int MEASURED_ROUNDS = 20;
+	private static final int LIMIT = 20;
+	private static final List<String> KEYWORDS = List.of("relatividad", "cuántica", "galaxia", "evolución",
+			"algoritmo", "literatura", "\"agujero negro\"", "energía -nuclear");
+
+	private static final String[] VOCABULARY = ("relatividad cuántica galaxia evolución algoritmo literatura "
+			+ "historia filosofía energía nuclear agujero negro estrella planeta célula genética economía mercado "
+			+ "lenguaje poesía novela teatro música arte pintura ciencia física química biología matemáticas "
+			+ "teorema demostración experimento observación universo tiempo espacio materia luz onda partícula")
+			.split(" ");
+
+	private MongoClient client;
+	private MongoTemplate mongoTemplate;
+	private PostRepoCustomImpl postRepo;
+
+	@BeforeAll
+	void seed() {
+		client = MongoClients.create(System.getProperty("miblog.benchmark.mongo-uri"));
+		mongoTemplate = new MongoTemplate(client, "miblog_benchmark");
+		postRepo = new PostRepoCustomImpl(mongoTemplate);
+
+		mongoTemplate.dropCollection(Post.class);
+		IndexOperations indexOps = mongoTemplate.indexOps(Post.class);
+		new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+				.resolveIndexFor(Post.class)
+				.forEach(indexOps::ensureIndex);
+
+		Random random = new Random(42);
+		List<Post> batch = new ArrayList<>();
+		for (int i = 0; i < POSTS; i++) {
+			Post post = new Post();
+			post.setTitle(words(random, 6) + " " + i);
+			post.setSummary(words(random, 40));
+			post.setPdfUrl("https://example.com/posts/" + i + ".pdf");
+			post.setTags(Arrays.asList(words(random, 3).split(" ")));
+			post.setCreatedAt(LocalDateTime.now().minusMinutes(i));
+			post.setModifiedAt(post.getCreatedAt());
+			batch.add(post);
+			if (batch.size() == 1_000) {
+				mongoTemplate.insert(batch, Post.class);
+				batch.clear();
+			}
+		}
+	}
+
+	@AfterAll
+	void cleanUp() {
+		mongoTemplate.getDb().drop();
+		client.close();
+	}
+
+	@Test
+	void compareRegexAndTextSearch() {
+		System.out.printf("%-22s %-6s %10s %10s %10s %8s%n", "keyword", "engine", "p50 ms", "p99 ms", "max ms", "hits");
+		for (String keyword : KEYWORDS) {
+			String literal = keyword.replace("\"", "").replaceAll(" -.*", "");
+			report(keyword, "regex", () -> regexSearch(literal));
+			report(keyword, "text", () -> postRepo.findByTextSearch(keyword, LIMIT).size());
+		}
+	}
+
+	/**
+	 * Reproduce la consulta original {@code findByTitleRegexOrSummaryRegexOrTagsIn}, con el mismo
+	 * límite que la búsqueda de texto.
+	 */
+	private int regexSearch(String keyword) {
+		String regex = ".*" + Pattern.quote(keyword.toLowerCase()) + ".*";
+		Query query = Query.query(new Criteria().orOperator(Criteria.where("title").regex(regex),
+				Criteria.where("summary").regex(regex), Criteria.where("tags").in(List.of(keyword.toLowerCase()))))
+				.limit(LIMIT);
+		return mongoTemplate.find(query, Post.class).size();
+	}
+
+	private void report(String keyword, String engine, Supplier<Integer> search) {
+		for (int i = 0; i < WARMUP_ROUNDS; i++) {
+			search.get();
+		}
+		long[] samples = new long[MEASURED_ROUNDS];
+		int hits = 0;
+		for (int i = 0; i < MEASURED_ROUNDS; i++) {
+			long start = System.nanoTime();
+			hits = search.get();
+			samples[i] = System.nanoTime() - start;
+		}
+		Arrays.sort(samples);
+		System.out.printf("%-22s %-6s %10.2f %10.2f %10.2f %8d%n", keyword, engine,
+				samples[MEASURED_ROUNDS / 2] / 1e6, samples[(int) Math.ceil(MEASURED_ROUNDS * 0.99) - 1] / 1e6,
+				samples[MEASURED_ROUNDS - 1] / 1e6, hits);
+	}
+
+	private static String words(Random random, int count) {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			if (i > 0) {
+				text.append(' ');
+			}
+			text.append(VOCABULARY[random.nextInt(VOCABULARY.length)]);
+		}
+		return text.toString();
+	}
+
+}
@@ -0,0 +1,154 @@
+package com.masbytes.miblog.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.service.index.TextNormalizer;
+
+/**
+ * Catálogo sintético y reproducible (semilla fija) para las pruebas de carga, con distribuciones
+ * parecidas a las de un blog real:
+ * <ul>
+ * <li>Títulos de 3 a 10 palabras y resúmenes de 20 a 80, tomadas de un vocabulario con
+ * frecuencias de Zipf (unas pocas palabras aparecen en muchos posts y la mayoría en pocos).</li>
+ * <li>De 1 a 5 etiquetas por post, también con frecuencias de Zipf sobre {@value #TAGS} etiquetas.</li>
+ * <li>Fechas de creación repartidas en los últimos dos años, más densas en los meses recientes.</li>
+ * <li>Un 5 % de posts ocultos.</li>
+ * </ul>
+ */
+final class LoadTestCatalog {
+
+	static final int TAGS = 200;
+
+	private static final String[] VOCABULARY = ("relatividad cuántica galaxia evolución algoritmo literatura "
+			+ "historia filosofía energía nuclear agujero negro estrella planeta célula genética economía mercado "
+			+ "lenguaje poesía novela teatro música arte pintura ciencia física química biología matemáticas "
+			+ "teorema demostración experimento observación universo tiempo espacio materia luz onda partícula "
+			+ "cerebro memoria conciencia sociedad política democracia revolución imperio guerra paz clima océano "
+			+ "montaña volcán terremoto bosque especie virus bacteria vacuna medicina red internet computadora "
+			+ "software datos estadística probabilidad lógica paradoja infinito número geometría topología")
+			.split(" ");
+
+	private static final int DAYS = 730;
+
+	private final Random random;
+
+	private final Zipf words;
+
+	private final Zipf tags;
+
+	LoadTestCatalog(long seed) {
+		this.random = new Random(seed);
+		this.words = new Zipf(VOCABULARY.length, 1.0);
+		this.tags = new Zipf(TAGS, 1.1);
+	}
+
+	/**
+	 * Genera posts con títulos únicos, sin ID, listos para insertar.
+	 */
+	List<Post> generate(int count) {
+		LocalDateTime now = LocalDateTime.now();
+		List<Post> posts = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			Post post = newPost("#" + i);
+			// El cuadrado de un uniforme concentra las fechas cerca de hoy
+			double age = random.nextDouble();
+			post.setCreatedAt(now.minusMinutes((long) (age * age * DAYS * 24 * 60)));
+			post.setModifiedAt(post.getCreatedAt());
+			post.setVisible(random.nextInt(100) >= 5);
+			posts.add(post);
+		}
+		return posts;
+	}
+
+	/**
+	 * Post nuevo con título único gracias al sufijo, para las creaciones y actualizaciones.
+	 */
+	Post newPost(String suffix) {
+		Post post = new Post();
+		post.setTitle(words(3 + random.nextInt(8)) + " " + suffix);
+		post.setTitleKey(TextNormalizer.titleKey(post.getTitle()));
+		post.setSummary(words(20 + random.nextInt(61)));
+		post.setPdfUrl("https://storage.example.com/posts/" + Long.toHexString(random.nextLong()) + ".pdf");
+		post.setTags(tags(1 + random.nextInt(5)));
+		return post;
+	}
+
+	/**
+	 * Palabra del vocabulario según su frecuencia, para las búsquedas por palabra clave.
+	 */
+	String keyword() {
+		return VOCABULARY[words.next(random)];
+	}
+
+	/**
+	 * Etiqueta según su frecuencia, para las búsquedas por etiquetas.
+	 */
+	String tag() {
+		return "tag" + tags.next(random);
+	}
+
+	/**
+	 * Días hacia atrás de una fecha de consulta de posts recientes.
+	 */
+	int daysAgo() {
+		return random.nextInt(DAYS);
+	}
+
+	Random random() {
+		return random;
+	}
+
+	private String words(int count) {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			if (i > 0) {
+				text.append(' ');
+			}
+			text.append(VOCABULARY[words.next(random)]);
+		}
+		return text.toString();
+	}
+
+	private List<String> tags(int count) {
+		Set<String> chosen = new LinkedHashSet<>();
+		while (chosen.size() < count) {
+			chosen.add(tag());
+		}
+		return new ArrayList<>(chosen);
+	}
+
+	/**
+	 * Distribución de Zipf sobre los rangos {@code 0..n-1}, muestreada con su función de
+	 * distribución acumulada precalculada.
+	 */
+	private static final class Zipf {
+
+		private final double[] cumulative;
+
+		Zipf(int n, double exponent) {
+			cumulative = new double[n];
+			double sum = 0;
+			for (int rank = 0; rank < n; rank++) {
+				sum += 1.0 / Math.pow(rank + 1, exponent);
+				cumulative[rank] = sum;
+			}
+			for (int rank = 0; rank < n; rank++) {
+				cumulative[rank] /= sum;
+			}
+		}
+
+		int next(Random random) {
+			int index = Arrays.binarySearch(cumulative, random.nextDouble());
+			return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+		}
+
+	}
+
+}
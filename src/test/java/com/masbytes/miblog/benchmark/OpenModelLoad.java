@@ -0,0 +1,382 @@
+package com.masbytes.miblog.benchmark;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.masbytes.miblog.entity.Post;
+
+/**
+ * Generador de carga de modelo abierto contra las rutas de {@code PostController}: las peticiones
+ * llegan según un proceso de Poisson con la tasa indicada, independientemente de lo que tarde el
+ * servidor en responder, como ocurre con los lectores reales de un blog. La latencia se mide desde
+ * el instante en que la petición debía salir, de modo que si el servidor (o el propio generador)
+ * se retrasa, el retraso cuenta en la latencia en lugar de ocultarse (omisión coordinada).
+ *
+ * Cada operación de la mezcla tiene su propio histograma HDR (en microsegundos, con 3 cifras
+ * significativas) y su contador de errores. Una petición es un error si la respuesta no es 2xx o
+ * si falla la conexión; si hay más de {@code maxInFlight} peticiones en curso, las nuevas llegadas
+ * se descartan y se cuentan aparte, para que un servidor saturado no agote la memoria del generador.
+ */
+final class OpenModelLoad {
+
+	/**
+	 * Operaciones de la mezcla de tráfico, con el nombre que se usa en la especificación de la mezcla.
+	 */
+	enum Operation {
+
+		GET_BY_ID("getById"), SEARCH("search"), TAGS("tags"), RECENT("recent"), CREATE("create"), UPDATE("update");
+
+		private final String key;
+
+		Operation(String key) {
+			this.key = key;
+		}
+
+		String key() {
+			return key;
+		}
+
+		static Operation of(String key) {
+			for (Operation operation : values()) {
+				if (operation.key.equals(key)) {
+					return operation;
+				}
+			}
+			throw new IllegalArgumentException("Operación desconocida: " + key);
+		}
+
+	}
+
+	/**
+	 * Mezcla de operaciones con sus pesos relativos.
+	 */
+	static final class Mix {
+
+		private final Operation[] operations;
+
+		private final int[] cumulative;
+
+		private Mix(Map<Operation, Integer> weights) {
+			operations = weights.keySet().toArray(Operation[]::new);
+			cumulative = new int[operations.length];
+			int sum = 0;
+			for (int i = 0; i < operations.length; i++) {
+				sum += weights.get(operations[i]);
+				cumulative[i] = sum;
+			}
+			if (sum == 0) {
+				throw new IllegalArgumentException("La mezcla no tiene ninguna operación");
+			}
+		}
+
+		/**
+		 * Interpreta una mezcla con el formato {@code getById=50,search=15,tags=15,...}.
+		 */
+		static Mix parse(String spec) {
+			Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+			for (String entry : spec.split(",")) {
+				String[] parts = entry.trim().split("=");
+				weights.put(Operation.of(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+			}
+			return new Mix(weights);
+		}
+
+		Operation pick(Random random) {
+			int value = random.nextInt(cumulative[cumulative.length - 1]);
+			for (int i = 0; i < cumulative.length; i++) {
+				if (value < cumulative[i]) {
+					return operations[i];
+				}
+			}
+			return operations[operations.length - 1];
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder text = new StringBuilder();
+			int previous = 0;
+			for (int i = 0; i < operations.length; i++) {
+				text.append(i > 0 ? "," : "").append(operations[i].key()).append('=').append(cumulative[i] - previous);
+				previous = cumulative[i];
+			}
+			return text.toString();
+		}
+
+	}
+
+	private static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+	private final HttpClient client;
+
+	private final String baseUri;
+
+	private final LoadTestCatalog catalog;
+
+	private final List<Post> posts;
+
+	private final ObjectMapper objectMapper;
+
+	private final AtomicLong created = new AtomicLong();
+
+	OpenModelLoad(int port, LoadTestCatalog catalog, List<Post> posts, ObjectMapper objectMapper) {
+		this.client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.executor(Executors.newVirtualThreadPerTaskExecutor())
+				.connectTimeout(Duration.ofSeconds(10))
+				.build();
+		this.baseUri = "http://localhost:" + port + "/api/posts";
+		this.catalog = catalog;
+		this.posts = posts;
+		this.objectMapper = objectMapper;
+	}
+
+	/**
+	 * Lanza la carga durante el tiempo indicado y espera a que terminen las peticiones en curso.
+	 *
+	 * @param rate        Llegadas por segundo.
+	 * @param duration    Duración de la fase de llegadas.
+	 * @param mix         Mezcla de operaciones.
+	 * @param maxInFlight Máximo de peticiones en curso antes de descartar llegadas.
+	 * @return Los resultados por operación.
+	 */
+	Report run(double rate, Duration duration, Mix mix, int maxInFlight) throws InterruptedException {
+		Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+		for (Operation operation : Operation.values()) {
+			stats.put(operation, new OperationStats());
+		}
+		AtomicInteger inFlight = new AtomicInteger();
+		Random random = catalog.random();
+
+		long start = System.nanoTime();
+		long end = start + duration.toNanos();
+		double meanIntervalNanos = 1e9 / rate;
+		long intended = start;
+		while (intended < end) {
+			long wait = intended - System.nanoTime();
+			if (wait > 0) {
+				LockSupport.parkNanos(wait);
+			}
+
+			Operation operation = mix.pick(random);
+			OperationStats operationStats = stats.get(operation);
+			if (inFlight.incrementAndGet() > maxInFlight) {
+				inFlight.decrementAndGet();
+				operationStats.dropped.increment();
+			} else {
+				long sentAt = intended;
+				client.sendAsync(request(operation), HttpResponse.BodyHandlers.discarding())
+						.whenComplete((response, error) -> {
+							operationStats.record(System.nanoTime() - sentAt,
+									error == null && response.statusCode() / 100 == 2);
+							inFlight.decrementAndGet();
+						});
+			}
+
+			// Intervalos exponenciales entre llegadas: proceso de Poisson
+			intended += (long) (-Math.log(1 - random.nextDouble()) * meanIntervalNanos);
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		long drainDeadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+		while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+			Thread.sleep(10);
+		}
+		return new Report(rate, seconds, stats);
+	}
+
+	private HttpRequest request(Operation operation) {
+		return switch (operation) {
+		case GET_BY_ID -> get("/" + randomPost().getId());
+		case SEARCH -> get("/search?keyword=" + encode(catalog.keyword()));
+		case TAGS -> {
+			String query = "/tags?tags=" + encode(catalog.tag());
+			yield get(catalog.random().nextBoolean() ? query : query + "&tags=" + encode(catalog.tag()));
+		}
+		case RECENT -> get(catalog.random().nextBoolean() ? "/recent"
+				: "/recent?fromDate=" + LocalDate.now().minusDays(catalog.daysAgo()));
+		case CREATE -> HttpRequest.newBuilder(URI.create(baseUri))
+				.timeout(Duration.ofMinutes(1))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofByteArray(json(catalog.newPost("load-" + created.incrementAndGet()))))
+				.build();
+		case UPDATE -> {
+			// Se conserva el título para que las actualizaciones concurrentes del mismo post no choquen
+			Post current = randomPost();
+			Post changes = catalog.newPost("");
+			changes.setTitle(current.getTitle());
+			changes.setVisible(current.isVisible());
+			yield HttpRequest.newBuilder(URI.create(baseUri + "/" + current.getId()))
+					.timeout(Duration.ofMinutes(1))
+					.header("Content-Type", "application/json")
+					.PUT(HttpRequest.BodyPublishers.ofByteArray(json(changes)))
+					.build();
+		}
+		};
+	}
+
+	private HttpRequest get(String path) {
+		return HttpRequest.newBuilder(URI.create(baseUri + path)).timeout(Duration.ofMinutes(1)).build();
+	}
+
+	private Post randomPost() {
+		return posts.get(catalog.random().nextInt(posts.size()));
+	}
+
+	private byte[] json(Post post) {
+		try {
+			return objectMapper.writeValueAsBytes(post);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String encode(String value) {
+		return URLEncoder.encode(value, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Latencias y errores de una operación.
+	 */
+	static final class OperationStats {
+
+		private final Histogram latencies = new ConcurrentHistogram(HIGHEST_LATENCY_MICROS, 3);
+
+		private final LongAdder errors = new LongAdder();
+
+		private final LongAdder dropped = new LongAdder();
+
+		void record(long latencyNanos, boolean ok) {
+			latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_LATENCY_MICROS));
+			if (!ok) {
+				errors.increment();
+			}
+		}
+
+		long requests() {
+			return latencies.getTotalCount();
+		}
+
+		long errors() {
+			return errors.sum();
+		}
+
+		long dropped() {
+			return dropped.sum();
+		}
+
+		Histogram latencies() {
+			return latencies;
+		}
+
+	}
+
+	/**
+	 * Resultados de una ejecución: rendimiento, percentiles de latencia y tasa de errores por
+	 * operación y en total.
+	 */
+	static final class Report {
+
+		private final double rate;
+
+		private final double seconds;
+
+		private final Map<Operation, OperationStats> stats;
+
+		private Report(double rate, double seconds, Map<Operation, OperationStats> stats) {
+			this.rate = rate;
+			this.seconds = seconds;
+			this.stats = stats;
+		}
+
+		OperationStats stats(Operation operation) {
+			return stats.get(operation);
+		}
+
+		/**
+		 * Histograma con las latencias de todas las operaciones.
+		 */
+		Histogram total() {
+			Histogram total = new Histogram(HIGHEST_LATENCY_MICROS, 3);
+			stats.values().forEach(operationStats -> total.add(operationStats.latencies()));
+			return total;
+		}
+
+		void print(PrintStream out) {
+			out.printf(Locale.ROOT, "%nOpen-model load: %.0f req/s offered for %.1f s%n", rate, seconds);
+			out.printf(Locale.ROOT, "  %-8s %9s %9s %8s %8s %9s %9s %9s %9s %9s%n", "op", "requests", "req/s",
+					"errors", "dropped", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+			long errors = 0;
+			long dropped = 0;
+			for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+				OperationStats operationStats = entry.getValue();
+				if (operationStats.requests() + operationStats.dropped() > 0) {
+					printRow(out, entry.getKey().key(), operationStats.latencies(), operationStats.errors(),
+							operationStats.dropped());
+				}
+				errors += operationStats.errors();
+				dropped += operationStats.dropped();
+			}
+			Histogram total = total();
+			printRow(out, "total", total, errors, dropped);
+			out.printf(Locale.ROOT, "  error rate: %.3f %%%n",
+					100.0 * (errors + dropped) / Math.max(1, total.getTotalCount() + dropped));
+		}
+
+		/**
+		 * Escribe la distribución de percentiles de cada operación en ficheros {@code .hgrm}, en
+		 * milisegundos, que se pueden representar con el HdrHistogram Plotter.
+		 */
+		void writeHistograms(Path directory) throws IOException {
+			Files.createDirectories(directory);
+			for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+				writeHistogram(directory.resolve(entry.getKey().key() + ".hgrm"), entry.getValue().latencies());
+			}
+			writeHistogram(directory.resolve("total.hgrm"), total());
+		}
+
+		private void printRow(PrintStream out, String name, Histogram latencies, long errors, long dropped) {
+			out.printf(Locale.ROOT, "  %-8s %9d %9.1f %8d %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n", name,
+					latencies.getTotalCount(), latencies.getTotalCount() / seconds, errors, dropped,
+					millis(latencies, 50), millis(latencies, 90), millis(latencies, 99), millis(latencies, 99.9),
+					latencies.getMaxValue() / 1000.0);
+		}
+
+		private static double millis(Histogram latencies, double percentile) {
+			return latencies.getValueAtPercentile(percentile) / 1000.0;
+		}
+
+		private static void writeHistogram(Path file, Histogram latencies) throws IOException {
+			try (PrintStream out = new PrintStream(Files.newOutputStream(file), true, StandardCharsets.UTF_8)) {
+				latencies.outputPercentileDistribution(out, 1000.0);
+			}
+		}
+
+	}
+
+}
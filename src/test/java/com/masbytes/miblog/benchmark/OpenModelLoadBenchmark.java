@@ -0,0 +1,113 @@
+package com.masbytes.miblog.benchmark;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.masbytes.miblog.entity.Post;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+
+/**
+ * Prueba de carga repetible sin red: arranca la aplicación completa contra un servidor MongoDB en
+ * memoria dentro de la misma JVM, lo llena con posts sintéticos ({@link LoadTestCatalog}) y lanza
+ * una mezcla de tráfico de modelo abierto ({@link OpenModelLoad}) contra las rutas reales de
+ * {@code PostController}. Imprime el rendimiento, los percentiles de latencia y la tasa de errores
+ * por operación, y deja los histogramas HDR en {@code target/loadtest}.
+ *
+ * <pre>
+ * mvn test -Dtest=OpenModelLoadBenchmark -Dmiblog.loadtest=true
+ * mvn test -Dtest=OpenModelLoadBenchmark -Dmiblog.loadtest=true -Dmiblog.loadtest.posts=50000 \
+ *     -Dmiblog.loadtest.rate=500 -Dmiblog.loadtest.duration=60 -Dmiblog.loadtest.mix=getById=80,recent=20
+ * </pre>
+ *
+ * El servidor en memoria no tiene índices de texto ni el planificador de MongoDB, así que los
+ * resultados sirven para comparar versiones de la aplicación entre sí, no para estimar la
+ * capacidad en producción. La búsqueda por relevancia ({@code /search/text}) no se incluye por
+ * necesitar el índice de texto.
+ */
+@EnabledIfSystemProperty(named = "miblog.loadtest", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "spring.data.mongodb.auto-index-creation=false")
+class OpenModelLoadBenchmark {
+
+	private static final String DEFAULT_MIX = "getById=50,search=15,tags=15,recent=10,create=5,update=5";
+
+	private static final int SEED_BATCH_SIZE = 1_000;
+
+	private static MongoServer mongoServer;
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@DynamicPropertySource
+	static void mongo(DynamicPropertyRegistry registry) {
+		// El servidor vive lo mismo que la JVM de las pruebas, igual que el contexto de Spring que lo usa
+		mongoServer = new MongoServer(new MemoryBackend());
+		String uri = mongoServer.bindAndGetConnectionString() + "/miblog_loadtest";
+		registry.add("spring.data.mongodb.uri", () -> uri);
+	}
+
+	@Test
+	void openModelMix() throws Exception {
+		int postCount = Integer.getInteger("miblog.loadtest.posts", 10_000);
+		double rate = Double.parseDouble(System.getProperty("miblog.loadtest.rate", "200"));
+		Duration warmup = Duration.ofSeconds(Integer.getInteger("miblog.loadtest.warmup", 10));
+		Duration duration = Duration.ofSeconds(Integer.getInteger("miblog.loadtest.duration", 30));
+		int maxInFlight = Integer.getInteger("miblog.loadtest.max-in-flight", 10_000);
+		OpenModelLoad.Mix mix = OpenModelLoad.Mix.parse(System.getProperty("miblog.loadtest.mix", DEFAULT_MIX));
+
+		LoadTestCatalog catalog = new LoadTestCatalog(42);
+		List<Post> posts = seed(catalog, postCount);
+		System.out.printf("%nSeeded %d posts, mix %s%n", posts.size(), mix);
+
+		OpenModelLoad load = new OpenModelLoad(port, catalog, posts, objectMapper);
+		load.run(rate, warmup, mix, maxInFlight);
+		OpenModelLoad.Report report = load.run(rate, duration, mix, maxInFlight);
+		report.print(System.out);
+		report.writeHistograms(Path.of("target", "loadtest"));
+	}
+
+	/**
+	 * Crea el índice único de títulos (el servidor en memoria no admite el de texto) e inserta los
+	 * posts por lotes.
+	 */
+	private List<Post> seed(LoadTestCatalog catalog, int count) {
+		IndexOperations indexOps = mongoTemplate.indexOps(Post.class);
+		new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+				.resolveIndexFor(Post.class).forEach(index -> {
+					if ("title_key".equals(index.getIndexOptions().get("name"))) {
+						indexOps.ensureIndex(index);
+					}
+				});
+
+		List<Post> generated = catalog.generate(count);
+		List<Post> saved = new ArrayList<>(count);
+		for (int from = 0; from < generated.size(); from += SEED_BATCH_SIZE) {
+			saved.addAll(mongoTemplate.insert(
+					generated.subList(from, Math.min(from + SEED_BATCH_SIZE, generated.size())), Post.class));
+		}
+		return saved;
+	}
+
+}
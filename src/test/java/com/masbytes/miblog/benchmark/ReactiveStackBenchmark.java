@@ -0,0 +1,48 @@
+package com.masbytes.miblog.benchmark;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.service.ReactivePostService;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Misma carga que {@link VirtualThreadsBenchmark} ({@link SlowClientsLoad}) contra la API del
+ * perfil {@code reactive}: WebFlux sobre Netty, con la espera a la base de datos simulada sin
+ * bloquear ningún hilo, como hace el driver reactivo de MongoDB.
+ * <pre>
+ * mvn test -Dtest=ReactiveStackBenchmark -Dmiblog.benchmark.stack=reactive
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "miblog.benchmark.stack", matches = "reactive")
+// SpringBootTest elige el tipo de aplicación antes de leer los perfiles: se indica también aquí
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = { "spring.data.mongodb.auto-index-creation=false", "spring.main.web-application-type=reactive" })
+@ActiveProfiles("reactive")
+class ReactiveStackBenchmark {
+
+	@LocalServerPort
+	private int port;
+
+	@MockBean
+	private ReactivePostService postService;
+
+	@Test
+	void slowClients() throws Exception {
+		Post post = SlowClientsLoad.post();
+		when(postService.getPostById(anyString()))
+				.thenAnswer(invocation -> Mono.just(post).delayElement(SlowClientsLoad.DATABASE_LATENCY));
+
+		SlowClientsLoad.run("reactive stack", port);
+	}
+
+}
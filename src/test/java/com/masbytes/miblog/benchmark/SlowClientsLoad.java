@@ -0,0 +1,121 @@
+package com.masbytes.miblog.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.masbytes.miblog.entity.Post;
+
+/**
+ * Carga compartida por las comparativas de modelos de ejecución: 5.000 clientes concurrentes
+ * piden dos veces {@code GET /api/posts/1}, cuya lectura de la base de datos se simula con una
+ * espera de 1 s. Los clientes se ejecutan en la misma JVM (sobre hilos virtuales), por lo que
+ * la memoria medida incluye la suya; la diferencia entre modos es atribuible al servidor.
+ */
+final class SlowClientsLoad {
+
+	static final int CLIENTS = 5_000;
+
+	static final int REQUESTS_PER_CLIENT = 2;
+
+	static final Duration DATABASE_LATENCY = Duration.ofSeconds(1);
+
+	private SlowClientsLoad() {
+	}
+
+	/**
+	 * Post devuelto por el servicio simulado.
+	 */
+	static Post post() {
+		Post post = new Post();
+		post.setId("1");
+		post.setTitle("Teoría de la Relatividad");
+		post.setSummary("Un resumen sobre la teoría de Einstein.");
+		return post;
+	}
+
+	/**
+	 * Lanza la carga contra el servidor del puerto indicado e imprime el rendimiento, las
+	 * latencias y la memoria.
+	 */
+	static void run(String mode, int port) throws Exception {
+		HttpClient client = HttpClient.newBuilder()
+				.executor(Executors.newVirtualThreadPerTaskExecutor())
+				.connectTimeout(Duration.ofSeconds(30))
+				.build();
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/posts/1"))
+				.timeout(Duration.ofMinutes(2))
+				.build();
+
+		// Calentamiento
+		for (int i = 0; i < 20; i++) {
+			client.send(request, HttpResponse.BodyHandlers.discarding());
+		}
+
+		long[] latencies = new long[CLIENTS * REQUESTS_PER_CLIENT];
+		AtomicInteger next = new AtomicInteger();
+		AtomicInteger errors = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		long startedAt;
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int c = 0; c < CLIENTS; c++) {
+				executor.submit(() -> {
+					start.await();
+					for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+						long begin = System.nanoTime();
+						try {
+							HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+							if (response.statusCode() != 200) {
+								errors.incrementAndGet();
+							}
+						} catch (Exception e) {
+							errors.incrementAndGet();
+						}
+						latencies[next.getAndIncrement()] = System.nanoTime() - begin;
+					}
+					return null;
+				});
+			}
+			startedAt = System.nanoTime();
+			start.countDown();
+		}
+		double seconds = (System.nanoTime() - startedAt) / 1e9;
+
+		Arrays.sort(latencies);
+		System.gc();
+		long heapUsed = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+		System.out.printf("%n%s: %d clients x %d requests, %d errors%n", mode, CLIENTS, REQUESTS_PER_CLIENT,
+				errors.get());
+		System.out.printf("  throughput: %.0f req/s in %.1f s%n", latencies.length / seconds, seconds);
+		System.out.printf("  latency p50: %d ms, p99: %d ms%n", latencies[latencies.length / 2] / 1_000_000,
+				latencies[latencies.length * 99 / 100] / 1_000_000);
+		System.out.printf("  peak platform threads: %d, heap after GC: %d MB, peak RSS: %s%n",
+				ManagementFactory.getThreadMXBean().getPeakThreadCount(), heapUsed / (1024 * 1024), peakRss());
+	}
+
+	/**
+	 * Memoria residente máxima del proceso, disponible solo en Linux.
+	 */
+	private static String peakRss() {
+		try {
+			return Files.readAllLines(Path.of("/proc/self/status")).stream()
+					.filter(line -> line.startsWith("VmHWM:"))
+					.map(line -> line.substring("VmHWM:".length()).trim())
+					.findFirst()
+					.orElse("n/d");
+		} catch (Exception e) {
+			return "n/d";
+		}
+	}
+
+}
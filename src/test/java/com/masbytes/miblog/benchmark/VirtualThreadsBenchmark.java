@@ -0,0 +1,59 @@
+package com.masbytes.miblog.benchmark;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.service.PostService;
+
+/**
+ * Compara el rendimiento de Tomcat con hilos de plataforma y con hilos virtuales ante 5.000
+ * clientes concurrentes cuyas peticiones esperan 1 s a la base de datos ({@link SlowClientsLoad}).
+ *
+ * La consulta a MongoDB se simula con una espera bloqueante en el servicio, de modo que el
+ * resultado mide solo el modelo de hilos. La espera es larga a propósito: con 200 hilos de
+ * Tomcat el límite teórico con hilos de plataforma es de 200 peticiones por segundo, por debajo
+ * de lo que la CPU puede servir, de modo que la diferencia no queda oculta por la serialización.
+ * Se ejecuta una vez por modo:
+ * <pre>
+ * mvn test -Dtest=VirtualThreadsBenchmark -Dmiblog.benchmark.threads=platform
+ * mvn test -Dtest=VirtualThreadsBenchmark -Dmiblog.benchmark.threads=virtual
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "miblog.benchmark.threads", matches = "platform|virtual")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "spring.data.mongodb.auto-index-creation=false")
+class VirtualThreadsBenchmark {
+
+	@LocalServerPort
+	private int port;
+
+	@MockBean
+	private PostService postService;
+
+	@DynamicPropertySource
+	static void threads(DynamicPropertyRegistry registry) {
+		registry.add("spring.threads.virtual.enabled",
+				() -> "virtual".equals(System.getProperty("miblog.benchmark.threads")));
+	}
+
+	@Test
+	void slowClients() throws Exception {
+		Post post = SlowClientsLoad.post();
+		when(postService.getPostById(anyString())).thenAnswer(invocation -> {
+			Thread.sleep(SlowClientsLoad.DATABASE_LATENCY);
+			return post;
+		});
+
+		SlowClientsLoad.run(System.getProperty("miblog.benchmark.threads") + " threads", port);
+	}
+
+}
@@ -0,0 +1,85 @@
+package com.masbytes.miblog.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.repo.PostRepo;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class RepositoryResultMetricsTest {
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private PostRepo target;
+
+	private PostRepo postRepo;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		beanFactory.addBean("meterRegistry", meterRegistry);
+		RepositoryResultMetrics metrics = new RepositoryResultMetrics(beanFactory.getBeanProvider(MeterRegistry.class));
+
+		target = mock(PostRepo.class);
+		ProxyFactory proxyFactory = new ProxyFactory(target);
+		proxyFactory.addInterface(PostRepo.class);
+		proxyFactory.addAdvice(metrics.interceptor(PostRepo.class));
+		postRepo = (PostRepo) proxyFactory.getProxy();
+	}
+
+	// Testing: Ok
+	@Test
+	void interceptor_RecordsListSizePerMethod() {
+		when(target.findByVisibleTrueAndTagsIn(List.of("ciencia"))).thenReturn(List.of(new Post(), new Post(), new Post()));
+		when(target.findByVisibleTrueAndTagsIn(List.of("arte"))).thenReturn(List.of());
+
+		postRepo.findByVisibleTrueAndTagsIn(List.of("ciencia"));
+		postRepo.findByVisibleTrueAndTagsIn(List.of("arte"));
+
+		DistributionSummary results = meterRegistry.get(RepositoryResultMetrics.METRIC)
+				.tag("repository", "PostRepo").tag("method", "findByVisibleTrueAndTagsIn").summary();
+		assertEquals(2, results.count());
+		assertEquals(3.0, results.totalAmount());
+		assertEquals(3.0, results.max());
+	}
+
+	// Testing: Ok
+	@Test
+	void interceptor_IgnoresSingleResults() {
+		when(target.findById("1")).thenReturn(Optional.of(new Post()));
+
+		postRepo.findById("1");
+
+		assertNull(meterRegistry.find(RepositoryResultMetrics.METRIC).summary());
+	}
+
+	// Testing: Ok
+	@Test
+	void interceptor_WithoutRegistryReturnsResult() {
+		RepositoryResultMetrics metrics = new RepositoryResultMetrics(
+				new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+		ProxyFactory proxyFactory = new ProxyFactory(target);
+		proxyFactory.addInterface(PostRepo.class);
+		proxyFactory.addAdvice(metrics.interceptor(PostRepo.class));
+		PostRepo unmetered = (PostRepo) proxyFactory.getProxy();
+		when(target.findByVisibleTrueAndTagsIn(List.of("ciencia"))).thenReturn(List.of(new Post()));
+
+		assertEquals(1, unmetered.findByVisibleTrueAndTagsIn(List.of("ciencia")).size());
+	}
+
+}
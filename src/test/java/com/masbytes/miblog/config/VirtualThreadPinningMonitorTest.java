@@ -0,0 +1,59 @@
+package com.masbytes.miblog.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class VirtualThreadPinningMonitorTest {
+
+	// Testing: Ok
+	@Test
+	void sourceOf_MongoDriverFrames() {
+		assertEquals(VirtualThreadPinningMonitor.MONGO_SOURCE, VirtualThreadPinningMonitor.sourceOf(List.of(
+				"java.lang.Object", "com.mongodb.internal.connection.DefaultConnectionPool",
+				"com.masbytes.miblog.repo.PostRepoCustomImpl")));
+		assertEquals(VirtualThreadPinningMonitor.OTHER_SOURCE,
+				VirtualThreadPinningMonitor.sourceOf(List.of("java.lang.Object", "com.masbytes.miblog.Foo")));
+		assertEquals(VirtualThreadPinningMonitor.OTHER_SOURCE, VirtualThreadPinningMonitor.sourceOf(List.of()));
+	}
+
+	// Testing: Ok
+	@Test
+	void start_RecordsPinnedVirtualThread() throws Exception {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(Duration.ofMillis(10), registry);
+		monitor.start();
+		try {
+			// Bloquearse dentro de synchronized ancla el hilo virtual a su portador en Java 21
+			Object lock = new Object();
+			Thread.ofVirtual().start(() -> {
+				synchronized (lock) {
+					try {
+						Thread.sleep(50);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			}).join();
+
+			// JFR entrega los eventos de forma asíncrona
+			Timer other = registry.get(VirtualThreadPinningMonitor.METRIC).tag("source", "other").timer();
+			long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+			while (other.count() == 0 && System.nanoTime() < deadline) {
+				Thread.sleep(100);
+			}
+			assertTrue(other.count() >= 1);
+			assertEquals(0, registry.get(VirtualThreadPinningMonitor.METRIC).tag("source", "mongo").timer().count());
+		} finally {
+			monitor.stop();
+		}
+	}
+
+}
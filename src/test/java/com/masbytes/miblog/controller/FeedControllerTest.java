@@ -0,0 +1,113 @@
+package com.masbytes.miblog.controller;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.masbytes.miblog.dto.FeedDocument;
+import com.masbytes.miblog.service.feed.PostFeeds;
+
+@WebMvcTest(FeedController.class)
+public class FeedControllerTest {
+
+	private static final long LAST_MODIFIED = 1_739_577_600_000L;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockBean
+	private PostFeeds postFeeds;
+
+	@BeforeEach
+	void setUp() {
+		when(postFeeds.isEnabled()).thenReturn(true);
+	}
+
+	// Testing: Ok
+	@Test
+	void getRssFeed_Ok() throws Exception {
+		FeedDocument rss = document("<rss version=\"2.0\"/>");
+		when(postFeeds.getRss()).thenReturn(rss);
+
+		mockMvc.perform(get("/feed.xml"))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_RSS_XML))
+				.andExpect(header().string("ETag", "\"" + rss.getETag() + "\""))
+				.andExpect(header().dateValue("Last-Modified", LAST_MODIFIED))
+				.andExpect(content().bytes(rss.getBody()));
+	}
+
+	// Testing: Ok
+	@Test
+	void getAtomFeed_NotModifiedWithETag() throws Exception {
+		FeedDocument atom = document("<feed xmlns=\"http://www.w3.org/2005/Atom\"/>");
+		when(postFeeds.getAtom()).thenReturn(atom);
+
+		mockMvc.perform(get("/atom.xml").header("If-None-Match", "\"" + atom.getETag() + "\""))
+				.andExpect(status().isNotModified())
+				.andExpect(content().bytes(new byte[0]));
+	}
+
+	// Testing: Ok
+	@Test
+	void getSitemap_Ok() throws Exception {
+		FeedDocument sitemap = document("<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\"/>");
+		when(postFeeds.getSitemap()).thenReturn(sitemap);
+
+		mockMvc.perform(get("/sitemap.xml"))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_XML))
+				.andExpect(content().bytes(sitemap.getBody()));
+	}
+
+	// Testing: Ok
+	@Test
+	void getSitemapShard_Ok() throws Exception {
+		FeedDocument shard = document("<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\"/>");
+		when(postFeeds.getSitemapShard(2)).thenReturn(Optional.of(shard));
+
+		mockMvc.perform(get("/sitemap-2.xml"))
+				.andExpect(status().isOk())
+				.andExpect(header().string("ETag", "\"" + shard.getETag() + "\""))
+				.andExpect(content().bytes(shard.getBody()));
+	}
+
+	// Testing: Ok
+	@Test
+	void getSitemapShard_NotFound() throws Exception {
+		when(postFeeds.getSitemapShard(7)).thenReturn(Optional.empty());
+
+		mockMvc.perform(get("/sitemap-7.xml"))
+				.andExpect(status().isNotFound());
+	}
+
+	// Testing: Ok
+	@Test
+	void getRssFeed_NotFoundWhenDisabled() throws Exception {
+		when(postFeeds.isEnabled()).thenReturn(false);
+
+		mockMvc.perform(get("/feed.xml"))
+				.andExpect(status().isNotFound());
+		mockMvc.perform(get("/sitemap-1.xml"))
+				.andExpect(status().isNotFound());
+	}
+
+	private static FeedDocument document(String xml) {
+		return FeedDocument.of(("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + xml).getBytes(StandardCharsets.UTF_8),
+				LAST_MODIFIED);
+	}
+
+}
@@ -1,35 +1,98 @@
 package com.masbytes.miblog.controller;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.masbytes.miblog.dto.ArchiveBucket;
+import com.masbytes.miblog.dto.ArchiveQuery;
+import com.masbytes.miblog.dto.ArchiveUnit;
+import com.masbytes.miblog.dto.BulkItemResult;
+import com.masbytes.miblog.dto.BulkReport;
+import com.masbytes.miblog.dto.PostContent;
+import com.masbytes.miblog.dto.PostPage;
+import com.masbytes.miblog.dto.PostVersion;
+import com.masbytes.miblog.dto.ResponseFormat;
+import com.masbytes.miblog.dto.ScoredPost;
+import com.masbytes.miblog.dto.TagFacet;
+import com.masbytes.miblog.dto.TagQuery;
 import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.exception.PostContentUnavailableException;
+import com.masbytes.miblog.exception.PostInvalidDataException;
 import com.masbytes.miblog.exception.PostNotFoundException;
+import com.masbytes.miblog.service.PostBulkService;
+import com.masbytes.miblog.service.PostContentService;
 import com.masbytes.miblog.service.PostService;
+import com.masbytes.miblog.service.cache.ResponseBodyCache;
 
 @WebMvcTest(PostController.class)
+@Import(ResponseBodyCache.class)
 public class PostControllerTest {
 
 	@Autowired
 	private MockMvc mockMvc;
 
+	@Autowired
+	private ObjectMapper objectMapper;
+
 	@MockBean
 	private PostService postService;
 
+	@MockBean
+	private PostBulkService postBulkService;
+
+	@MockBean
+	private PostContentService postContentService;
+
+	@TempDir
+	private Path tempDir;
+
 	// Testing: Ok
 	@Test
 	void testGetPostById_Success() throws Exception {
@@ -61,7 +124,7 @@ public class PostControllerTest {
         post.setTags(List.of("ciencia", "física"));
         post.setPdfUrl("https://misitio.com/relatividad.pdf");
 
-        when(postService.searchPostByKeyword("relatividad")).thenReturn(List.of(post));
+        when(postService.searchPostByKeyword("relatividad", null, null)).thenReturn(new PostPage(List.of(post), null));
 
         mockMvc.perform(get("/api/posts/search")
                 .param("keyword", "relatividad"))
@@ -73,7 +136,7 @@ public class PostControllerTest {
 	//	Testing: Ok
 	@Test
     void searchPosts_NoResults() throws Exception {
-        when(postService.searchPostByKeyword("noexiste")).thenReturn(Collections.emptyList());
+        when(postService.searchPostByKeyword("noexiste", null, null)).thenReturn(new PostPage(Collections.emptyList(), null));
 
         mockMvc.perform(get("/api/posts/search")
                 .param("keyword", "noexiste"))
@@ -89,7 +152,7 @@ public class PostControllerTest {
         post.setTags(List.of("ciencia", "física"));
         post.setPdfUrl("https://misitio.com/relatividad.pdf");
 
-        when(postService.searchPostsByTags(List.of("ciencia"))).thenReturn(List.of(post));
+        when(postService.searchPostsByTags(List.of("ciencia"), null, null)).thenReturn(new PostPage(List.of(post), null));
 
         mockMvc.perform(get("/api/posts/tags")
                 .param("tags", "ciencia"))
@@ -101,7 +164,7 @@ public class PostControllerTest {
 	//	Testing: Ok
 	@Test
     void searchPostsByTags_NoResults() throws Exception {
-        when(postService.searchPostsByTags(List.of("astronomía"))).thenReturn(Collections.emptyList());
+        when(postService.searchPostsByTags(List.of("astronomía"), null, null)).thenReturn(new PostPage(Collections.emptyList(), null));
 
         mockMvc.perform(get("/api/posts/tags")
                 .param("tags", "astronomía"))
@@ -115,7 +178,536 @@ public class PostControllerTest {
                 .param("tags", ""))
                 .andExpect(status().isNoContent());
 
-        verify(postService, times(0)).searchPostsByTags(anyList());
+        verify(postService, times(0)).searchPostsByTags(anyList(), any(), any());
+    }
+	
+	//	Testing: Ok
+	@Test
+    void searchPosts_NextPageCursorHeader() throws Exception {
+        Post post = new Post();
+        post.setTitle("Teoría de la Relatividad");
+
+        when(postService.searchPostByKeyword("relatividad", null, 1)).thenReturn(new PostPage(List.of(post), "abc"));
+
+        mockMvc.perform(get("/api/posts/search?keyword=relatividad&size=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().string(PostController.NEXT_CURSOR_HEADER, "abc"))
+                .andExpect(header().string("Link", "<http://localhost/api/posts/search?keyword=relatividad&size=1&cursor=abc>; rel=\"next\""));
+    }
+	
+	//	Testing: Ok
+	@Test
+    void getRecentPosts_InvalidCursor() throws Exception {
+        when(postService.getRecentPosts(isNull(), any(), isNull())).thenThrow(new PostInvalidDataException("Cursor inválido"));
+
+        mockMvc.perform(get("/api/posts/recent")
+                .param("cursor", "???"))
+                .andExpect(status().isBadRequest());
+    }
+	
+	//	Testing: Ok
+	@Test
+    void searchPosts_NdjsonStreamsAndClosesCursor() throws Exception {
+        Post first = new Post();
+        first.setTitle("Relatividad General");
+        Post second = new Post();
+        second.setTitle("Relatividad Especial");
+
+        AtomicBoolean closed = new AtomicBoolean(false);
+        when(postService.streamPostsByKeyword("relatividad"))
+                .thenReturn(Stream.of(first, second).onClose(() -> closed.set(true)));
+
+        MvcResult result = mockMvc.perform(get("/api/posts/search")
+                .param("keyword", "relatividad")
+                .accept(PostController.APPLICATION_NDJSON_VALUE))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(PostController.APPLICATION_NDJSON_VALUE));
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertTrue(lines.length == 2 && lines[0].contains("Relatividad General") && lines[1].contains("Relatividad Especial"));
+        assertTrue(closed.get());
+    }
+	
+	//	Testing: Ok
+	@Test
+    void searchPosts_JsonRemainsDefault() throws Exception {
+        Post post = new Post();
+        post.setTitle("Teoría de la Relatividad");
+
+        when(postService.searchPostByKeyword("relatividad", null, null)).thenReturn(new PostPage(List.of(post), null));
+
+        mockMvc.perform(get("/api/posts/search")
+                .param("keyword", "relatividad")
+                .accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].title").value("Teoría de la Relatividad"));
+    }
+	
+	//	Testing: Ok
+	@Test
+    void searchPostsByText_ScoreIsUnwrapped() throws Exception {
+        Post post = new Post();
+        post.setId("123");
+        post.setTitle("Teoría de la Relatividad");
+
+        when(postService.searchPostsByText("relatividad", null)).thenReturn(List.of(new ScoredPost(post, 2.25)));
+
+        mockMvc.perform(get("/api/posts/search/text")
+                .param("q", "relatividad"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value("123"))
+                .andExpect(jsonPath("$[0].score").value(2.25));
+    }
+	
+	//	Testing: Ok
+	@Test
+    void searchPostsByTags_BooleanQueryWithTotalCount() throws Exception {
+        Post post = new Post();
+        post.setTitle("Teoría de la Relatividad");
+        TagQuery query = new TagQuery(List.of("ciencia", "física"), List.of("relatividad"), List.of("química"));
+
+        when(postService.countPostsByTags(query)).thenReturn(42L);
+        when(postService.searchPostsByTags(query, null, null)).thenReturn(new PostPage(List.of(post), null));
+
+        mockMvc.perform(get("/api/posts/tags")
+                .param("all", "ciencia,física")
+                .param("any", "relatividad")
+                .param("none", "química"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(PostController.TOTAL_COUNT_HEADER, "42"))
+                .andExpect(jsonPath("$[0].title").value("Teoría de la Relatividad"));
+    }
+	
+	//	Testing: Ok
+	@Test
+    void searchPostsByTags_TagsWithBooleanQuery_BadRequest() throws Exception {
+        mockMvc.perform(get("/api/posts/tags")
+                .param("tags", "ciencia")
+                .param("none", "química"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/posts/tags")
+                .param("tags", "ciencia")
+                .param("all", "física")
+                .accept(PostController.APPLICATION_NDJSON_VALUE))
+                .andExpect(status().isBadRequest());
+
+        verify(postService, never()).searchPostsByTags(anyList(), any(), any());
+        verify(postService, never()).streamPostsByTags(anyList());
+    }
+	
+	//	Testing: Ok
+	@Test
+    void streamPostsByTags_NdjsonBooleanQuery() throws Exception {
+        Post post = new Post();
+        post.setTitle("Teoría de la Relatividad");
+        TagQuery query = new TagQuery(List.of("ciencia"), null, List.of("química"));
+        when(postService.streamPostsByTags(query)).thenReturn(Stream.of(post));
+
+        MvcResult result = mockMvc.perform(get("/api/posts/tags")
+                .param("all", "ciencia")
+                .param("none", "química")
+                .accept(PostController.APPLICATION_NDJSON_VALUE))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(PostController.APPLICATION_NDJSON_VALUE));
+        assertTrue(result.getResponse().getContentAsString(StandardCharsets.UTF_8).contains("Teoría de la Relatividad"));
+    }
+	
+	//	Testing: Ok
+	@Test
+    void createPosts_AcceptsNdjsonStream() throws Exception {
+        List<String> titles = new ArrayList<>();
+        when(postBulkService.createPosts(any())).thenAnswer(invocation -> {
+            Iterator<Post> posts = invocation.getArgument(0);
+            posts.forEachRemaining(post -> titles.add(post.getTitle()));
+            return new BulkReport(2, 0, List.of(
+                    new BulkItemResult(0, BulkItemResult.Status.CREATED, "a", null),
+                    new BulkItemResult(1, BulkItemResult.Status.CREATED, "b", null)));
+        });
+
+        mockMvc.perform(post("/api/posts/bulk")
+                .contentType(PostController.APPLICATION_NDJSON_VALUE)
+                .content("{\"title\":\"Uno\"}\n{\"title\":\"Dos\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.items[1].id").value("b"));
+
+        assertTrue(titles.equals(List.of("Uno", "Dos")));
+    }
+	
+	//	Testing: Ok
+	@Test
+    void createPosts_AcceptsJsonArray() throws Exception {
+        List<String> titles = new ArrayList<>();
+        when(postBulkService.createPosts(any())).thenAnswer(invocation -> {
+            Iterator<Post> posts = invocation.getArgument(0);
+            posts.forEachRemaining(post -> titles.add(post.getTitle()));
+            return new BulkReport(0, 2, List.of());
+        });
+
+        mockMvc.perform(post("/api/posts/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"title\":\"Uno\"},{\"title\":\"Dos\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rejected").value(2));
+
+        assertTrue(titles.equals(List.of("Uno", "Dos")));
+    }
+	
+	//	Testing: Ok
+	@Test
+    void createPosts_MalformedBody() throws Exception {
+        when(postBulkService.createPosts(any())).thenAnswer(invocation -> {
+            Iterator<Post> posts = invocation.getArgument(0);
+            try {
+                posts.forEachRemaining(post -> { });
+            } catch (RuntimeException e) {
+                throw new PostInvalidDataException(e.getMessage());
+            }
+            return new BulkReport(0, 0, List.of());
+        });
+
+        mockMvc.perform(post("/api/posts/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"title\": "))
+                .andExpect(status().isBadRequest());
+    }
+	
+	//	Testing: Ok
+	@Test
+    void createPosts_MalformedItemAfterSavedBatch() throws Exception {
+        when(postBulkService.createPosts(any())).thenReturn(new BulkReport(1, 1, List.of(
+                new BulkItemResult(0, BulkItemResult.Status.CREATED, "a", null),
+                new BulkItemResult(1, BulkItemResult.Status.MALFORMED, null, "La entrada no es JSON válido"))));
+
+        mockMvc.perform(post("/api/posts/bulk")
+                .contentType(PostController.APPLICATION_NDJSON_VALUE)
+                .content("{\"title\":\"Uno\"}\n{\"title\": \n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.items[1].status").value("MALFORMED"));
+    }
+	
+	//	Testing: Ok
+	@Test
+    void patchPost_MergePatch() throws Exception {
+        Post patched = new Post();
+        patched.setId("1");
+        patched.setTitle("Relatividad General");
+        Map<String, Object> patch = new HashMap<>();
+        patch.put("title", "Relatividad General");
+        patch.put("tags", null);
+        when(postService.patchPost("1", patch)).thenReturn(patched);
+
+        mockMvc.perform(patch("/api/posts/1")
+                .contentType(PostController.APPLICATION_MERGE_PATCH_JSON_VALUE)
+                .content("{\"title\":\"Relatividad General\",\"tags\":null}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Relatividad General"));
     }
+	
+	//	Testing: Ok
+	@Test
+    void patchPost_NotFound() throws Exception {
+        when(postService.patchPost(eq("2"), any())).thenThrow(new PostNotFoundException("Post not found"));
+
+        mockMvc.perform(patch("/api/posts/2")
+                .contentType(PostController.APPLICATION_MERGE_PATCH_JSON_VALUE)
+                .content("{\"visible\":false}"))
+                .andExpect(status().isNotFound());
+    }
+	
+	//	Testing: Ok
+	@Test
+    void getPostById_ETagAndLastModified() throws Exception {
+        Post post = new Post();
+        post.setId("1");
+        post.setTitle("Teoría de la Relatividad");
+        post.setVersion(3L);
+        post.setModifiedAt(LocalDateTime.of(2025, 2, 15, 10, 0));
+        when(postService.getPostById("1")).thenReturn(post);
+
+        mockMvc.perform(get("/api/posts/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-3\""))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(jsonPath("$.version").doesNotExist());
+    }
+	
+	//	Testing: Ok
+	@Test
+    void getPostById_IfNoneMatch_NotModifiedWithoutLoadingPost() throws Exception {
+        when(postService.getPostVersion("1"))
+                .thenReturn(new PostVersion("1", 3L, LocalDateTime.of(2025, 2, 15, 10, 0)));
+
+        mockMvc.perform(get("/api/posts/1").header("If-None-Match", "\"1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"1-3\""))
+                .andExpect(content().string(""));
+
+        // Solo se consulta la versión, sin cargar ni serializar el post
+        verify(postService, never()).getPostById(any());
+    }
+	
+	//	Testing: Ok
+	@Test
+    void getPostById_IfNoneMatch_GzipVariantHasWeakETag() throws Exception {
+        when(postService.getPostVersion("1"))
+                .thenReturn(new PostVersion("1", 3L, LocalDateTime.of(2025, 2, 15, 10, 0)));
+
+        // La ETag débil de la variante comprimida y la fuerte de la otra identifican la misma versión
+        mockMvc.perform(get("/api/posts/1").header("If-None-Match", "W/\"1-3\"").header("Accept-Encoding", "gzip"))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"1-3\""));
+        mockMvc.perform(get("/api/posts/1").header("If-None-Match", "\"1-3\"").header("Accept-Encoding", "gzip"))
+                .andExpect(status().isNotModified());
+
+        verify(postService, never()).getPostById(any());
+    }
+	
+	//	Testing: Ok
+	@Test
+    void getPostById_IfNoneMatch_ChangedReturnsPost() throws Exception {
+        Post post = new Post();
+        post.setId("1");
+        post.setVersion(4L);
+        when(postService.getPostVersion("1")).thenReturn(PostVersion.of(post));
+        when(postService.getPostById("1")).thenReturn(post);
+
+        mockMvc.perform(get("/api/posts/1").header("If-None-Match", "\"1-3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-4\""));
+    }
+	
+	//	Testing: Ok
+	@Test
+    void getRecentPosts_NotModifiedSinceLastChange() throws Exception {
+        LocalDateTime lastModified = LocalDateTime.of(2025, 2, 15, 10, 0);
+        when(postService.getRecentPostsLastModified(null)).thenReturn(Optional.of(lastModified));
+
+        mockMvc.perform(get("/api/posts/recent").header("If-None-Match", recentETag(lastModified, LocalDate.now())))
+                .andExpect(status().isNotModified());
+
+        // No se lee la página de posts
+        verify(postService, never()).getRecentPosts(any(), any(), any());
+
+        // La ETag de otro día no sirve: el rango por defecto se ha desplazado
+        when(postService.getRecentPosts(isNull(), isNull(), isNull())).thenReturn(new PostPage(List.of(new Post()), null));
+        mockMvc.perform(get("/api/posts/recent")
+                .header("If-None-Match", recentETag(lastModified, LocalDate.now().minusDays(1))))
+                .andExpect(status().isOk());
+    }
+	
+	//	Testing: Ok
+	@Test
+    void getRecentPosts_CollectionETag() throws Exception {
+        LocalDateTime lastModified = LocalDateTime.of(2025, 2, 15, 10, 0);
+        Post post = new Post();
+        post.setId("1");
+        when(postService.getRecentPostsLastModified(null)).thenReturn(Optional.of(lastModified));
+        when(postService.getRecentPosts(isNull(), isNull(), isNull())).thenReturn(new PostPage(List.of(post), null));
+
+        mockMvc.perform(get("/api/posts/recent"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", recentETag(lastModified, LocalDate.now())))
+                .andExpect(header().exists("Last-Modified"));
+    }
+
+
+	//	Testing: Ok
+	@Test
+    void getRecentPosts_CborWhenAccepted() throws Exception {
+        Post post = new Post();
+        post.setId("1");
+        post.setTags(List.of("ciencia"));
+        post.setCreatedAt(LocalDateTime.of(2025, 2, 15, 10, 0));
+        when(postService.getRecentPostsLastModified(null)).thenReturn(Optional.empty());
+        when(postService.getRecentPosts(isNull(), isNull(), isNull())).thenReturn(new PostPage(List.of(post), null));
+
+        MvcResult result = mockMvc.perform(get("/api/posts/recent").accept("application/cbor, application/json;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andExpect(header().string("Vary", "Accept"))
+                .andReturn();
+
+        // Las fechas viajan como milisegundos desde la época
+        JsonNode posts = ResponseFormat.CBOR.objectMapper(objectMapper)
+                .readTree(result.getResponse().getContentAsByteArray());
+        assertEquals("1", posts.get(0).get("id").asText());
+        assertEquals(PostVersion.toEpochMilli(post.getCreatedAt()), posts.get(0).get("createdAt").longValue());
+    }
+
+	//	Testing: Ok
+	@Test
+    void searchPosts_JsonPreferredOverWildcard() throws Exception {
+        Post post = new Post();
+        post.setId("1");
+        when(postService.searchPostByKeyword("relatividad", null, null)).thenReturn(new PostPage(List.of(post), null));
+
+        mockMvc.perform(get("/api/posts/search").param("keyword", "relatividad")
+                .accept("application/x-jackson-smile;q=0.5, */*"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].id").value("1"));
+    }
+
+	//	Testing: Ok
+	@Test
+    void searchPosts_MostSpecificRangeGivesQuality() throws Exception {
+        Post post = new Post();
+        post.setId("1");
+        when(postService.searchPostByKeyword("relatividad", null, null)).thenReturn(new PostPage(List.of(post), null));
+
+        // JSON queda excluido por su rango exacto aunque */* lo acepte
+        mockMvc.perform(get("/api/posts/search").param("keyword", "relatividad")
+                .accept("application/json;q=0, */*"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"));
+
+        // A igual calidad no gana el tipo nombrado, sino JSON
+        mockMvc.perform(get("/api/posts/search").param("keyword", "relatividad")
+                .accept("application/cbor;q=0.5, application/*;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+
+        // application/* prevalece sobre */* para JSON, y Smile gana con su propio rango
+        mockMvc.perform(get("/api/posts/search").param("keyword", "relatividad")
+                .accept("application/*;q=0.2, */*, application/x-jackson-smile;q=0.4"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"));
+    }
+
+	//	Testing: Ok
+	@Test
+    void getPostContent_FullFile() throws Exception {
+        when(postContentService.getPostContent("1")).thenReturn(cachedContent("Hola, mundo"));
+
+        MvcResult result = mockMvc.perform(get("/api/posts/1/content")).andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(header().string("ETag", "\"abc123\""))
+                .andExpect(header().longValue("Content-Length", 11))
+                .andExpect(content().contentType("text/plain;charset=UTF-8"))
+                .andExpect(content().string("Hola, mundo"));
+    }
+
+	//	Testing: Ok
+	@Test
+    void getPostContent_SingleRange() throws Exception {
+        when(postContentService.getPostContent("1")).thenReturn(cachedContent("Hola, mundo"));
+
+        MvcResult result = mockMvc.perform(get("/api/posts/1/content").header("Range", "bytes=6-")).andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 6-10/11"))
+                .andExpect(header().longValue("Content-Length", 5))
+                .andExpect(content().string("mundo"));
+    }
+
+	//	Testing: Ok
+	@Test
+    void getPostContent_RangeNotSatisfiable() throws Exception {
+        PostContent content = cachedContent("Hola");
+        when(postContentService.getPostContent("1")).thenReturn(content);
+
+        mockMvc.perform(get("/api/posts/1/content").header("Range", "bytes=10-20"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string("Content-Range", "bytes */4"));
+
+        // El archivo se cierra aunque no se envíe
+        assertFalse(content.getChannel().isOpen());
+    }
+
+	//	Testing: Ok
+	@Test
+    void getPostContent_NotModified() throws Exception {
+        PostContent content = cachedContent("Hola");
+        when(postContentService.getPostContent("1")).thenReturn(content);
+
+        mockMvc.perform(get("/api/posts/1/content").header("If-None-Match", "\"abc123\""))
+                .andExpect(status().isNotModified());
+
+        assertFalse(content.getChannel().isOpen());
+    }
+
+	//	Testing: Ok
+	@Test
+    void getPostContent_StorageUnavailable() throws Exception {
+        when(postContentService.getPostContent("1")).thenThrow(new PostContentUnavailableException("Sin conexión"));
+
+        mockMvc.perform(get("/api/posts/1/content")).andExpect(status().isBadGateway());
+    }
+
+	private PostContent cachedContent(String text) throws Exception {
+		Path file = Files.writeString(tempDir.resolve("content.txt"), text, StandardCharsets.UTF_8);
+		return new PostContent(FileChannel.open(file, StandardOpenOption.READ), Files.size(file),
+				"text/plain;charset=UTF-8", "abc123");
+	}
+	
+	//	Testing: Ok
+	@Test
+    void getArchive_CountsByPeriod() throws Exception {
+        ArchiveQuery query = new ArchiveQuery(ArchiveUnit.YEAR, ZoneId.of("Asia/Tokyo"), null, null);
+        when(postService.getArchive(query)).thenReturn(List.of(new ArchiveBucket("2025", 3), new ArchiveBucket("2024", 1)));
+
+        mockMvc.perform(get("/api/posts/archive")
+                .param("unit", "year")
+                .param("zone", "Asia/Tokyo"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].period").value("2025"))
+                .andExpect(jsonPath("$[0].count").value(3))
+                .andExpect(jsonPath("$[1].period").value("2024"));
+    }
+	
+	//	Testing: Ok
+	@Test
+    void getArchive_InvalidUnitOrZone() throws Exception {
+        mockMvc.perform(get("/api/posts/archive").param("unit", "week"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/posts/archive").param("zone", "Marte/Olympus"))
+                .andExpect(status().isBadRequest());
+
+        verify(postService, never()).getArchive(any());
+    }
+	
+	//	Testing: Ok
+	@Test
+    void getTagFacets_CountsByTag() throws Exception {
+        when(postService.getTagFacets("relatividad", null))
+                .thenReturn(List.of(new TagFacet("física", 3), new TagFacet("ciencia", 1)));
+
+        mockMvc.perform(get("/api/posts/tags/facets").param("keyword", "relatividad"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].tag").value("física"))
+                .andExpect(jsonPath("$[0].count").value(3))
+                .andExpect(jsonPath("$[1].tag").value("ciencia"));
+    }
+	
+	//	Testing: Ok
+	@Test
+    void getTagFacets_NoPosts() throws Exception {
+        when(postService.getTagFacets(null, null)).thenReturn(Collections.emptyList());
+
+        mockMvc.perform(get("/api/posts/tags/facets"))
+                .andExpect(status().isNoContent());
+    }
+
+	/**
+	 * ETag de los posts recientes del rango por defecto, que termina en el día indicado.
+	 */
+	private static String recentETag(LocalDateTime lastModified, LocalDate day) {
+		long timestamp = Math.max(PostVersion.toEpochMilli(lastModified), PostVersion.toEpochMilli(day.atStartOfDay()));
+		return "W/\"" + Long.toHexString(timestamp) + "-" + Long.toHexString(day.toEpochDay()) + "\"";
+	}
 
 }
@@ -0,0 +1,188 @@
+package com.masbytes.miblog.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.masbytes.miblog.config.NdjsonWebFluxRegistrations;
+import com.masbytes.miblog.dto.PostPage;
+import com.masbytes.miblog.dto.PostVersion;
+import com.masbytes.miblog.dto.TagQuery;
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.exception.PostAlreadyExistsException;
+import com.masbytes.miblog.exception.PostInvalidDataException;
+import com.masbytes.miblog.exception.PostNotFoundException;
+import com.masbytes.miblog.service.ReactivePostService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@WebFluxTest(ReactivePostController.class)
+@Import(NdjsonWebFluxRegistrations.class)
+@ActiveProfiles("reactive")
+public class ReactivePostControllerTest {
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@MockBean
+	private ReactivePostService postService;
+
+	// Testing: Ok
+	@Test
+	void getPostById_Success() {
+		Post post = post("123", "Ejemplo Post");
+		when(postService.getPostById("123")).thenReturn(Mono.just(post));
+
+		webTestClient.get().uri("/api/posts/123").exchange()
+				.expectStatus().isOk()
+				.expectHeader().valueEquals(HttpHeaders.ETAG, "\"123-3\"")
+				.expectBody().jsonPath("$.title").isEqualTo("Ejemplo Post");
+	}
+
+	// Testing: Ok
+	@Test
+	void getPostById_NotModified() {
+		Post post = post("123", "Ejemplo Post");
+		when(postService.getPostVersion("123")).thenReturn(Mono.just(PostVersion.of(post)));
+
+		// Con la ETag vigente se responde 304 sin cargar el post
+		webTestClient.get().uri("/api/posts/123").header(HttpHeaders.IF_NONE_MATCH, "\"123-3\"").exchange()
+				.expectStatus().isNotModified();
+		verify(postService, never()).getPostById("123");
+	}
+
+	// Testing: Ok
+	@Test
+	void getPostById_NotFound() {
+		when(postService.getPostById("999")).thenReturn(Mono.error(new PostNotFoundException("Post not found")));
+
+		webTestClient.get().uri("/api/posts/999").exchange().expectStatus().isNotFound();
+	}
+
+	// Testing: Ok
+	@Test
+	void createPost_Conflict() {
+		when(postService.createPost(any(Post.class)))
+				.thenReturn(Mono.error(new PostAlreadyExistsException("Ya existe")));
+
+		webTestClient.post().uri("/api/posts").contentType(MediaType.APPLICATION_JSON)
+				.bodyValue("{\"title\":\"Ejemplo Post\",\"summary\":\"Resumen\",\"pdfUrl\":\"https://misitio.com/a.pdf\"}")
+				.exchange()
+				.expectStatus().isEqualTo(409);
+	}
+
+	// Testing: Ok
+	@Test
+	void searchPosts_PageWithNextLink() {
+		when(postService.searchPostByKeyword("post", null, 1))
+				.thenReturn(Mono.just(new PostPage(List.of(post("1", "Ejemplo Post")), "abc")));
+
+		webTestClient.get().uri("/api/posts/search?keyword=post&size=1").exchange()
+				.expectStatus().isOk()
+				.expectHeader().valueEquals(PostController.NEXT_CURSOR_HEADER, "abc")
+				.expectHeader().value(HttpHeaders.LINK, link -> link.contains("cursor=abc"))
+				.expectBody().jsonPath("$[0].id").isEqualTo("1");
+	}
+
+	// Testing: Ok
+	@Test
+	void getRecentPosts_InvalidCursor() {
+		when(postService.getRecentPosts(isNull(), eq("x"), isNull()))
+				.thenReturn(Mono.error(new PostInvalidDataException("Cursor no válido")));
+
+		webTestClient.get().uri("/api/posts/recent?cursor=x").exchange().expectStatus().isBadRequest();
+	}
+
+	// Testing: Ok
+	@Test
+	void searchPostsByTags_TotalCount() {
+		TagQuery query = new TagQuery(List.of("ciencia"), null, null);
+		when(postService.countPostsByTags(query)).thenReturn(Mono.just(7L));
+		when(postService.searchPostsByTags(query, null, null))
+				.thenReturn(Mono.just(new PostPage(List.of(post("1", "Ejemplo Post")), null)));
+
+		webTestClient.get().uri("/api/posts/tags?all=ciencia").exchange()
+				.expectStatus().isOk()
+				.expectHeader().valueEquals(PostController.TOTAL_COUNT_HEADER, "7");
+	}
+
+	// Testing: Ok
+	@Test
+	void streamSearchPosts_Ndjson() {
+		when(postService.streamPostsByKeyword("post"))
+				.thenReturn(Flux.just(post("1", "Primer Post"), post("2", "Segundo Post")));
+
+		// Cada post se escribe en su propia línea
+		webTestClient.get().uri("/api/posts/search?keyword=post")
+				.accept(MediaType.parseMediaType(PostController.APPLICATION_NDJSON_VALUE)).exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentTypeCompatibleWith(PostController.APPLICATION_NDJSON_VALUE)
+				.expectBodyList(Post.class)
+				.value(posts -> assertEquals(List.of("1", "2"), posts.stream().map(Post::getId).toList()));
+	}
+
+	// Testing: Ok
+	@Test
+	void searchPosts_NdjsonOnlyWhenNamed() {
+		when(postService.searchPostByKeyword("post", null, null))
+				.thenReturn(Mono.just(new PostPage(List.of(post("1", "Primer Post")), null)));
+
+		// Un comodín que también incluye NDJSON devuelve la página en JSON
+		webTestClient.get().uri("/api/posts/search?keyword=post")
+				.accept(MediaType.parseMediaType("application/*")).exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON);
+		verify(postService, never()).streamPostsByKeyword(any());
+	}
+
+	// Testing: Ok
+	@Test
+	void searchPostsByTags_TagsWithBooleanQuery_BadRequest() {
+		webTestClient.get().uri("/api/posts/tags?tags=ciencia&any=física").exchange()
+				.expectStatus().isBadRequest();
+		webTestClient.get().uri("/api/posts/tags?tags=ciencia&none=química")
+				.accept(MediaType.parseMediaType(PostController.APPLICATION_NDJSON_VALUE)).exchange()
+				.expectStatus().isBadRequest();
+	}
+
+	// Testing: Ok
+	@Test
+	void streamPostsByTags_NdjsonBooleanQuery() {
+		TagQuery query = new TagQuery(null, List.of("ciencia", "física"), null);
+		when(postService.streamPostsByTags(query)).thenReturn(Flux.just(post("1", "Primer Post")));
+
+		webTestClient.get().uri("/api/posts/tags?any=ciencia,física")
+				.accept(MediaType.parseMediaType(PostController.APPLICATION_NDJSON_VALUE)).exchange()
+				.expectStatus().isOk()
+				.expectBodyList(Post.class)
+				.value(posts -> assertEquals(List.of("1"), posts.stream().map(Post::getId).toList()));
+	}
+
+	private static Post post(String id, String title) {
+		Post post = new Post();
+		post.setId(id);
+		post.setTitle(title);
+		post.setVersion(3L);
+		post.setModifiedAt(LocalDateTime.now().withNano(0));
+		return post;
+	}
+
+}
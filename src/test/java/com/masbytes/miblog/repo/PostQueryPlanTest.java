@@ -0,0 +1,185 @@
+package com.masbytes.miblog.repo;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.masbytes.miblog.dto.PostCursor;
+import com.masbytes.miblog.dto.ScoredPost;
+import com.masbytes.miblog.dto.TagQuery;
+import com.masbytes.miblog.entity.Post;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+/**
+ * Comprueba contra un MongoDB real que todas las consultas de los listados públicos se resuelven
+ * recorriendo un índice (IXSCAN) sin ordenar en memoria, y que no devuelven posts ocultos.
+ *
+ * El servidor en memoria de los demás tests no planifica consultas, así que este test necesita
+ * Docker y se omite si no está disponible. Los planes se leen del profiler de MongoDB, de modo que
+ * se comprueban las consultas que envían de verdad los métodos del repositorio, incluidos los
+ * derivados de su nombre.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+public class PostQueryPlanTest {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2025, 2, 15, 12, 0);
+
+	private static final List<String> TAGS = List.of("ciencia", "física", "historia", "arte");
+
+	@Container
+	private static final MongoDBContainer MONGO = new MongoDBContainer("mongo:7.0");
+
+	private static MongoClient client;
+
+	private static MongoTemplate mongoTemplate;
+
+	private static PostRepo postRepo;
+
+	@BeforeAll
+	static void setUpDatabase() {
+		client = MongoClients.create(MONGO.getConnectionString());
+		mongoTemplate = new MongoTemplate(client, "miblog");
+
+		// Los mismos índices que crea la aplicación al arrancar
+		IndexOperations indexOps = mongoTemplate.indexOps(Post.class);
+		new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+				.resolveIndexFor(Post.class).forEach(indexOps::ensureIndex);
+		new PostTextIndex(mongoTemplate).ensureIndex();
+
+		postRepo = new MongoRepositoryFactory(mongoTemplate).getRepository(PostRepo.class,
+				RepositoryFragments.just(new PostRepoCustomImpl(mongoTemplate)));
+
+		// Uno de cada cinco posts está oculto
+		List<Post> posts = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			Post post = new Post();
+			post.setTitle("Relatividad " + i);
+			post.setTitleKey("relatividad " + i);
+			post.setSummary("Resumen sobre relatividad del post " + i);
+			post.setPdfUrl("https://misitio.com/" + i + ".pdf");
+			post.setTags(List.of(TAGS.get(i % TAGS.size()), TAGS.get((i + 1) % TAGS.size())));
+			post.setCreatedAt(NOW.minusHours(i));
+			post.setModifiedAt(NOW.minusHours(i));
+			post.setVisible(i % 5 != 0);
+			posts.add(post);
+		}
+		mongoTemplate.insertAll(posts);
+	}
+
+	@AfterAll
+	static void tearDownDatabase() {
+		client.close();
+	}
+
+	@BeforeEach
+	void resetProfiler() {
+		mongoTemplate.executeCommand(new Document("profile", 0));
+		mongoTemplate.getDb().getCollection("system.profile").drop();
+		mongoTemplate.executeCommand(new Document("profile", 2));
+	}
+
+	// Testing: Ok
+	@Test
+	void keywordQueries_IndexScanWithoutSort() {
+		List<String> tags = List.of("relatividad");
+		List<String> terms = List.of("relatividad");
+		List<Post> first = postRepo.findPageByKeyword(".*relatividad.*", tags, terms, null, 20);
+
+		assertVisible(postRepo.findByKeyword(".*relatividad.*", tags, terms));
+		assertVisible(first);
+		assertVisible(postRepo.findPageByKeyword(".*relatividad.*", tags, terms, PostCursor.after(first.get(19)), 20));
+		try (Stream<Post> posts = postRepo.streamByKeyword(".*relatividad.*", tags, terms)) {
+			assertVisible(posts.toList());
+		}
+		assertIndexScanWithoutSort(4);
+	}
+
+	// Testing: Ok
+	@Test
+	void tagQueries_IndexScanWithoutSort() {
+		List<String> tags = List.of("ciencia", "arte");
+		List<Post> first = postRepo.findPageByTagsIn(tags, null, 20);
+
+		assertVisible(postRepo.findByVisibleTrueAndTagsIn(tags));
+		assertVisible(first);
+		assertVisible(postRepo.findPageByTagsIn(tags, PostCursor.after(first.get(19)), 20));
+		try (Stream<Post> posts = postRepo.streamByVisibleTrueAndTagsInOrderByCreatedAtDesc(tags)) {
+			assertVisible(posts.toList());
+		}
+		assertVisible(postRepo.findPageByTagQuery(new TagQuery(List.of("física"), List.of(), List.of("arte")), null, 20));
+		assertIndexScanWithoutSort(5);
+	}
+
+	// Testing: Ok
+	@Test
+	void recentQueries_IndexScanWithoutSort() {
+		LocalDateTime start = NOW.minusDays(30);
+		LocalDateTime end = NOW.plusDays(1);
+		List<Post> first = postRepo.findPageByCreatedAtBetween(start, end, null, 20);
+
+		assertVisible(postRepo.findByVisibleTrueAndCreatedAtBetween(start, end));
+		assertVisible(first);
+		assertVisible(postRepo.findPageByCreatedAtBetween(start, end, PostCursor.after(first.get(19)), 20));
+		try (Stream<Post> posts = postRepo.streamByVisibleTrueAndCreatedAtBetweenOrderByCreatedAtDesc(start, end)) {
+			assertVisible(posts.toList());
+		}
+		assertIndexScanWithoutSort(4);
+	}
+
+	// Testing: Ok
+	@Test
+	void textSearch_UsesPartialTextIndex() {
+		assertVisible(postRepo.findByTextSearch("relatividad", 50).stream().map(ScoredPost::getPost).toList());
+
+		// El orden por relevancia no puede venir de un índice: solo se comprueba que se usa el de texto
+		List<Document> queries = profiledQueries();
+		assertFalse(queries.isEmpty());
+		queries.forEach(query -> assertTrue(query.getString("planSummary").startsWith("IXSCAN { _fts"),
+				query.getString("planSummary")));
+	}
+
+	private static void assertVisible(Collection<Post> posts) {
+		assertFalse(posts.isEmpty());
+		assertTrue(posts.stream().allMatch(Post::isVisible), "Se han devuelto posts ocultos");
+	}
+
+	/**
+	 * Comprueba que cada consulta registrada por el profiler recorrió un índice y no ordenó en memoria.
+	 */
+	private static void assertIndexScanWithoutSort(int expectedQueries) {
+		List<Document> queries = profiledQueries();
+		assertTrue(queries.size() >= expectedQueries, "Consultas registradas: " + queries.size());
+		for (Document query : queries) {
+			String plan = query.getString("planSummary");
+			assertTrue(plan.startsWith("IXSCAN") && !plan.contains("COLLSCAN"), "Sin índice: " + query.toJson());
+			assertFalse(query.getBoolean("hasSortStage", false), "Ordenación en memoria: " + query.toJson());
+		}
+	}
+
+	private static List<Document> profiledQueries() {
+		return mongoTemplate.getDb().getCollection("system.profile")
+				.find(new Document("ns", "miblog.posts").append("op", "query"))
+				.into(new ArrayList<>());
+	}
+
+}
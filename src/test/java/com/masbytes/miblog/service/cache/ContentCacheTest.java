@@ -0,0 +1,287 @@
+package com.masbytes.miblog.service.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import com.masbytes.miblog.dto.PostContent;
+import com.masbytes.miblog.exception.PostContentUnavailableException;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Comprueba la caché de archivos contra un servidor HTTP local que sustituye al almacenamiento
+ * externo y cuenta las descargas de cada ruta.
+ */
+public class ContentCacheTest {
+
+	@TempDir
+	private Path cacheDir;
+
+	private HttpServer storage;
+
+	private final Map<String, byte[]> files = new ConcurrentHashMap<>();
+
+	private final Map<String, AtomicInteger> downloads = new ConcurrentHashMap<>();
+
+	private final Map<String, String> redirects = new ConcurrentHashMap<>();
+
+	@BeforeEach
+	void setUp() throws IOException {
+		storage = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		storage.createContext("/", exchange -> {
+			String path = exchange.getRequestURI().getPath();
+			downloads.computeIfAbsent(path, key -> new AtomicInteger()).incrementAndGet();
+			byte[] body = files.get(path);
+			if (redirects.containsKey(path)) {
+				exchange.getResponseHeaders().set("Location", redirects.get(path));
+				exchange.sendResponseHeaders(302, -1);
+			} else if (body == null) {
+				exchange.sendResponseHeaders(404, -1);
+			} else {
+				exchange.getResponseHeaders().set("Content-Type", "application/pdf");
+				// Las rutas /chunked/ se envían sin Content-Length
+				exchange.sendResponseHeaders(200, path.startsWith("/chunked/") ? 0 : body.length);
+				try (OutputStream out = exchange.getResponseBody()) {
+					out.write(body);
+				}
+			}
+			exchange.close();
+		});
+		storage.setExecutor(Executors.newFixedThreadPool(4));
+		storage.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		storage.stop(0);
+	}
+
+	// Testing: Ok
+	@Test
+	void open_DownloadsOnceAndServesFromDisk() throws Exception {
+		files.put("/a.pdf", bytes("Contenido del post"));
+		ContentCache cache = cache(DataSize.ofMegabytes(1));
+
+		assertEquals("Contenido del post", read(cache.open(url("/a.pdf"))));
+		assertEquals("Contenido del post", read(cache.open(url("/a.pdf"))));
+
+		assertEquals(1, downloads.get("/a.pdf").get());
+		assertEquals(18, cache.size());
+	}
+
+	// Testing: Ok
+	@Test
+	void open_ConcurrentRequestsShareOneDownload() throws Exception {
+		files.put("/a.pdf", bytes("Contenido del post"));
+		ContentCache cache = cache(DataSize.ofMegabytes(1));
+
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<Future<String>> results = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			results.add(executor.submit(() -> {
+				start.await();
+				return read(cache.open(url("/a.pdf")));
+			}));
+		}
+		start.countDown();
+		for (Future<String> result : results) {
+			assertEquals("Contenido del post", result.get());
+		}
+		executor.shutdown();
+
+		assertEquals(1, downloads.get("/a.pdf").get());
+	}
+
+	// Testing: Ok
+	@Test
+	void open_SameContentIsStoredOnce() throws Exception {
+		files.put("/a.pdf", bytes("Mismo contenido"));
+		files.put("/copia.pdf", bytes("Mismo contenido"));
+		ContentCache cache = cache(DataSize.ofMegabytes(1));
+
+		PostContent first = cache.open(url("/a.pdf"));
+		PostContent second = cache.open(url("/copia.pdf"));
+		first.close();
+		second.close();
+
+		assertEquals(first.getHash(), second.getHash());
+		assertEquals(15, cache.size());
+		assertEquals(1, Files.list(cacheDir).count());
+	}
+
+	// Testing: Ok
+	@Test
+	void open_EvictsLeastRecentlyUsedOverBudget() throws Exception {
+		files.put("/a.pdf", new byte[400]);
+		files.put("/b.pdf", bytes("b".repeat(400)));
+		files.put("/c.pdf", bytes("c".repeat(400)));
+		ContentCache cache = cache(DataSize.ofBytes(1000));
+
+		cache.open(url("/a.pdf")).close();
+		cache.open(url("/b.pdf")).close();
+		// Usar a.pdf de nuevo deja b.pdf como el usado hace más tiempo
+		cache.open(url("/a.pdf")).close();
+		cache.open(url("/c.pdf")).close();
+
+		assertEquals(800, cache.size());
+		cache.open(url("/a.pdf")).close();
+		cache.open(url("/b.pdf")).close();
+		assertEquals(1, downloads.get("/a.pdf").get());
+		assertEquals(2, downloads.get("/b.pdf").get());
+	}
+
+	// Testing: Ok
+	@Test
+	void open_EvictedFileStaysReadableWhileOpen() throws Exception {
+		files.put("/a.pdf", bytes("a".repeat(600)));
+		files.put("/b.pdf", bytes("b".repeat(600)));
+		ContentCache cache = cache(DataSize.ofBytes(1000));
+
+		PostContent first = cache.open(url("/a.pdf"));
+		cache.open(url("/b.pdf")).close();
+
+		assertEquals("a".repeat(600), read(first));
+		assertEquals(600, cache.size());
+	}
+
+	// Testing: Ok
+	@Test
+	void open_StorageErrorIsUnavailable() throws Exception {
+		ContentCache cache = cache(DataSize.ofMegabytes(1));
+
+		assertThrows(PostContentUnavailableException.class, () -> cache.open(url("/no-existe.pdf")));
+		assertThrows(PostContentUnavailableException.class, () -> cache.open("file:///etc/passwd"));
+		assertEquals(0, cache.size());
+		assertEquals(0, Files.list(cacheDir).count());
+	}
+
+	// Testing: Ok
+	@Test
+	void open_RejectsHostsOutsideAllowlist() throws Exception {
+		files.put("/a.pdf", bytes("Contenido del post"));
+		ContentCache cache = cache(DataSize.ofMegabytes(1), List.of("storage.misitio.com", ".cdn.misitio.com"), true,
+				DataSize.ofMegabytes(1));
+
+		assertThrows(PostContentUnavailableException.class, () -> cache.open(url("/a.pdf")));
+		assertNull(downloads.get("/a.pdf"));
+	}
+
+	// Testing: Ok
+	@Test
+	void open_RejectsInternalAddresses() throws Exception {
+		files.put("/a.pdf", bytes("Contenido del post"));
+		ContentCache cache = cache(DataSize.ofMegabytes(1), List.of(), false, DataSize.ofMegabytes(1));
+
+		assertThrows(PostContentUnavailableException.class, () -> cache.open(url("/a.pdf")));
+		assertThrows(PostContentUnavailableException.class,
+				() -> cache.open("http://169.254.169.254/latest/meta-data/"));
+		assertThrows(PostContentUnavailableException.class, () -> cache.open("http://10.0.0.1/a.pdf"));
+		assertThrows(PostContentUnavailableException.class, () -> cache.open("http://[::1]/a.pdf"));
+		assertNull(downloads.get("/a.pdf"));
+	}
+
+	// Testing: Ok
+	@Test
+	void open_ChecksEveryRedirect() throws Exception {
+		files.put("/a.pdf", bytes("Contenido del post"));
+		redirects.put("/movido.pdf", "/a.pdf");
+		redirects.put("/fuera.pdf", "http://127.0.0.1:" + storage.getAddress().getPort() + "/a.pdf");
+		redirects.put("/bucle.pdf", "/bucle.pdf");
+		ContentCache cache = cache(DataSize.ofMegabytes(1), List.of("localhost"), true, DataSize.ofMegabytes(1));
+
+		assertEquals("Contenido del post", read(cache.open(url("/movido.pdf"))));
+		assertEquals(1, downloads.get("/a.pdf").get());
+
+		// El destino de la redirección no está en la lista de hosts
+		assertThrows(PostContentUnavailableException.class, () -> cache.open(url("/fuera.pdf")));
+		assertEquals(1, downloads.get("/a.pdf").get());
+		assertThrows(PostContentUnavailableException.class, () -> cache.open(url("/bucle.pdf")));
+		assertEquals(6, downloads.get("/bucle.pdf").get());
+	}
+
+	// Testing: Ok
+	@Test
+	void open_AbortsDownloadsOverMaxSize() throws Exception {
+		files.put("/a.pdf", new byte[400]);
+		files.put("/chunked/a.pdf", new byte[400]);
+		files.put("/chunked/b.pdf", new byte[100]);
+		ContentCache cache = cache(DataSize.ofMegabytes(1), List.of(), true, DataSize.ofBytes(100));
+
+		assertThrows(PostContentUnavailableException.class, () -> cache.open(url("/a.pdf")));
+		assertThrows(PostContentUnavailableException.class, () -> cache.open(url("/chunked/a.pdf")));
+		assertEquals(0, cache.size());
+		assertEquals(0, Files.list(cacheDir).count());
+
+		cache.open(url("/chunked/b.pdf")).close();
+		assertEquals(100, cache.size());
+	}
+
+	// Testing: Ok
+	@Test
+	void constructor_DeletesPreviousRunFiles() throws Exception {
+		Path leftover = Files.writeString(cacheDir.resolve("a".repeat(64)), "antiguo");
+		Path unrelated = Files.writeString(cacheDir.resolve("notas.txt"), "no es de la caché");
+
+		cache(DataSize.ofMegabytes(1));
+
+		assertFalse(Files.exists(leftover));
+		assertTrue(Files.exists(unrelated));
+	}
+
+	private ContentCache cache(DataSize maxSize) throws IOException {
+		// El almacenamiento de prueba escucha en localhost
+		return cache(maxSize, List.of(), true, DataSize.ofMegabytes(1));
+	}
+
+	private ContentCache cache(DataSize maxSize, List<String> allowedHosts, boolean allowPrivateAddresses,
+			DataSize maxFileSize) throws IOException {
+		return new ContentCache(cacheDir, maxSize, Duration.ofSeconds(5), allowedHosts, allowPrivateAddresses,
+				maxFileSize, new SimpleMeterRegistry());
+	}
+
+	private String url(String path) {
+		return "http://localhost:" + storage.getAddress().getPort() + path;
+	}
+
+	private static byte[] bytes(String text) {
+		return text.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static String read(PostContent content) throws IOException {
+		try (content) {
+			ByteBuffer buffer = ByteBuffer.allocate((int) content.getLength());
+			content.getChannel().read(buffer, 0);
+			return new String(buffer.array(), StandardCharsets.UTF_8);
+		}
+	}
+
+}
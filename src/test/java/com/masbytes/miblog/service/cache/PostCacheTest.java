@@ -0,0 +1,135 @@
+package com.masbytes.miblog.service.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.event.PostChangedEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class PostCacheTest {
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private PostCache postCache;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		postCache = new PostCache(Duration.ofMinutes(10), DataSize.ofMegabytes(1), meterRegistry);
+	}
+
+	// Testing: Ok
+	@Test
+	void onPostChanged_ReplacesCachedPost() {
+		Post cached = post("1", "Título original", 0);
+		postCache.get("1", id -> Optional.of(cached));
+
+		Post updated = post("1", "Título nuevo", 1);
+		postCache.onPostChanged(new PostChangedEvent(updated));
+
+		assertEquals("Título nuevo", postCache.get("1", id -> Optional.empty()).get().getTitle());
+	}
+
+	// Testing: Ok
+	@Test
+	void onPostChanged_IgnoresOlderRevision() {
+		postCache.get("1", id -> Optional.of(post("1", "Título nuevo", 2)));
+
+		postCache.onPostChanged(new PostChangedEvent(post("1", "Título original", 1)));
+
+		assertEquals("Título nuevo", postCache.getIfPresent("1").orElseThrow().getTitle());
+	}
+
+	// Testing: Ok
+	@Test
+	void onPostChanged_ReplacesPostLoadedBeforeTheWrite() throws Exception {
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			// La carga lee la versión anterior y la escritura publica su evento antes de que termine
+			Future<Optional<Post>> load = executor.submit(() -> postCache.get("1", id -> {
+				loading.countDown();
+				await(release);
+				return Optional.of(post("1", "Título original", 0));
+			}));
+			loading.await();
+			Future<?> changed = executor.submit(
+					() -> postCache.onPostChanged(new PostChangedEvent(post("1", "Título nuevo", 1))));
+			Thread.sleep(50);
+			release.countDown();
+			load.get(5, TimeUnit.SECONDS);
+			changed.get(5, TimeUnit.SECONDS);
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals("Título nuevo", postCache.getIfPresent("1").orElseThrow().getTitle());
+	}
+
+	// Testing: Ok
+	@Test
+	void onPostChanged_DoesNotCacheUnreadPosts() {
+		postCache.onPostChanged(new PostChangedEvent(post("2", "Nunca leído")));
+
+		assertFalse(postCache.get("2", id -> Optional.empty()).isPresent());
+	}
+
+	// Testing: Ok
+	@Test
+	void metrics_RecordHitsAndMisses() {
+		postCache.get("1", id -> Optional.of(post("1", "Título")));
+		postCache.get("1", id -> Optional.empty());
+
+		assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", PostCache.NAME).tag("result", "hit")
+				.functionCounter().count());
+		assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", PostCache.NAME).tag("result", "miss")
+				.functionCounter().count());
+	}
+
+	// Testing: Ok
+	@Test
+	void estimateSize_GrowsWithContent() {
+		Post small = post("1", "T");
+		Post large = post("1", "T".repeat(1_000));
+
+		assertTrue(PostCache.estimateSize("1", large) > PostCache.estimateSize("1", small) + 1_000);
+	}
+
+	private static Post post(String id, String title) {
+		Post post = new Post();
+		post.setId(id);
+		post.setTitle(title);
+		return post;
+	}
+
+	private static Post post(String id, String title, long version) {
+		Post post = post(id, title);
+		post.setVersion(version);
+		return post;
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
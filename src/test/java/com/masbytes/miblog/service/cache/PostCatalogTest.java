@@ -0,0 +1,212 @@
+package com.masbytes.miblog.service.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.masbytes.miblog.dto.PostCursor;
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.event.PostChangedEvent;
+import com.masbytes.miblog.event.PostsChangedEvent;
+import com.masbytes.miblog.repo.PostRepo;
+
+@ExtendWith(MockitoExtension.class)
+public class PostCatalogTest {
+
+	private static final LocalDateTime DAY = LocalDateTime.of(2025, 2, 15, 0, 0);
+
+	@Mock
+	private PostRepo postRepo;
+
+	private PostCatalog catalog;
+
+	private Post fisica;
+	private Post quimica;
+	private Post historia;
+
+	@BeforeEach
+	void setUp() {
+		fisica = post("1", 3, "ciencia", "física");
+		quimica = post("2", 2, "ciencia", "química");
+		historia = post("3", 1, "historia", "física");
+
+		when(postRepo.streamByVisibleTrue()).thenReturn(Stream.of(quimica, historia, fisica));
+		when(postRepo.streamHiddenDates()).thenReturn(Stream.of());
+		catalog = new PostCatalog(postRepo, true);
+		catalog.rebuild();
+	}
+
+	// Testing: Ok
+	@Test
+	void findPageByTagsIn_OrderedAndContinuesAfterCursor() {
+		assertEquals(List.of(fisica, quimica, historia), catalog.findPageByTagsIn(List.of("ciencia", "física"), null, 10));
+
+		List<Post> first = catalog.findPageByTagsIn(List.of("física"), null, 1);
+		assertEquals(List.of(fisica), first);
+		assertEquals(List.of(historia), catalog.findPageByTagsIn(List.of("física"), PostCursor.after(first.get(0)), 10));
+		assertEquals(List.of(), catalog.findPageByTagsIn(List.of("inexistente"), null, 10));
+	}
+
+	// Testing: Ok
+	@Test
+	void findPageByCreatedAtBetween_ExcludesBounds() {
+		assertEquals(List.of(fisica, quimica, historia), catalog.findPageByCreatedAtBetween(DAY, DAY.plusDays(1), null, 10));
+		assertEquals(List.of(quimica), catalog.findPageByCreatedAtBetween(DAY.plusHours(1), DAY.plusHours(3), null, 10));
+		assertEquals(List.of(quimica, historia),
+				catalog.findPageByCreatedAtBetween(DAY, DAY.plusDays(1), PostCursor.after(fisica), 10));
+		assertEquals(List.of(fisica), catalog.findPageByCreatedAtBetween(DAY, DAY.plusDays(1), null, 1));
+		assertEquals(Optional.of(DAY.plusHours(3)), catalog.findLastModifiedByCreatedAtBetween(DAY, DAY.plusDays(1)));
+	}
+
+	// Testing: Ok
+	@Test
+	void onPostChanged_PublishesNewSnapshot() {
+		Post retagged = version(post("2", 2, "historia"), 1);
+		Post hidden = version(post("1", 3, "ciencia", "física"), 1);
+		hidden.setVisible(false);
+		Post created = post("4", 4, "ciencia");
+
+		catalog.onPostChanged(new PostChangedEvent(retagged));
+		catalog.onPostChanged(new PostChangedEvent(hidden));
+		catalog.onPostChanged(new PostChangedEvent(created));
+
+		assertEquals(Optional.of(retagged), catalog.findById("2"));
+		assertEquals(Optional.empty(), catalog.findById("1"));
+		assertEquals(List.of(created), catalog.findPageByTagsIn(List.of("ciencia"), null, 10));
+		assertEquals(List.of(created, retagged, historia), catalog.findPageByCreatedAtBetween(DAY, DAY.plusDays(1), null, 10));
+	}
+
+	// Testing: Ok
+	@Test
+	void onPostChanged_IgnoresOlderRevision() {
+		Post newer = version(post("2", 2, "historia"), 2);
+		Post older = version(post("2", 2, "química"), 1);
+		Post hidden = version(post("1", 3, "ciencia"), 1);
+		hidden.setVisible(false);
+		Post shownBeforeHiding = post("1", 3, "ciencia");
+
+		// Los eventos de escrituras concurrentes pueden llegar en cualquier orden
+		catalog.onPostChanged(new PostChangedEvent(newer));
+		catalog.onPostChanged(new PostChangedEvent(older));
+		catalog.onPostChanged(new PostChangedEvent(hidden));
+		catalog.onPostChanged(new PostChangedEvent(shownBeforeHiding));
+
+		assertEquals(Optional.of(newer), catalog.findById("2"));
+		assertEquals(Optional.empty(), catalog.findById("1"));
+	}
+
+	// Testing: Ok
+	@Test
+	void onPostsChanged_AppliesBatchAndSkipsItsPostEvents() {
+		Post created = post("4", 4, "ciencia");
+		Post hidden = version(post("1", 3, "ciencia", "física"), 1);
+		hidden.setVisible(false);
+		Post older = post("2", 2, "química");
+
+		catalog.onPostsChanged(new PostsChangedEvent(List.of(created, hidden, older)));
+
+		assertEquals(List.of(created, quimica), catalog.findPageByTagsIn(List.of("ciencia"), null, 10));
+		assertEquals(Optional.empty(), catalog.findById("1"));
+		assertEquals(Optional.of(DAY.plusHours(4)), catalog.findLastModifiedByCreatedAtBetween(DAY, DAY.plusDays(1)));
+
+		// El evento de cada post del lote ya está aplicado
+		catalog.onPostChanged(new PostChangedEvent(created));
+		assertEquals(3, catalog.size());
+	}
+
+	// Testing: Ok
+	@Test
+	void isEnabled_OnlyOnceBuilt() {
+		PostCatalog pending = new PostCatalog(postRepo, true);
+		assertFalse(pending.isEnabled());
+
+		when(postRepo.streamByVisibleTrue()).thenReturn(Stream.of(fisica));
+		when(postRepo.streamHiddenDates()).thenReturn(Stream.of());
+		pending.rebuild();
+		assertTrue(pending.isEnabled());
+		assertFalse(new PostCatalog(postRepo, false).isEnabled());
+	}
+
+	// Testing: Ok
+	@Test
+	void findLastModifiedByCreatedAtBetween_IncludesHiddenPosts() {
+		Post hidden = version(post("1", 3, "ciencia", "física"), 1);
+		hidden.setModifiedAt(DAY.plusHours(5));
+		hidden.setVisible(false);
+
+		// Ocultar el último post modificado no devuelve la fecha de una modificación anterior
+		catalog.onPostChanged(new PostChangedEvent(hidden));
+		assertEquals(Optional.of(DAY.plusHours(5)), catalog.findLastModifiedByCreatedAtBetween(DAY, DAY.plusDays(1)));
+
+		// Ni al reconstruir el catálogo, que lee las fechas de los posts ocultos
+		when(postRepo.streamByVisibleTrue()).thenReturn(Stream.of(quimica, historia));
+		when(postRepo.streamHiddenDates()).thenReturn(Stream.of(hidden));
+		catalog.rebuild();
+		assertEquals(Optional.of(DAY.plusHours(5)), catalog.findLastModifiedByCreatedAtBetween(DAY, DAY.plusDays(1)));
+		assertEquals(Optional.of(DAY.plusHours(2)),
+				catalog.findLastModifiedByCreatedAtBetween(DAY.plusHours(1), DAY.plusHours(3)));
+		assertEquals(Optional.empty(), catalog.findById("1"));
+	}
+
+	// Testing: Ok
+	@Test
+	void findPageByTagsIn_ReadersNeverSeePartialWrites() throws Exception {
+		AtomicBoolean running = new AtomicBoolean(true);
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		List<Future<?>> readers = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			readers.add(executor.submit(() -> {
+				while (running.get()) {
+					// Las posiciones por etiqueta y los posts son siempre de la misma instantánea
+					List<Post> page = catalog.findPageByTagsIn(List.of("ciencia"), null, 10);
+					assertTrue(page.stream().allMatch(post -> post.getTags().contains("ciencia")), "Página mezclada: " + page);
+					assertEquals(page.stream().sorted(PostCursor.NEWEST_FIRST).toList(), page);
+				}
+				return null;
+			}));
+		}
+
+		for (int i = 0; i < 2_000; i++) {
+			catalog.onPostChanged(new PostChangedEvent(version(post("1", 3, i % 2 == 0 ? "física" : "ciencia"), i + 1)));
+			catalog.onPostChanged(new PostChangedEvent(version(post("5", i % 5, "ciencia"), i)));
+		}
+		running.set(false);
+		for (Future<?> reader : readers) {
+			reader.get();
+		}
+		executor.shutdown();
+	}
+
+	private static Post version(Post post, long version) {
+		post.setVersion(version);
+		return post;
+	}
+
+	private static Post post(String id, int hour, String... tags) {
+		Post post = new Post();
+		post.setId(id);
+		post.setTitle("Post " + id);
+		post.setTags(List.of(tags));
+		post.setCreatedAt(DAY.plusHours(hour));
+		post.setModifiedAt(DAY.plusHours(hour));
+		return post;
+	}
+
+}
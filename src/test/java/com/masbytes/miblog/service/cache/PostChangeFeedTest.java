@@ -0,0 +1,230 @@
+package com.masbytes.miblog.service.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.springframework.util.unit.DataSize;
+
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.event.PostChangedEvent;
+import com.masbytes.miblog.repo.PostRepo;
+import com.masbytes.miblog.repo.PostRepoCustomImpl;
+import com.masbytes.miblog.service.impl.PostServiceImpl;
+import com.masbytes.miblog.service.index.PostArchive;
+import com.masbytes.miblog.service.index.PostSearchIndex;
+import com.masbytes.miblog.service.index.TagBitmapIndex;
+import com.masbytes.miblog.service.index.TagFacets;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Comprueba la coherencia entre dos instancias de la API que comparten un servidor MongoDB en
+ * memoria, cada una con su propia caché, su catálogo y su consulta de modificaciones.
+ */
+public class PostChangeFeedTest {
+
+	private MongoServer server;
+
+	private String connectionString;
+
+	private Node first;
+
+	private Node second;
+
+	@BeforeEach
+	void setUp() {
+		server = new MongoServer(new MemoryBackend());
+		connectionString = server.bindAndGetConnectionString();
+		first = new Node(Duration.ofSeconds(1));
+		second = new Node(Duration.ofSeconds(1));
+	}
+
+	@AfterEach
+	void tearDown() {
+		first.close();
+		second.close();
+		server.shutdownNow();
+	}
+
+	// Testing: Ok
+	@Test
+	void poll_AppliesWritesFromOtherInstance() {
+		Post created = first.postService.createPost(post("Teoría de la Relatividad"));
+		assertEquals(1, second.feed.poll());
+		assertEquals(created.getId(), second.catalog.findById(created.getId()).orElseThrow().getId());
+
+		// La segunda instancia lee el post de su catálogo; la modificación llega con la siguiente consulta
+		first.postService.patchPost(created.getId(), Map.of("summary", "Nuevo resumen"));
+		assertEquals("Resumen de Teoría de la Relatividad", second.postService.getPostById(created.getId()).getSummary());
+		assertEquals(1, second.feed.poll());
+		assertEquals("Nuevo resumen", second.postService.getPostById(created.getId()).getSummary());
+
+		// Las versiones ya aplicadas, incluidas las escrituras propias, no se vuelven a publicar
+		assertEquals(0, second.feed.poll());
+		assertEquals(0, first.feed.poll());
+	}
+
+	// Testing: Ok
+	@Test
+	void poll_ReadsEveryPageWhenWindowHoldsMoreThanBatch() {
+		// Con lotes de 2, los 5 posts caen dentro de la misma ventana de solapamiento
+		List<Post> created = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			created.add(first.postService.createPost(post("Post número " + i)));
+		}
+
+		assertEquals(5, second.feed.poll());
+		created.forEach(post -> assertTrue(second.catalog.findById(post.getId()).isPresent()));
+
+		// La siguiente consulta solo aplica las escrituras nuevas
+		Post later = first.postService.createPost(post("Post posterior"));
+		assertEquals(1, second.feed.poll());
+		assertTrue(second.catalog.findById(later.getId()).isPresent());
+		assertEquals(0, second.feed.poll());
+	}
+
+	// Testing: Ok
+	@Test
+	void poll_AppliesExtractedContentFromOtherInstance() {
+		Post created = first.postService.createPost(post("Teoría de la Relatividad"));
+		assertEquals(1, second.feed.poll());
+
+		// La extracción no cambia la versión ni la fecha de modificación del post
+		Post extracted = first.postRepo.updateContent(created.getId(), created.getPdfUrl(), List.of("espacio", "tiempo"))
+				.orElseThrow();
+		first.publish(new PostChangedEvent(extracted));
+		assertEquals(created.getVersion(), extracted.getVersion());
+
+		assertEquals(1, second.feed.poll());
+		assertEquals(List.of("espacio", "tiempo"), second.catalog.findById(created.getId()).orElseThrow().getContentTerms());
+		assertEquals(0, second.feed.poll());
+		assertEquals(0, first.feed.poll());
+	}
+
+	// Testing: Ok
+	@Test
+	void poll_ReadsEveryContentPageWhenWindowHoldsMoreThanBatch() {
+		List<Post> created = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			created.add(first.postService.createPost(post("Post número " + i)));
+		}
+		assertEquals(5, second.feed.poll());
+
+		// Con lotes de 2, las 5 extracciones se leen por páginas de (content_modified_at, _id)
+		for (Post post : created) {
+			first.publish(new PostChangedEvent(first.postRepo.updateContent(post.getId(), post.getPdfUrl(),
+					List.of("termino")).orElseThrow()));
+		}
+		assertEquals(5, second.feed.poll());
+		created.forEach(post -> assertEquals(List.of("termino"),
+				second.catalog.findById(post.getId()).orElseThrow().getContentTerms()));
+		assertEquals(0, second.feed.poll());
+		assertEquals(0, first.feed.poll());
+	}
+
+	// Testing: Ok
+	@Test
+	void poll_AppliesVisibilityAndRefreshesCache() {
+		Post created = first.postService.createPost(post("Mecánica Cuántica"));
+		second.feed.poll();
+		second.postCache.get(created.getId(), second.postRepo::findById);
+
+		first.postService.setPostVisibility(created.getId(), false);
+		second.feed.poll();
+
+		// El post oculto sale del catálogo y la caché guarda la versión nueva
+		assertTrue(second.catalog.findById(created.getId()).isEmpty());
+		Post cached = second.postCache.getIfPresent(created.getId()).orElseThrow();
+		assertEquals(1L, cached.getVersion());
+		assertEquals(List.of(), second.postService.getRecentPosts(null, null, null).getPosts());
+	}
+
+	// Testing: Ok
+	@Test
+	void start_StalenessBoundedByPollInterval() throws Exception {
+		Node fast = new Node(Duration.ofMillis(50));
+		try {
+			fast.feed.start();
+			Post created = first.postService.createPost(post("Teoría de Cuerdas"));
+			first.postService.patchPost(created.getId(), Map.of("summary", "Nuevo resumen"));
+
+			long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+			while (fast.catalog.findById(created.getId()).map(Post::getSummary).filter("Nuevo resumen"::equals).isEmpty()) {
+				assertTrue(System.nanoTime() < deadline, "La modificación no llegó a la otra instancia");
+				Thread.sleep(10);
+			}
+		} finally {
+			fast.close();
+		}
+	}
+
+	private static Post post(String title) {
+		Post post = new Post();
+		post.setTitle(title);
+		post.setSummary("Resumen de " + title);
+		post.setPdfUrl("https://misitio.com/post.pdf");
+		return post;
+	}
+
+	/**
+	 * Una instancia de la API: su conexión, sus estructuras en memoria y su consulta de
+	 * modificaciones, conectadas por sus propios eventos.
+	 */
+	private final class Node {
+
+		private final MongoClient client;
+
+		private final PostRepo postRepo;
+
+		private final PostCache postCache;
+
+		private final PostCatalog catalog;
+
+		private final PostChangeFeed feed;
+
+		private final PostServiceImpl postService;
+
+		Node(Duration pollInterval) {
+			client = MongoClients.create(connectionString);
+			MongoTemplate mongoTemplate = new MongoTemplate(client, "miblog");
+			postRepo = new MongoRepositoryFactory(mongoTemplate).getRepository(PostRepo.class,
+					RepositoryFragments.just(new PostRepoCustomImpl(mongoTemplate)));
+			postCache = new PostCache(Duration.ofMinutes(1), DataSize.ofMegabytes(1), new SimpleMeterRegistry());
+			catalog = new PostCatalog(postRepo, true);
+			catalog.rebuild();
+			feed = new PostChangeFeed(postRepo, this::publish, pollInterval, Duration.ofSeconds(5), 2,
+					new SimpleMeterRegistry());
+			postService = new PostServiceImpl(postRepo, this::publish, new PostSearchIndex(postRepo, false), postCache,
+					new TagBitmapIndex(postRepo, false), new PostArchive(postRepo, false), new TagFacets(postRepo, false), catalog);
+		}
+
+		private void publish(Object event) {
+			PostChangedEvent changed = (PostChangedEvent) event;
+			postCache.onPostChanged(changed);
+			catalog.onPostChanged(changed);
+			feed.onPostChanged(changed);
+		}
+
+		void close() {
+			feed.stop();
+			client.close();
+		}
+
+	}
+
+}
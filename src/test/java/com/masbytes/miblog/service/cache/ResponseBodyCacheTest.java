@@ -0,0 +1,209 @@
+package com.masbytes.miblog.service.cache;
+
+import static com.masbytes.miblog.dto.ResponseFormat.JSON;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.masbytes.miblog.dto.EncodedResponse;
+import com.masbytes.miblog.dto.PostPage;
+import com.masbytes.miblog.dto.PostVersion;
+import com.masbytes.miblog.dto.ResponseFormat;
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.event.PostChangedEvent;
+import com.masbytes.miblog.exception.PostInvalidDataException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ResponseBodyCacheTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private ResponseBodyCache cache;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		cache = cache(true);
+	}
+
+	// Testing: Ok
+	@Test
+	void getPost_SerializesOncePerVersion() throws Exception {
+		Post post = post("1", "Teoría de la Relatividad", 3L);
+
+		EncodedResponse first = cache.getPost(post, false);
+		assertArrayEquals(objectMapper.writeValueAsBytes(post), first.getBody());
+		assertSame(first, cache.getPost(post, false));
+		assertEquals(first.getBody().length, served("identity"));
+
+		// Una versión nueva se serializa de nuevo
+		Post modified = post("1", "Teoría de la Relatividad General", 4L);
+		cache.onPostChanged(new PostChangedEvent(modified));
+		EncodedResponse second = cache.getPost(modified, false);
+		assertNotSame(first, second);
+		assertArrayEquals(objectMapper.writeValueAsBytes(modified), second.getBody());
+	}
+
+	// Testing: Ok
+	@Test
+	void getPage_PageReadBeforeWriteNotServedAfterIt() {
+		AtomicInteger loads = new AtomicInteger();
+		List<Object> query = List.of("recent", 20);
+		PostPage before = new PostPage(List.of(post("1", "Mecánica Cuántica", 1L)), "cursor");
+
+		long generation = cache.generation();
+		assertEquals("cursor", cache.getPage(query, generation, () -> page(loads, before), JSON, false).getNextCursor());
+		cache.getPage(query, cache.generation(), () -> page(loads, before), JSON, false);
+		assertEquals(1, loads.get());
+
+		// Una página leída con la generación anterior a la escritura solo se sirve a las peticiones que
+		// empezaron antes que ella
+		cache.onPostChanged(new PostChangedEvent(post("2", "Teoría de Cuerdas", 1L)));
+		cache.getPage(query, generation, () -> page(loads, before), JSON, false);
+		assertEquals(1, loads.get());
+		PostPage after = new PostPage(List.of(post("2", "Teoría de Cuerdas", 1L)), null);
+		EncodedResponse response = cache.getPage(query, cache.generation(), () -> page(loads, after), JSON, false);
+		assertEquals(2, loads.get());
+		assertNull(response.getNextCursor());
+		assertTrue(new String(response.getBody()).contains("Teoría de Cuerdas"));
+	}
+
+	// Testing: Ok
+	@Test
+	void getPage_EmptyPageHasNoBody() {
+		AtomicInteger loads = new AtomicInteger();
+		PostPage empty = new PostPage(List.of(), null);
+
+		assertTrue(cache.getPage(List.of("search", "nada"), 0, () -> page(loads, empty), JSON, true).isEmpty());
+		assertTrue(cache.getPage(List.of("search", "nada"), 0, () -> page(loads, empty), JSON, true).isEmpty());
+		assertEquals(1, loads.get());
+		assertEquals(0, served("identity"));
+	}
+
+	// Testing: Ok
+	@Test
+	void getPage_LargeBodiesAlsoCompressed() throws Exception {
+		List<Post> posts = List.of(post("1", "Relatividad ".repeat(200), 1L));
+		EncodedResponse large = cache.getPage(List.of("tags", "física"), 0, () -> new PostPage(posts, null), JSON, true);
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(large.getGzipBody()))) {
+			assertArrayEquals(large.getBody(), in.readAllBytes());
+		}
+		cache.getPage(List.of("tags", "física"), 0, () -> new PostPage(posts, null), JSON, true);
+		assertEquals(large.getGzipBody().length, served("gzip"));
+
+		// Los cuerpos pequeños no compensan la compresión
+		EncodedResponse small = cache.getPost(post("2", "Arte", 1L), true);
+		assertNull(small.getGzipBody());
+	}
+
+	// Testing: Ok
+	@Test
+	void getPage_BinaryFormatsWithEpochDatesAndSharedTags() throws Exception {
+		List<Post> posts = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			Post post = post(String.valueOf(i), "Post " + i, null);
+			post.setTags(List.of("ciencia", "física"));
+			posts.add(post);
+		}
+		byte[] json = cache.getPage(List.of("recent"), 0, () -> new PostPage(posts, null), JSON, false).getBody();
+
+		for (ResponseFormat format : List.of(ResponseFormat.CBOR, ResponseFormat.SMILE)) {
+			ObjectMapper mapper = format.objectMapper(objectMapper);
+			byte[] body = cache.getPage(List.of("recent"), 0, () -> new PostPage(posts, null), format, false).getBody();
+
+			assertEquals(posts, mapper.readValue(body, new TypeReference<List<Post>>() {}));
+			JsonNode first = mapper.readTree(body).get(0);
+			assertEquals(PostVersion.toEpochMilli(posts.get(0).getCreatedAt()), first.get("createdAt").longValue());
+			// Cada etiqueta se escribe una sola vez; las demás apariciones son referencias
+			assertEquals(1, occurrences(body, "física"), format.name());
+			assertTrue(body.length < json.length, format + ": " + body.length + " bytes frente a " + json.length);
+		}
+	}
+
+	// Testing: Ok
+	@Test
+	void getPage_FailedQueryNotCached() {
+		AtomicInteger loads = new AtomicInteger();
+		assertThrows(PostInvalidDataException.class, () -> cache.getPage(List.of("recent", "x"), 0, () -> {
+			loads.incrementAndGet();
+			throw new PostInvalidDataException("Cursor no válido");
+		}, JSON, false));
+		cache.getPage(List.of("recent", "x"), 0, () -> page(loads, new PostPage(List.of(), null)), JSON, false);
+		assertEquals(2, loads.get());
+	}
+
+	// Testing: Ok
+	@Test
+	void disabled_SerializesEveryRequest() throws IOException {
+		ResponseBodyCache disabled = cache(false);
+		AtomicInteger loads = new AtomicInteger();
+		List<Post> posts = List.of(post("1", "Relatividad ".repeat(200), 1L));
+
+		disabled.getPage(List.of("recent"), 0, () -> page(loads, new PostPage(posts, null)), JSON, true);
+		EncodedResponse response = disabled.getPage(List.of("recent"), 0, () -> page(loads, new PostPage(posts, null)), JSON, true);
+		assertEquals(2, loads.get());
+		assertNull(response.getGzipBody());
+		assertArrayEquals(objectMapper.writeValueAsBytes(posts), response.getBody());
+	}
+
+	private ResponseBodyCache cache(boolean enabled) {
+		return new ResponseBodyCache(objectMapper, enabled, Duration.ofMinutes(1), DataSize.ofMegabytes(1),
+				DataSize.ofKilobytes(1), meterRegistry);
+	}
+
+	private double served(String encoding) {
+		return meterRegistry.get(ResponseBodyCache.SERVED_METRIC).tag("encoding", encoding).counter().count();
+	}
+
+	private static int occurrences(byte[] body, String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		int count = 0;
+		for (int i = 0; i + bytes.length <= body.length; i++) {
+			if (Arrays.equals(body, i, i + bytes.length, bytes, 0, bytes.length)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static PostPage page(AtomicInteger loads, PostPage page) {
+		loads.incrementAndGet();
+		return page;
+	}
+
+	private static Post post(String id, String title, Long version) {
+		Post post = new Post();
+		post.setId(id);
+		post.setTitle(title);
+		post.setVersion(version);
+		post.setCreatedAt(LocalDateTime.of(2025, 2, 15, 10, 0));
+		return post;
+	}
+
+}
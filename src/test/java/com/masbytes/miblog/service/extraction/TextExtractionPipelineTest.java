@@ -0,0 +1,240 @@
+package com.masbytes.miblog.service.extraction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.masbytes.miblog.dto.PostContent;
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.event.PostChangedEvent;
+import com.masbytes.miblog.exception.PostContentUnavailableException;
+import com.masbytes.miblog.repo.PostRepo;
+import com.masbytes.miblog.service.cache.ContentCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Comprueba el encolado, la extracción y los reintentos de la extracción de texto con el
+ * repositorio y la caché de archivos simulados.
+ */
+public class TextExtractionPipelineTest {
+
+	private static final String URL = "https://misitio.com/post.txt";
+
+	@TempDir
+	private Path dir;
+
+	private PostRepo postRepo;
+
+	private ContentCache contentCache;
+
+	private ApplicationEventPublisher eventPublisher;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private TextExtractionPipeline pipeline;
+
+	@BeforeEach
+	void setUp() {
+		postRepo = mock(PostRepo.class);
+		contentCache = mock(ContentCache.class);
+		eventPublisher = mock(ApplicationEventPublisher.class);
+		meterRegistry = new SimpleMeterRegistry();
+		when(postRepo.streamIdsWithStaleContent()).thenReturn(Stream.empty());
+		pipeline = pipeline(2);
+	}
+
+	@AfterEach
+	void tearDown() {
+		pipeline.stop();
+	}
+
+	// Testing: Ok
+	@Test
+	void onPostChanged_EnqueuesOnlyChangedFilesOnce() {
+		Post extracted = post("1", URL);
+		extracted.setContentSource(URL);
+		extracted.setContentPending(null);
+		pipeline.onPostChanged(new PostChangedEvent(extracted));
+		assertEquals(0, pipeline.backlog());
+
+		// Dos cambios seguidos del mismo post dejan un solo trabajo
+		pipeline.onPostChanged(new PostChangedEvent(post("2", URL)));
+		pipeline.onPostChanged(new PostChangedEvent(post("2", URL)));
+		assertEquals(1, pipeline.backlog());
+	}
+
+	// Testing: Ok
+	@Test
+	void onPostChanged_FullQueueRejects() {
+		pipeline.onPostChanged(new PostChangedEvent(post("1", URL)));
+		pipeline.onPostChanged(new PostChangedEvent(post("2", URL)));
+		pipeline.onPostChanged(new PostChangedEvent(post("3", URL)));
+
+		assertEquals(2, pipeline.backlog());
+		assertEquals(1, jobs("rejected"));
+	}
+
+	// Testing: Ok
+	@Test
+	void process_StoresTermsAndPublishesPost() throws IOException {
+		Post post = post("1", URL);
+		Post saved = post("1", URL);
+		saved.setContentSource(URL);
+		saved.setContentPending(null);
+		when(postRepo.findById("1")).thenReturn(Optional.of(post));
+		when(contentCache.open(URL)).thenReturn(text("Teoría de la relatividad"));
+		when(postRepo.updateContent("1", URL, List.of("teoria", "de", "la", "relatividad")))
+				.thenReturn(Optional.of(saved));
+
+		pipeline.process(new TextExtractionPipeline.Job("1", 0));
+
+		verify(eventPublisher, times(1)).publishEvent(new PostChangedEvent(saved));
+		assertEquals(1, jobs("extracted"));
+		assertEquals(1, meterRegistry.get("miblog.extraction.duration").timer().count());
+	}
+
+	// Testing: Ok
+	@Test
+	void process_AlreadyExtractedIsSkipped() {
+		Post post = post("1", URL);
+		post.setContentSource(URL);
+		post.setContentPending(null);
+		when(postRepo.findById("1")).thenReturn(Optional.of(post));
+
+		pipeline.process(new TextExtractionPipeline.Job("1", 0));
+
+		verify(contentCache, never()).open(anyString());
+		verify(postRepo, never()).updateContent(anyString(), anyString(), anyList());
+		assertEquals(1, jobs("skipped"));
+	}
+
+	// Testing: Ok
+	@Test
+	void process_UnchangedFileKeepsTerms() {
+		Post post = post("1", URL);
+		post.setContentSource(URL);
+		post.setContentTerms(List.of("relatividad"));
+		post.setContentModifiedAt(LocalDateTime.now());
+		when(postRepo.findById("1")).thenReturn(Optional.of(post));
+
+		pipeline.process(new TextExtractionPipeline.Job("1", 0));
+
+		// Un archivo guardado de nuevo con la misma URL solo quita la marca
+		verify(contentCache, never()).open(anyString());
+		verify(postRepo).updateContent("1", URL, List.of("relatividad"));
+	}
+
+	// Testing: Ok
+	@Test
+	void process_UnreadableFileStoresNoTerms() throws IOException {
+		when(postRepo.findById("1")).thenReturn(Optional.of(post("1", URL)));
+		Path file = Files.writeString(dir.resolve("roto.pdf"), "%PDF-1.7 no es un PDF");
+		when(contentCache.open(URL)).thenReturn(open(file, "application/pdf"));
+		when(postRepo.updateContent("1", URL, List.of())).thenReturn(Optional.empty());
+
+		pipeline.process(new TextExtractionPipeline.Job("1", 0));
+
+		// Se guarda sin términos para no volver a intentarlo; el post cambió y no se publica nada
+		verify(postRepo, times(1)).updateContent("1", URL, List.of());
+		verify(eventPublisher, never()).publishEvent(any());
+		assertEquals(1, jobs("unreadable"));
+	}
+
+	// Testing: Ok
+	@Test
+	void start_RetriesDownloadWithBackoff() throws IOException {
+		when(postRepo.findById("1")).thenReturn(Optional.of(post("1", URL)));
+		when(contentCache.open(URL))
+				.thenThrow(new PostContentUnavailableException("El almacenamiento respondió 503"))
+				.thenThrow(new PostContentUnavailableException("El almacenamiento respondió 503"))
+				.thenReturn(text("Relatividad"));
+		when(postRepo.updateContent(eq("1"), eq(URL), anyList())).thenReturn(Optional.of(post("1", URL)));
+
+		pipeline.start();
+		pipeline.onPostChanged(new PostChangedEvent(post("1", URL)));
+
+		verify(postRepo, timeout(5_000)).updateContent("1", URL, List.of("relatividad"));
+		assertEquals(2, jobs("retried"));
+		assertEquals(0, jobs("failed"));
+	}
+
+	// Testing: Ok
+	@Test
+	void start_GivesUpAfterMaxAttempts() {
+		when(postRepo.findById("1")).thenReturn(Optional.of(post("1", URL)));
+		when(contentCache.open(URL)).thenThrow(new PostContentUnavailableException("El almacenamiento respondió 404"));
+
+		pipeline.start();
+		pipeline.onPostChanged(new PostChangedEvent(post("1", URL)));
+
+		verify(contentCache, timeout(5_000).times(3)).open(URL);
+		verify(postRepo, never()).updateContent(anyString(), anyString(), anyList());
+	}
+
+	// Testing: Ok
+	@Test
+	void start_SweepEnqueuesStalePosts() {
+		when(postRepo.streamIdsWithStaleContent()).thenReturn(Stream.of("1"));
+		when(postRepo.findById("1")).thenReturn(Optional.of(post("1", null)));
+		when(postRepo.updateContent("1", null, List.of())).thenReturn(Optional.empty());
+
+		pipeline.start();
+
+		// Un post sin archivo se marca como extraído sin descargar nada
+		verify(postRepo, timeout(5_000)).updateContent("1", null, List.of());
+		verify(contentCache, never()).open(any());
+	}
+
+	private TextExtractionPipeline pipeline(int queueCapacity) {
+		return new TextExtractionPipeline(postRepo, contentCache, eventPublisher, 1, queueCapacity, 3,
+				Duration.ofMillis(10), Duration.ofHours(1), 10, 100, meterRegistry);
+	}
+
+	private double jobs(String result) {
+		return meterRegistry.get(TextExtractionPipeline.JOBS_METRIC).tag("result", result).counter().count();
+	}
+
+	private PostContent text(String body) throws IOException {
+		return open(Files.writeString(Files.createTempFile(dir, "post", ".txt"), body), "text/plain");
+	}
+
+	private static PostContent open(Path file, String contentType) throws IOException {
+		return new PostContent(FileChannel.open(file, StandardOpenOption.READ), Files.size(file), contentType, "hash");
+	}
+
+	private static Post post(String id, String pdfUrl) {
+		Post post = new Post();
+		post.setId(id);
+		post.setTitle("Post " + id);
+		post.setPdfUrl(pdfUrl);
+		post.setContentPending(true);
+		return post;
+	}
+
+}
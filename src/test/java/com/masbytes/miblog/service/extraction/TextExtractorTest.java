@@ -0,0 +1,108 @@
+package com.masbytes.miblog.service.extraction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.masbytes.miblog.dto.PostContent;
+
+public class TextExtractorTest {
+
+	@TempDir
+	private Path dir;
+
+	// Testing: Ok
+	@Test
+	void extract_PdfPagesUpToLimit() throws IOException {
+		Path file = pdf("Relatividad especial", "Relatividad general", "Mecanica cuantica");
+
+		List<String> terms = new TextExtractor(2, 100).extract(open(file, "application/pdf"));
+
+		// Solo se leen las dos primeras páginas y cada término aparece una vez
+		assertEquals(List.of("relatividad", "especial", "general"), terms);
+	}
+
+	// Testing: Ok
+	@Test
+	void extract_PdfDetectedByHeader() throws IOException {
+		Path file = pdf("Relatividad especial");
+
+		List<String> terms = new TextExtractor(10, 100).extract(open(file, "application/octet-stream"));
+
+		assertEquals(List.of("relatividad", "especial"), terms);
+	}
+
+	// Testing: Ok
+	@Test
+	void extract_TextNormalizedAndLimited() throws IOException {
+		Path file = Files.writeString(dir.resolve("post.txt"),
+				"Teoría de la RELATIVIDAD\nla teoria de Einstein " + "x".repeat(TextExtractor.MAX_TERM_LENGTH + 1)
+						+ "\nEspacio tiempo",
+				StandardCharsets.UTF_8);
+
+		List<String> terms = new TextExtractor(10, 5).extract(open(file, "text/plain"));
+
+		// Sin acentos ni mayúsculas, sin repetidos, sin términos demasiado largos y como mucho cinco
+		assertEquals(List.of("teoria", "de", "la", "relatividad", "einstein"), terms);
+	}
+
+	// Testing: Ok
+	@Test
+	void extract_InvalidPdf() throws IOException {
+		Path file = Files.writeString(dir.resolve("roto.pdf"), "%PDF-1.7 no es un PDF");
+
+		assertThrows(IOException.class, () -> new TextExtractor(10, 100).extract(open(file, "application/pdf")));
+	}
+
+	// Testing: Ok
+	@Test
+	void extract_LeavesChannelOpen() throws IOException {
+		Path file = Files.writeString(dir.resolve("post.txt"), "Relatividad");
+		PostContent content = open(file, "text/plain");
+
+		new TextExtractor(10, 100).extract(content);
+
+		assertTrue(content.getChannel().isOpen());
+		content.close();
+	}
+
+	private Path pdf(String... pages) throws IOException {
+		Path file = dir.resolve("post.pdf");
+		try (PDDocument document = new PDDocument()) {
+			for (String text : pages) {
+				PDPage page = new PDPage();
+				document.addPage(page);
+				try (PDPageContentStream stream = new PDPageContentStream(document, page)) {
+					stream.beginText();
+					stream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
+					stream.newLineAtOffset(72, 700);
+					stream.showText(text);
+					stream.endText();
+				}
+			}
+			document.save(file.toFile());
+		}
+		return file;
+	}
+
+	private static PostContent open(Path file, String contentType) throws IOException {
+		return new PostContent(FileChannel.open(file, StandardOpenOption.READ), Files.size(file), contentType, "hash");
+	}
+
+}
@@ -0,0 +1,241 @@
+package com.masbytes.miblog.service.feed;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.time.LocalDateTime;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.w3c.dom.Document;
+import org.w3c.dom.NodeList;
+
+import com.masbytes.miblog.dto.FeedDocument;
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.event.PostChangedEvent;
+import com.masbytes.miblog.repo.PostRepo;
+
+@ExtendWith(MockitoExtension.class)
+public class PostFeedsTest {
+
+	private static final LocalDateTime DAY = LocalDateTime.of(2025, 2, 15, 0, 0);
+
+	@Mock
+	private PostRepo postRepo;
+
+	// Testing: Ok
+	@Test
+	void getRss_NewestPostsRegeneratedOnlyWhenTheyChange() throws Exception {
+		PostFeeds feeds = feeds(3, 100, post("1", 1), post("2", 2), post("3", 3), post("4", 4));
+
+		FeedDocument rss = feeds.getRss();
+		assertEquals(List.of("Post 4", "Post 3", "Post 2"), texts(rss, "item", "title"));
+		assertSame(rss, feeds.getRss());
+
+		// Un post que no está entre los últimos no cambia los feeds
+		FeedDocument atom = feeds.getAtom();
+		feeds.onPostChanged(new PostChangedEvent(modified(post("1", 1))));
+		assertSame(rss, feeds.getRss());
+		assertSame(atom, feeds.getAtom());
+
+		// Uno nuevo desplaza al más antiguo
+		feeds.onPostChanged(new PostChangedEvent(post("5", 5)));
+		assertEquals(List.of("Post 5", "Post 4", "Post 3"), texts(feeds.getRss(), "item", "title"));
+		assertEquals(List.of("Post 5", "Post 4", "Post 3"), texts(feeds.getAtom(), "entry", "title"));
+	}
+
+	// Testing: Ok
+	@Test
+	void onPostChanged_HiddenPostLeavesFeedsAndSitemap() throws Exception {
+		PostFeeds feeds = feeds(3, 100, post("1", 1), post("2", 2));
+		Post hidden = post("2", 2);
+		hidden.setVisible(false);
+
+		feeds.getRss();
+		feeds.getSitemap();
+		feeds.onPostChanged(new PostChangedEvent(hidden));
+
+		assertEquals(List.of("Post 1"), texts(feeds.getRss(), "item", "title"));
+		assertEquals(List.of("https://misitio.com/posts/1"), texts(feeds.getSitemap(), "url", "loc"));
+	}
+
+	// Testing: Ok
+	@Test
+	void getSitemap_ShardedAboveMaxUrls() throws Exception {
+		PostFeeds feeds = feeds(3, 2, post("1", 1), post("2", 2), post("3", 3), post("4", 4), post("5", 5));
+
+		assertEquals(List.of("https://misitio.com/sitemap-1.xml", "https://misitio.com/sitemap-2.xml",
+				"https://misitio.com/sitemap-3.xml"), texts(feeds.getSitemap(), "sitemap", "loc"));
+		FeedDocument first = feeds.getSitemapShard(1).orElseThrow();
+		FeedDocument second = feeds.getSitemapShard(2).orElseThrow();
+		FeedDocument third = feeds.getSitemapShard(3).orElseThrow();
+		assertEquals(List.of("https://misitio.com/posts/1", "https://misitio.com/posts/2"), texts(first, "url", "loc"));
+		assertEquals(Optional.empty(), feeds.getSitemapShard(4));
+
+		// Modificar un post solo regenera su parte; uno nuevo, solo la última
+		feeds.onPostChanged(new PostChangedEvent(modified(post("3", 3))));
+		feeds.onPostChanged(new PostChangedEvent(post("6", 6)));
+		assertSame(first, feeds.getSitemapShard(1).orElseThrow());
+		assertNotSame(second, feeds.getSitemapShard(2).orElseThrow());
+		assertEquals(List.of("https://misitio.com/posts/5", "https://misitio.com/posts/6"),
+				texts(feeds.getSitemapShard(3).orElseThrow(), "url", "loc"));
+		assertNotSame(third, feeds.getSitemapShard(3).orElseThrow());
+
+		// Ocultar un post desplaza las partes siguientes
+		Post hidden = post("2", 2);
+		hidden.setVisible(false);
+		feeds.onPostChanged(new PostChangedEvent(hidden));
+		assertEquals(List.of("https://misitio.com/posts/1", "https://misitio.com/posts/3"),
+				texts(feeds.getSitemapShard(1).orElseThrow(), "url", "loc"));
+		assertEquals(List.of("https://misitio.com/posts/6"), texts(feeds.getSitemapShard(3).orElseThrow(), "url", "loc"));
+	}
+
+	// Testing: Ok
+	@Test
+	void getSitemap_NotShardedBelowMaxUrls() throws Exception {
+		PostFeeds feeds = feeds(3, 2, post("1", 1), post("2", 2), post("3", 3));
+		feeds.getSitemapShard(2).orElseThrow();
+
+		Post hidden = post("1", 1);
+		hidden.setVisible(false);
+		feeds.onPostChanged(new PostChangedEvent(hidden));
+
+		assertEquals(List.of("https://misitio.com/posts/2", "https://misitio.com/posts/3"),
+				texts(feeds.getSitemap(), "url", "loc"));
+		assertEquals(Optional.empty(), feeds.getSitemapShard(1));
+		assertEquals(Optional.empty(), feeds.getSitemapShard(2));
+	}
+
+	// Testing: Ok
+	@Test
+	void getRss_SameContentSameETag() {
+		PostFeeds first = feeds(3, 100, post("1", 1));
+		PostFeeds second = feeds(3, 100, post("1", 1));
+		Post invalid = post("2", 2);
+		invalid.setTitle("Título con carácter de control \u0001");
+
+		assertEquals(first.getRss().getETag(), second.getRss().getETag());
+		first.onPostChanged(new PostChangedEvent(invalid));
+		assertTrue(new String(first.getRss().getBody()).contains("Título con carácter de control </title>"));
+		assertTrue(first.getRss().getLastModified() > second.getRss().getLastModified());
+	}
+
+	// Testing: Ok
+	@Test
+	void getRss_DocumentRenderedBeforeChangeIsServedButNotKept() throws Exception {
+		PostFeeds feeds = feeds(3, 100, post("1", 1));
+		CountDownLatch rendering = new CountDownLatch(1);
+		CountDownLatch changed = new CountDownLatch(1);
+		Post slow = post("2", 2);
+		slow.setTags(new AbstractList<String>() {
+
+			@Override
+			public String get(int index) {
+				// Se escribe fuera del monitor: el cambio se aplica mientras tanto
+				rendering.countDown();
+				await(changed);
+				return "ciencia";
+			}
+
+			@Override
+			public int size() {
+				return 1;
+			}
+
+		});
+		feeds.onPostChanged(new PostChangedEvent(slow));
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<FeedDocument> stale = executor.submit(feeds::getRss);
+			rendering.await();
+			feeds.onPostChanged(new PostChangedEvent(post("3", 3)));
+			changed.countDown();
+
+			assertEquals(List.of("Post 2", "Post 1"), texts(stale.get(), "item", "title"));
+			assertEquals(List.of("Post 3", "Post 2", "Post 1"), texts(feeds.getRss(), "item", "title"));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	// Testing: Ok
+	@Test
+	void rebuild_DisabledDoesNotLoadPosts() {
+		PostFeeds feeds = new PostFeeds(postRepo, false, "https://misitio.com/", "", "miblog", "Últimos posts", 3, 100);
+		feeds.rebuild();
+		feeds.onPostChanged(new PostChangedEvent(post("1", 1)));
+
+		assertFalse(feeds.isEnabled());
+		verify(postRepo, never()).streamVisibleFeedFields();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private PostFeeds feeds(int size, int sitemapMaxUrls, Post... posts) {
+		when(postRepo.streamVisibleFeedFields()).thenReturn(Stream.of(posts));
+		PostFeeds feeds = new PostFeeds(postRepo, true, "https://misitio.com/", "https://misitio.com/posts/{id}", "miblog",
+				"Últimos posts", size, sitemapMaxUrls);
+		feeds.rebuild();
+		return feeds;
+	}
+
+	/**
+	 * Textos de un hijo de cada elemento, en orden; comprueba además que el XML está bien formado.
+	 */
+	private static List<String> texts(FeedDocument document, String element, String child) throws Exception {
+		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+		factory.setNamespaceAware(true);
+		Document xml = factory.newDocumentBuilder().parse(new ByteArrayInputStream(document.getBody()));
+		NodeList elements = xml.getElementsByTagNameNS("*", element);
+		List<String> texts = new ArrayList<>();
+		for (int i = 0; i < elements.getLength(); i++) {
+			org.w3c.dom.Element parent = (org.w3c.dom.Element) elements.item(i);
+			texts.add(parent.getElementsByTagNameNS("*", child).item(0).getTextContent());
+		}
+		return texts;
+	}
+
+	private static Post modified(Post post) {
+		post.setModifiedAt(post.getModifiedAt().plusMinutes(30));
+		return post;
+	}
+
+	private static Post post(String id, int hour) {
+		Post post = new Post();
+		post.setId(id);
+		post.setTitle("Post " + id);
+		post.setSummary("Resumen del post " + id);
+		post.setTags(List.of("ciencia"));
+		post.setCreatedAt(DAY.plusHours(hour));
+		post.setModifiedAt(DAY.plusHours(hour));
+		return post;
+	}
+
+}
@@ -0,0 +1,97 @@
+package com.masbytes.miblog.service.impl;
+
+import java.time.Duration;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.springframework.util.unit.DataSize;
+
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.event.PostChangedEvent;
+import com.masbytes.miblog.repo.PostRepo;
+import com.masbytes.miblog.repo.PostRepoCustomImpl;
+import com.masbytes.miblog.service.cache.PostCache;
+import com.masbytes.miblog.service.cache.PostCatalog;
+import com.masbytes.miblog.service.index.PostArchive;
+import com.masbytes.miblog.service.index.PostSearchIndex;
+import com.masbytes.miblog.service.index.TagBitmapIndex;
+import com.masbytes.miblog.service.index.TagFacets;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Servidor MongoDB en memoria para los tests de {@link PostServiceImpl} que necesitan las
+ * escrituras atómicas y las consultas reales del repositorio. Solo se crea el índice único del
+ * título, a partir de las anotaciones de {@link Post}: el servidor en memoria no admite índices de
+ * texto.
+ */
+final class InMemoryMongo implements AutoCloseable {
+
+	private final MongoServer server;
+
+	private final MongoClient client;
+
+	private final PostRepo postRepo;
+
+	InMemoryMongo() {
+		server = new MongoServer(new MemoryBackend());
+		client = MongoClients.create(server.bindAndGetConnectionString());
+		MongoTemplate mongoTemplate = new MongoTemplate(client, "miblog");
+
+		IndexOperations indexOps = mongoTemplate.indexOps(Post.class);
+		new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+				.resolveIndexFor(Post.class).forEach(index -> {
+					if ("title_key".equals(index.getIndexOptions().get("name"))) {
+						indexOps.ensureIndex(index);
+					}
+				});
+
+		postRepo = new MongoRepositoryFactory(mongoTemplate).getRepository(PostRepo.class,
+				RepositoryFragments.just(new PostRepoCustomImpl(mongoTemplate)));
+	}
+
+	PostRepo getPostRepo() {
+		return postRepo;
+	}
+
+	/**
+	 * Crea el servicio sobre este servidor con las estructuras en memoria desactivadas.
+	 */
+	PostServiceImpl postService() {
+		return postService(new TagFacets(postRepo, false));
+	}
+
+	/**
+	 * Crea el servicio sobre este servidor con las estructuras en memoria desactivadas, salvo los
+	 * recuentos por etiqueta indicados, que reciben los eventos de cada escritura.
+	 */
+	PostServiceImpl postService(TagFacets tagFacets) {
+		return new PostServiceImpl(postRepo, event -> tagFacets.onPostChanged((PostChangedEvent) event),
+				new PostSearchIndex(postRepo, false),
+				new PostCache(Duration.ofMinutes(1), DataSize.ofMegabytes(1), new SimpleMeterRegistry()),
+				new TagBitmapIndex(postRepo, false), new PostArchive(postRepo, false), tagFacets,
+				new PostCatalog(postRepo, false));
+	}
+
+	static Post post(String title) {
+		Post post = new Post();
+		post.setTitle(title);
+		post.setSummary("Resumen de " + title);
+		post.setPdfUrl("https://misitio.com/post.pdf");
+		return post;
+	}
+
+	@Override
+	public void close() {
+		client.close();
+		server.shutdownNow();
+	}
+
+}
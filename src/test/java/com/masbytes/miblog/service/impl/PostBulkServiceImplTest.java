@@ -0,0 +1,141 @@
+package com.masbytes.miblog.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.masbytes.miblog.dto.BulkItemResult.Status;
+import com.masbytes.miblog.dto.BulkReport;
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.event.PostChangedEvent;
+import com.masbytes.miblog.event.PostsChangedEvent;
+import com.masbytes.miblog.exception.PostInvalidDataException;
+import com.masbytes.miblog.repo.PostRepo;
+
+@ExtendWith(MockitoExtension.class)
+public class PostBulkServiceImplTest {
+
+	@Mock
+	private PostRepo postRepo;
+
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
+	private PostBulkServiceImpl bulkService;
+
+	@BeforeEach
+	void setUp() {
+		bulkService = new PostBulkServiceImpl(postRepo, eventPublisher, 2);
+	}
+
+	// Testing: Ok
+	@Test
+	void createPosts_ReportsEveryItemInOrder() {
+		Post valid = post("Relatividad");
+		valid.setCreatedAt(LocalDateTime.of(2020, 1, 1, 0, 0));
+		Post invalid = post("Sin resumen");
+		invalid.setSummary(" ");
+		Post existing = post("Ya publicado");
+		Post repeated = post("Relatividad");
+		Post rejected = post("Rechazado por MongoDB");
+
+		// Lotes de dos: [valid, invalid], [existing, repeated], [rejected]
+		when(postRepo.findExistingTitleKeys(anyCollection())).thenReturn(Set.of(), Set.of("ya publicado"), Set.of());
+		// Tercer lote: el único post insertado falla en la base de datos
+		when(postRepo.insertUnordered(anyList())).thenReturn(Map.of(), Map.of(0, "E11000 duplicate key"));
+
+		BulkReport report = bulkService.createPosts(List.of(valid, invalid, existing, repeated, rejected).iterator());
+
+		assertEquals(1, report.getCreated());
+		assertEquals(4, report.getRejected());
+		assertEquals(List.of(Status.CREATED, Status.INVALID, Status.DUPLICATE, Status.DUPLICATE, Status.FAILED),
+				report.getItems().stream().map(item -> item.getStatus()).toList());
+		assertEquals(4, report.getItems().get(4).getIndex());
+
+		// Se conserva la fecha de creación de los posts migrados
+		assertNotNull(report.getItems().get(0).getId());
+		assertEquals(LocalDateTime.of(2020, 1, 1, 0, 0), valid.getCreatedAt());
+		verify(eventPublisher, times(1)).publishEvent(any(PostChangedEvent.class));
+		verify(eventPublisher, times(1)).publishEvent(new PostsChangedEvent(List.of(valid)));
+	}
+
+	// Testing: Ok
+	@Test
+	void createPosts_OneTitleQueryAndOneInsertPerBatch() {
+		when(postRepo.findExistingTitleKeys(anyCollection())).thenReturn(Set.of());
+		when(postRepo.insertUnordered(anyList())).thenReturn(Map.of());
+
+		BulkReport report = bulkService.createPosts(List.of(post("A"), post("B"), post("C")).iterator());
+
+		assertEquals(3, report.getCreated());
+		verify(postRepo, times(2)).findExistingTitleKeys(anyCollection());
+		verify(postRepo, times(2)).insertUnordered(anyList());
+	}
+
+	// Testing: Ok
+	@Test
+	void createPosts_MalformedItemAfterSavedBatchReturnsPartialReport() throws Exception {
+		when(postRepo.findExistingTitleKeys(anyCollection())).thenReturn(Set.of());
+		when(postRepo.insertUnordered(anyList())).thenReturn(Map.of());
+
+		// El tercer elemento no es JSON válido: los dos primeros ya se han guardado en el primer lote
+		BulkReport report = bulkService.createPosts(read(ndjson("A") + ndjson("B") + ndjson("C")
+				+ "{\"title\": \n" + ndjson("D")));
+
+		assertEquals(3, report.getCreated());
+		assertEquals(1, report.getRejected());
+		assertEquals(List.of(Status.CREATED, Status.CREATED, Status.CREATED, Status.MALFORMED),
+				report.getItems().stream().map(item -> item.getStatus()).toList());
+		assertEquals(3, report.getItems().get(3).getIndex());
+		verify(postRepo, times(2)).insertUnordered(anyList());
+	}
+
+	// Testing: Ok
+	@Test
+	void createPosts_MalformedItemBeforeAnyInsertThrows() throws Exception {
+		Iterator<Post> posts = read(ndjson("A") + "{\"title\": \n");
+
+		assertThrows(PostInvalidDataException.class, () -> bulkService.createPosts(posts));
+		verify(postRepo, never()).insertUnordered(anyList());
+	}
+
+	private static Iterator<Post> read(String ndjson) throws Exception {
+		return new ObjectMapper().readerFor(Post.class).readValues(ndjson);
+	}
+
+	private static String ndjson(String title) {
+		return "{\"title\":\"" + title + "\",\"summary\":\"Resumen de " + title
+				+ "\",\"pdfUrl\":\"https://misitio.com/" + title + ".pdf\"}\n";
+	}
+
+	private static Post post(String title) {
+		Post post = new Post();
+		post.setTitle(title);
+		post.setSummary("Resumen de " + title);
+		post.setPdfUrl("https://misitio.com/" + title.hashCode() + ".pdf");
+		return post;
+	}
+
+}
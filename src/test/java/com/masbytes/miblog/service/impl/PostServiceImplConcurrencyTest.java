@@ -0,0 +1,93 @@
+package com.masbytes.miblog.service.impl;
+
+import static com.masbytes.miblog.service.impl.InMemoryMongo.post;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.exception.PostAlreadyExistsException;
+import com.masbytes.miblog.repo.PostRepo;
+
+/**
+ * Comprueba contra un servidor MongoDB en memoria la unicidad de títulos, con el índice único
+ * creado a partir de las anotaciones de {@link Post}.
+ */
+public class PostServiceImplConcurrencyTest {
+
+	private static final int THREADS = 16;
+
+	private InMemoryMongo mongo;
+
+	private PostRepo postRepo;
+
+	private PostServiceImpl postService;
+
+	@BeforeEach
+	void setUp() {
+		mongo = new InMemoryMongo();
+		postRepo = mongo.getPostRepo();
+		postService = mongo.postService();
+	}
+
+	@AfterEach
+	void tearDown() {
+		mongo.close();
+	}
+
+	// Testing: Ok
+	@Test
+	void createPost_ConcurrentSameTitle_OnlyOneSucceeds() throws Exception {
+		// Variantes del mismo título en mayúsculas, acentos y espacios
+		String[] variants = { "Teoría de la Relatividad", "teoria de la relatividad", "TEORÍA DE LA RELATIVIDAD",
+				"  Teoría  de la Relatividad " };
+
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		List<Future<Boolean>> results = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			Post post = post(variants[i % variants.length]);
+			results.add(executor.submit(() -> {
+				start.await();
+				try {
+					postService.createPost(post);
+					return true;
+				} catch (PostAlreadyExistsException e) {
+					return false;
+				}
+			}));
+		}
+		start.countDown();
+
+		int created = 0;
+		for (Future<Boolean> result : results) {
+			created += result.get() ? 1 : 0;
+		}
+		executor.shutdown();
+
+		// Verificaciones: solo una creación gana y solo hay un documento guardado
+		assertEquals(1, created);
+		assertEquals(1, postRepo.count());
+	}
+
+	// Testing: Ok
+	@Test
+	void updatePost_TitleOfAnotherPost_Conflict() {
+		postService.createPost(post("Teoría de la Relatividad"));
+		Post other = postService.createPost(post("Mecánica Cuántica"));
+
+		assertThrows(PostAlreadyExistsException.class,
+				() -> postService.updatePost(other.getId(), post("teoria de la relatividad")));
+	}
+
+}
@@ -0,0 +1,83 @@
+package com.masbytes.miblog.service.impl;
+
+import static com.masbytes.miblog.service.impl.InMemoryMongo.post;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.masbytes.miblog.dto.PostPage;
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.repo.PostRepo;
+
+/**
+ * Comprueba contra un servidor MongoDB en memoria la búsqueda en los términos extraídos de los
+ * archivos de los posts.
+ */
+public class PostServiceImplContentTest {
+
+	private InMemoryMongo mongo;
+
+	private PostRepo postRepo;
+
+	private PostServiceImpl postService;
+
+	@BeforeEach
+	void setUp() {
+		mongo = new InMemoryMongo();
+		postRepo = mongo.getPostRepo();
+		postService = mongo.postService();
+	}
+
+	@AfterEach
+	void tearDown() {
+		mongo.close();
+	}
+
+	// Testing: Ok
+	@Test
+	void updateContent_KeywordSearchFindsExtractedTerms() {
+		Post created = postService.createPost(post("Teoría de la Relatividad"));
+		assertEquals(List.of(created.getId()), staleIds());
+
+		// El texto de un archivo que ya no es el del post se descarta
+		assertTrue(postRepo.updateContent(created.getId(), "https://misitio.com/antiguo.pdf", List.of("newton"))
+				.isEmpty());
+		Post updated = postRepo.updateContent(created.getId(), created.getPdfUrl(),
+				List.of("espacio", "tiempo", "einstein")).orElseThrow();
+
+		// Los términos extraídos no cambian la versión ni la fecha de modificación (la guardada, con
+		// la precisión de milisegundos de MongoDB)
+		assertEquals(created.getVersion(), updated.getVersion());
+		assertEquals(created.getModifiedAt().truncatedTo(ChronoUnit.MILLIS), updated.getModifiedAt());
+		assertEquals(List.of(), staleIds());
+
+		PostPage page = postService.searchPostByKeyword("Einstein", null, null);
+		assertEquals(List.of(created.getId()), page.getPosts().stream().map(Post::getId).toList());
+		assertNull(page.getPosts().get(0).getContentTerms());
+		assertEquals(1, postService.searchPostByKeyword("espacio tiempo", null, null).getPosts().size());
+		assertEquals(0, postService.searchPostByKeyword("espacio newton", null, null).getPosts().size());
+		try (Stream<Post> posts = postService.streamPostsByKeyword("einstein")) {
+			assertEquals(1, posts.count());
+		}
+
+		// Cambiar el archivo deja el texto pendiente de extraer de nuevo
+		postService.patchPost(created.getId(), Map.of("pdfUrl", "https://misitio.com/nuevo.pdf"));
+		assertEquals(List.of(created.getId()), staleIds());
+	}
+
+	private List<String> staleIds() {
+		try (Stream<String> ids = postRepo.streamIdsWithStaleContent()) {
+			return ids.toList();
+		}
+	}
+
+}
@@ -0,0 +1,112 @@
+package com.masbytes.miblog.service.impl;
+
+import static com.masbytes.miblog.service.impl.InMemoryMongo.post;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.masbytes.miblog.dto.TagFacet;
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.repo.PostRepo;
+import com.masbytes.miblog.service.index.TagFacets;
+
+/**
+ * Comprueba contra un servidor MongoDB en memoria que los recuentos por etiqueta en memoria
+ * coinciden con la agregación, también con escrituras concurrentes.
+ */
+public class PostServiceImplTagFacetsTest {
+
+	private static final int THREADS = 16;
+
+	private InMemoryMongo mongo;
+
+	private PostRepo postRepo;
+
+	private PostServiceImpl postService;
+
+	private TagFacets tagFacets;
+
+	@BeforeEach
+	void setUp() {
+		mongo = new InMemoryMongo();
+		postRepo = mongo.getPostRepo();
+		tagFacets = new TagFacets(postRepo, true);
+		postService = mongo.postService(tagFacets);
+	}
+
+	@AfterEach
+	void tearDown() {
+		mongo.close();
+	}
+
+	// Testing: Ok
+	@Test
+	void tagFacets_ConcurrentWritesMatchAggregation() throws Exception {
+		List<Post> posts = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			Post post = post("Post " + i);
+			post.setTags(List.of("ciencia", "tema" + i % 4));
+			posts.add(postService.createPost(post));
+		}
+
+		// Cada hilo cambia las etiquetas de su post y lo oculta o lo vuelve a mostrar varias veces
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		List<Future<?>> results = new ArrayList<>();
+		for (int i = 0; i < THREADS; i++) {
+			String id = posts.get(i).getId();
+			int n = i;
+			results.add(executor.submit(() -> {
+				start.await();
+				for (int round = 0; round < 5; round++) {
+					postService.patchPost(id, Map.of("tags", List.of("tema" + (n + round) % 4, "ciencia", "ciencia")));
+					postService.setPostVisibility(id, round % 2 == 0);
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> result : results) {
+			result.get();
+		}
+		executor.shutdown();
+
+		// Los contadores en memoria coinciden con la agregación y con una reconstrucción completa
+		List<TagFacet> facets = postService.getTagFacets(null, null);
+		assertEquals(postRepo.countTags(), facets);
+		tagFacets.rebuild();
+		assertEquals(facets, tagFacets.count());
+		assertEquals(new TagFacet("ciencia", THREADS), facets.get(0));
+	}
+
+	// Testing: Ok
+	@Test
+	void tagFacets_RestrictedToKeywordAndDate() {
+		Post relatividad = post("Teoría de la Relatividad");
+		relatividad.setTags(List.of("física", "ciencia"));
+		Post created = postService.createPost(relatividad);
+		Post cuantica = post("Mecánica Cuántica");
+		cuantica.setTags(List.of("física"));
+		postService.createPost(cuantica);
+		Post oculto = post("Relatividad General");
+		oculto.setTags(List.of("física", "borrador"));
+		postService.setPostVisibility(postService.createPost(oculto).getId(), false);
+
+		assertEquals(List.of(new TagFacet("ciencia", 1), new TagFacet("física", 1)),
+				postService.getTagFacets("relatividad", null));
+		assertEquals(List.of(new TagFacet("física", 2), new TagFacet("ciencia", 1)),
+				postService.getTagFacets(null, created.getCreatedAt()));
+		assertEquals(List.of(), postService.getTagFacets(null, created.getCreatedAt().minusDays(1)));
+	}
+
+}
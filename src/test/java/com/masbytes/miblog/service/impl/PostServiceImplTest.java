@@ -3,32 +3,63 @@ package com.masbytes.miblog.service.impl;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.util.unit.DataSize;
+
+import com.masbytes.miblog.dto.ArchiveBucket;
+import com.masbytes.miblog.dto.ArchiveQuery;
+import com.masbytes.miblog.dto.PostCursor;
+import com.masbytes.miblog.dto.PostPage;
+import com.masbytes.miblog.dto.PostVersion;
+import com.masbytes.miblog.dto.ScoredPost;
+import com.masbytes.miblog.dto.TagFacet;
+import com.masbytes.miblog.dto.TagQuery;
 import com.masbytes.miblog.entity.Post;
 import com.masbytes.miblog.exception.PostAlreadyExistsException;
 import com.masbytes.miblog.exception.PostInvalidDataException;
 import com.masbytes.miblog.exception.PostNotFoundException;
+import com.masbytes.miblog.event.PostChangedEvent;
 import com.masbytes.miblog.repo.PostRepo;
+import com.masbytes.miblog.service.cache.PostCache;
+import com.masbytes.miblog.service.cache.PostCatalog;
+import com.masbytes.miblog.service.index.PostArchive;
+import com.masbytes.miblog.service.index.PostSearchIndex;
+import com.masbytes.miblog.service.index.TagBitmapIndex;
+import com.masbytes.miblog.service.index.TagFacets;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 public class PostServiceImplTest {
@@ -36,6 +67,27 @@ public class PostServiceImplTest {
 	@Mock
 	private PostRepo postRepo;
 
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
+	@Mock
+	private PostSearchIndex searchIndex;
+
+	@Mock
+	private TagBitmapIndex tagIndex;
+
+	@Mock
+	private PostArchive archive;
+
+	@Mock
+	private TagFacets tagFacets;
+
+	@Mock
+	private PostCatalog catalog;
+
+	@Spy
+	private PostCache postCache = new PostCache(Duration.ofMinutes(1), DataSize.ofMegabytes(1), new SimpleMeterRegistry());
+
 	@InjectMocks
 	private PostServiceImpl postService;
 
@@ -50,8 +102,7 @@ public class PostServiceImplTest {
 		post.setTags(List.of("Ciencia", "Fisica"));
 
 		// Simulacion del repositorio
-		when(postRepo.findByTitle(post.getTitle())).thenReturn(Optional.empty());
-		when(postRepo.save(any(Post.class))).thenAnswer(invocation -> invocation.getArgument(0));
+		when(postRepo.insert(any(Post.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
 		// Ejecutar el metodo
 		Post savedPost = postService.createPost(post);
@@ -59,8 +110,10 @@ public class PostServiceImplTest {
 		// Verificaciones
 		assertNotNull(savedPost);
 		assertEquals("Teoria de la Relatividad", savedPost.getTitle());
+		assertEquals("teoria de la relatividad", savedPost.getTitleKey());
 		assertNotNull(savedPost.getCreatedAt());
-		verify(postRepo, times(1)).save(any(Post.class));
+		verify(postRepo, times(1)).insert(any(Post.class)); // Una sola escritura, sin consulta previa
+		verify(eventPublisher, times(1)).publishEvent(new PostChangedEvent(savedPost));
 	}
 
 	// Testing: Ok
@@ -73,14 +126,11 @@ public class PostServiceImplTest {
 		post.setSummary(""); // Resumen vacío
 		post.setTags(List.of("ciencia", "física"));
 
-		// Simulación del repositorio
-		when(postRepo.findByTitle(post.getTitle())).thenReturn(Optional.empty());
-
 		// Ejecutar el método y verificar que lanza la excepción
 		assertThrows(PostInvalidDataException.class, () -> postService.createPost(post));
 
 		// Verificaciones
-		verify(postRepo, never()).save(any(Post.class)); // No debe guardar en la base de datos
+		verify(postRepo, never()).insert(any(Post.class)); // No debe guardar en la base de datos
 	}
 
 	// Testing: Ok
@@ -93,16 +143,14 @@ public class PostServiceImplTest {
 		post.setSummary("Un nuevo resumen sobre la teoría de Einstein.");
 		post.setTags(List.of("ciencia", "física"));
 
-		// Simulación del repositorio: ya existe un post con el mismo título
-		Post existingPost = new Post();
-		existingPost.setTitle("Teoría de la Relatividad");
-		when(postRepo.findByTitle(post.getTitle())).thenReturn(Optional.of(existingPost));
+		// Simulación del repositorio: el índice único rechaza el título repetido
+		when(postRepo.insert(any(Post.class))).thenThrow(new DuplicateKeyException("E11000 duplicate key"));
 
 		// Ejecutar el método y verificar que lanza la excepción
 		assertThrows(PostAlreadyExistsException.class, () -> postService.createPost(post));
 
 		// Verificaciones
-		verify(postRepo, never()).save(any(Post.class)); // No debe guardar en la base de datos
+		verify(eventPublisher, never()).publishEvent(any()); // No debe notificar un post no guardado
 	}
 
 	// Testing: Ok
@@ -154,7 +202,7 @@ public class PostServiceImplTest {
 		post.setPdfUrl("https://misitio.com/relatividad.pdf");
 
 		// Simulación del repositorio: el post existe
-		when(postRepo.findByTitleRegexOrSummaryRegexOrTagsIn(anyString(), anyString(), anyList()))
+		when(postRepo.findByKeyword(anyString(), anyList(), anyList()))
 				.thenReturn(List.of(post));
 
 		// Ejecutar el método
@@ -164,7 +212,7 @@ public class PostServiceImplTest {
 		assertNotNull(result);
 		assertEquals(1, result.size());
 		assertEquals(post.getTitle(), result.get(0).getTitle());
-		verify(postRepo, times(1)).findByTitleRegexOrSummaryRegexOrTagsIn(anyString(), anyString(), anyList());
+		verify(postRepo, times(1)).findByKeyword(anyString(), anyList(), anyList());
 	}
 
 	// Testing: Ok
@@ -178,7 +226,7 @@ public class PostServiceImplTest {
 		post.setPdfUrl("https://misitio.com/relatividad.pdf");
 
 		// Simulación del repositorio: el post existe
-		when(postRepo.findByTitleRegexOrSummaryRegexOrTagsIn(anyString(), anyString(), anyList()))
+		when(postRepo.findByKeyword(anyString(), anyList(), anyList()))
 				.thenReturn(List.of(post));
 
 		// Ejecutar el método
@@ -188,7 +236,7 @@ public class PostServiceImplTest {
 		assertNotNull(result);
 		assertEquals(1, result.size());
 		assertEquals(post.getSummary(), result.get(0).getSummary());
-		verify(postRepo, times(1)).findByTitleRegexOrSummaryRegexOrTagsIn(anyString(), anyString(), anyList());
+		verify(postRepo, times(1)).findByKeyword(anyString(), anyList(), anyList());
 	}
 
 	// Testing: Ok
@@ -202,7 +250,7 @@ public class PostServiceImplTest {
 		post.setPdfUrl("https://misitio.com/relatividad.pdf");
 
 		// Simulación del repositorio: el post existe
-		when(postRepo.findByTitleRegexOrSummaryRegexOrTagsIn(anyString(), anyString(), anyList()))
+		when(postRepo.findByKeyword(anyString(), anyList(), anyList()))
 				.thenReturn(List.of(post));
 
 		// Ejecutar el método
@@ -212,14 +260,14 @@ public class PostServiceImplTest {
 		assertNotNull(result);
 		assertEquals(1, result.size());
 		assertTrue(result.get(0).getTags().contains("relatividad"));
-		verify(postRepo, times(1)).findByTitleRegexOrSummaryRegexOrTagsIn(anyString(), anyString(), anyList());
+		verify(postRepo, times(1)).findByKeyword(anyString(), anyList(), anyList());
 	}
 
 	// Testing: Ok
 	@Test
 	void searchPostByKeyword_NoMatch() {
 		// Simulación del repositorio: no se encuentra ningún post
-		when(postRepo.findByTitleRegexOrSummaryRegexOrTagsIn(anyString(), anyString(), anyList()))
+		when(postRepo.findByKeyword(anyString(), anyList(), anyList()))
 				.thenReturn(Collections.emptyList());
 
 		// Ejecutar el método
@@ -228,7 +276,7 @@ public class PostServiceImplTest {
 		// Verificación de los resultados
 		assertNotNull(result);
 		assertTrue(result.isEmpty());
-		verify(postRepo, times(1)).findByTitleRegexOrSummaryRegexOrTagsIn(anyString(), anyString(), anyList());
+		verify(postRepo, times(1)).findByKeyword(anyString(), anyList(), anyList());
 	}
 
 	// Testing: Ok
@@ -242,7 +290,7 @@ public class PostServiceImplTest {
 		post.setPdfUrl("https://misitio.com/relatividad.pdf");
 
 		// Simulación del repositorio: el post existe
-		when(postRepo.findByTagsIn(anyList())).thenReturn(List.of(post));
+		when(postRepo.findByVisibleTrueAndTagsIn(anyList())).thenReturn(List.of(post));
 
 		// Ejecutar el método
 		List<Post> result = postService.searchPostsByTags(List.of("ciencia"));
@@ -251,7 +299,7 @@ public class PostServiceImplTest {
 		assertNotNull(result);
 		assertEquals(1, result.size());
 		assertTrue(result.get(0).getTags().contains("ciencia"));
-		verify(postRepo, times(1)).findByTagsIn(anyList());
+		verify(postRepo, times(1)).findByVisibleTrueAndTagsIn(anyList());
 	}
 
 	// Testing: Ok
@@ -265,7 +313,7 @@ public class PostServiceImplTest {
 		post.setPdfUrl("https://misitio.com/relatividad.pdf");
 
 		// Simulación del repositorio: no se encuentra ningún post que coincida
-		when(postRepo.findByTagsIn(anyList())).thenReturn(Collections.emptyList());
+		when(postRepo.findByVisibleTrueAndTagsIn(anyList())).thenReturn(Collections.emptyList());
 
 		// Ejecutar el método
 		List<Post> result = postService.searchPostsByTags(List.of("astronomía"));
@@ -273,7 +321,7 @@ public class PostServiceImplTest {
 		// Verificación de los resultados
 		assertNotNull(result);
 		assertTrue(result.isEmpty());
-		verify(postRepo, times(1)).findByTagsIn(anyList());
+		verify(postRepo, times(1)).findByVisibleTrueAndTagsIn(anyList());
 	}
 
 	//	Testing: Ok
@@ -287,7 +335,7 @@ public class PostServiceImplTest {
 	    assertTrue(result.isEmpty());
 
 	    // Verificamos que no se haya invocado el repositorio en caso de lista vacía
-	    verify(postRepo, times(0)).findByTagsIn(anyList());
+	    verify(postRepo, times(0)).findByVisibleTrueAndTagsIn(anyList());
 	}
 	
 	//	Testing: Ok
@@ -303,7 +351,7 @@ public class PostServiceImplTest {
 	    post.setPdfUrl("https://misitio.com/relatividad.pdf");
 
 	    // Simulación del repositorio: el post está dentro del rango de fecha
-	    when(postRepo.findByCreatedAtGreaterThanEqual(any())).thenReturn(List.of(post));
+	    when(postRepo.findByVisibleTrueAndCreatedAtBetween(any(), any())).thenReturn(List.of(post));
 
 	    // Ejecutar el método
 	    List<Post> result = postService.getRecentPosts(LocalDateTime.of(2025, 2, 14, 0, 0, 0, 0));
@@ -312,7 +360,7 @@ public class PostServiceImplTest {
 	    assertNotNull(result);
 	    assertEquals(1, result.size());
 	    assertEquals(post.getTitle(), result.get(0).getTitle());
-	    verify(postRepo, times(1)).findByCreatedAtGreaterThanEqual(any());
+	    verify(postRepo, times(1)).findByVisibleTrueAndCreatedAtBetween(any(), any());
 	}
 	
 	//	Testing: Ok
@@ -322,7 +370,7 @@ public class PostServiceImplTest {
 	    LocalDateTime fromDate = LocalDateTime.of(2025, 2, 15, 10, 0, 0, 0);
 
 	    // Simulación del repositorio: no se encuentran posts después de la fecha
-	    when(postRepo.findByCreatedAtGreaterThanEqual(any())).thenReturn(Collections.emptyList());
+	    when(postRepo.findByVisibleTrueAndCreatedAtBetween(any(), any())).thenReturn(Collections.emptyList());
 
 	    // Ejecutar el método
 	    List<Post> result = postService.getRecentPosts(fromDate);
@@ -330,7 +378,7 @@ public class PostServiceImplTest {
 	    // Verificación de los resultados
 	    assertNotNull(result);
 	    assertTrue(result.isEmpty());
-	    verify(postRepo, times(1)).findByCreatedAtGreaterThanEqual(any());
+	    verify(postRepo, times(1)).findByVisibleTrueAndCreatedAtBetween(any(), any());
 	}
 	
 	//	Testing: Ok
@@ -342,7 +390,7 @@ public class PostServiceImplTest {
 	    // Verificación de los resultados
 	    assertNotNull(result);
 	    assertTrue(result.isEmpty());
-	    verify(postRepo, times(0)).findByCreatedAtGreaterThanEqual(any());
+	    verify(postRepo, times(1)).findByVisibleTrueAndCreatedAtBetween(any(), any());
 	}
 	
 	//	Testing: Ok
@@ -352,7 +400,7 @@ public class PostServiceImplTest {
 	    LocalDateTime fromDate = LocalDateTime.of(2050, 1, 1, 0, 0, 0, 0);
 
 	    // Simulación del repositorio: no se encuentran posts después de la fecha futura
-	    when(postRepo.findByCreatedAtGreaterThanEqual(any())).thenReturn(Collections.emptyList());
+	    when(postRepo.findByVisibleTrueAndCreatedAtBetween(any(), any())).thenReturn(Collections.emptyList());
 
 	    // Ejecutar el método
 	    List<Post> result = postService.getRecentPosts(fromDate);
@@ -360,23 +408,12 @@ public class PostServiceImplTest {
 	    // Verificación de los resultados
 	    assertNotNull(result);
 	    assertTrue(result.isEmpty());
-	    verify(postRepo, times(1)).findByCreatedAtGreaterThanEqual(any());
+	    verify(postRepo, times(1)).findByVisibleTrueAndCreatedAtBetween(any(), any());
 	}
 	
 	//	Testing: Ok
 	@Test
 	void updatePost_Successful() throws PostNotFoundException, PostInvalidDataException {
-	    // Datos de prueba
-	    Post existingPost = new Post();
-	    existingPost.setId("1");
-	    existingPost.setTitle("Teoría de la Relatividad");
-	    existingPost.setSummary("Einstein propuso la teoría...");
-	    existingPost.setTags(List.of("ciencia", "física"));
-	    existingPost.setPdfUrl("https://misitio.com/relatividad.pdf");
-
-	    // Simulación del repositorio: se encuentra el post
-	    when(postRepo.findById("1")).thenReturn(Optional.of(existingPost));
-
 	    // Datos del post a actualizar
 	    Post updatedPost = new Post();
 	    updatedPost.setTitle("Relatividad Especial");
@@ -384,8 +421,8 @@ public class PostServiceImplTest {
 	    updatedPost.setTags(List.of("ciencia", "física", "teoría"));
 	    updatedPost.setPdfUrl("https://misitio.com/relatividad-especial.pdf");
 
-	    // Simulación del repositorio: el post actualizado se guarda correctamente
-	    when(postRepo.save(any(Post.class))).thenReturn(updatedPost);
+	    // Simulación del repositorio: la modificación atómica devuelve el post actualizado
+	    when(postRepo.updateFields(eq("1"), anyMap())).thenReturn(Optional.of(updatedPost));
 
 	    // Ejecutar el método
 	    Post result = postService.updatePost("1", updatedPost);
@@ -396,8 +433,15 @@ public class PostServiceImplTest {
 	    assertEquals("La relatividad especial es una teoría de Einstein...", result.getSummary());
 	    assertEquals(3, result.getTags().size());
 	    assertEquals("https://misitio.com/relatividad-especial.pdf", result.getPdfUrl());
-	    verify(postRepo, times(1)).findById("1");
-	    verify(postRepo, times(1)).save(any(Post.class));
+
+	    // Una sola operación con todos los campos editables, sin leer ni reescribir el documento
+	    ArgumentCaptor<Map<String, Object>> changes = ArgumentCaptor.forClass(Map.class);
+	    verify(postRepo, times(1)).updateFields(eq("1"), changes.capture());
+	    assertEquals("relatividad especial", changes.getValue().get("titleKey"));
+	    assertEquals(updatedPost.getTags(), changes.getValue().get("tags"));
+	    verify(postRepo, never()).findById(anyString());
+	    verify(postRepo, never()).save(any(Post.class));
+	    verify(eventPublisher, times(1)).publishEvent(new PostChangedEvent(updatedPost));
 	}
 	
 	//	Testing: Ok
@@ -409,25 +453,16 @@ public class PostServiceImplTest {
 	    updatedPost.setSummary("La relatividad especial es una teoría de Einstein...");
 
 	    // Simulación del repositorio: el post no se encuentra
-	    when(postRepo.findById("2")).thenReturn(Optional.empty());
+	    when(postRepo.updateFields(eq("2"), anyMap())).thenReturn(Optional.empty());
 
 	    // Ejecutar el método y verificar la excepción
 	    assertThrows(PostNotFoundException.class, () -> postService.updatePost("2", updatedPost));
-	    verify(postRepo, times(1)).findById("2");
+	    verify(eventPublisher, never()).publishEvent(any());
 	}
 	
 	//	Testing: Ok
 	@Test
 	void updatePost_InvalidData() {
-	    // Datos de prueba
-	    Post existingPost = new Post();
-	    existingPost.setId("1");
-	    existingPost.setTitle("Teoría de la Relatividad");
-	    existingPost.setSummary("Einstein propuso la teoría...");
-
-	    // Simulación del repositorio: se encuentra el post
-	    when(postRepo.findById("1")).thenReturn(Optional.of(existingPost));
-
 	    // Datos del post a actualizar con datos inválidos (sin título)
 	    Post updatedPost = new Post();
 	    updatedPost.setTitle("");  // Título vacío
@@ -435,39 +470,390 @@ public class PostServiceImplTest {
 
 	    // Ejecutar el método y verificar la excepción
 	    assertThrows(PostInvalidDataException.class, () -> postService.updatePost("1", updatedPost));
-	    verify(postRepo, times(1)).findById("1");
+	    verify(postRepo, never()).updateFields(anyString(), anyMap()); // No debe modificar la base de datos
 	}
 	
 	//	Testing: Ok
 	@Test
-	void setPostVisibility_Successful() throws PostNotFoundException {
-	    // Datos de prueba
-	    Post existingPost = new Post();
-	    existingPost.setId("1");
-	    existingPost.setTitle("Teoría de la Relatividad");
-	    existingPost.setVisible(true);
+	void updatePost_TitleAlreadyExists() {
+	    // Datos del post a actualizar con el título de otro post
+	    Post updatedPost = new Post();
+	    updatedPost.setTitle("Mecánica Cuántica");
+	    updatedPost.setSummary("Introducción a la mecánica cuántica.");
+
+	    // Simulación: el índice único rechaza el título
+	    when(postRepo.updateFields(eq("1"), anyMap())).thenThrow(new DuplicateKeyException("E11000 duplicate key"));
+
+	    // Ejecutar el método y verificar la excepción
+	    assertThrows(PostAlreadyExistsException.class, () -> postService.updatePost("1", updatedPost));
+	    verify(eventPublisher, never()).publishEvent(any());
+	}
+	
+	//	Testing: Ok
+	@Test
+	void patchPost_OnlyPatchedFields() {
+	    // Parche que cambia el título y elimina las etiquetas
+	    Map<String, Object> patch = new HashMap<>();
+	    patch.put("title", "Relatividad General");
+	    patch.put("tags", null);
 
-	    // Simulación del repositorio: se encuentra el post
-	    when(postRepo.findById("1")).thenReturn(Optional.of(existingPost));
+	    Post patched = new Post();
+	    patched.setId("1");
+	    patched.setTitle("Relatividad General");
+	    when(postRepo.updateFields(eq("1"), anyMap())).thenReturn(Optional.of(patched));
+
+	    // Ejecutar el método
+	    Post result = postService.patchPost("1", patch);
+
+	    // Verificaciones: solo los campos del parche y la clave del título
+	    assertEquals("Relatividad General", result.getTitle());
+	    ArgumentCaptor<Map<String, Object>> changes = ArgumentCaptor.forClass(Map.class);
+	    verify(postRepo, times(1)).updateFields(eq("1"), changes.capture());
+	    assertEquals(Set.of("title", "titleKey", "tags"), changes.getValue().keySet());
+	    assertNull(changes.getValue().get("tags"));
+	    verify(eventPublisher, times(1)).publishEvent(new PostChangedEvent(patched));
+	}
+	
+	//	Testing: Ok
+	@Test
+	void patchPost_InvalidPatch() {
+	    // Campos obligatorios vacíos, tipos incorrectos y campos no editables
+	    Map<String, Object> nullTitle = new HashMap<>();
+	    nullTitle.put("title", null);
+
+	    assertThrows(PostInvalidDataException.class, () -> postService.patchPost("1", nullTitle));
+	    assertThrows(PostInvalidDataException.class, () -> postService.patchPost("1", Map.of("visible", "no")));
+	    assertThrows(PostInvalidDataException.class, () -> postService.patchPost("1", Map.of("tags", List.of(1, 2))));
+	    assertThrows(PostInvalidDataException.class, () -> postService.patchPost("1", Map.of("createdAt", "2020-01-01")));
+	    verify(postRepo, never()).updateFields(anyString(), anyMap());
+	}
+	
+	//	Testing: Ok
+	@Test
+	void setPostVisibility_Successful() throws PostNotFoundException {
+	    // Simulación del repositorio: la modificación atómica devuelve el post oculto
+	    Post hiddenPost = new Post();
+	    hiddenPost.setId("1");
+	    hiddenPost.setTitle("Teoría de la Relatividad");
+	    hiddenPost.setVisible(false);
+	    when(postRepo.updateFields("1", Map.of("visible", false))).thenReturn(Optional.of(hiddenPost));
 
 	    // Ejecutar el método para cambiar la visibilidad
 	    postService.setPostVisibility("1", false);
 
-	    // Verificación de los resultados
-	    assertFalse(existingPost.isVisible());
-	    verify(postRepo, times(1)).findById("1");
-	    verify(postRepo, times(1)).save(existingPost);
+	    // Verificación de los resultados: solo se modifica la visibilidad
+	    verify(postRepo, times(1)).updateFields("1", Map.of("visible", false));
+	    verify(postRepo, never()).findById(anyString());
+	    verify(eventPublisher, times(1)).publishEvent(new PostChangedEvent(hiddenPost));
 	}
 	
 	//	Testing: Ok
 	@Test
 	void setPostVisibility_PostNotFound() {
 	    // Simulación del repositorio: el post no se encuentra
-	    when(postRepo.findById("2")).thenReturn(Optional.empty());
+	    when(postRepo.updateFields("2", Map.of("visible", true))).thenReturn(Optional.empty());
 
 	    // Ejecutar el método y verificar la excepción
 	    assertThrows(PostNotFoundException.class, () -> postService.setPostVisibility("2", true));
-	    verify(postRepo, times(1)).findById("2");
+	    verify(postRepo, times(1)).updateFields("2", Map.of("visible", true));
+	}
+	
+	//	Testing: Ok
+	@Test
+	void getRecentPostsPage_HasNextPage() {
+	    // Datos de prueba: el repositorio devuelve un post más que el tamaño de página
+	    Post first = new Post();
+	    first.setId("65f1c0000000000000000002");
+	    first.setCreatedAt(LocalDateTime.of(2025, 2, 15, 10, 0, 0, 0));
+	    Post second = new Post();
+	    second.setId("65f1c0000000000000000001");
+	    second.setCreatedAt(LocalDateTime.of(2025, 2, 14, 10, 0, 0, 0));
+
+	    when(postRepo.findPageByCreatedAtBetween(any(), any(), isNull(), eq(2))).thenReturn(List.of(first, second));
+
+	    // Ejecutar el método
+	    PostPage page = postService.getRecentPosts(null, null, 1);
+
+	    // Verificación de los resultados: el cursor apunta al último post entregado
+	    assertEquals(1, page.getPosts().size());
+	    assertNotNull(page.getNextCursor());
+	    PostCursor cursor = PostCursor.decode(page.getNextCursor());
+	    assertEquals(first.getId(), cursor.getId());
+	    assertEquals(first.getCreatedAt(), cursor.getCreatedAt());
+	}
+	
+	//	Testing: Ok
+	@Test
+	void searchPostsByTagsPage_ContinuesFromCursor() {
+	    // Datos de prueba
+	    PostCursor after = new PostCursor(LocalDateTime.of(2025, 2, 15, 10, 0, 0, 0), "65f1c0000000000000000002");
+	    Post post = new Post();
+	    post.setTitle("Teoría de la Relatividad");
+
+	    when(postRepo.findPageByTagsIn(List.of("ciencia"), after, PostPage.DEFAULT_SIZE + 1)).thenReturn(List.of(post));
+
+	    // Ejecutar el método
+	    PostPage page = postService.searchPostsByTags(List.of("ciencia"), after.encode(), null);
+
+	    // Verificación de los resultados: última página, sin cursor siguiente
+	    assertEquals(1, page.getPosts().size());
+	    assertNull(page.getNextCursor());
+	}
+	
+	//	Testing: Ok
+	@Test
+	void searchPostByKeywordPage_SizeIsBounded() {
+	    when(postRepo.findPageByKeyword(anyString(), anyList(), anyList(), isNull(), anyInt())).thenReturn(Collections.emptyList());
+
+	    postService.searchPostByKeyword("relatividad", null, 10_000);
+
+	    verify(postRepo, times(1)).findPageByKeyword(anyString(), anyList(), anyList(), isNull(), eq(PostPage.MAX_SIZE + 1));
+	}
+	
+	//	Testing: Ok
+	@Test
+	void searchPostByKeywordPage_InvalidCursor() {
+	    assertThrows(PostInvalidDataException.class, () -> postService.searchPostByKeyword("relatividad", "no-es-un-cursor", null));
+	    verify(postRepo, never()).findPageByKeyword(anyString(), anyList(), anyList(), any(), anyInt());
+	}
+	
+	//	Testing: Ok
+	@Test
+	void streamPostsByTags_EmptyTagsList() {
+	    // Con una lista vacía no se abre ningún cursor
+	    assertEquals(0, postService.streamPostsByTags(Collections.emptyList()).count());
+	    verify(postRepo, never()).streamByVisibleTrueAndTagsInOrderByCreatedAtDesc(anyList());
+	}
+	
+	//	Testing: Ok
+	@Test
+	void searchPostByKeyword_EscapesRegexMetacharacters() {
+	    when(postRepo.findByKeyword(anyString(), anyList(), anyList())).thenReturn(Collections.emptyList());
+
+	    postService.searchPostByKeyword("c++");
+
+	    // Los metacaracteres se buscan de forma literal
+	    String expected = ".*\\Qc++\\E.*";
+	    verify(postRepo, times(1)).findByKeyword(expected, List.of("c++"), PostServiceImpl.keywordTerms("c++"));
+	}
+	
+	//	Testing: Ok
+	@Test
+	void searchPostsByText_ReturnsScoredResults() {
+	    Post post = new Post();
+	    post.setTitle("Teoría de la Relatividad");
+	    when(postRepo.findByTextSearch("\"relatividad general\" -especial", PostPage.DEFAULT_SIZE))
+	            .thenReturn(List.of(new ScoredPost(post, 1.5)));
+
+	    List<ScoredPost> result = postService.searchPostsByText("  \"relatividad general\" -especial ", null);
+
+	    assertEquals(1, result.size());
+	    assertEquals(1.5, result.get(0).getScore());
+	}
+	
+	//	Testing: Ok
+	@Test
+	void searchPostsByText_BlankQuery() {
+	    assertThrows(PostInvalidDataException.class, () -> postService.searchPostsByText(" ", null));
+	    verify(postRepo, never()).findByTextSearch(anyString(), anyInt());
+	}
+	
+	//	Testing: Ok
+	@Test
+	void searchPostByKeyword_ServedFromIndexWhenEnabled() {
+	    Post post = new Post();
+	    post.setTitle("Teoría de la Relatividad");
+	    when(searchIndex.isEnabled()).thenReturn(true);
+	    when(searchIndex.search("relatividad", 0)).thenReturn(List.of(new ScoredPost(post, 1.0)));
+
+	    List<Post> result = postService.searchPostByKeyword("relatividad");
+
+	    assertEquals(List.of(post), result);
+	    verify(postRepo, never()).findByKeyword(anyString(), anyList(), anyList());
+	}
+	
+	//	Testing: Ok
+	@Test
+	void setPostVisibility_PublishesChange() {
+	    Post existingPost = new Post();
+	    existingPost.setId("1");
+	    when(postRepo.updateFields("1", Map.of("visible", false))).thenReturn(Optional.of(existingPost));
+
+	    postService.setPostVisibility("1", false);
+
+	    verify(eventPublisher, times(1)).publishEvent(new PostChangedEvent(existingPost));
 	}
 	
+	//	Testing: Ok
+	@Test
+	void getPostById_ServedFromCacheAfterFirstRead() {
+	    Post post = new Post();
+	    post.setId("123");
+	    when(postRepo.findById("123")).thenReturn(Optional.of(post));
+
+	    postService.getPostById("123");
+	    Post result = postService.getPostById("123");
+
+	    assertEquals(post, result);
+	    verify(postRepo, times(1)).findById("123");
+	}
+	
+	//	Testing: Ok
+	@Test
+	void getPostById_NotFoundIsNotCached() {
+	    when(postRepo.findById("999")).thenReturn(Optional.empty());
+
+	    assertThrows(PostNotFoundException.class, () -> postService.getPostById("999"));
+	    assertThrows(PostNotFoundException.class, () -> postService.getPostById("999"));
+
+	    verify(postRepo, times(2)).findById("999");
+	}
+	
+	//	Testing: Ok
+	@Test
+	void searchPostsByTagQuery_UsesBitmapIndexWhenEnabled() {
+	    TagQuery query = new TagQuery(List.of("ciencia"), null, List.of("física"));
+	    when(tagIndex.isEnabled()).thenReturn(true);
+	    when(tagIndex.findPage(query, null, PostPage.DEFAULT_SIZE + 1)).thenReturn(Collections.emptyList());
+	    when(tagIndex.count(query)).thenReturn(0L);
+
+	    assertTrue(postService.searchPostsByTags(query, null, null).isEmpty());
+	    assertEquals(0, postService.countPostsByTags(query));
+	    verify(postRepo, never()).findPageByTagQuery(any(), any(), anyInt());
+	    verify(postRepo, never()).countByTagQuery(any());
+	}
+	
+	//	Testing: Ok
+	@Test
+	void searchPostsByTagQuery_FallsBackToMongo() {
+	    TagQuery query = new TagQuery(null, List.of("ciencia"), null);
+	    when(postRepo.countByTagQuery(query)).thenReturn(7L);
+
+	    assertEquals(7, postService.countPostsByTags(query));
+	}
+	
+	//	Testing: Ok
+	@Test
+	void getPostVersion_FromCacheWithoutQuery() {
+	    Post post = new Post();
+	    post.setId("1");
+	    post.setVersion(2L);
+	    when(postRepo.findById("1")).thenReturn(Optional.of(post));
+	    postService.getPostById("1");
+
+	    PostVersion version = postService.getPostVersion("1");
+
+	    assertEquals("1-2", version.getETag());
+	    verify(postRepo, never()).findVersionById(anyString());
+	}
+	
+	//	Testing: Ok
+	@Test
+	void getPostVersion_ProjectionWhenNotCached() {
+	    when(postRepo.findVersionById("1")).thenReturn(Optional.of(new PostVersion("1", 5L, null)));
+
+	    PostVersion version = postService.getPostVersion("1");
+
+	    assertEquals("1-5", version.getETag());
+	    assertEquals(-1, version.getLastModified());
+	    verify(postRepo, never()).findById(anyString());
+	}
+	
+	//	Testing: Ok
+	@Test
+	void getPostVersion_PostNotFound() {
+	    when(postRepo.findVersionById("2")).thenReturn(Optional.empty());
+
+	    assertThrows(PostNotFoundException.class, () -> postService.getPostVersion("2"));
+	}
+	
+	//	Testing: Ok
+	@Test
+	void getArchive_UsesInMemoryArchiveWhenEnabled() {
+	    ArchiveQuery query = ArchiveQuery.of("year", null, null, "UTC");
+	    List<ArchiveBucket> buckets = List.of(new ArchiveBucket("2025", 3));
+	    when(archive.isEnabled()).thenReturn(true);
+	    when(archive.count(query)).thenReturn(buckets);
+
+	    assertEquals(buckets, postService.getArchive(query));
+	    verify(postRepo, never()).countArchive(any());
+	}
+	
+	//	Testing: Ok
+	@Test
+	void getArchive_FallsBackToMongo() {
+	    ArchiveQuery query = ArchiveQuery.of(null, null, null, null);
+	    List<ArchiveBucket> buckets = List.of(new ArchiveBucket("2025-02", 1));
+	    when(postRepo.countArchive(query)).thenReturn(buckets);
+
+	    assertEquals(buckets, postService.getArchive(query));
+	}
+	
+	//	Testing: Ok
+	@Test
+	void getTagFacets_UsesCountersOnlyWithoutFilter() {
+	    List<TagFacet> facets = List.of(new TagFacet("ciencia", 2));
+	    when(tagFacets.isEnabled()).thenReturn(true);
+	    when(tagFacets.count()).thenReturn(facets);
+	    when(postRepo.countTagsByKeyword(anyString(), anyList(), anyList())).thenReturn(List.of());
+
+	    assertEquals(facets, postService.getTagFacets(null, null));
+	    assertTrue(postService.getTagFacets("Relatividad", null).isEmpty());
+	    verify(postRepo, never()).countTags();
+	    verify(postRepo, times(1)).countTagsByKeyword(PostServiceImpl.keywordRegex("Relatividad"),
+	            List.of("relatividad"), List.of("relatividad"));
+	}
+	
+	//	Testing: Ok
+	@Test
+	void getTagFacets_KeywordAndDateTogether() {
+	    assertThrows(PostInvalidDataException.class,
+	            () -> postService.getTagFacets("relatividad", LocalDateTime.of(2025, 2, 15, 0, 0)));
+	}
+	
+	//	Testing: Ok
+	@Test
+	void getPostById_VisibleFromCatalogWithoutQuery() {
+	    Post post = new Post();
+	    post.setId("1");
+	    post.setVersion(3L);
+	    when(catalog.isEnabled()).thenReturn(true);
+	    when(catalog.findById("1")).thenReturn(Optional.of(post));
+
+	    assertEquals(post, postService.getPostById("1"));
+	    assertEquals("1-3", postService.getPostVersion("1").getETag());
+	    verify(postRepo, never()).findById(anyString());
+	    verify(postRepo, never()).findVersionById(anyString());
+	}
+	
+	//	Testing: Ok
+	@Test
+	void getPostById_HiddenFallsBackToRepository() {
+	    Post hidden = new Post();
+	    hidden.setId("2");
+	    hidden.setVisible(false);
+	    when(catalog.isEnabled()).thenReturn(true);
+	    when(catalog.findById("2")).thenReturn(Optional.empty());
+	    when(postRepo.findById("2")).thenReturn(Optional.of(hidden));
+
+	    assertEquals(hidden, postService.getPostById("2"));
+	}
+	
+	//	Testing: Ok
+	@Test
+	void searchPostsByTags_ServedFromCatalog() {
+	    Post post = new Post();
+	    post.setId("1");
+	    post.setCreatedAt(LocalDateTime.of(2025, 2, 15, 10, 0));
+	    when(catalog.isEnabled()).thenReturn(true);
+	    when(catalog.findPageByTagsIn(List.of("ciencia"), null, PostPage.DEFAULT_SIZE + 1)).thenReturn(List.of(post));
+	    when(catalog.findPageByCreatedAtBetween(any(), any(), isNull(), eq(PostPage.DEFAULT_SIZE + 1)))
+	            .thenReturn(List.of(post));
+
+	    assertEquals(List.of(post), postService.searchPostsByTags(List.of("ciencia"), null, null).getPosts());
+	    assertEquals(List.of(post), postService.getRecentPosts(null, null, null).getPosts());
+	    verify(postRepo, never()).findPageByTagsIn(any(), any(), anyInt());
+	    verify(postRepo, never()).findPageByCreatedAtBetween(any(), any(), any(), anyInt());
+	}
+
 }
@@ -0,0 +1,97 @@
+package com.masbytes.miblog.service.impl;
+
+import static com.masbytes.miblog.service.impl.InMemoryMongo.post;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.masbytes.miblog.dto.PostVersion;
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.repo.PostRepo;
+
+/**
+ * Comprueba contra un servidor MongoDB en memoria que las modificaciones de campos son atómicas e
+ * incrementan la versión del post.
+ */
+public class PostServiceImplUpdateTest {
+
+	private InMemoryMongo mongo;
+
+	private PostRepo postRepo;
+
+	private PostServiceImpl postService;
+
+	@BeforeEach
+	void setUp() {
+		mongo = new InMemoryMongo();
+		postRepo = mongo.getPostRepo();
+		postService = mongo.postService();
+	}
+
+	@AfterEach
+	void tearDown() {
+		mongo.close();
+	}
+
+	// Testing: Ok
+	@Test
+	void patchPost_ConcurrentFields_NoLostUpdates() throws Exception {
+		Post created = postService.createPost(post("Teoría de la Relatividad"));
+
+		// Cada hilo modifica un campo distinto del mismo post a la vez
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		List<Future<Post>> results = new ArrayList<>();
+		for (Map<String, Object> patch : List.<Map<String, Object>>of(Map.of("summary", "Nuevo resumen"),
+				Map.of("tags", List.of("ciencia", "física")), Map.of("visible", false))) {
+			results.add(executor.submit(() -> {
+				start.await();
+				return postService.patchPost(created.getId(), patch);
+			}));
+		}
+		start.countDown();
+		for (Future<Post> result : results) {
+			result.get();
+		}
+		executor.shutdown();
+
+		// Verificaciones: se conservan los tres cambios y se actualiza la fecha de modificación
+		Post stored = postRepo.findById(created.getId()).orElseThrow();
+		assertEquals("Nuevo resumen", stored.getSummary());
+		assertEquals(List.of("ciencia", "física"), stored.getTags());
+		assertFalse(stored.isVisible());
+		assertEquals("Teoría de la Relatividad", stored.getTitle());
+		assertTrue(stored.getModifiedAt().isAfter(created.getModifiedAt()));
+	}
+
+	// Testing: Ok
+	@Test
+	void updateFields_IncrementsVersion() {
+		Post created = postService.createPost(post("Teoría de la Relatividad"));
+		assertEquals(0L, created.getVersion());
+
+		postService.setPostVisibility(created.getId(), false);
+		postService.patchPost(created.getId(), Map.of("summary", "Nuevo resumen"));
+
+		// La proyección solo lee la versión y la fecha de modificación
+		PostVersion version = postRepo.findVersionById(created.getId()).orElseThrow();
+		assertEquals(created.getId() + "-2", version.getETag());
+		assertTrue(version.getModifiedAt().isAfter(created.getModifiedAt()));
+		assertEquals(version.getModifiedAt(), postRepo
+				.findLastModifiedByCreatedAtBetween(created.getCreatedAt().minusDays(1), created.getCreatedAt().plusDays(1))
+				.orElseThrow());
+	}
+
+}
@@ -0,0 +1,70 @@
+package com.masbytes.miblog.service.impl;
+
+import static com.masbytes.miblog.service.impl.InMemoryMongo.post;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.masbytes.miblog.entity.Post;
+
+/**
+ * Comprueba contra un servidor MongoDB en memoria que los listados públicos no devuelven los posts
+ * ocultos.
+ */
+public class PostServiceImplVisibilityTest {
+
+	private InMemoryMongo mongo;
+
+	private PostServiceImpl postService;
+
+	@BeforeEach
+	void setUp() {
+		mongo = new InMemoryMongo();
+		postService = mongo.postService();
+	}
+
+	@AfterEach
+	void tearDown() {
+		mongo.close();
+	}
+
+	// Testing: Ok
+	@Test
+	void publicLists_ExcludeHiddenPosts() {
+		Post visible = post("Teoría de la Relatividad");
+		visible.setTags(List.of("ciencia"));
+		Post created = postService.createPost(visible);
+		Post hidden = post("Relatividad General");
+		hidden.setTags(List.of("ciencia"));
+		postService.setPostVisibility(postService.createPost(hidden).getId(), false);
+
+		// Las búsquedas, las etiquetas y los recientes, en lista, por páginas y en streaming ("de"
+		// aparece en el resumen de los dos posts)
+		List<String> expected = List.of(created.getId());
+		assertEquals(expected, ids(postService.searchPostByKeyword("de")));
+		assertEquals(expected, ids(postService.searchPostByKeyword("de", null, null).getPosts()));
+		assertEquals(expected, ids(postService.searchPostsByTags(List.of("ciencia"))));
+		assertEquals(expected, ids(postService.searchPostsByTags(List.of("ciencia"), null, null).getPosts()));
+		assertEquals(expected, ids(postService.getRecentPosts(null)));
+		assertEquals(expected, ids(postService.getRecentPosts(null, null, null).getPosts()));
+		try (Stream<Post> posts = postService.streamPostsByKeyword("de")) {
+			assertEquals(expected, ids(posts.toList()));
+		}
+		try (Stream<Post> posts = postService.streamPostsByTags(List.of("ciencia"))) {
+			assertEquals(expected, ids(posts.toList()));
+		}
+		try (Stream<Post> posts = postService.streamRecentPosts(null)) {
+			assertEquals(expected, ids(posts.toList()));
+		}
+	}
+
+	private static List<String> ids(List<Post> posts) {
+		return posts.stream().map(Post::getId).toList();
+	}
+
+}
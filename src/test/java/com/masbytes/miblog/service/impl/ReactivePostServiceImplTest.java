@@ -0,0 +1,192 @@
+package com.masbytes.miblog.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+
+import com.masbytes.miblog.dto.PostCursor;
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.event.PostChangedEvent;
+import com.masbytes.miblog.exception.PostAlreadyExistsException;
+import com.masbytes.miblog.exception.PostInvalidDataException;
+import com.masbytes.miblog.exception.PostNotFoundException;
+import com.masbytes.miblog.repo.ReactivePostRepo;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactivePostServiceImplTest {
+
+	@Mock
+	private ReactivePostRepo postRepo;
+
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
+	@InjectMocks
+	private ReactivePostServiceImpl postService;
+
+	// Testing: Ok
+	@Test
+	void createPost_Successful() {
+		Post post = post(null, "Teoría de la Relatividad");
+		when(postRepo.insert(any(Post.class))).thenAnswer(invocation -> {
+			Post saved = invocation.getArgument(0);
+			saved.setId("1");
+			return Mono.just(saved);
+		});
+
+		// Verificaciones: se guarda con la clave del título y las fechas, y se notifica el cambio
+		StepVerifier.create(postService.createPost(post))
+				.assertNext(saved -> {
+					assertEquals("1", saved.getId());
+					assertEquals("teoria de la relatividad", saved.getTitleKey());
+					assertNotNull(saved.getCreatedAt());
+				})
+				.verifyComplete();
+		verify(eventPublisher).publishEvent(any(PostChangedEvent.class));
+	}
+
+	// Testing: Ok
+	@Test
+	void createPost_NothingHappensUntilSubscribed() {
+		postService.createPost(post(null, "Teoría de la Relatividad"));
+
+		// Sin suscripción no se valida ni se escribe nada
+		verify(postRepo, never()).insert(any(Post.class));
+	}
+
+	// Testing: Ok
+	@Test
+	void createPost_DuplicateTitle() {
+		when(postRepo.insert(any(Post.class))).thenReturn(Mono.error(new DuplicateKeyException("title_key")));
+
+		StepVerifier.create(postService.createPost(post(null, "Teoría de la Relatividad")))
+				.expectError(PostAlreadyExistsException.class)
+				.verify();
+		verify(eventPublisher, never()).publishEvent(any());
+	}
+
+	// Testing: Ok
+	@Test
+	void createPost_InvalidData() {
+		// Un post sin título se rechaza como señal de error, sin llegar a la base de datos
+		StepVerifier.create(postService.createPost(post(null, null)))
+				.expectError(PostInvalidDataException.class)
+				.verify();
+		verify(postRepo, never()).insert(any(Post.class));
+	}
+
+	// Testing: Ok
+	@Test
+	void getPostById_NotFound() {
+		when(postRepo.findById("1")).thenReturn(Mono.empty());
+
+		StepVerifier.create(postService.getPostById("1"))
+				.expectError(PostNotFoundException.class)
+				.verify();
+	}
+
+	// Testing: Ok
+	@Test
+	void searchPostByKeyword_PageWithNextCursor() {
+		LocalDateTime now = LocalDateTime.now();
+		Post first = post("2", "Relatividad general");
+		first.setCreatedAt(now);
+		Post second = post("1", "Relatividad especial");
+		second.setCreatedAt(now.minusDays(1));
+		when(postRepo.findPageByKeyword(eq(".*\\Qrelatividad\\E.*"), eq(List.of("relatividad")),
+				eq(List.of("relatividad")), isNull(), eq(2)))
+				.thenReturn(Flux.just(first, second));
+
+		// Se pide un post de más: la página tiene uno y el cursor apunta al último devuelto
+		StepVerifier.create(postService.searchPostByKeyword("Relatividad", null, 1))
+				.assertNext(page -> {
+					assertEquals(List.of(first), page.getPosts());
+					assertEquals(PostCursor.after(first).encode(), page.getNextCursor());
+				})
+				.verifyComplete();
+	}
+
+	// Testing: Ok
+	@Test
+	void getRecentPosts_InvalidCursor() {
+		StepVerifier.create(postService.getRecentPosts(null, "no-es-un-cursor", null))
+				.expectError(PostInvalidDataException.class)
+				.verify();
+	}
+
+	// Testing: Ok
+	@Test
+	void searchPostsByTags_EmptyTags() {
+		StepVerifier.create(postService.searchPostsByTags(List.of(), null, null))
+				.assertNext(page -> {
+					assertEquals(List.of(), page.getPosts());
+					assertNull(page.getNextCursor());
+				})
+				.verifyComplete();
+	}
+
+	// Testing: Ok
+	@Test
+	void patchPost_NotFound() {
+		when(postRepo.updateFields(eq("1"), anyMap())).thenReturn(Mono.empty());
+
+		StepVerifier.create(postService.patchPost("1", Map.of("summary", "Nuevo resumen")))
+				.expectError(PostNotFoundException.class)
+				.verify();
+		verify(eventPublisher, never()).publishEvent(any());
+	}
+
+	// Testing: Ok
+	@Test
+	void updatePost_DuplicateTitle() {
+		when(postRepo.updateFields(eq("1"), anyMap())).thenReturn(Mono.error(new DuplicateKeyException("title_key")));
+
+		StepVerifier.create(postService.updatePost("1", post(null, "Mecánica Cuántica")))
+				.expectError(PostAlreadyExistsException.class)
+				.verify();
+	}
+
+	// Testing: Ok
+	@Test
+	void setPostVisibility_PublishesChange() {
+		Post hidden = post("1", "Teoría de la Relatividad");
+		hidden.setVisible(false);
+		when(postRepo.updateFields("1", Map.of("visible", false))).thenReturn(Mono.just(hidden));
+
+		StepVerifier.create(postService.setPostVisibility("1", false)).verifyComplete();
+		verify(eventPublisher).publishEvent(any(PostChangedEvent.class));
+	}
+
+	private static Post post(String id, String title) {
+		Post post = new Post();
+		post.setId(id);
+		post.setTitle(title);
+		post.setSummary("Resumen de " + title);
+		post.setPdfUrl("https://misitio.com/post.pdf");
+		return post;
+	}
+
+}
@@ -0,0 +1,163 @@
+package com.masbytes.miblog.service.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.masbytes.miblog.dto.ArchiveBucket;
+import com.masbytes.miblog.dto.ArchiveQuery;
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.event.PostChangedEvent;
+import com.masbytes.miblog.repo.PostRepo;
+
+@ExtendWith(MockitoExtension.class)
+public class PostArchiveTest {
+
+	@Mock
+	private PostRepo postRepo;
+
+	private PostArchive archive;
+
+	@BeforeEach
+	void setUp() {
+		when(postRepo.streamVisibleCreatedAt()).thenReturn(Stream.of(
+				post("1", "2024-12-15T10:00:00Z"),
+				post("2", "2025-01-31T23:30:00Z"),
+				post("3", "2025-02-01T08:00:00Z")));
+		archive = new PostArchive(postRepo, true);
+		archive.rebuild();
+	}
+
+	// Testing: Ok
+	@Test
+	void count_GroupsByUnitFromNewest() {
+		assertEquals(List.of(bucket("2025", 2), bucket("2024", 1)), archive.count(query("year", null, null, "UTC")));
+		assertEquals(List.of(bucket("2025-02", 1), bucket("2025-01", 1), bucket("2024-12", 1)),
+				archive.count(query("month", null, null, "UTC")));
+		assertEquals(List.of(bucket("2025-02-01", 1), bucket("2025-01-31", 1), bucket("2024-12-15", 1)),
+				archive.count(query("day", null, null, "UTC")));
+	}
+
+	// Testing: Ok
+	@Test
+	void count_PeriodsDependOnZone() {
+		// Las 23:30 UTC del 31 de enero ya son 1 de febrero en Tokio
+		assertEquals(List.of(bucket("2025-02", 2), bucket("2024-12", 1)),
+				archive.count(query("month", null, null, "Asia/Tokyo")));
+		assertEquals(List.of(bucket("2025-02-01", 2), bucket("2024-12-15", 1)),
+				archive.count(query("day", null, null, "Asia/Tokyo")));
+	}
+
+	// Testing: Ok
+	@Test
+	void count_RangeIncludesBothDays() {
+		LocalDate day = LocalDate.of(2025, 1, 31);
+
+		assertEquals(List.of(bucket("2025-01-31", 1)), archive.count(query("day", day, day, "UTC")));
+		assertEquals(List.of(bucket("2025", 2)), archive.count(query("year", day, null, "UTC")));
+		assertEquals(List.of(bucket("2024", 1)), archive.count(query("year", null, day.minusDays(1), "UTC")));
+		assertEquals(List.of(), archive.count(query("day", day, day, "Asia/Tokyo")));
+	}
+
+	// Testing: Ok
+	@Test
+	void onPostChanged_AppliesCreationAndVisibility() {
+		// Se construye el recuento de Tokio antes de los cambios para comprobar que también se actualiza
+		archive.count(query("month", null, null, "Asia/Tokyo"));
+
+		archive.onPostChanged(new PostChangedEvent(post("4", "2025-02-10T12:00:00Z")));
+		Post hidden = post("1", "2024-12-15T10:00:00Z");
+		hidden.setVersion(1L);
+		hidden.setVisible(false);
+		archive.onPostChanged(new PostChangedEvent(hidden));
+
+		assertEquals(List.of(bucket("2025-02", 2), bucket("2025-01", 1)), archive.count(query("month", null, null, "UTC")));
+		assertEquals(List.of(bucket("2025-02", 3)), archive.count(query("month", null, null, "Asia/Tokyo")));
+
+		// Volver a mostrarlo lo cuenta de nuevo, y repetir el evento no lo cuenta dos veces
+		Post shown = post("1", "2024-12-15T10:00:00Z");
+		shown.setVersion(2L);
+		archive.onPostChanged(new PostChangedEvent(shown));
+		archive.onPostChanged(new PostChangedEvent(shown));
+		assertEquals(List.of(bucket("2025", 3), bucket("2024", 1)), archive.count(query("year", null, null, "UTC")));
+	}
+
+	// Testing: Ok
+	@Test
+	void onPostChanged_IgnoresOlderRevision() {
+		Post hidden = post("1", "2024-12-15T10:00:00Z");
+		hidden.setVersion(2L);
+		hidden.setVisible(false);
+		Post older = post("1", "2024-12-15T10:00:00Z");
+		older.setVersion(1L);
+
+		// Los eventos de escrituras concurrentes pueden llegar en cualquier orden
+		archive.onPostChanged(new PostChangedEvent(hidden));
+		archive.onPostChanged(new PostChangedEvent(older));
+
+		assertEquals(List.of(bucket("2025", 2)), archive.count(query("year", null, null, "UTC")));
+	}
+
+	// Testing: Ok
+	@Test
+	void isEnabled_OnlyOnceBuilt() {
+		PostArchive pending = new PostArchive(postRepo, true);
+		assertFalse(pending.isEnabled());
+
+		when(postRepo.streamVisibleCreatedAt()).thenReturn(Stream.of(post("1", "2024-12-15T10:00:00Z")));
+		pending.rebuild();
+		assertTrue(pending.isEnabled());
+		assertFalse(new PostArchive(postRepo, false).isEnabled());
+	}
+
+	// Testing: Ok
+	@Test
+	void count_AnyZoneFromTheSameCounts() {
+		// Katmandú va 5:45 por delante de UTC: los cuartos de hora siguen cayendo enteros en un día
+		archive.onPostChanged(new PostChangedEvent(post("4", "2025-03-31T18:14:59Z")));
+		archive.onPostChanged(new PostChangedEvent(post("5", "2025-03-31T18:15:00Z")));
+		assertEquals(List.of(bucket("2025-04-01", 1), bucket("2025-03-31", 1)),
+				archive.count(query("day", LocalDate.of(2025, 3, 1), null, "Asia/Kathmandu")));
+		assertEquals(List.of(bucket("2025-03-31", 1)),
+				archive.count(query("day", null, LocalDate.of(2025, 3, 31), "Asia/Kathmandu")).subList(0, 1));
+		assertEquals(List.of(bucket("2025-03", 2)),
+				archive.count(query("month", LocalDate.of(2025, 3, 1), null, "America/New_York")));
+
+		// Ninguna zona necesita volver a leer los posts
+		verify(postRepo, times(1)).streamVisibleCreatedAt();
+	}
+
+	private static ArchiveQuery query(String unit, LocalDate from, LocalDate to, String zone) {
+		return ArchiveQuery.of(unit, from, to, zone);
+	}
+
+	private static ArchiveBucket bucket(String period, long count) {
+		return new ArchiveBucket(period, count);
+	}
+
+	private static Post post(String id, String createdAt) {
+		Post post = new Post();
+		post.setId(id);
+		post.setTitle("Post " + id);
+		post.setVisible(true);
+		post.setCreatedAt(LocalDateTime.ofInstant(Instant.parse(createdAt), ZoneId.systemDefault()));
+		return post;
+	}
+
+}
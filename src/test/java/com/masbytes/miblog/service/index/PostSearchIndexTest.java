@@ -0,0 +1,170 @@
+package com.masbytes.miblog.service.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.masbytes.miblog.dto.PostCursor;
+import com.masbytes.miblog.dto.ScoredPost;
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.event.PostChangedEvent;
+import com.masbytes.miblog.repo.PostRepo;
+
+@ExtendWith(MockitoExtension.class)
+public class PostSearchIndexTest {
+
+	@Mock
+	private PostRepo postRepo;
+
+	private PostSearchIndex index;
+
+	private Post relatividad;
+	private Post cuantica;
+	private Post cuerdas;
+
+	@BeforeEach
+	void setUp() {
+		relatividad = post("1", "Teoría de la Relatividad", "Einstein y la relatividad especial", 3, "ciencia", "física");
+		cuantica = post("2", "Mecánica Cuántica", "Einstein discutía con Bohr", 2, "ciencia");
+		cuerdas = post("3", "Teoría de cuerdas", "Una teoría que unifica la relatividad y la cuántica", 1, "física");
+
+		when(postRepo.streamByVisibleTrue()).thenReturn(Stream.of(relatividad, cuantica, cuerdas));
+		index = new PostSearchIndex(postRepo, true);
+		index.rebuild();
+	}
+
+	// Testing: Ok
+	@Test
+	void search_FoldsCaseAndAccents() {
+		List<ScoredPost> result = index.search("CUANTICA", 0);
+
+		assertEquals(2, result.size());
+		assertTrue(result.stream().anyMatch(scored -> scored.getPost() == cuantica));
+	}
+
+	// Testing: Ok
+	@Test
+	void search_RanksByBm25() {
+		// "relatividad" aparece en el título y dos veces en el resumen del primer post
+		List<ScoredPost> result = index.search("relatividad", 0);
+
+		assertEquals(2, result.size());
+		assertEquals("1", result.get(0).getPost().getId());
+		assertTrue(result.get(0).getScore() > result.get(1).getScore());
+	}
+
+	// Testing: Ok
+	@Test
+	void search_RequiresAllTerms() {
+		List<ScoredPost> result = index.search("teoría einstein", 0);
+
+		assertEquals(1, result.size());
+		assertEquals("1", result.get(0).getPost().getId());
+	}
+
+	// Testing: Ok
+	@Test
+	void search_MatchesTags() {
+		assertEquals(2, index.search("física", 0).size());
+	}
+
+	// Testing: Ok
+	@Test
+	void search_LastTermMatchesAsPrefix() {
+		assertEquals(2, index.search("relativ", 0).size());
+		assertEquals(List.of("1"), index.search("relatividad espec", 0).stream().map(scored -> scored.getPost().getId()).toList());
+
+		// Los términos anteriores al último deben aparecer completos
+		assertTrue(index.search("relativ especial", 0).isEmpty());
+	}
+
+	// Testing: Ok
+	@Test
+	void search_PrefixOfSeveralTermsKeepsTopResults() {
+		// "c" es el principio de "ciencia", "cuántica", "cuerdas" y "con": cada post aparece una vez
+		List<ScoredPost> all = index.search("c", 0);
+		assertEquals(3, all.size());
+		assertEquals(all.subList(0, 2), index.search("c", 2));
+	}
+
+	// Testing: Ok
+	@Test
+	void isEnabled_OnlyOnceBuilt() {
+		PostSearchIndex pending = new PostSearchIndex(postRepo, true);
+		assertFalse(pending.isEnabled());
+
+		when(postRepo.streamByVisibleTrue()).thenReturn(Stream.of(cuantica));
+		pending.rebuild();
+		assertTrue(pending.isEnabled());
+		assertFalse(new PostSearchIndex(postRepo, false).isEnabled());
+	}
+
+	// Testing: Ok
+	@Test
+	void onPostChanged_UpdatesAndHidesPosts() {
+		Post updated = post("2", "Mecánica Ondulatoria", "Schrödinger", 2, "ciencia");
+		updated.setVersion(1L);
+		index.onPostChanged(new PostChangedEvent(updated));
+
+		assertEquals(1, index.search("cuántica", 0).size());
+		assertEquals(1, index.search("schrodinger", 0).size());
+
+		Post hidden = post("2", "Mecánica Ondulatoria", "Schrödinger", 2, "ciencia");
+		hidden.setVersion(2L);
+		hidden.setVisible(false);
+		index.onPostChanged(new PostChangedEvent(hidden));
+
+		assertTrue(index.search("schrodinger", 0).isEmpty());
+		assertEquals(2, index.size());
+	}
+
+	// Testing: Ok
+	@Test
+	void onPostChanged_IgnoresOlderRevision() {
+		Post hidden = post("2", "Mecánica Ondulatoria", "Schrödinger", 2, "ciencia");
+		hidden.setVersion(2L);
+		hidden.setVisible(false);
+		Post older = post("2", "Mecánica Ondulatoria", "Schrödinger", 2, "ciencia");
+		older.setVersion(1L);
+
+		// Los eventos de escrituras concurrentes pueden llegar en cualquier orden
+		index.onPostChanged(new PostChangedEvent(hidden));
+		index.onPostChanged(new PostChangedEvent(older));
+
+		assertTrue(index.search("schrodinger", 0).isEmpty());
+		assertEquals(2, index.size());
+	}
+
+	// Testing: Ok
+	@Test
+	void findPage_ContinuesAfterCursor() {
+		// Del más reciente al más antiguo, como la paginación en MongoDB
+		List<Post> first = index.findPage("teoría", null, 1);
+		assertEquals(List.of(cuerdas), first);
+
+		List<Post> second = index.findPage("teoría", PostCursor.after(first.get(0)), 10);
+		assertEquals(List.of(relatividad), second);
+	}
+
+	private static Post post(String id, String title, String summary, int daysAgo, String... tags) {
+		Post post = new Post();
+		post.setId(id);
+		post.setTitle(title);
+		post.setSummary(summary);
+		post.setTags(List.of(tags));
+		post.setCreatedAt(LocalDateTime.of(2025, 2, 15, 10, 0).minusDays(daysAgo));
+		return post;
+	}
+
+}
@@ -0,0 +1,138 @@
+package com.masbytes.miblog.service.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.masbytes.miblog.dto.PostCursor;
+import com.masbytes.miblog.dto.TagQuery;
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.event.PostChangedEvent;
+import com.masbytes.miblog.repo.PostRepo;
+
+@ExtendWith(MockitoExtension.class)
+public class TagBitmapIndexTest {
+
+	@Mock
+	private PostRepo postRepo;
+
+	private TagBitmapIndex index;
+
+	private Post fisica;
+	private Post quimica;
+	private Post historia;
+
+	@BeforeEach
+	void setUp() {
+		fisica = post("1", 3, "ciencia", "física");
+		quimica = post("2", 2, "ciencia", "química");
+		historia = post("3", 1, "historia", "física");
+
+		when(postRepo.streamByVisibleTrue()).thenReturn(Stream.of(fisica, quimica, historia));
+		index = new TagBitmapIndex(postRepo, true);
+		index.rebuild();
+	}
+
+	// Testing: Ok
+	@Test
+	void findPage_CombinesAllAnyAndNone() {
+		assertEquals(List.of(fisica), index.findPage(query(List.of("ciencia", "física"), null, null), null, 10));
+		assertEquals(List.of(historia, quimica),
+				index.findPage(query(null, List.of("química", "historia"), null), null, 10));
+		assertEquals(List.of(quimica), index.findPage(query(List.of("ciencia"), null, List.of("física")), null, 10));
+		assertEquals(List.of(quimica), index.findPage(query(null, null, List.of("física")), null, 10));
+	}
+
+	// Testing: Ok
+	@Test
+	void count_DoesNotMaterializePosts() {
+		assertEquals(2, index.count(query(null, List.of("física"), null)));
+		assertEquals(0, index.count(query(List.of("ciencia", "historia"), null, null)));
+		assertEquals(0, index.count(query(List.of("inexistente"), null, null)));
+	}
+
+	// Testing: Ok
+	@Test
+	void findPage_IsOrderedAndContinuesAfterCursor() {
+		TagQuery tagged = query(null, List.of("física"), null);
+
+		List<Post> first = index.findPage(tagged, null, 1);
+		assertEquals(List.of(historia), first);
+		assertEquals(List.of(fisica), index.findPage(tagged, PostCursor.after(first.get(0)), 10));
+	}
+
+	// Testing: Ok
+	@Test
+	void onPostChanged_AppliesTagDiffsAndVisibility() {
+		Post retagged = post("2", 2, "ciencia", "física");
+		retagged.setVersion(1L);
+		index.onPostChanged(new PostChangedEvent(retagged));
+
+		assertEquals(0, index.count(query(List.of("química"), null, null)));
+		assertEquals(3, index.count(query(List.of("física"), null, null)));
+
+		Post hidden = post("2", 2, "ciencia", "física");
+		hidden.setVersion(2L);
+		hidden.setVisible(false);
+		index.onPostChanged(new PostChangedEvent(hidden));
+		assertEquals(2, index.count(query(List.of("física"), null, null)));
+
+		// El ordinal liberado se reutiliza para el siguiente post
+		index.onPostChanged(new PostChangedEvent(post("4", 0, "química")));
+		assertEquals(1, index.count(query(List.of("química"), null, null)));
+		assertEquals(3, index.count(query(null, null, List.of("inexistente"))));
+	}
+
+	// Testing: Ok
+	@Test
+	void onPostChanged_IgnoresOlderRevision() {
+		Post hidden = post("2", 2, "ciencia", "química");
+		hidden.setVersion(2L);
+		hidden.setVisible(false);
+		Post older = post("2", 2, "ciencia", "química");
+		older.setVersion(1L);
+
+		// Los eventos de escrituras concurrentes pueden llegar en cualquier orden
+		index.onPostChanged(new PostChangedEvent(hidden));
+		index.onPostChanged(new PostChangedEvent(older));
+
+		assertEquals(0, index.count(query(List.of("química"), null, null)));
+		assertEquals(2, index.count(query(null, null, null)));
+	}
+
+	// Testing: Ok
+	@Test
+	void isEnabled_OnlyOnceBuilt() {
+		TagBitmapIndex pending = new TagBitmapIndex(postRepo, true);
+		assertFalse(pending.isEnabled());
+
+		when(postRepo.streamByVisibleTrue()).thenReturn(Stream.of(fisica));
+		pending.rebuild();
+		assertTrue(pending.isEnabled());
+		assertFalse(new TagBitmapIndex(postRepo, false).isEnabled());
+	}
+
+	private static TagQuery query(List<String> all, List<String> any, List<String> none) {
+		return new TagQuery(all, any, none);
+	}
+
+	private static Post post(String id, int daysAgo, String... tags) {
+		Post post = new Post();
+		post.setId(id);
+		post.setTags(List.of(tags));
+		post.setCreatedAt(LocalDateTime.of(2025, 2, 15, 10, 0).minusDays(daysAgo));
+		return post;
+	}
+
+}
@@ -0,0 +1,101 @@
+package com.masbytes.miblog.service.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.masbytes.miblog.dto.TagFacet;
+import com.masbytes.miblog.entity.Post;
+import com.masbytes.miblog.event.PostChangedEvent;
+import com.masbytes.miblog.repo.PostRepo;
+
+@ExtendWith(MockitoExtension.class)
+public class TagFacetsTest {
+
+	@Mock
+	private PostRepo postRepo;
+
+	private TagFacets facets;
+
+	@BeforeEach
+	void setUp() {
+		when(postRepo.streamVisibleTags()).thenReturn(Stream.of(
+				post("1", true, "ciencia", "física"),
+				post("2", true, "ciencia", "química", "ciencia"),
+				post("3", true, "historia")));
+		facets = new TagFacets(postRepo, true);
+		facets.rebuild();
+	}
+
+	// Testing: Ok
+	@Test
+	void count_OrderedByCountThenTag() {
+		// Una etiqueta repetida en el mismo post cuenta una sola vez
+		assertEquals(List.of(facet("ciencia", 2), facet("física", 1), facet("historia", 1), facet("química", 1)),
+				facets.count());
+	}
+
+	// Testing: Ok
+	@Test
+	void onPostChanged_AppliesTagDiffs() {
+		facets.onPostChanged(new PostChangedEvent(version(post("2", true, "física", "química"), 1)));
+		facets.onPostChanged(new PostChangedEvent(post("4", true, "física")));
+
+		assertEquals(List.of(facet("física", 3), facet("ciencia", 1), facet("historia", 1), facet("química", 1)),
+				facets.count());
+	}
+
+	// Testing: Ok
+	@Test
+	void onPostChanged_AppliesVisibility() {
+		facets.onPostChanged(new PostChangedEvent(version(post("3", false, "historia"), 1)));
+		facets.onPostChanged(new PostChangedEvent(version(post("1", false, "ciencia", "física"), 1)));
+
+		// Las etiquetas sin posts visibles no se devuelven
+		assertEquals(List.of(facet("ciencia", 1), facet("química", 1)), facets.count());
+
+		// Volver a mostrarlo las cuenta de nuevo, y repetir el evento no las cuenta dos veces
+		facets.onPostChanged(new PostChangedEvent(version(post("3", true, "historia"), 2)));
+		facets.onPostChanged(new PostChangedEvent(version(post("3", true, "historia"), 2)));
+		assertEquals(List.of(facet("ciencia", 1), facet("historia", 1), facet("química", 1)), facets.count());
+	}
+
+	// Testing: Ok
+	@Test
+	void onPostChanged_IgnoresOlderRevision() {
+		// Los eventos de escrituras concurrentes pueden llegar en cualquier orden
+		facets.onPostChanged(new PostChangedEvent(version(post("3", false, "historia"), 2)));
+		facets.onPostChanged(new PostChangedEvent(version(post("3", true, "arte"), 1)));
+		facets.onPostChanged(new PostChangedEvent(version(post("1", true, "física"), 1)));
+		facets.onPostChanged(new PostChangedEvent(post("1", true, "ciencia", "física")));
+
+		assertEquals(List.of(facet("ciencia", 1), facet("física", 1), facet("química", 1)), facets.count());
+	}
+
+	private static TagFacet facet(String tag, long count) {
+		return new TagFacet(tag, count);
+	}
+
+	private static Post version(Post post, long version) {
+		post.setVersion(version);
+		return post;
+	}
+
+	private static Post post(String id, boolean visible, String... tags) {
+		Post post = new Post();
+		post.setId(id);
+		post.setTitle("Post " + id);
+		post.setVisible(visible);
+		post.setTags(List.of(tags));
+		return post;
+	}
+
+}